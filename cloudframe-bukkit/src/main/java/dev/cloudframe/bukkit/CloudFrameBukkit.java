@@ -6,6 +6,8 @@ import java.sql.SQLException;
 import org.bukkit.plugin.java.JavaPlugin;
 import org.bukkit.scheduler.BukkitTask;
 
+import dev.cloudframe.bukkit.quarry.BukkitInventoryCapacityListener;
+import dev.cloudframe.bukkit.quarry.BukkitQuarryDirtyListener;
 import dev.cloudframe.bukkit.quarry.BukkitQuarryPlatform;
 import dev.cloudframe.bukkit.pipes.BukkitItemDeliveryProvider;
 import dev.cloudframe.bukkit.pipes.BukkitItemStackAdapter;
@@ -42,6 +44,7 @@ public class CloudFrameBukkit extends JavaPlugin {
     private QuarryManager quarryManager;
     private BukkitTask quarryTickTask;
     private BukkitQuarryPlatform quarryPlatform;
+    private BukkitQuarryDirtyListener quarryDirtyListener;
 
     @Override
     public void onEnable() {
@@ -103,13 +106,21 @@ public class CloudFrameBukkit extends JavaPlugin {
         }
 
         quarryManager = new QuarryManager(quarryPlatform);
+        quarryManager.setHibernationAuditTicks(20L * Math.max(1, getConfig().getInt("quarry.hibernation_audit_seconds", 300)));
         quarryManager.loadAll();
 
+        // Blocks placed in finished regions wake their (hibernating) quarry.
+        quarryDirtyListener = new BukkitQuarryDirtyListener();
+        getServer().getPluginManager().registerEvents(quarryDirtyListener, this);
+        // Inventories changed by hoppers or players drop their cached output capacity.
+        getServer().getPluginManager().registerEvents(new BukkitInventoryCapacityListener(quarryManager), this);
+
         // Start quarry ticking (every 20 ticks = 1 second for verbose logging)
         quarryTickTask = getServer().getScheduler().runTaskTimer(this, () -> {
             try {
                 boolean shouldLog = getServer().getCurrentTick() % 20 == 0;
                 quarryPlatform.onTickStart(getServer().getCurrentTick());
+                quarryDirtyListener.flush(quarryManager);
                 quarryManager.tickAll(shouldLog);
                 quarryPlatform.onTickEnd();
             } catch (Exception ex) {
@@ -0,0 +1,68 @@
+package dev.cloudframe.bukkit.pipes;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+
+import dev.cloudframe.common.platform.items.ItemIdentityAdapter;
+import dev.cloudframe.common.platform.items.ItemIdentityInterner;
+
+/**
+ * Interned item identities for Bukkit stacks.
+ *
+ * <p>Stacks without item meta share their type's id. Stacks with meta (names, heads, banner
+ * patterns, shulker contents, ...) get one id per {@link ItemStack#isSimilar} class, so only
+ * stacks Bukkit would stack together share an id.</p>
+ */
+public final class BukkitItemIdentityAdapter implements ItemIdentityAdapter<Object> {
+
+    public static final BukkitItemIdentityAdapter INSTANCE = new BukkitItemIdentityAdapter();
+
+    private final Map<Material, Integer> typeIds = new EnumMap<>(Material.class);
+    // Per type: one representative (amount 1) per distinct meta, parallel to metaIds.
+    private final Map<Material, List<ItemStack>> metaStacks = new EnumMap<>(Material.class);
+    private final Map<Material, List<Integer>> metaIds = new EnumMap<>(Material.class);
+
+    private BukkitItemIdentityAdapter() {
+    }
+
+    @Override
+    public synchronized int typeId(Object obj) {
+        if (!(obj instanceof ItemStack stack) || stack.getType().isAir()) return ItemIdentityInterner.NONE;
+        return typeIds.computeIfAbsent(stack.getType(), type -> ItemIdentityInterner.global().intern(typeKey(type)));
+    }
+
+    @Override
+    public synchronized int stackId(Object obj) {
+        int type = typeId(obj);
+        if (type == ItemIdentityInterner.NONE) return type;
+        ItemStack stack = (ItemStack) obj;
+        // Plain stacks (the common case for mined drops) skip the meta comparison entirely.
+        if (!stack.hasItemMeta()) return type;
+
+        List<ItemStack> stacks = metaStacks.computeIfAbsent(stack.getType(), t -> new ArrayList<>());
+        List<Integer> ids = metaIds.computeIfAbsent(stack.getType(), t -> new ArrayList<>());
+        for (int i = 0; i < stacks.size(); i++) {
+            if (stacks.get(i).isSimilar(stack)) return ids.get(i);
+        }
+
+        ItemStack representative = stack.clone();
+        representative.setAmount(1);
+        int id = ItemIdentityInterner.global().intern(typeKey(stack.getType()) + "#meta" + stacks.size());
+        stacks.add(representative);
+        ids.add(id);
+        return id;
+    }
+
+    private static String typeKey(Material type) {
+        try {
+            return type.getKey().toString();
+        } catch (Throwable ignored) {
+            return type.name();
+        }
+    }
+}
@@ -9,6 +9,7 @@ import org.bukkit.inventory.ItemStack;
 import dev.cloudframe.common.pipes.ItemPacket;
 import dev.cloudframe.common.pipes.ItemPacketDeliveryCallback;
 import dev.cloudframe.common.pipes.ItemPacketManager;
+import dev.cloudframe.common.pipes.PacketRoute;
 
 /**
  * Helper to create and enqueue item packets with Bukkit visuals/adapters.
@@ -26,7 +27,10 @@ public class BukkitPacketService {
     }
 
     public void enqueue(ItemStack item, List<Location> waypoints, Location destinationInventory, ItemPacketDeliveryCallback onDelivery) {
-        if (item == null || waypoints == null || waypoints.size() < 2) return;
+        if (item == null || waypoints == null || waypoints.size() < 2) {
+            notDelivered(item, destinationInventory, onDelivery);
+            return;
+        }
 
         List<Object> points = new ArrayList<>(waypoints.size());
         points.addAll(waypoints);
@@ -35,7 +39,23 @@ public class BukkitPacketService {
         packetManager.add(packet);
     }
 
+    /** Enqueue along a shared route without copying its points. */
+    public void enqueue(ItemStack item, PacketRoute route, Location destinationInventory, ItemPacketDeliveryCallback onDelivery) {
+        if (item == null || route == null) {
+            notDelivered(item, destinationInventory, onDelivery);
+            return;
+        }
+
+        ItemPacket packet = new ItemPacket(item, route, destinationInventory, onDelivery, visuals, itemAdapter);
+        packetManager.add(packet);
+    }
+
     public void enqueue(ItemStack item, List<Location> waypoints, Location destinationInventory) {
         enqueue(item, waypoints, destinationInventory, null);
     }
+
+    // Packets that are never created still report back, so callers can release reservations.
+    private static void notDelivered(ItemStack item, Location destinationInventory, ItemPacketDeliveryCallback onDelivery) {
+        if (onDelivery != null) onDelivery.delivered(destinationInventory, item, 0);
+    }
 }
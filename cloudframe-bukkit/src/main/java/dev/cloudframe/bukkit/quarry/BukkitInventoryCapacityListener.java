@@ -0,0 +1,67 @@
+package dev.cloudframe.bukkit.quarry;
+
+import org.bukkit.Location;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.event.inventory.InventoryDragEvent;
+import org.bukkit.event.inventory.InventoryMoveItemEvent;
+import org.bukkit.event.inventory.InventoryPickupItemEvent;
+import org.bukkit.inventory.DoubleChestInventory;
+import org.bukkit.inventory.Inventory;
+
+import dev.cloudframe.common.quarry.QuarryManager;
+
+/**
+ * Drops the quarry output capacity snapshot of a block inventory whenever something else
+ * changes its contents (hoppers, players), so routing never trusts a stale snapshot within a
+ * tick. Bukkit has no hook on the inventory's own markDirty, so the inventory events stand in.
+ */
+public final class BukkitInventoryCapacityListener implements Listener {
+
+    private final QuarryManager quarryManager;
+
+    public BukkitInventoryCapacityListener(QuarryManager quarryManager) {
+        this.quarryManager = quarryManager;
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onMoveItem(InventoryMoveItemEvent event) {
+        invalidate(event.getSource());
+        invalidate(event.getDestination());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPickupItem(InventoryPickupItemEvent event) {
+        invalidate(event.getInventory());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onClick(InventoryClickEvent event) {
+        // Shift-clicks move items into the other view, so invalidate both sides.
+        invalidate(event.getView().getTopInventory());
+        invalidate(event.getView().getBottomInventory());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onDrag(InventoryDragEvent event) {
+        invalidate(event.getView().getTopInventory());
+    }
+
+    private void invalidate(Inventory inventory) {
+        if (inventory == null) return;
+        if (inventory instanceof DoubleChestInventory chest) {
+            invalidate(chest.getLeftSide().getLocation());
+            invalidate(chest.getRightSide().getLocation());
+            return;
+        }
+        invalidate(inventory.getLocation());
+    }
+
+    private void invalidate(Location loc) {
+        if (loc == null || loc.getWorld() == null) return;
+        quarryManager.reservations().capacity()
+            .invalidate(loc.getWorld(), loc.getBlockX(), loc.getBlockY(), loc.getBlockZ());
+    }
+}
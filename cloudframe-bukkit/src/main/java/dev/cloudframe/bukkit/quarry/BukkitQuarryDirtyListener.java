@@ -0,0 +1,103 @@
+package dev.cloudframe.bukkit.quarry;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.block.BlockFace;
+import org.bukkit.block.BlockState;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.block.BlockFormEvent;
+import org.bukkit.event.block.BlockFromToEvent;
+import org.bukkit.event.block.BlockMultiPlaceEvent;
+import org.bukkit.event.block.BlockPistonExtendEvent;
+import org.bukkit.event.block.BlockPistonRetractEvent;
+import org.bukkit.event.block.BlockPlaceEvent;
+import org.bukkit.event.entity.EntityChangeBlockEvent;
+
+import dev.cloudframe.common.quarry.QuarryManager;
+
+/**
+ * Marks blocks placed inside quarry regions dirty, so finished (hibernating) quarries wake up
+ * and mine them instead of waiting for the periodic audit.
+ *
+ * <p>Covers player placements, fluid flow, blocks formed by fluids, pistons and falling blocks.
+ * Several of these events fire before the world changes, so positions are queued and handed to
+ * the {@link QuarryManager} on the next quarry tick, once the new block is in place.</p>
+ */
+public final class BukkitQuarryDirtyListener implements Listener {
+
+    private static final int MAX_PENDING = 4096;
+
+    private record Pending(World world, int x, int y, int z) {}
+
+    private final Queue<Pending> pending = new ArrayDeque<>();
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockPlace(BlockPlaceEvent event) {
+        if (event instanceof BlockMultiPlaceEvent multi) {
+            for (BlockState state : multi.getReplacedBlockStates()) {
+                add(state.getBlock());
+            }
+            return;
+        }
+        add(event.getBlockPlaced());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onFluidFlow(BlockFromToEvent event) {
+        add(event.getToBlock());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockForm(BlockFormEvent event) {
+        add(event.getBlock());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPistonExtend(BlockPistonExtendEvent event) {
+        BlockFace direction = event.getDirection();
+        for (Block moved : event.getBlocks()) {
+            add(moved.getRelative(direction));
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPistonRetract(BlockPistonRetractEvent event) {
+        BlockFace direction = event.getDirection();
+        for (Block moved : event.getBlocks()) {
+            add(moved.getRelative(direction));
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onEntityChangeBlock(EntityChangeBlockEvent event) {
+        // Falling blocks landing, endermen placing blocks, etc.
+        if (event.getTo().isAir()) return;
+        add(event.getBlock());
+    }
+
+    /**
+     * Hand queued positions to the quarries. Call once per tick, before ticking quarries.
+     */
+    public void flush(QuarryManager quarryManager) {
+        if (quarryManager == null) {
+            pending.clear();
+            return;
+        }
+        Pending p;
+        while ((p = pending.poll()) != null) {
+            Block block = p.world().getBlockAt(p.x(), p.y(), p.z());
+            if (block.getType().isAir()) continue;
+            quarryManager.markDirtyBlock(p.world(), p.x(), p.y(), p.z());
+        }
+    }
+
+    private void add(Block block) {
+        if (block == null || pending.size() >= MAX_PENDING) return;
+        pending.add(new Pending(block.getWorld(), block.getX(), block.getY(), block.getZ()));
+    }
+}
@@ -4,6 +4,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.function.ObjDoubleConsumer;
 
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
@@ -19,11 +20,14 @@ import org.bukkit.inventory.InventoryHolder;
 import org.bukkit.inventory.ItemStack;
 
 import dev.cloudframe.common.quarry.QuarryPlatform;
+import dev.cloudframe.bukkit.pipes.BukkitItemIdentityAdapter;
 import dev.cloudframe.bukkit.pipes.BukkitPacketService;
 import dev.cloudframe.common.pipes.ItemPacketManager;
+import dev.cloudframe.common.pipes.PacketRoute;
 import dev.cloudframe.common.pipes.PipeNetworkManager;
 import dev.cloudframe.common.platform.items.InventoryCapacity;
 import dev.cloudframe.common.platform.items.InventoryInsert;
+import dev.cloudframe.common.platform.items.ItemIdentityAdapter;
 import dev.cloudframe.common.platform.items.ItemStackAdapter;
 import dev.cloudframe.common.platform.items.ItemStackKeyAdapter;
 import dev.cloudframe.common.platform.items.SlottedInventoryAdapter;
@@ -168,6 +172,13 @@ public class BukkitQuarryPlatform implements QuarryPlatform {
         return w.isChunkLoaded(l.getBlockX() >> 4, l.getBlockZ() >> 4);
     }
 
+    @Override
+    public long gameTime(Object loc) {
+        if (!(loc instanceof Location l)) return -1L;
+        World w = l.getWorld();
+        return w != null ? w.getFullTime() : -1L;
+    }
+
     @Override
     public boolean isRedstonePowered(Object loc) {
         if (!(loc instanceof Location l)) return false;
@@ -260,6 +271,52 @@ public class BukkitQuarryPlatform implements QuarryPlatform {
         }
     }
 
+    @Override
+    public boolean supportsEffectViewers() {
+        return true;
+    }
+
+    @Override
+    public void forEachEffectViewer(Object loc, double radius, ObjDoubleConsumer<Object> viewer) {
+        if (!(loc instanceof Location l) || viewer == null) return;
+        World world = l.getWorld();
+        if (world == null) return;
+        Location center = l.clone().add(0.5, 0.5, 0.5);
+        double radiusSq = radius * radius;
+        for (Player player : world.getPlayers()) {
+            double distSq = player.getLocation().distanceSquared(center);
+            if (distSq > radiusSq) continue;
+            viewer.accept(player, distSq);
+        }
+    }
+
+    @Override
+    public void sendBlockCrackTo(Object player, Object loc, float progress01) {
+        if (!(player instanceof Player p) || !(loc instanceof Location l)) return;
+        try {
+            p.sendBlockDamage(l, Math.max(0.0f, Math.min(1.0f, progress01)));
+        } catch (Throwable ignored) {}
+    }
+
+    @Override
+    public void playBreakEffectsTo(Object player, Object loc, boolean soundOnly) {
+        if (!(player instanceof Player p) || !(loc instanceof Location l)) return;
+        Block block = l.getBlock();
+        Location center = l.clone().add(0.5, 0.5, 0.5);
+
+        try {
+            Sound sound = block.getBlockData().getSoundGroup().getBreakSound();
+            p.playSound(center, sound, 1.0f, 1.0f);
+        } catch (Throwable ignored) {
+            p.playSound(center, Sound.BLOCK_STONE_BREAK, 1.0f, 1.0f);
+        }
+        if (soundOnly) return;
+
+        try {
+            p.spawnParticle(Particle.BLOCK, center, 18, 0.25, 0.25, 0.25, block.getBlockData());
+        } catch (Throwable ignored) {}
+    }
+
     @Override
     public boolean isInventory(Object loc) {
         if (!(loc instanceof Location l)) return false;
@@ -325,6 +382,11 @@ public class BukkitQuarryPlatform implements QuarryPlatform {
         };
     }
 
+    @Override
+    public ItemIdentityAdapter<Object> itemIdentityAdapter() {
+        return BukkitItemIdentityAdapter.INSTANCE;
+    }
+
     @Override
     public double distanceSquared(Object a, Object b) {
         if (!(a instanceof Location la) || !(b instanceof Location lb)) return Double.MAX_VALUE;
@@ -406,14 +468,27 @@ public class BukkitQuarryPlatform implements QuarryPlatform {
         return new ItemPacketFactory() {
             @Override
             public void send(Object itemStack, List<Object> waypoints, Object destinationInventory, DeliveryCallback callback) {
-                if (!(itemStack instanceof ItemStack stack)) return;
+                Location dest = destinationInventory instanceof Location l ? l : null;
+                if (!(itemStack instanceof ItemStack stack) || waypoints == null) {
+                    if (callback != null) callback.delivered(destinationInventory, itemStack, 0);
+                    return;
+                }
                 List<Location> locs = new ArrayList<>();
                 for (Object o : waypoints) {
                     if (o instanceof Location l) locs.add(l);
                 }
-                Location dest = destinationInventory instanceof Location l ? l : null;
                 packetService.enqueue(stack, locs, dest, callback);
             }
+
+            @Override
+            public void send(Object itemStack, PacketRoute route, Object destinationInventory, DeliveryCallback callback) {
+                if (!(itemStack instanceof ItemStack stack)) {
+                    if (callback != null) callback.delivered(destinationInventory, itemStack, 0);
+                    return;
+                }
+                Location dest = destinationInventory instanceof Location l ? l : null;
+                packetService.enqueue(stack, route, dest, callback);
+            }
         };
     }
 
@@ -36,4 +36,6 @@ public final class CloudFrameIds {
     // Networking (Fabric custom payload ids use these paths)
     public static final String POWER_PROBE_REQUEST = "power_probe_request";
     public static final String POWER_PROBE_RESPONSE = "power_probe_response";
+    public static final String QUARRY_FRAME_OUTLINE = "quarry_frame_outline";
+    public static final String OVERLAY = "overlay";
 }
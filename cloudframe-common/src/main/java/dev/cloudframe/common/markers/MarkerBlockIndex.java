@@ -0,0 +1,108 @@
+package dev.cloudframe.common.markers;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import dev.cloudframe.common.util.BlockPosPacking;
+
+/**
+ * Per-world spatial index of placed marker blocks.
+ *
+ * <p>Markers are bucketed by chunk column, so a range query only touches the chunks overlapping
+ * the query box instead of reading every block in it.</p>
+ */
+public final class MarkerBlockIndex {
+
+    // worldId -> chunkKey -> markers in that chunk column
+    private final Map<String, Map<Long, Set<MarkerPos>>> byWorld = new HashMap<>();
+
+    // worldId -> 16x16x16 sections (packed section coords) already scanned for markers that
+    // were placed before the index existed.
+    private final Map<String, Set<Long>> scannedSections = new HashMap<>();
+
+    private static long chunkKey(int cx, int cz) {
+        return (((long) cx) << 32) | (cz & 0xffffffffL);
+    }
+
+    /**
+     * Returns true if the marker was not already indexed.
+     */
+    public boolean add(String worldId, MarkerPos pos) {
+        if (worldId == null || pos == null) return false;
+        return byWorld.computeIfAbsent(worldId, w -> new HashMap<>())
+            .computeIfAbsent(chunkKey(pos.x() >> 4, pos.z() >> 4), k -> new HashSet<>())
+            .add(pos);
+    }
+
+    /**
+     * Returns true if the marker was indexed.
+     */
+    public boolean remove(String worldId, MarkerPos pos) {
+        if (worldId == null || pos == null) return false;
+        Map<Long, Set<MarkerPos>> chunks = byWorld.get(worldId);
+        if (chunks == null) return false;
+
+        long key = chunkKey(pos.x() >> 4, pos.z() >> 4);
+        Set<MarkerPos> set = chunks.get(key);
+        if (set == null || !set.remove(pos)) return false;
+
+        if (set.isEmpty()) chunks.remove(key);
+        if (chunks.isEmpty()) byWorld.remove(worldId);
+        return true;
+    }
+
+    /**
+     * All indexed markers within {@code radius} blocks of the center on every axis (a cube).
+     */
+    public List<MarkerPos> queryCube(String worldId, int centerX, int centerY, int centerZ, int radius) {
+        List<MarkerPos> out = new ArrayList<>();
+        if (worldId == null || radius < 0) return out;
+
+        Map<Long, Set<MarkerPos>> chunks = byWorld.get(worldId);
+        if (chunks == null || chunks.isEmpty()) return out;
+
+        int minX = centerX - radius;
+        int maxX = centerX + radius;
+        int minY = centerY - radius;
+        int maxY = centerY + radius;
+        int minZ = centerZ - radius;
+        int maxZ = centerZ + radius;
+
+        for (int cx = minX >> 4; cx <= (maxX >> 4); cx++) {
+            for (int cz = minZ >> 4; cz <= (maxZ >> 4); cz++) {
+                Set<MarkerPos> set = chunks.get(chunkKey(cx, cz));
+                if (set == null) continue;
+                for (MarkerPos p : set) {
+                    if (p.x() < minX || p.x() > maxX) continue;
+                    if (p.y() < minY || p.y() > maxY) continue;
+                    if (p.z() < minZ || p.z() > maxZ) continue;
+                    out.add(p);
+                }
+            }
+        }
+        return out;
+    }
+
+    /**
+     * Whether the 16x16x16 section at section coordinates ({@code sx}, {@code sy}, {@code sz})
+     * has already been scanned for legacy markers.
+     */
+    public boolean isSectionScanned(String worldId, int sx, int sy, int sz) {
+        Set<Long> set = worldId != null ? scannedSections.get(worldId) : null;
+        return set != null && set.contains(BlockPosPacking.pack(sx, sy, sz));
+    }
+
+    public void markSectionScanned(String worldId, int sx, int sy, int sz) {
+        if (worldId == null) return;
+        scannedSections.computeIfAbsent(worldId, w -> new HashSet<>()).add(BlockPosPacking.pack(sx, sy, sz));
+    }
+
+    public void clear() {
+        byWorld.clear();
+        scannedSections.clear();
+    }
+}
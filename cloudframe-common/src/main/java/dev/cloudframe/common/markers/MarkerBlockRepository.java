@@ -0,0 +1,68 @@
+package dev.cloudframe.common.markers;
+
+import dev.cloudframe.common.storage.Database;
+
+/**
+ * SQLite repository for placed marker block positions.
+ *
+ * Backed by the {@code marker_blocks} table (next to {@code markers}, which holds selections),
+ * plus {@code marker_scanned_sections}, the sections already scanned for legacy markers.
+ */
+public final class MarkerBlockRepository {
+
+    private MarkerBlockRepository() {
+    }
+
+    public static void loadAll(MarkerBlockIndex index) {
+        if (index == null) return;
+        index.clear();
+
+        Database.run(conn -> {
+            var rs = conn.createStatement().executeQuery("SELECT world, x, y, z FROM marker_blocks");
+            while (rs.next()) {
+                index.add(rs.getString("world"), new MarkerPos(rs.getInt("x"), rs.getInt("y"), rs.getInt("z")));
+            }
+
+            var sections = conn.createStatement().executeQuery("SELECT world, sx, sy, sz FROM marker_scanned_sections");
+            while (sections.next()) {
+                index.markSectionScanned(sections.getString("world"), sections.getInt("sx"), sections.getInt("sy"), sections.getInt("sz"));
+            }
+        });
+    }
+
+    public static void insertScannedSection(String worldId, int sx, int sy, int sz) {
+        if (worldId == null) return;
+        Database.run(conn -> {
+            var ps = conn.prepareStatement("INSERT OR IGNORE INTO marker_scanned_sections (world, sx, sy, sz) VALUES (?, ?, ?, ?)");
+            ps.setString(1, worldId);
+            ps.setInt(2, sx);
+            ps.setInt(3, sy);
+            ps.setInt(4, sz);
+            ps.executeUpdate();
+        });
+    }
+
+    public static void insert(String worldId, MarkerPos pos) {
+        if (worldId == null || pos == null) return;
+        Database.run(conn -> {
+            var ps = conn.prepareStatement("INSERT OR IGNORE INTO marker_blocks (world, x, y, z) VALUES (?, ?, ?, ?)");
+            ps.setString(1, worldId);
+            ps.setInt(2, pos.x());
+            ps.setInt(3, pos.y());
+            ps.setInt(4, pos.z());
+            ps.executeUpdate();
+        });
+    }
+
+    public static void delete(String worldId, MarkerPos pos) {
+        if (worldId == null || pos == null) return;
+        Database.run(conn -> {
+            var ps = conn.prepareStatement("DELETE FROM marker_blocks WHERE world = ? AND x = ? AND y = ? AND z = ?");
+            ps.setString(1, worldId);
+            ps.setInt(2, pos.x());
+            ps.setInt(3, pos.y());
+            ps.setInt(4, pos.z());
+            ps.executeUpdate();
+        });
+    }
+}
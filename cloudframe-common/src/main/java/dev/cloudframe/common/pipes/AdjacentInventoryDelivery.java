@@ -7,6 +7,9 @@ import java.util.function.IntFunction;
  *
  * <p>This intentionally lives in common and uses only the platform-provided
  * {@link ItemPacketManager.IItemDeliveryProvider} abstraction.</p>
+ *
+ * <p>The delivery callback runs exactly once per attempt, with 0 inserted when the item was
+ * dropped, so in-flight reservations are always released.</p>
  */
 public final class AdjacentInventoryDelivery {
 
@@ -30,12 +33,14 @@ public final class AdjacentInventoryDelivery {
 
         if (!provider.isChunkLoaded(inventoryBlockLocation)) {
             provider.dropItems(inventoryBlockLocation, new Object[]{item});
+            if (onDelivered != null) onDelivered.delivered(inventoryBlockLocation, item, 0);
             return 0;
         }
 
         Object holder = provider.getInventoryHolder(inventoryBlockLocation);
         if (holder == null) {
             provider.dropItems(inventoryBlockLocation, new Object[]{item});
+            if (onDelivered != null) onDelivered.delivered(inventoryBlockLocation, item, 0);
             return 0;
         }
 
@@ -72,6 +77,7 @@ public final class AdjacentInventoryDelivery {
 
         if (!provider.isChunkLoaded(baseLocation)) {
             provider.dropItems(baseLocation, new Object[]{item});
+            if (onDelivered != null) onDelivered.delivered(baseLocation, item, 0);
             return 0;
         }
 
@@ -98,6 +104,7 @@ public final class AdjacentInventoryDelivery {
         }
 
         provider.dropItems(baseLocation, new Object[]{item});
+        if (onDelivered != null) onDelivered.delivered(baseLocation, item, 0);
         return 0;
     }
 }
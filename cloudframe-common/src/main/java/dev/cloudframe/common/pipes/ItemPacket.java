@@ -18,12 +18,20 @@ public class ItemPacket {
 
     private final Object item; // ItemStack (platform-specific)
     private final IItemStackAdapter itemAdapter;
-    private final List<Object> waypoints; // Location objects (platform-specific)
+    private final PacketRoute route; // shared between packets on the same route
     private final Object destinationInventory; // nullable Location (platform-specific)
     private final ItemPacketDeliveryCallback onDeliveryCallback; // nullable callback
 
-    private int currentIndex = 0;
     private double progress = 0.0;
+    // Elapsed tick at which the entity's current (client-interpolated) move ends.
+    private long moveEndsAt;
+
+    // Scheduling state owned by ItemPacketManager.
+    long departTick;
+    long arrivalTick;
+    int animationIndex = -1;
+    // Set once the delivery callback has been called, so it is never called twice.
+    boolean callbackFired;
 
     // Visual speed per tick along a segment. Lower = smoother (more steps per block).
     private static final double SPEED = 0.125;
@@ -38,6 +46,19 @@ public class ItemPacket {
         void removeEntity(Object entity);
         boolean isChunkLoaded(Object location);
         Object interpolate(Object a, Object b, double progress01);
+
+        /**
+         * Longest move, in ticks, the client smooths on its own. Straight runs are animated in
+         * moves of up to this many ticks; 1 teleports the entity every tick.
+         */
+        default int maxMoveTicks() {
+            return 1;
+        }
+
+        /** Move the entity to {@code location}, interpolated over {@code durationTicks} if supported. */
+        default void moveEntity(Object entity, Object location, int durationTicks) {
+            teleportEntity(entity, location);
+        }
     }
 
     public interface IItemStackAdapter {
@@ -98,18 +119,31 @@ public class ItemPacket {
     public ItemPacket(Object item, List<Object> waypoints, Object destinationInventory,
                       ItemPacketDeliveryCallback onDeliveryCallback, IPacketVisuals visuals,
                       IItemStackAdapter itemAdapter) {
+        this(item, PacketRoute.of(waypoints), destinationInventory, onDeliveryCallback, visuals, itemAdapter);
+    }
+
+    public ItemPacket(
+            Object item,
+            PacketRoute route,
+            Object destinationInventory,
+            ItemPacketDeliveryCallback onDeliveryCallback,
+            IPacketVisuals visuals,
+            ItemStackAdapter<?> stackAdapter
+    ) {
+        this(item, route, destinationInventory, onDeliveryCallback, visuals, packetAdapterFromStackAdapter(stackAdapter));
+    }
+
+    public ItemPacket(Object item, PacketRoute route, Object destinationInventory,
+                      ItemPacketDeliveryCallback onDeliveryCallback, IPacketVisuals visuals,
+                      IItemStackAdapter itemAdapter) {
         this.item = Objects.requireNonNull(item, "item");
         this.itemAdapter = Objects.requireNonNull(itemAdapter, "itemAdapter");
-        this.waypoints = List.copyOf(Objects.requireNonNull(waypoints, "waypoints"));
+        this.route = Objects.requireNonNull(route, "route");
         this.destinationInventory = destinationInventory;
         this.onDeliveryCallback = onDeliveryCallback;
         this.visuals = Objects.requireNonNull(visuals, "visuals");
 
-        if (this.waypoints.size() < 2) {
-            throw new IllegalArgumentException("ItemPacket requires at least 2 waypoints");
-        }
-
-        debug.log("constructor", "Created packet pathLength=" + this.waypoints.size());
+        debug.log("constructor", "Created packet pathLength=" + (route.length() + 1));
         spawnEntity();
     }
 
@@ -134,69 +168,70 @@ public class ItemPacket {
     }
 
     private void spawnEntity() {
-        Object start = waypoints.get(0);
+        Object start = route.first();
         debug.log("spawnEntity", "Spawning packet entity");
         this.entity = visuals.spawnEntity(start, item);
     }
 
-    public boolean tick(boolean shouldLog) {
-        if (visuals.isEntityDead(entity)) {
-            if (shouldLog) {
-                debug.log("tick", "Entity missing or dead — finishing packet");
-            }
-            return true;
-        }
+    /**
+     * Ticks from departure until the packet reaches the end of its route. Travel time depends
+     * only on route length, so {@link ItemPacketManager} schedules delivery up front.
+     */
+    public int travelTicks() {
+        return Math.max(1, (int) Math.ceil(route.length() / SPEED));
+    }
 
-        Object loc = visuals.isChunkLoaded(waypoints.get(currentIndex)) ? waypoints.get(currentIndex) : null;
-        if (loc == null || !visuals.isChunkLoaded(loc)) {
+    /**
+     * Moves the visual entity to where the packet is {@code elapsedTicks} after departure.
+     * Purely cosmetic; delivery does not depend on it.
+     *
+     * <p>Along a straight segment the entity is sent up to {@link IPacketVisuals#maxMoveTicks()}
+     * ticks ahead at once and left to the client to interpolate; it is always moved exactly onto
+     * turn points.</p>
+     *
+     * @return false once there is nothing left to animate (end of route reached, or the entity
+     *         is gone)
+     */
+    public boolean animate(long elapsedTicks, boolean shouldLog) {
+        if (visuals.isEntityDead(entity)) {
             if (shouldLog) {
-                debug.log("tick", "Chunk unloaded — pausing packet");
+                debug.log("animate", "Entity missing or dead — no longer animating");
             }
             return false;
         }
 
-        if (currentIndex < waypoints.size() - 1) {
-            Object nextLoc = waypoints.get(currentIndex + 1);
-            if (!visuals.isChunkLoaded(nextLoc)) {
-                if (shouldLog) {
-                    debug.log("tick", "Next chunk unloaded — pausing packet");
-                }
-                return false;
-            }
-        }
-
-        if (currentIndex >= waypoints.size() - 1) {
+        int length = route.length();
+        double position = Math.min(length, Math.max(0L, elapsedTicks) * SPEED);
+        progress = length > 0 ? position / length : 1.0;
+        if (position >= length) return false;
+        if (elapsedTicks < moveEndsAt) return true;
+
+        int segment = route.segmentAt(position);
+        int segStart = route.offset(segment);
+        int segEnd = route.offset(segment + 1);
+        int ticksToTurn = Math.max(1, (int) Math.ceil((segEnd - position) / SPEED - 1e-9));
+        int duration = Math.max(1, Math.min(visuals.maxMoveTicks(), ticksToTurn));
+        moveEndsAt = elapsedTicks + duration;
+
+        // Entities in unloaded chunks can't move; keep the schedule and skip the move.
+        Object from = route.point(segment);
+        if (!visuals.isChunkLoaded(from)) {
             if (shouldLog) {
-                debug.log("tick", "Reached final node — finishing packet");
+                debug.log("animate", "Chunk unloaded — skipping visual update");
             }
             return true;
         }
 
-        progress += SPEED;
-
-        if (progress >= 1.0) {
-            progress = 0.0;
-            currentIndex++;
-            if (shouldLog) {
-                debug.log("tick", "Advancing to next pipe node index=" + currentIndex);
-            }
-        }
-
-        moveEntity(shouldLog);
-        return false;
-    }
-
-    private void moveEntity(boolean shouldLog) {
-        Object a = waypoints.get(currentIndex);
-        Object b = waypoints.get(Math.min(currentIndex + 1, waypoints.size() - 1));
-
-        Object newLoc = visuals.interpolate(a, b, progress);
-        visuals.teleportEntity(entity, newLoc);
+        double target = Math.min(segEnd, position + duration * SPEED);
+        double t = segEnd > segStart ? (target - segStart) / (segEnd - segStart) : 1.0;
+        Object newLoc = visuals.interpolate(from, route.point(segment + 1), t);
+        visuals.moveEntity(entity, newLoc, duration);
 
         if (shouldLog) {
-            debug.log("moveEntity", "Progress=" + String.format("%.2f", progress) +
-                    " index=" + currentIndex);
+            debug.log("animate", "Position=" + String.format("%.2f", position) +
+                    " segment=" + segment + " duration=" + duration);
         }
+        return true;
     }
 
     public void destroy() {
@@ -217,15 +252,21 @@ public class ItemPacket {
     }
 
     public Object getLastWaypoint() {
-        return waypoints.get(waypoints.size() - 1);
+        return route.last();
     }
 
+    /** Path length in blocks, counting both ends (the old waypoint count). */
     public int getPathLength() {
-        return waypoints.size();
+        return route.length() + 1;
+    }
+
+    public PacketRoute getRoute() {
+        return route;
     }
 
+    /** Turn points of the route (not one per pipe block). */
     public List<Object> getWaypoints() {
-        return waypoints;
+        return route.points();
     }
 
     public double getProgress() {
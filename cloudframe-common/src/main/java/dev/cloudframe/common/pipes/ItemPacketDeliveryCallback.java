@@ -1,10 +1,11 @@
 package dev.cloudframe.common.pipes;
 
 /**
- * Callback invoked when an item packet delivers items into an inventory.
+ * Callback invoked when an item packet finishes delivery.
  *
  * <p>The {@code itemStack} is the original stack object carried by the packet (platform-specific),
- * and {@code insertedAmount} is the number of items successfully inserted.</p>
+ * and {@code insertedAmount} is the number of items successfully inserted (0 if everything was
+ * dropped).</p>
  */
 @FunctionalInterface
 public interface ItemPacketDeliveryCallback {
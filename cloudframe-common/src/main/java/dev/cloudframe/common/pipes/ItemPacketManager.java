@@ -1,8 +1,10 @@
 package dev.cloudframe.common.pipes;
 
 import java.util.ArrayList;
-import java.util.Iterator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import dev.cloudframe.common.util.Debug;
 import dev.cloudframe.common.util.DebugManager;
@@ -10,14 +12,43 @@ import dev.cloudframe.common.util.DebugManager;
 /**
  * Platform-agnostic item packet manager.
  * Coordinates movement and delivery of items through pipe networks.
+ *
+ * <p>Travel time is fixed by path length ({@link ItemPacket#travelTicks()}), so packets are
+ * scheduled by arrival tick in a hashed timing wheel and each tick only touches the packets
+ * arriving then. Moving the visual entities is a separate, optional pass. A packet whose
+ * destination chunk is unloaded on arrival is parked on that chunk's waiting list until
+ * {@link #onChunkLoaded} wakes it (or, if the platform can't name chunks, re-polled
+ * every {@link #PARKED_POLL_TICKS} ticks).</p>
  */
 public class ItemPacketManager {
 
     private static final Debug debug = DebugManager.get(ItemPacketManager.class);
 
-    private final List<ItemPacket> packets = new ArrayList<>();
+    // Wheel slots (power of two). Longer trips wrap around and wait for their round.
+    private static final int WHEEL_SIZE = 256;
+    private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+    private static final int PARKED_POLL_TICKS = 20;
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private final List<ItemPacket>[] wheel = new List[WHEEL_SIZE];
+    private final List<ItemPacket> due = new ArrayList<>();
+    // This tick's arrivals with a known destination, grouped per destination inventory.
+    private final Map<Object, List<ItemPacket>> arrivalsByDestination = new LinkedHashMap<>();
+    private final Map<ChunkKey, List<ItemPacket>> parked = new HashMap<>();
+    // Packets whose entities are still moving; unordered, swap-removed by index.
+    private final List<ItemPacket> animating = new ArrayList<>();
     private final IItemDeliveryProvider deliveryProvider;
 
+    private long now;
+    private int inFlight;
+    private boolean animatePackets = true;
+
+    /**
+     * A chunk of a world, as named by {@link IItemDeliveryProvider#chunkKeyOf(Object)}.
+     */
+    public record ChunkKey(Object world, int chunkX, int chunkZ) {
+    }
+
     /**
      * Provider interface for platform-specific delivery operations.
      * Implemented by BukkitItemDeliveryProvider, FabricItemDeliveryProvider, etc.
@@ -28,52 +59,279 @@ public class ItemPacketManager {
         int addItem(Object inventoryHolder, Object item);
         void dropItems(Object location, Object[] items);
         Object getAdjacentBlockLocation(Object baseLocation, int dirIndex);
+
+        /**
+         * Chunk containing {@code location}, matching the keys the platform passes to
+         * {@link ItemPacketManager#onChunkLoaded}. Null if the platform doesn't report chunk loads.
+         */
+        default ChunkKey chunkKeyOf(Object location) {
+            return null;
+        }
+
+        /**
+         * Inserts several items into one inventory. Platforms should do this in one slot pass with
+         * a single markDirty; the default inserts them one by one.
+         *
+         * @return per-item number of items actually inserted, parallel to {@code items}
+         */
+        default int[] addItems(Object inventoryHolder, List<Object> items) {
+            int[] added = new int[items.size()];
+            for (int i = 0; i < added.length; i++) {
+                added[i] = addItem(inventoryHolder, items.get(i));
+            }
+            return added;
+        }
     }
 
     public ItemPacketManager(IItemDeliveryProvider deliveryProvider) {
         this.deliveryProvider = deliveryProvider;
+        for (int i = 0; i < WHEEL_SIZE; i++) {
+            wheel[i] = new ArrayList<>();
+        }
     }
 
     public void add(ItemPacket packet) {
-        packets.add(packet);
-        debug.log("add", "Added packet pathLength=" + packet.getPathLength());
+        packet.departTick = now;
+        packet.arrivalTick = now + packet.travelTicks();
+        schedule(packet, packet.arrivalTick);
+        inFlight++;
+        if (animatePackets) startAnimating(packet);
+        debug.log("add", "Added packet pathLength=" + packet.getPathLength() + " arrivalTick=" + packet.arrivalTick);
+    }
+
+    /** Packets not yet delivered (travelling or parked). */
+    public int inFlight() {
+        return inFlight;
+    }
+
+    /**
+     * Whether packet entities are moved along their path each tick. When off, entities stay at
+     * their start until delivery; delivery timing is unchanged.
+     */
+    public void setAnimatePackets(boolean animatePackets) {
+        this.animatePackets = animatePackets;
+        if (!animatePackets) {
+            for (ItemPacket p : animating) p.animationIndex = -1;
+            animating.clear();
+        }
     }
 
     public void tick(boolean shouldLog) {
+        now++;
+
+        List<ItemPacket> slot = wheel[(int) (now & WHEEL_MASK)];
+        if (!slot.isEmpty()) {
+            // Packets a full wheel round (or more) away share the slot; keep them in place.
+            int kept = 0;
+            for (int i = 0; i < slot.size(); i++) {
+                ItemPacket p = slot.get(i);
+                if (p.arrivalTick > now) {
+                    slot.set(kept++, p);
+                } else {
+                    due.add(p);
+                }
+            }
+            slot.subList(kept, slot.size()).clear();
+        }
+
         if (shouldLog) {
-            debug.log("tick", "Ticking " + packets.size() + " packets");
+            debug.log("tick", "Tick " + now + ": " + due.size() + " arriving, " + inFlight + " in flight");
         }
 
-        Iterator<ItemPacket> it = packets.iterator();
+        for (int i = 0; i < due.size(); i++) {
+            ItemPacket p = due.get(i);
+            Object dest = p.getDestinationInventory();
+            if (dest == null) {
+                arrive(p, shouldLog);
+            } else {
+                arrivalsByDestination.computeIfAbsent(dest, k -> new ArrayList<>(2)).add(p);
+            }
+        }
+        due.clear();
 
-        while (it.hasNext()) {
-            ItemPacket p = it.next();
+        if (!arrivalsByDestination.isEmpty()) {
+            for (Map.Entry<Object, List<ItemPacket>> e : arrivalsByDestination.entrySet()) {
+                List<ItemPacket> batch = e.getValue();
+                if (batch.size() == 1) {
+                    arrive(batch.get(0), shouldLog);
+                } else {
+                    arriveBatch(e.getKey(), batch, shouldLog);
+                }
+            }
+            arrivalsByDestination.clear();
+        }
 
-            try {
-                boolean finished = p.tick(shouldLog);
+        if (animatePackets && !animating.isEmpty()) {
+            animate(shouldLog);
+        }
+    }
 
-                if (shouldLog) {
-                    debug.log("tick", "Packet progress=" + String.format("%.2f", p.getProgress()) +
-                            " finished=" + finished);
-                }
+    /**
+     * The platform loaded a chunk: packets parked there are delivered on the next tick.
+     */
+    public void onChunkLoaded(Object world, int chunkX, int chunkZ) {
+        if (parked.isEmpty()) return;
+        List<ItemPacket> waiting = parked.remove(new ChunkKey(world, chunkX, chunkZ));
+        if (waiting == null) return;
+        for (ItemPacket p : waiting) {
+            p.arrivalTick = now + 1;
+            schedule(p, p.arrivalTick);
+        }
+    }
+
+    private void schedule(ItemPacket packet, long tick) {
+        wheel[(int) (tick & WHEEL_MASK)].add(packet);
+    }
+
+    private void arrive(ItemPacket p, boolean shouldLog) {
+        try {
+            Object target = p.getDestinationInventory() != null ? p.getDestinationInventory() : p.getLastWaypoint();
+            if (!deliveryProvider.isChunkLoaded(target)) {
+                park(p, target, shouldLog);
+                return;
+            }
 
-                if (finished) {
-                    if (shouldLog) {
-                        debug.log("tick", "Packet finished");
-                    }
-                    deliver(p, shouldLog);
-                    p.destroy();
-                    it.remove();
+            if (shouldLog) {
+                debug.log("tick", "Packet finished");
+            }
+            deliver(p, shouldLog);
+            finish(p);
+        } catch (Exception ex) {
+            debug.log("tick", "Exception delivering packet: " + ex.getMessage());
+            ex.printStackTrace();
+            finish(p);
+            releaseLost(p);
+        }
+    }
+
+    /**
+     * Delivers several packets bound for the same inventory with one holder lookup and one
+     * insert pass (one markDirty). Leftovers and callbacks stay per packet, since each packet
+     * releases its own sender's reservation.
+     */
+    private void arriveBatch(Object destInvLoc, List<ItemPacket> batch, boolean shouldLog) {
+        int finished = 0;
+        try {
+            if (!deliveryProvider.isChunkLoaded(destInvLoc)) {
+                for (ItemPacket p : batch) park(p, destInvLoc, shouldLog);
+                return;
+            }
+
+            Object holder = deliveryProvider.getInventoryHolder(destInvLoc);
+            if (holder == null) {
+                // Inventory gone: the per-packet path drops each item and notifies its sender.
+                for (; finished < batch.size(); finished++) arrive(batch.get(finished), shouldLog);
+                return;
+            }
+
+            List<Object> items = new ArrayList<>(batch.size());
+            for (ItemPacket p : batch) items.add(p.getItem());
+            int[] added = deliveryProvider.addItems(holder, items);
+
+            if (shouldLog) {
+                debug.log("deliver", "Delivered " + batch.size() + " packets into one inventory");
+            }
+
+            for (; finished < batch.size(); finished++) {
+                ItemPacket p = batch.get(finished);
+                int inserted = finished < added.length ? Math.max(0, added[finished]) : 0;
+                int leftovers = Math.max(0, p.getItemAmount() - inserted);
+                if (leftovers > 0) {
+                    deliveryProvider.dropItems(destInvLoc, new Object[]{p.createLeftoverItem(leftovers)});
                 }
+                notifySender(p, destInvLoc, p.getItem(), inserted);
+                finish(p);
+            }
+        } catch (Exception ex) {
+            debug.log("tick", "Exception delivering packet batch: " + ex.getMessage());
+            ex.printStackTrace();
+            for (int i = finished; i < batch.size(); i++) {
+                ItemPacket p = batch.get(i);
+                finish(p);
+                releaseLost(p);
+            }
+        }
+    }
 
+    private void park(ItemPacket p, Object target, boolean shouldLog) {
+        ChunkKey key = deliveryProvider.chunkKeyOf(target);
+        if (key == null) {
+            p.arrivalTick = now + PARKED_POLL_TICKS;
+            schedule(p, p.arrivalTick);
+        } else {
+            parked.computeIfAbsent(key, k -> new ArrayList<>()).add(p);
+        }
+        stopAnimating(p);
+        if (shouldLog) {
+            debug.log("tick", "Destination chunk unloaded — parking packet");
+        }
+    }
+
+    private void finish(ItemPacket p) {
+        inFlight--;
+        stopAnimating(p);
+        try {
+            p.destroy();
+        } catch (Exception ignored) {
+            // Visual cleanup only.
+        }
+    }
+
+    private void animate(boolean shouldLog) {
+        // Backwards, so swap-removal doesn't skip packets.
+        for (int i = animating.size() - 1; i >= 0; i--) {
+            ItemPacket p = animating.get(i);
+            boolean moving;
+            try {
+                moving = p.animate(now - p.departTick, shouldLog);
             } catch (Exception ex) {
-                debug.log("tick", "Exception ticking packet: " + ex.getMessage());
-                ex.printStackTrace();
-                it.remove();
+                debug.log("animate", "Exception animating packet: " + ex.getMessage());
+                moving = false;
             }
+            if (!moving) stopAnimating(p);
+        }
+    }
+
+    private void startAnimating(ItemPacket p) {
+        p.animationIndex = animating.size();
+        animating.add(p);
+    }
+
+    private void stopAnimating(ItemPacket p) {
+        int i = p.animationIndex;
+        if (i < 0) return;
+        int last = animating.size() - 1;
+        ItemPacket moved = animating.get(last);
+        animating.set(i, moved);
+        moved.animationIndex = i;
+        animating.remove(last);
+        p.animationIndex = -1;
+    }
+
+    /**
+     * Best-effort: tell the sender a packet is gone so its in-flight reservation is released.
+     * Does nothing if the sender was already told how delivery went.
+     */
+    private void releaseLost(ItemPacket p) {
+        try {
+            notifySender(p, p.getDestinationInventory(), p.getItem(), 0);
+        } catch (Exception ignored) {
+            // Packet state is unusable; nothing else to release.
         }
     }
 
+    /** Calls the packet's delivery callback, at most once per packet. */
+    private static void notifySender(ItemPacket p, Object destination, Object item, int inserted) {
+        if (p.callbackFired) return;
+        p.callbackFired = true;
+        ItemPacketDeliveryCallback cb = p.getOnDeliveryCallback();
+        if (cb != null) cb.delivered(destination, item, inserted);
+    }
+
+    private static ItemPacketDeliveryCallback onceFor(ItemPacket p) {
+        return (destination, item, inserted) -> notifySender(p, destination, item, inserted);
+    }
+
     private void deliver(ItemPacket p, boolean shouldLog) {
         Object destInvLoc = p.getDestinationInventory();
 
@@ -89,7 +347,7 @@ public class ItemPacketManager {
                     p.getItemAmount(),
                     deliveryProvider,
                     (leftovers) -> p.createLeftoverItem(leftovers),
-                    p.getOnDeliveryCallback()
+                    onceFor(p)
             );
             return;
         }
@@ -107,7 +365,7 @@ public class ItemPacketManager {
                 p.getItemAmount(),
                 deliveryProvider,
                 (leftovers) -> p.createLeftoverItem(leftovers),
-                p.getOnDeliveryCallback()
+                onceFor(p)
         );
 
         if (shouldLog) {
@@ -0,0 +1,178 @@
+package dev.cloudframe.common.pipes;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.ToIntFunction;
+
+/**
+ * Immutable route an item packet travels, shared by every packet on the same source/destination.
+ *
+ * <p>Only turn points are stored: {@code point(i)} is reached after {@code offset(i)} pipe steps,
+ * and the packet moves in a straight line between consecutive points. A 200-pipe straight run is
+ * two points, not 200 waypoints.</p>
+ */
+public final class PacketRoute {
+
+    private final Object[] points;
+    private final int[] offsets;
+    // Packed (chunkX, chunkZ) of every chunk the full path passes through.
+    private final long[] chunkKeys;
+
+    private PacketRoute(Object[] points, int[] offsets, long[] chunkKeys) {
+        this.points = points;
+        this.offsets = offsets;
+        this.chunkKeys = chunkKeys;
+    }
+
+    /**
+     * Uncompressed route: every waypoint is a point, one step apart. For callers that have
+     * locations but no coordinate access.
+     */
+    public static PacketRoute of(List<Object> waypoints) {
+        Objects.requireNonNull(waypoints, "waypoints");
+        if (waypoints.size() < 2) {
+            throw new IllegalArgumentException("PacketRoute requires at least 2 waypoints");
+        }
+        Object[] points = waypoints.toArray();
+        int[] offsets = new int[points.length];
+        for (int i = 0; i < offsets.length; i++) offsets[i] = i;
+        return new PacketRoute(points, offsets, new long[0]);
+    }
+
+    /**
+     * Compresses a block-by-block path (controller, pipes..., inventory) to its turn points.
+     * Repeated positions are dropped.
+     */
+    public static PacketRoute compress(
+            List<Object> waypoints,
+            ToIntFunction<Object> blockX,
+            ToIntFunction<Object> blockY,
+            ToIntFunction<Object> blockZ
+    ) {
+        Objects.requireNonNull(waypoints, "waypoints");
+        if (waypoints.size() < 2) {
+            throw new IllegalArgumentException("PacketRoute requires at least 2 waypoints");
+        }
+
+        int n = waypoints.size();
+        List<Object> points = new ArrayList<>();
+        int[] offsets = new int[n];
+        Set<Long> chunks = new LinkedHashSet<>();
+
+        Object start = waypoints.get(0);
+        int px = blockX.applyAsInt(start);
+        int py = blockY.applyAsInt(start);
+        int pz = blockZ.applyAsInt(start);
+        points.add(start);
+        chunks.add(chunkKey(px >> 4, pz >> 4));
+
+        int steps = 0;
+        int dirX = 0, dirY = 0, dirZ = 0;
+        for (int i = 1; i < n; i++) {
+            Object wp = waypoints.get(i);
+            int x = blockX.applyAsInt(wp);
+            int y = blockY.applyAsInt(wp);
+            int z = blockZ.applyAsInt(wp);
+            int dx = Integer.signum(x - px);
+            int dy = Integer.signum(y - py);
+            int dz = Integer.signum(z - pz);
+            if (dx == 0 && dy == 0 && dz == 0) continue;
+
+            steps += Math.abs(x - px) + Math.abs(y - py) + Math.abs(z - pz);
+            if (points.size() == 1 || dx != dirX || dy != dirY || dz != dirZ) {
+                // New direction: the previous point stays as a turn, this one ends a new segment.
+                offsets[points.size()] = steps;
+                points.add(wp);
+            } else {
+                // Same direction: slide the current segment's end forward.
+                offsets[points.size() - 1] = steps;
+                points.set(points.size() - 1, wp);
+            }
+
+            dirX = dx;
+            dirY = dy;
+            dirZ = dz;
+            px = x;
+            py = y;
+            pz = z;
+            chunks.add(chunkKey(x >> 4, z >> 4));
+        }
+
+        if (points.size() < 2) {
+            // Degenerate path (all waypoints equal): keep the old one-segment timing.
+            points.add(points.get(0));
+            offsets[1] = 1;
+        }
+
+        long[] chunkKeys = new long[chunks.size()];
+        int k = 0;
+        for (long key : chunks) chunkKeys[k++] = key;
+        return new PacketRoute(points.toArray(), Arrays.copyOf(offsets, points.size()), chunkKeys);
+    }
+
+    /** Number of stored points (at least 2). */
+    public int pointCount() {
+        return points.length;
+    }
+
+    public Object point(int index) {
+        return points[index];
+    }
+
+    /** Pipe steps from the start to {@link #point(int)}. */
+    public int offset(int index) {
+        return offsets[index];
+    }
+
+    /** Total length in pipe steps. */
+    public int length() {
+        return offsets[offsets.length - 1];
+    }
+
+    public Object first() {
+        return points[0];
+    }
+
+    public Object last() {
+        return points[points.length - 1];
+    }
+
+    /** Stored points as an unmodifiable list. */
+    public List<Object> points() {
+        return List.of(points);
+    }
+
+    /**
+     * Index of the segment (from {@code point(i)} to {@code point(i + 1)}) containing the given
+     * position in pipe steps.
+     */
+    public int segmentAt(double position) {
+        int lo = 0;
+        int hi = offsets.length - 2;
+        while (lo < hi) {
+            int mid = (lo + hi + 1) >>> 1;
+            if (offsets[mid] <= position) {
+                lo = mid;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * Packed (chunkX, chunkZ) keys of the chunks the path passes through, as
+     * {@code (cx << 32) | (cz & 0xffffffffL)}. Empty for uncompressed routes. Do not modify.
+     */
+    public long[] chunkKeys() {
+        return chunkKeys;
+    }
+
+    private static long chunkKey(int cx, int cz) {
+        return (((long) cx) << 32) | (cz & 0xffffffffL);
+    }
+}
@@ -0,0 +1,61 @@
+package dev.cloudframe.common.pipes;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Shared packet routes keyed by (source, destination inventory), so every packet between the same
+ * two blocks reuses one {@link PacketRoute} and routing skips the path search.
+ *
+ * <p>Entries belong to one {@link PipeNetworkManager} topology version; the cache empties itself
+ * the first time it is used after the pipe graph changes.</p>
+ */
+public final class PacketRouteCache {
+
+    // Bound memory on servers with many controller/inventory pairs; rebuilding is cheap.
+    private static final int MAX_ENTRIES = 4096;
+
+    /** Cached route plus the destination-side pipe it ends at (needed for the filter check). */
+    public record Entry(PacketRoute route, Object destinationPipeLocation, PipeNode destinationPipe) {
+    }
+
+    private record Key(Object from, Object to) {
+    }
+
+    private final PipeNetworkManager pipes;
+    private final Map<Key, Entry> entries = new HashMap<>();
+    private long version = Long.MIN_VALUE;
+
+    PacketRouteCache(PipeNetworkManager pipes) {
+        this.pipes = pipes;
+    }
+
+    public Entry get(Object from, Object to) {
+        sync();
+        if (entries.isEmpty()) return null;
+        return entries.get(new Key(from, to));
+    }
+
+    public void put(Object from, Object to, Entry entry) {
+        if (from == null || to == null || entry == null) return;
+        sync();
+        if (entries.size() >= MAX_ENTRIES) entries.clear();
+        entries.put(new Key(from, to), entry);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    private void sync() {
+        long current = pipes.topologyVersion();
+        if (current != version) {
+            entries.clear();
+            version = current;
+        }
+    }
+}
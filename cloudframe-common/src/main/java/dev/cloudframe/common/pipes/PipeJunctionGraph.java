@@ -0,0 +1,250 @@
+package dev.cloudframe.common.pipes;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Compressed view of the pipe graph used for pathfinding.
+ *
+ * <p>Nodes are junctions: pipes with other than two connections (dead ends, branches, lone
+ * pipes). Each chain of two-connection pipes between two junctions is one {@link Segment}
+ * weighted by its length, so searches visit junctions instead of every pipe block. A pipe in the
+ * middle of a chain is resolved to its segment and its index in it, which is how query endpoints
+ * (e.g. the pipe next to an inventory) need not be junctions themselves.</p>
+ *
+ * <p>Maintained incrementally by {@link PipeNetworkManager}: a pipe change only drops the
+ * segments around it, and those are re-walked on the next query.</p>
+ */
+final class PipeJunctionGraph {
+
+    /** Chain of two-connection pipes between junctions {@code a} and {@code b}. */
+    static final class Segment {
+        final PipeNode a;
+        final PipeNode b;
+        final PipeNode[] interior; // ordered from a to b
+
+        Segment(PipeNode a, PipeNode b, PipeNode[] interior) {
+            this.a = a;
+            this.b = b;
+            this.interior = interior;
+        }
+
+        /** Steps from {@code a} to {@code b}. */
+        int weight() {
+            return interior.length + 1;
+        }
+
+        PipeNode other(PipeNode end) {
+            return end == a ? b : a;
+        }
+    }
+
+    private final Supplier<Collection<PipeNode>> allPipes;
+    private final Predicate<PipeNode> present;
+
+    private final Map<PipeNode, Segment> segmentOf = new HashMap<>(); // interior pipe -> its segment
+    private final Map<PipeNode, List<Segment>> segmentsAt = new HashMap<>(); // junction -> incident segments
+    // Pipes promoted to junctions so a closed loop with no branches still has an end.
+    private final Set<PipeNode> cycleAnchors = new HashSet<>();
+    private final Set<PipeNode> pending = new HashSet<>();
+    private boolean built;
+
+    PipeJunctionGraph(Supplier<Collection<PipeNode>> allPipes, Predicate<PipeNode> present) {
+        this.allPipes = allPipes;
+        this.present = present;
+    }
+
+    /** Forget everything; the next query rebuilds from all pipes. */
+    void invalidateAll() {
+        built = false;
+        segmentOf.clear();
+        segmentsAt.clear();
+        cycleAnchors.clear();
+        pending.clear();
+    }
+
+    /**
+     * Drop the segments through {@code node} and its neighbors. Call after the node's connections
+     * changed (and again before detaching it, when removing it).
+     */
+    void invalidate(PipeNode node) {
+        if (!built || node == null) return;
+        dropAround(node);
+        pending.add(node);
+        for (PipeNode n : node.getNeighbors()) {
+            dropAround(n);
+            pending.add(n);
+        }
+    }
+
+    /** Forget a pipe that is no longer in the network. */
+    void removed(PipeNode node) {
+        if (!built || node == null) return;
+        dropAround(node);
+        pending.remove(node);
+        cycleAnchors.remove(node);
+    }
+
+    int junctionCount() {
+        flush();
+        return segmentsAt.size();
+    }
+
+    int segmentCount() {
+        flush();
+        Set<Segment> all = new HashSet<>();
+        for (List<Segment> list : segmentsAt.values()) all.addAll(list);
+        return all.size();
+    }
+
+    /**
+     * Shortest pipe path from {@code start} to {@code end}, both inclusive, or null if they are
+     * not connected. Also null when either node isn't indexed (not part of the network).
+     */
+    List<PipeNode> findPath(PipeNode start, PipeNode end) {
+        flush();
+        if (!indexed(start) || !indexed(end)) return null;
+        return new PipePathTree(this, start, end).pathTo(end);
+    }
+
+    /** Single search from {@code source} to every pipe it can reach. */
+    PipePathTree search(PipeNode source) {
+        flush();
+        return new PipePathTree(this, source, null);
+    }
+
+    Segment segmentOf(PipeNode node) {
+        return segmentOf.get(node);
+    }
+
+    List<Segment> segmentsAt(PipeNode junction) {
+        return segmentsAt.get(junction);
+    }
+
+    boolean indexed(PipeNode node) {
+        return node != null && (segmentOf.containsKey(node) || segmentsAt.containsKey(node));
+    }
+
+    static int indexIn(Segment s, PipeNode node) {
+        PipeNode[] in = s.interior;
+        for (int i = 0; i < in.length; i++) {
+            if (in[i] == node) return i;
+        }
+        return -1;
+    }
+
+    private boolean isJunction(PipeNode node) {
+        return node.getNeighbors().size() != 2 || cycleAnchors.contains(node);
+    }
+
+    private void flush() {
+        if (!built) {
+            segmentOf.clear();
+            segmentsAt.clear();
+            cycleAnchors.clear();
+            pending.clear();
+            for (PipeNode node : allPipes.get()) attach(node);
+            built = true;
+            return;
+        }
+        if (pending.isEmpty()) return;
+        List<PipeNode> work = new ArrayList<>(pending);
+        pending.clear();
+        for (PipeNode node : work) attach(node);
+    }
+
+    // Make sure every chain through this pipe is indexed.
+    private void attach(PipeNode node) {
+        if (!present.test(node)) return;
+
+        if (isJunction(node)) {
+            segmentsAt.computeIfAbsent(node, k -> new ArrayList<>());
+            for (PipeNode n : node.getNeighbors()) {
+                if (!covered(node, n)) addSegment(walk(node, n));
+            }
+            return;
+        }
+
+        if (segmentOf.containsKey(node)) return;
+
+        // Find a junction at one end of this chain; indexing it covers the chain.
+        PipeNode prev = node;
+        PipeNode cur = node.getNeighbors().get(0);
+        while (cur != node && !isJunction(cur)) {
+            PipeNode next = otherNeighbor(cur, prev);
+            prev = cur;
+            cur = next;
+        }
+        if (cur == node) {
+            // Closed loop without branches: this pipe becomes its end.
+            cycleAnchors.add(node);
+            segmentsAt.computeIfAbsent(node, k -> new ArrayList<>());
+            addSegment(walk(node, node.getNeighbors().get(0)));
+            return;
+        }
+        attach(cur);
+    }
+
+    private boolean covered(PipeNode junction, PipeNode first) {
+        if (!isJunction(first)) return segmentOf.containsKey(first);
+        List<Segment> at = segmentsAt.get(junction);
+        if (at == null) return false;
+        for (Segment s : at) {
+            if (s.interior.length == 0 && s.other(junction) == first) return true;
+        }
+        return false;
+    }
+
+    private Segment walk(PipeNode from, PipeNode first) {
+        List<PipeNode> interior = new ArrayList<>();
+        PipeNode prev = from;
+        PipeNode cur = first;
+        while (!isJunction(cur)) {
+            interior.add(cur);
+            PipeNode next = otherNeighbor(cur, prev);
+            prev = cur;
+            cur = next;
+        }
+        return new Segment(from, cur, interior.toArray(new PipeNode[0]));
+    }
+
+    private static PipeNode otherNeighbor(PipeNode node, PipeNode prev) {
+        List<PipeNode> ns = node.getNeighbors();
+        return ns.get(0) == prev ? ns.get(1) : ns.get(0);
+    }
+
+    private void addSegment(Segment s) {
+        for (PipeNode p : s.interior) segmentOf.put(p, s);
+        segmentsAt.computeIfAbsent(s.a, k -> new ArrayList<>()).add(s);
+        if (s.b != s.a) segmentsAt.computeIfAbsent(s.b, k -> new ArrayList<>()).add(s);
+    }
+
+    private void dropAround(PipeNode node) {
+        Segment s = segmentOf.get(node);
+        if (s != null) dropSegment(s);
+        List<Segment> at = segmentsAt.remove(node);
+        if (at != null) {
+            for (Segment seg : new ArrayList<>(at)) dropSegment(seg);
+        }
+    }
+
+    private void dropSegment(Segment s) {
+        for (PipeNode p : s.interior) {
+            if (segmentOf.get(p) == s) segmentOf.remove(p);
+            pending.add(p);
+        }
+        List<Segment> atA = segmentsAt.get(s.a);
+        if (atA != null) atA.remove(s);
+        List<Segment> atB = segmentsAt.get(s.b);
+        if (atB != null) atB.remove(s);
+        pending.add(s.a);
+        pending.add(s.b);
+    }
+}
@@ -4,8 +4,8 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.ArrayDeque;
 import java.util.HashSet;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Queue;
@@ -22,7 +22,8 @@ import dev.cloudframe.common.util.DebugManager;
 /**
  * Platform-agnostic pipe network manager.
  * Holds pipe nodes, rebuilds neighbors, pathfinds, discovers inventories,
- * and persists pipe locations. Platform-specific operations are provided via
+ * and persists pipe locations. Paths are searched over a {@link PipeJunctionGraph} kept in
+ * step with the pipes. Platform-specific operations are provided via
  * ILocationAdapter and optional IPipeVisuals.
  */
 public class PipeNetworkManager {
@@ -37,6 +38,19 @@ public class PipeNetworkManager {
     private IPipeVisuals visuals;
     private final ILocationAdapter locations;
 
+    // Bumped whenever pipes or their connections change; routes cached under another version are stale.
+    private long topologyVersion;
+    private PacketRouteCache routes; // created on first use
+    private final PipeJunctionGraph junctions = new PipeJunctionGraph(
+            pipes::values,
+            node -> pipes.get(node.getLocation()) == node
+    );
+
+    // Search results per source pipe, for the topology version they were computed under.
+    private static final int MAX_PATH_TREES = 256;
+    private final Map<PipeNode, PipePathTree> pathTrees = new HashMap<>();
+    private long pathTreesVersion = Long.MIN_VALUE;
+
     public record ChunkKey(UUID worldId, int cx, int cz) {}
 
     // 6-direction adjacency vectors
@@ -116,11 +130,16 @@ public class PipeNetworkManager {
         }
 
         PipeNode node = new PipeNode(loc);
-        pipes.put(loc, node);
+        PipeNode previous = pipes.put(loc, node);
+        topologyVersion++;
+        if (previous != null) {
+            detach(previous);
+        }
 
         indexAdd(loc);
 
         rebuildNeighbors(loc);
+        junctions.invalidate(node);
 
         if (visuals != null) {
             try {
@@ -141,9 +160,12 @@ public class PipeNetworkManager {
             debug.log("removePipe", "Removing pipe at " + loc);
         }
 
-        pipes.remove(loc);
+        PipeNode node = pipes.remove(loc);
         indexRemove(loc);
-        rebuildAll();
+        if (node != null) {
+            topologyVersion++;
+            detach(node);
+        }
 
         if (visuals != null) {
             try {
@@ -155,6 +177,54 @@ public class PipeNetworkManager {
         }
     }
 
+    /** Changes whenever the pipe graph changes. */
+    public long topologyVersion() {
+        return topologyVersion;
+    }
+
+    /**
+     * Call after changing a node's connections outside this manager (e.g. its disabled sides)
+     * without a {@link #rebuildAll()}.
+     */
+    public void markTopologyChanged() {
+        topologyVersion++;
+        junctions.invalidateAll();
+    }
+
+    /**
+     * Re-link one pipe with its neighbors after its disabled sides changed, without rebuilding
+     * the whole network.
+     */
+    public void refreshConnections(Object loc) {
+        loc = locations.normalize(loc);
+        PipeNode node = pipes.get(loc);
+        if (node == null) return;
+
+        topologyVersion++;
+        junctions.invalidate(node);
+        for (PipeNode n : List.copyOf(node.getNeighbors())) {
+            n.removeNeighbor(node);
+        }
+        rebuildNeighbors(loc);
+        junctions.invalidate(node);
+    }
+
+    // Unlink a pipe that is being removed or replaced from its neighbors.
+    private void detach(PipeNode node) {
+        junctions.invalidate(node);
+        for (PipeNode n : node.getNeighbors()) {
+            n.removeNeighbor(node);
+        }
+        node.clearNeighbors();
+        junctions.removed(node);
+    }
+
+    /** Packet routes between controllers and inventories, valid for the current topology. */
+    public PacketRouteCache routes() {
+        if (routes == null) routes = new PacketRouteCache(this);
+        return routes;
+    }
+
     public PipeNode getPipe(Object loc) {
         return pipes.get(locations.normalize(loc));
     }
@@ -214,6 +284,8 @@ public class PipeNetworkManager {
             debug.log("rebuildAll", "Rebuilding all pipe neighbors (" + pipes.size() + " pipes)");
         }
 
+        topologyVersion++;
+        junctions.invalidateAll();
         for (PipeNode node : pipes.values()) {
             node.clearNeighbors();
         }
@@ -222,11 +294,58 @@ public class PipeNetworkManager {
         }
     }
 
+    /**
+     * Shortest pipe path from {@code start} to {@code end}, both inclusive, or null if they are
+     * not connected.
+     */
     public List<PipeNode> findPath(PipeNode start, PipeNode end) {
         debug.log("findPath", "Finding path from " + start.getLocation() +
                 " to " + end.getLocation());
 
-        Queue<PipeNode> queue = new LinkedList<>();
+        List<PipeNode> path = junctions.findPath(start, end);
+        if (path == null && (pipes.get(start.getLocation()) != start || pipes.get(end.getLocation()) != end)) {
+            // Stale node (no longer in the network): walk its old links directly.
+            path = findPathBfs(start, end);
+        }
+
+        if (path != null) {
+            debug.log("findPath", "Path found, length=" + path.size());
+        } else {
+            debug.log("findPath", "No path found");
+        }
+        return path;
+    }
+
+    /**
+     * Shortest distances and paths from {@code source} to every pipe it reaches, from one search.
+     * Reused until the topology changes.
+     */
+    public PipePathTree pathsFrom(PipeNode source) {
+        if (pathTreesVersion != topologyVersion) {
+            pathTrees.clear();
+            pathTreesVersion = topologyVersion;
+        }
+        PipePathTree tree = pathTrees.get(source);
+        if (tree == null) {
+            if (pathTrees.size() >= MAX_PATH_TREES) pathTrees.clear();
+            tree = junctions.search(source);
+            pathTrees.put(source, tree);
+        }
+        return tree;
+    }
+
+    /** Junctions (pipes with other than two connections) in the compressed path graph. */
+    public int junctionCount() {
+        return junctions.junctionCount();
+    }
+
+    /** Straight-run segments between junctions in the compressed path graph. */
+    public int segmentCount() {
+        return junctions.segmentCount();
+    }
+
+    private List<PipeNode> findPathBfs(PipeNode start, PipeNode end) {
+        Queue<PipeNode> queue = new ArrayDeque<>();
         Map<PipeNode, PipeNode> parent = new HashMap<>();
 
         queue.add(start);
@@ -236,9 +355,7 @@ public class PipeNetworkManager {
             PipeNode current = queue.poll();
 
             if (current == end) {
-                List<PipeNode> path = buildPath(parent, end);
-                debug.log("findPath", "Path found, length=" + path.size());
-                return path;
+                return buildPath(parent, end);
             }
 
             for (PipeNode n : current.getNeighbors()) {
@@ -248,8 +365,6 @@ public class PipeNetworkManager {
                 }
             }
         }
-
-        debug.log("findPath", "No path found");
         return null;
     }
 
@@ -271,7 +386,7 @@ public class PipeNetworkManager {
 
         Set<Object> result = new HashSet<>();
 
-        Queue<PipeNode> queue = new LinkedList<>();
+        Queue<PipeNode> queue = new ArrayDeque<>();
         Set<PipeNode> visited = new HashSet<>();
 
         queue.add(start);
@@ -350,6 +465,8 @@ public class PipeNetworkManager {
 
         pipes.clear();
         pipesByChunk.clear();
+        topologyVersion++;
+        junctions.invalidateAll();
 
         Database.run(conn -> {
             var rs = conn.createStatement().executeQuery("SELECT * FROM pipes");
@@ -31,7 +31,12 @@ public class PipeNode {
     }
 
     public void addNeighbor(PipeNode node) {
-        neighbors.add(node);
+        // At most six neighbors; keep the list free of duplicates so its size is the pipe's degree.
+        if (!neighbors.contains(node)) neighbors.add(node);
+    }
+
+    public void removeNeighbor(PipeNode node) {
+        neighbors.remove(node);
     }
 
     public void clearNeighbors() {
@@ -0,0 +1,223 @@
+package dev.cloudframe.common.pipes;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+import dev.cloudframe.common.pipes.PipeJunctionGraph.Segment;
+
+/**
+ * Shortest pipe distances from one source pipe, from a single Dijkstra search over the
+ * {@link PipeJunctionGraph}.
+ *
+ * <p>Distances and paths to any number of pipes are read from the same search, so routing can
+ * rank every candidate destination by true pipe distance without searching once per candidate.
+ * Valid until the pipe topology changes ({@link PipeNetworkManager#topologyVersion()}).</p>
+ */
+public final class PipePathTree {
+
+    private record Entry(PipeNode node, int dist) {
+    }
+
+    // Best known way to reach a junction.
+    private static final class Label {
+        int dist;
+        PipeNode from; // previous junction, null for a seed
+        Segment via; // segment from 'from' (or, for a seed, the source's own segment)
+        int seedDir; // seeds only: -1 source walks toward via.a, +1 toward via.b
+
+        Label(int dist, PipeNode from, Segment via, int seedDir) {
+            this.dist = dist;
+            this.from = from;
+            this.via = via;
+            this.seedDir = seedDir;
+        }
+    }
+
+    // How a pipe is reached: over 'junction' (then into its segment from side endDir), or,
+    // with a null junction, straight along the source's own segment.
+    private record Arrival(int dist, PipeNode junction, int endDir, Segment segment, int index) {
+    }
+
+    private final PipeJunctionGraph graph;
+    private final PipeNode source;
+    private final Segment sourceSeg;
+    private final int sourceIdx;
+    private final Map<PipeNode, Label> labels = new HashMap<>();
+
+    /**
+     * Searches from {@code source}. With a {@code target}, stops as soon as the target's distance
+     * is settled; otherwise labels the whole network reachable from the source.
+     */
+    PipePathTree(PipeJunctionGraph graph, PipeNode source, PipeNode target) {
+        this.graph = graph;
+        this.source = source;
+
+        if (!graph.indexed(source)) {
+            this.sourceSeg = null;
+            this.sourceIdx = -1;
+            return;
+        }
+
+        this.sourceSeg = graph.segmentOf(source);
+        this.sourceIdx = sourceSeg != null ? PipeJunctionGraph.indexIn(sourceSeg, source) : -1;
+        run(target);
+    }
+
+    public PipeNode source() {
+        return source;
+    }
+
+    /** Junctions labeled by the search. */
+    public int labeledJunctions() {
+        return labels.size();
+    }
+
+    /** Pipe steps from the source to {@code node}, or -1 if it is not reachable. */
+    public int distanceTo(PipeNode node) {
+        Arrival arrival = resolve(node);
+        return arrival != null ? arrival.dist : -1;
+    }
+
+    /**
+     * Shortest path from the source to {@code node}, both inclusive, or null if it is not
+     * reachable.
+     */
+    public List<PipeNode> pathTo(PipeNode node) {
+        Arrival arrival = resolve(node);
+        if (arrival == null) return null;
+
+        List<PipeNode> path = new ArrayList<>(arrival.dist + 1);
+        if (arrival.junction == null) {
+            // Straight along the source's chain.
+            int step = arrival.index >= sourceIdx ? 1 : -1;
+            for (int i = sourceIdx; i != arrival.index + step; i += step) path.add(sourceSeg.interior[i]);
+            return path;
+        }
+
+        // Junction hops, last to first.
+        List<PipeNode> hops = new ArrayList<>();
+        for (PipeNode j = arrival.junction; j != null; j = labels.get(j).from) hops.add(j);
+
+        PipeNode first = hops.get(hops.size() - 1);
+        Label seed = labels.get(first);
+        if (seed.via != null) {
+            PipeNode[] in = seed.via.interior;
+            if (seed.seedDir < 0) {
+                for (int i = sourceIdx; i >= 0; i--) path.add(in[i]);
+            } else {
+                for (int i = sourceIdx; i < in.length; i++) path.add(in[i]);
+            }
+        }
+        path.add(first);
+
+        for (int h = hops.size() - 2; h >= 0; h--) {
+            PipeNode to = hops.get(h);
+            Label label = labels.get(to);
+            PipeNode[] in = label.via.interior;
+            if (label.via.a == label.from) {
+                for (PipeNode p : in) path.add(p);
+            } else {
+                for (int i = in.length - 1; i >= 0; i--) path.add(in[i]);
+            }
+            path.add(to);
+        }
+
+        if (arrival.endDir < 0) {
+            for (int i = 0; i <= arrival.index; i++) path.add(arrival.segment.interior[i]);
+        } else if (arrival.endDir > 0) {
+            for (int i = arrival.segment.interior.length - 1; i >= arrival.index; i--) path.add(arrival.segment.interior[i]);
+        }
+        return path;
+    }
+
+    private Arrival resolve(PipeNode node) {
+        if (node == null || labels.isEmpty()) return null;
+
+        Segment seg = graph.segmentOf(node);
+        if (seg == null) {
+            Label label = labels.get(node);
+            return label != null ? new Arrival(label.dist, node, 0, null, -1) : null;
+        }
+
+        int idx = PipeJunctionGraph.indexIn(seg, node);
+        Arrival best = null;
+        if (seg == sourceSeg) {
+            best = new Arrival(Math.abs(sourceIdx - idx), null, 0, seg, idx);
+        }
+        Label la = labels.get(seg.a);
+        if (la != null && (best == null || la.dist + idx + 1 < best.dist)) {
+            best = new Arrival(la.dist + idx + 1, seg.a, -1, seg, idx);
+        }
+        Label lb = labels.get(seg.b);
+        int fromB = seg.interior.length - idx;
+        if (lb != null && (best == null || lb.dist + fromB < best.dist)) {
+            best = new Arrival(lb.dist + fromB, seg.b, 1, seg, idx);
+        }
+        return best;
+    }
+
+    private void run(PipeNode target) {
+        PriorityQueue<Entry> heap = new PriorityQueue<>((x, y) -> Integer.compare(x.dist, y.dist));
+
+        if (sourceSeg == null) {
+            seed(heap, source, 0, null, 0);
+        } else {
+            seed(heap, sourceSeg.a, sourceIdx + 1, sourceSeg, -1);
+            seed(heap, sourceSeg.b, sourceSeg.interior.length - sourceIdx, sourceSeg, 1);
+        }
+
+        // Early exit for single-target searches: stop once nothing cheaper than the best
+        // known arrival at the target is left in the heap.
+        Segment targetSeg = target != null ? graph.segmentOf(target) : null;
+        int targetIdx = targetSeg != null ? PipeJunctionGraph.indexIn(targetSeg, target) : -1;
+        int bound = Integer.MAX_VALUE;
+        if (targetSeg != null && targetSeg == sourceSeg) {
+            bound = Math.abs(sourceIdx - targetIdx);
+        }
+
+        while (!heap.isEmpty()) {
+            Entry e = heap.poll();
+            Label label = labels.get(e.node);
+            if (label == null || e.dist > label.dist) continue;
+            if (e.dist >= bound) break;
+
+            PipeNode j = e.node;
+            if (target != null) {
+                if (j == target) break;
+                if (targetSeg != null) {
+                    if (j == targetSeg.a) bound = Math.min(bound, e.dist + targetIdx + 1);
+                    if (j == targetSeg.b) bound = Math.min(bound, e.dist + targetSeg.interior.length - targetIdx);
+                }
+            }
+
+            List<Segment> out = graph.segmentsAt(j);
+            if (out == null) continue;
+            for (Segment s : out) {
+                PipeNode o = s.other(j);
+                if (o == j) continue;
+                int nd = e.dist + s.weight();
+                Label cur = labels.get(o);
+                if (cur == null) {
+                    labels.put(o, new Label(nd, j, s, 0));
+                    heap.add(new Entry(o, nd));
+                } else if (nd < cur.dist) {
+                    cur.dist = nd;
+                    cur.from = j;
+                    cur.via = s;
+                    cur.seedDir = 0;
+                    heap.add(new Entry(o, nd));
+                }
+            }
+        }
+    }
+
+    private void seed(PriorityQueue<Entry> heap, PipeNode junction, int dist, Segment via, int dir) {
+        Label cur = labels.get(junction);
+        if (cur != null && cur.dist <= dist) return;
+        labels.put(junction, new Label(dist, null, via, dir));
+        heap.add(new Entry(junction, dist));
+    }
+}
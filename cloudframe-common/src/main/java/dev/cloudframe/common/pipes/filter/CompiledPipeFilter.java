@@ -0,0 +1,53 @@
+package dev.cloudframe.common.pipes.filter;
+
+import dev.cloudframe.common.platform.items.ItemIdentityInterner;
+
+/**
+ * Immutable, routing-ready form of a {@link PipeFilterState}.
+ *
+ * The listed item types are stored as a bitset over interned type ids
+ * ({@link ItemIdentityInterner}), so a filter check is one bit test. Built when a filter's
+ * mode or items change, never per routed item.
+ */
+public final class CompiledPipeFilter {
+
+    /** Filter that allows every item (no filter, or an empty list in either mode). */
+    public static final CompiledPipeFilter ALLOW_ALL = new CompiledPipeFilter(true, new long[0]);
+
+    private final boolean blacklist;
+    private final long[] bits;
+
+    private CompiledPipeFilter(boolean blacklist, long[] bits) {
+        this.blacklist = blacklist;
+        this.bits = bits;
+    }
+
+    /**
+     * Compiles the given mode and interned type ids ({@link ItemIdentityInterner#NONE} entries
+     * are empty slots).
+     */
+    public static CompiledPipeFilter compile(int mode, int[] typeIds) {
+        int max = -1;
+        if (typeIds != null) {
+            for (int id : typeIds) {
+                if (id > max) max = id;
+            }
+        }
+        // Policy: empty list = no filtering (allow everything), regardless of mode.
+        if (max < 0) return ALLOW_ALL;
+
+        long[] bits = new long[(max >>> 6) + 1];
+        for (int id : typeIds) {
+            if (id >= 0) bits[id >>> 6] |= 1L << id;
+        }
+        return new CompiledPipeFilter(mode == PipeFilterState.MODE_BLACKLIST, bits);
+    }
+
+    public boolean allows(int typeId) {
+        if (typeId < 0) return true;
+        int word = typeId >>> 6;
+        boolean matched = word < bits.length && (bits[word] & (1L << typeId)) != 0L;
+        // Blacklist blocks listed items; whitelist allows only listed items.
+        return matched != blacklist;
+    }
+}
@@ -6,42 +6,101 @@ import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 
+import dev.cloudframe.common.util.BlockPosPacking;
+import dev.cloudframe.common.util.LongObjectHashMap;
+
 /**
  * Default portable implementation: an in-memory cache backed by SQLite persistence.
+ *
+ * Filters are indexed by world, then packed pipe position, with the up to six faces of one pipe
+ * in a single array, so lookups and per-pipe removal never scan other pipes' filters.
  */
 public final class InMemoryPipeFilterService implements PipeFilterService {
 
-    private final Map<PipeFilterKey, PipeFilterState> filters = new HashMap<>();
+    private static final int SIDE_COUNT = 6;
+
+    // World id -> packed pipe position -> that pipe's faces.
+    private final Map<String, LongObjectHashMap<Faces>> byWorld = new HashMap<>();
+    private int filterCount;
+
+    /** Filters on one pipe, indexed by side. */
+    private static final class Faces {
+        final int x;
+        final int y;
+        final int z;
+        final PipeFilterState[] sides = new PipeFilterState[SIDE_COUNT];
+        int count;
+
+        Faces(int x, int y, int z) {
+            this.x = x;
+            this.y = y;
+            this.z = z;
+        }
+    }
 
     @Override
     public void loadAll() {
-        filters.clear();
-        filters.putAll(PipeFilterRepository.loadAll());
+        byWorld.clear();
+        filterCount = 0;
+        for (Map.Entry<PipeFilterKey, PipeFilterState> e : PipeFilterRepository.loadAll().entrySet()) {
+            put(e.getKey(), e.getValue());
+        }
     }
 
+    /** Snapshot of all filter keys; per-pipe operations should use the position-based methods. */
     @Override
     public Set<PipeFilterKey> keys() {
-        return Collections.unmodifiableSet(new HashSet<>(filters.keySet()));
+        if (filterCount == 0) return Collections.emptySet();
+        Set<PipeFilterKey> out = new HashSet<>(filterCount * 2);
+        for (Map.Entry<String, LongObjectHashMap<Faces>> e : byWorld.entrySet()) {
+            String worldId = e.getKey();
+            e.getValue().forEachValue(f -> {
+                for (int side = 0; side < SIDE_COUNT; side++) {
+                    if (f.sides[side] != null) out.add(new PipeFilterKey(worldId, f.x, f.y, f.z, side));
+                }
+            });
+        }
+        return Collections.unmodifiableSet(out);
     }
 
     @Override
     public boolean hasFilter(PipeFilterKey key) {
-        return key != null && filters.containsKey(key);
+        return get(key) != null;
     }
 
     @Override
     public PipeFilterState get(PipeFilterKey key) {
-        return key == null ? null : filters.get(key);
+        if (key == null) return null;
+        return get(key.worldId(), key.x(), key.y(), key.z(), key.side());
+    }
+
+    @Override
+    public PipeFilterState get(String worldId, int x, int y, int z, int side) {
+        if (side < 0 || side >= SIDE_COUNT) return null;
+        Faces f = faces(worldId, x, y, z);
+        return f == null ? null : f.sides[side];
+    }
+
+    @Override
+    public int filteredSides(String worldId, int x, int y, int z) {
+        Faces f = faces(worldId, x, y, z);
+        if (f == null) return 0;
+        int mask = 0;
+        for (int side = 0; side < SIDE_COUNT; side++) {
+            if (f.sides[side] != null) mask |= 1 << side;
+        }
+        return mask;
     }
 
     @Override
     public PipeFilterState getOrCreate(PipeFilterKey key) {
         if (key == null) return null;
-        PipeFilterState existing = filters.get(key);
+        if (key.side() < 0 || key.side() >= SIDE_COUNT) return null;
+        PipeFilterState existing = get(key);
         if (existing != null) return existing;
 
         PipeFilterState created = new PipeFilterState(PipeFilterState.MODE_WHITELIST, null);
-        filters.put(key, created);
+        put(key, created);
         PipeFilterRepository.upsert(key, created);
         return created;
     }
@@ -63,6 +122,7 @@ public final class InMemoryPipeFilterService implements PipeFilterService {
         for (int i = 0; i < PipeFilterState.SLOT_COUNT; i++) {
             st.setItemId(i, canonical[i]);
         }
+        st.compiled();
 
         PipeFilterRepository.upsert(key, st);
     }
@@ -77,6 +137,7 @@ public final class InMemoryPipeFilterService implements PipeFilterService {
         for (int i = 0; i < PipeFilterState.SLOT_COUNT; i++) {
             st.setItemId(i, ids[i]);
         }
+        st.compiled();
 
         PipeFilterRepository.upsert(key, st);
     }
@@ -84,27 +145,31 @@ public final class InMemoryPipeFilterService implements PipeFilterService {
     @Override
     public void remove(PipeFilterKey key) {
         if (key == null) return;
-        filters.remove(key);
+        LongObjectHashMap<Faces> map = byWorld.get(key.worldId());
+        long packed = BlockPosPacking.pack(key.x(), key.y(), key.z());
+        Faces f = map == null ? null : map.get(packed);
+        int side = key.side();
+        if (f != null && side >= 0 && side < SIDE_COUNT && f.sides[side] != null) {
+            f.sides[side] = null;
+            filterCount--;
+            if (--f.count == 0) {
+                map.remove(packed);
+                if (map.isEmpty()) byWorld.remove(key.worldId());
+            }
+        }
         PipeFilterRepository.delete(key);
     }
 
     @Override
     public void removeAllAt(String worldId, int x, int y, int z) {
-        // Remove from memory
-        Set<PipeFilterKey> toRemove = new HashSet<>();
-        for (PipeFilterKey k : filters.keySet()) {
-            if (k == null) continue;
-            if (x == k.x() && y == k.y() && z == k.z()) {
-                String w = k.worldId();
-                if (worldId == null ? w == null : worldId.equals(w)) {
-                    toRemove.add(k);
-                }
-            }
-        }
-        for (PipeFilterKey k : toRemove) {
-            filters.remove(k);
-        }
-
+        LongObjectHashMap<Faces> map = byWorld.get(worldId);
+        Faces f = map == null ? null : map.remove(BlockPosPacking.pack(x, y, z));
+        // The table only ever holds what was loaded into (or written through) this cache, so a
+        // pipe without filters in memory has no rows to delete. Most broken pipes take this path.
+        if (f == null) return;
+
+        filterCount -= f.count;
+        if (map.isEmpty()) byWorld.remove(worldId);
         PipeFilterRepository.deleteAllAt(worldId, x, y, z);
     }
 
@@ -114,4 +179,48 @@ public final class InMemoryPipeFilterService implements PipeFilterService {
         if (st == null) return true;
         return st.allows(itemId);
     }
+
+    @Override
+    public boolean allows(PipeFilterKey key, int itemTypeId) {
+        PipeFilterState st = get(key);
+        if (st == null) return true;
+        return st.allows(itemTypeId);
+    }
+
+    @Override
+    public CompiledPipeFilter compiled(PipeFilterKey key) {
+        PipeFilterState st = get(key);
+        return st == null ? null : st.compiled();
+    }
+
+    @Override
+    public CompiledPipeFilter compiled(String worldId, int x, int y, int z, int side) {
+        PipeFilterState st = get(worldId, x, y, z, side);
+        return st == null ? null : st.compiled();
+    }
+
+    private Faces faces(String worldId, int x, int y, int z) {
+        if (filterCount == 0) return null;
+        LongObjectHashMap<Faces> map = byWorld.get(worldId);
+        return map == null ? null : map.get(BlockPosPacking.pack(x, y, z));
+    }
+
+    private void put(PipeFilterKey key, PipeFilterState state) {
+        if (key == null || state == null) return;
+        int side = key.side();
+        if (side < 0 || side >= SIDE_COUNT) return;
+
+        LongObjectHashMap<Faces> map = byWorld.computeIfAbsent(key.worldId(), w -> new LongObjectHashMap<>());
+        long packed = BlockPosPacking.pack(key.x(), key.y(), key.z());
+        Faces f = map.get(packed);
+        if (f == null) {
+            f = new Faces(key.x(), key.y(), key.z());
+            map.put(packed, f);
+        }
+        if (f.sides[side] == null) {
+            f.count++;
+            filterCount++;
+        }
+        f.sides[side] = state;
+    }
 }
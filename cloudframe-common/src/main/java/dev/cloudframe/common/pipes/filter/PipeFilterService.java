@@ -20,6 +20,12 @@ public interface PipeFilterService {
 
     PipeFilterState get(PipeFilterKey key);
 
+    /** Position-based {@link #get(PipeFilterKey)} that avoids building a key. */
+    PipeFilterState get(String worldId, int x, int y, int z, int side);
+
+    /** Bitmask of the sides (bit = side index) of the pipe at the position that have a filter. */
+    int filteredSides(String worldId, int x, int y, int z);
+
     PipeFilterState getOrCreate(PipeFilterKey key);
 
     void setMode(PipeFilterKey key, int mode);
@@ -43,4 +49,13 @@ public interface PipeFilterService {
     void removeAllAt(String worldId, int x, int y, int z);
 
     boolean allows(PipeFilterKey key, String itemId);
+
+    /** Same as {@link #allows(PipeFilterKey, String)}, for an interned item type id. */
+    boolean allows(PipeFilterKey key, int itemTypeId);
+
+    /** Compiled filter for routing checks, or null if the side has no filter. */
+    CompiledPipeFilter compiled(PipeFilterKey key);
+
+    /** Position-based {@link #compiled(PipeFilterKey)} for routing hot paths. */
+    CompiledPipeFilter compiled(String worldId, int x, int y, int z, int side);
 }
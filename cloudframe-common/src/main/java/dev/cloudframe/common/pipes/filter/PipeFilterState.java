@@ -2,10 +2,13 @@ package dev.cloudframe.common.pipes.filter;
 
 import java.util.Arrays;
 
+import dev.cloudframe.common.platform.items.ItemIdentityInterner;
+
 /**
  * Platform-neutral filter state.
  *
- * Stores item identifiers as strings (e.g. "minecraft:stone").
+ * Stores item identifiers as strings (e.g. "minecraft:stone") for persistence and UI, alongside
+ * their interned ids ({@link ItemIdentityInterner}) for routing checks.
  */
 public final class PipeFilterState {
 
@@ -16,16 +19,17 @@ public final class PipeFilterState {
 
     private int mode;
     private final String[] itemIds = new String[SLOT_COUNT];
+    private final int[] typeIds = new int[SLOT_COUNT];
+    // Rebuilt on the first check after mode or items change; null means stale.
+    private CompiledPipeFilter compiled;
 
     public PipeFilterState(int mode, String[] initialItemIds) {
         setMode(mode);
         Arrays.fill(this.itemIds, null);
+        Arrays.fill(this.typeIds, ItemIdentityInterner.NONE);
         if (initialItemIds != null) {
             for (int i = 0; i < Math.min(SLOT_COUNT, initialItemIds.length); i++) {
-                String id = normalizeId(initialItemIds[i]);
-                if (id != null) {
-                    this.itemIds[i] = id;
-                }
+                setItemId(i, initialItemIds[i]);
             }
         }
     }
@@ -36,6 +40,7 @@ public final class PipeFilterState {
 
     public void setMode(int mode) {
         this.mode = (mode == MODE_BLACKLIST) ? MODE_BLACKLIST : MODE_WHITELIST;
+        this.compiled = null;
     }
 
     public String getItemId(int slot) {
@@ -45,7 +50,10 @@ public final class PipeFilterState {
 
     public void setItemId(int slot, String itemId) {
         if (slot < 0 || slot >= SLOT_COUNT) return;
-        itemIds[slot] = normalizeId(itemId);
+        String id = normalizeId(itemId);
+        itemIds[slot] = id;
+        typeIds[slot] = ItemIdentityInterner.global().intern(id);
+        compiled = null;
     }
 
     public String[] copyItemIds() {
@@ -71,6 +79,23 @@ public final class PipeFilterState {
         return matched;
     }
 
+    /**
+     * Same policy as {@link #allows(String)}, matched on an interned item type id.
+     */
+    public boolean allows(int typeId) {
+        return compiled().allows(typeId);
+    }
+
+    /** Routing form of this filter, compiled once per change. */
+    public CompiledPipeFilter compiled() {
+        CompiledPipeFilter c = compiled;
+        if (c == null) {
+            c = CompiledPipeFilter.compile(mode, typeIds);
+            compiled = c;
+        }
+        return c;
+    }
+
     private boolean isEmptyList() {
         for (String id : itemIds) {
             if (id != null) return false;
@@ -0,0 +1,75 @@
+package dev.cloudframe.common.platform.items;
+
+import java.util.Arrays;
+
+/**
+ * Point-in-time view of an inventory's free space, as computed by {@link InventoryCapacity}.
+ *
+ * <p>Holds the empty-slot count and, per item type (a caller-chosen int id), the room left in
+ * partially filled stacks that item can merge into. Item types are filled in lazily as they are
+ * queried. Known inserts can be applied in place instead of rescanning the inventory.</p>
+ */
+public final class CapacitySnapshot {
+
+    private int emptySlots;
+    private int[] itemIds = new int[4];
+    private int[] mergeableRoom = new int[4];
+    private int count;
+
+    public CapacitySnapshot(int emptySlots) {
+        this.emptySlots = Math.max(0, emptySlots);
+    }
+
+    public int emptySlots() {
+        return emptySlots;
+    }
+
+    /** Room in partial stacks for {@code itemId}, or -1 if not computed yet. */
+    public int mergeableRoom(int itemId) {
+        int i = indexOf(itemId);
+        return i >= 0 ? mergeableRoom[i] : -1;
+    }
+
+    public void putMergeableRoom(int itemId, int room) {
+        int i = indexOf(itemId);
+        if (i < 0) {
+            if (count == itemIds.length) {
+                itemIds = Arrays.copyOf(itemIds, count * 2);
+                mergeableRoom = Arrays.copyOf(mergeableRoom, count * 2);
+            }
+            i = count++;
+            itemIds[i] = itemId;
+        }
+        mergeableRoom[i] = Math.max(0, room);
+    }
+
+    /**
+     * Apply an insert of {@code amount} items of {@code itemId} (partial stacks first, then empty
+     * slots, like {@link InventoryInsert}). Returns false if the item's room was never computed,
+     * in which case the snapshot can't be kept exact and should be dropped.
+     */
+    public boolean applyInsert(int itemId, int amount, int maxPerStack) {
+        if (amount <= 0) return true;
+        int i = indexOf(itemId);
+        if (i < 0) return false;
+
+        int intoPartial = Math.min(amount, mergeableRoom[i]);
+        mergeableRoom[i] -= intoPartial;
+        int rest = amount - intoPartial;
+        if (rest <= 0) return true;
+
+        int perStack = Math.max(1, maxPerStack);
+        int slotsUsed = (rest + perStack - 1) / perStack;
+        emptySlots = Math.max(0, emptySlots - slotsUsed);
+        // The last new stack may be partial; other item types can't merge into it.
+        mergeableRoom[i] += slotsUsed * perStack - rest;
+        return true;
+    }
+
+    private int indexOf(int itemId) {
+        for (int i = 0; i < count; i++) {
+            if (itemIds[i] == itemId) return i;
+        }
+        return -1;
+    }
+}
@@ -1,5 +1,9 @@
 package dev.cloudframe.common.platform.items;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
 /**
  * Portable inventory insertion algorithm.
  *
@@ -64,4 +68,116 @@ public final class InventoryInsert {
         int inserted = original - stack.getCount(remaining);
         return Math.max(0, inserted);
     }
+
+    /**
+     * Inserts several items with one pass over the slots and one {@code markDirty}.
+     *
+     * Items are inserted in list order with the same rules as {@link #addItem}: each fills
+     * partial stacks it can merge into (including stacks placed by earlier items in the list),
+     * then empty slots. The per-item results match calling {@link #addItem} for each item in
+     * turn, for items no larger than one stack. The passed items are NOT mutated.
+     *
+     * @return per-item number of items actually inserted, parallel to {@code items}
+     */
+    public static <INV, STACK> int[] addItems(
+        INV inventory,
+        List<STACK> items,
+        SlottedInventoryAdapter<INV, STACK> inv,
+        ItemStackAdapter<STACK> stack
+    ) {
+        int n = items == null ? 0 : items.size();
+        int[] inserted = new int[n];
+        if (inventory == null || n == 0 || inv == null || stack == null) return inserted;
+
+        // Pool mergeable items: pool p is represented by its first item.
+        List<STACK> pools = new ArrayList<>();
+        int[] poolOf = new int[n];
+        for (int k = 0; k < n; k++) {
+            STACK item = items.get(k);
+            poolOf[k] = -1;
+            if (item == null || stack.isEmpty(item) || stack.getCount(item) <= 0) continue;
+            int p = 0;
+            while (p < pools.size() && !stack.canMerge(pools.get(p), item)) p++;
+            if (p == pools.size()) pools.add(item);
+            poolOf[k] = p;
+        }
+        if (pools.isEmpty()) return inserted;
+
+        // Single slot pass: queue each pool's partial stacks in slot order, and the empty slots.
+        int size = inv.size(inventory);
+        int[] emptySlots = new int[size];
+        int emptyCount = 0;
+        int[] head = new int[pools.size()];
+        int[] tail = new int[pools.size()];
+        int[] next = new int[size];
+        Arrays.fill(head, -1);
+        Arrays.fill(tail, -1);
+        Arrays.fill(next, -1);
+        @SuppressWarnings("unchecked")
+        STACK[] slots = (STACK[]) new Object[size];
+        for (int i = 0; i < size; i++) {
+            STACK slot = inv.getStack(inventory, i);
+            if (slot == null || stack.isEmpty(slot)) {
+                emptySlots[emptyCount++] = i;
+                continue;
+            }
+            if (stack.getMaxCount(slot) - stack.getCount(slot) <= 0) continue;
+            for (int p = 0; p < head.length; p++) {
+                if (!stack.canMerge(slot, pools.get(p))) continue;
+                slots[i] = slot;
+                enqueue(head, tail, next, p, i);
+                break;
+            }
+        }
+
+        int nextEmpty = 0;
+        boolean changed = false;
+        for (int k = 0; k < n; k++) {
+            int p = poolOf[k];
+            if (p < 0) continue;
+            int left = stack.getCount(items.get(k));
+
+            // Top up partial stacks; a stack that fills up leaves the queue.
+            while (left > 0 && head[p] >= 0) {
+                int i = head[p];
+                STACK slot = slots[i];
+                int transfer = Math.min(stack.getMaxCount(slot) - stack.getCount(slot), left);
+                stack.setCount(slot, stack.getCount(slot) + transfer);
+                left -= transfer;
+                inv.setStack(inventory, i, slot);
+                changed = true;
+                if (stack.getCount(slot) >= stack.getMaxCount(slot)) head[p] = next[i];
+            }
+
+            // Then empty slots, in full stacks; a partial last stack takes later items of the pool.
+            int perStack = Math.max(1, stack.getMaxCount(pools.get(p)));
+            while (left > 0 && nextEmpty < emptyCount) {
+                int i = emptySlots[nextEmpty++];
+                int amount = Math.min(perStack, left);
+                STACK placed = stack.copy(pools.get(p));
+                stack.setCount(placed, amount);
+                inv.setStack(inventory, i, placed);
+                left -= amount;
+                changed = true;
+                if (amount < perStack) {
+                    slots[i] = placed;
+                    enqueue(head, tail, next, p, i);
+                }
+            }
+
+            inserted[k] = stack.getCount(items.get(k)) - left;
+        }
+
+        if (changed) inv.markDirty(inventory);
+        return inserted;
+    }
+
+    private static void enqueue(int[] head, int[] tail, int[] next, int pool, int slot) {
+        if (head[pool] < 0) {
+            head[pool] = slot;
+        } else {
+            next[tail[pool]] = slot;
+        }
+        tail[pool] = slot;
+    }
 }
@@ -14,4 +14,12 @@ public interface ItemIdRegistry<ITEM> {
 
     /** Resolves an item by its stable id, or null if unknown/invalid. */
     ITEM itemById(String id);
+
+    /**
+     * Interned int id of the given item ({@link ItemIdentityInterner#global()}), or
+     * {@link ItemIdentityInterner#NONE}. Implementations may cache per item.
+     */
+    default int internedIdOf(ITEM item) {
+        return ItemIdentityInterner.global().intern(idOf(item));
+    }
 }
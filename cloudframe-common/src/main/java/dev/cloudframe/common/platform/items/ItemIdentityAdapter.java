@@ -0,0 +1,20 @@
+package dev.cloudframe.common.platform.items;
+
+/**
+ * Platform adapter for interned item identities (see {@link ItemIdentityInterner}).
+ *
+ * <p>Implementations should cache per item type so the common case does no string work.</p>
+ *
+ * @param <STACK> platform stack type
+ */
+public interface ItemIdentityAdapter<STACK> {
+
+    /** Interned id of the stack's item type, or {@link ItemIdentityInterner#NONE} if empty. */
+    int typeId(STACK stack);
+
+    /**
+     * Interned id of the stack's full identity (type plus components/metadata, no count).
+     * Stacks that can merge share an id; a stack without custom data returns {@link #typeId}.
+     */
+    int stackId(STACK stack);
+}
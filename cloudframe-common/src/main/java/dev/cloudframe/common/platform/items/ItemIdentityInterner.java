@@ -0,0 +1,63 @@
+package dev.cloudframe.common.platform.items;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maps stable item identity strings to dense ints for hot routing paths.
+ *
+ * <p>Two kinds of keys share one id space: item types (a registry id such as
+ * {@code "minecraft:stone"}, used by filters) and full stack identities (the type id plus a
+ * component/metadata signature, used where stacks must merge). A stack without custom data has
+ * the same id as its type. Ids are only stable for the lifetime of the process; persist and
+ * display the string forms ({@link #keyOf(int)}), never the ints.</p>
+ */
+public final class ItemIdentityInterner {
+
+    /** Id returned for null/empty/unknown keys. */
+    public static final int NONE = -1;
+
+    private static final ItemIdentityInterner GLOBAL = new ItemIdentityInterner();
+
+    private final Map<String, Integer> ids = new HashMap<>();
+    private final List<String> keys = new ArrayList<>();
+
+    /** Server-wide interner shared by filters, in-flight accounting and output buffers. */
+    public static ItemIdentityInterner global() {
+        return GLOBAL;
+    }
+
+    /**
+     * Returns the id for {@code key}, assigning the next dense id on first use.
+     */
+    public synchronized int intern(String key) {
+        if (key == null || key.isEmpty()) return NONE;
+        Integer id = ids.get(key);
+        if (id != null) return id;
+        int next = keys.size();
+        keys.add(key);
+        ids.put(key, next);
+        return next;
+    }
+
+    /**
+     * Returns the id for {@code key} without assigning one, or {@link #NONE}.
+     */
+    public synchronized int find(String key) {
+        if (key == null) return NONE;
+        Integer id = ids.get(key);
+        return id != null ? id : NONE;
+    }
+
+    /** String form of {@code id}, or null if unknown. */
+    public synchronized String keyOf(int id) {
+        return id >= 0 && id < keys.size() ? keys.get(id) : null;
+    }
+
+    /** Number of ids assigned so far (ids are 0..size-1). */
+    public synchronized int size() {
+        return keys.size();
+    }
+}
@@ -1,7 +1,5 @@
 package dev.cloudframe.common.quarry;
 
-import java.util.Map;
-
 import dev.cloudframe.common.util.DirIndex;
 
 /**
@@ -23,8 +21,7 @@ public final class AdjacentInventorySelection {
             QuarryPlatform platform,
             Object baseLocation,
             Object itemStack,
-            Map<String, Integer> inFlightByDestination,
-            Map<String, Integer> inFlightByDestinationAndItem
+            ReservationLedger ledger
     ) {
         if (platform == null || baseLocation == null || itemStack == null) return null;
 
@@ -34,7 +31,7 @@ public final class AdjacentInventorySelection {
 
             Object holder = platform.getInventoryHolder(adj);
             if (holder == null) continue;
-            if (!InFlightAccounting.canReserveDestination(platform, adj, holder, itemStack, inFlightByDestination, inFlightByDestinationAndItem)) continue;
+            if (!InFlightAccounting.canReserveDestination(platform, adj, holder, itemStack, ledger)) continue;
 
             return adj;
         }
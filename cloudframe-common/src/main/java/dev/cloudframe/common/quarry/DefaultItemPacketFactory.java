@@ -6,6 +6,7 @@ import java.util.function.Supplier;
 
 import dev.cloudframe.common.pipes.ItemPacket;
 import dev.cloudframe.common.pipes.ItemPacketManager;
+import dev.cloudframe.common.pipes.PacketRoute;
 import dev.cloudframe.common.platform.items.ItemStackAdapter;
 
 /**
@@ -33,28 +34,64 @@ public final class DefaultItemPacketFactory implements QuarryPlatform.ItemPacket
 
     @Override
     public void send(Object itemStack, List<Object> waypoints, Object destinationInventory, QuarryPlatform.DeliveryCallback callback) {
-        if (itemStack == null || waypoints == null || waypoints.isEmpty()) return;
+        if (itemStack == null || waypoints == null || waypoints.isEmpty()) {
+            failed(callback, destinationInventory, itemStack);
+            return;
+        }
+
+        PacketRoute route;
+        try {
+            route = PacketRoute.of(waypoints);
+        } catch (IllegalArgumentException ignored) {
+            failed(callback, destinationInventory, itemStack);
+            return;
+        }
+        send(itemStack, route, destinationInventory, callback);
+    }
+
+    @Override
+    public void send(Object itemStack, PacketRoute route, Object destinationInventory, QuarryPlatform.DeliveryCallback callback) {
+        if (itemStack == null || route == null) {
+            failed(callback, destinationInventory, itemStack);
+            return;
+        }
 
         ItemPacket.IPacketVisuals visuals;
         try {
             visuals = visualsSupplier.get();
         } catch (Throwable ignored) {
+            visuals = null;
+        }
+        if (visuals == null) {
+            failed(callback, destinationInventory, itemStack);
             return;
         }
-        if (visuals == null) return;
 
+        ItemPacket packet;
         try {
-            ItemPacket packet = new ItemPacket(
+            packet = new ItemPacket(
                     itemStack,
-                    waypoints,
+                    route,
                     destinationInventory,
                     callback,
                     visuals,
                     stackAdapter
             );
-            packetManager.add(packet);
         } catch (Throwable ignored) {
             // If a platform provides the wrong stack type or adapter, fail closed (no packet).
+            failed(callback, destinationInventory, itemStack);
+            return;
+        }
+        packetManager.add(packet);
+    }
+
+    /** Reports a packet that was never created as delivered with nothing inserted. */
+    private static void failed(QuarryPlatform.DeliveryCallback callback, Object destinationInventory, Object itemStack) {
+        if (callback == null) return;
+        try {
+            callback.delivered(destinationInventory, itemStack, 0);
+        } catch (Throwable ignored) {
+            // Callback failures must not escape into the sender.
         }
     }
 }
@@ -0,0 +1,149 @@
+package dev.cloudframe.common.quarry;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import dev.cloudframe.common.platform.items.CapacitySnapshot;
+import dev.cloudframe.common.util.BlockPosPacking;
+import dev.cloudframe.common.util.LongObjectHashMap;
+
+/**
+ * Per-tick cache of destination inventory capacity for output routing.
+ *
+ * <p>The first query for a destination in a tick scans it once
+ * ({@link QuarryPlatform#emptySlotCount}); the first query per item type adds one
+ * {@link QuarryPlatform#totalRoomFor} scan. Later queries in the same tick (other quarries, the
+ * next buffered item) are answered from the {@link CapacitySnapshot}. Inserts made through
+ * {@link #insert} update the snapshot in place; any other change to the inventory should call
+ * {@link #invalidate} (platforms hook this to the inventory's markDirty).</p>
+ */
+public final class InventoryCapacityCache {
+
+    // Drop snapshots of destinations nobody asked about for this long.
+    private static final long PRUNE_INTERVAL_TICKS = 1200L;
+
+    private final QuarryPlatform platform;
+    private final ReservationLedger ids;
+
+    private final Map<Object, LongObjectHashMap<Entry>> byWorld = new HashMap<>();
+    private long tick;
+
+    // Destination currently being filled by insert(); its own markDirty must not drop the snapshot.
+    private Object insertingWorld;
+    private long insertingKey;
+
+    private static final class Entry {
+        long tick;
+        CapacitySnapshot snapshot;
+    }
+
+    InventoryCapacityCache(QuarryPlatform platform, ReservationLedger ids) {
+        this.platform = platform;
+        this.ids = ids;
+    }
+
+    /**
+     * Start a new tick: all snapshots become stale.
+     */
+    public void beginTick() {
+        tick++;
+        if ((tick % PRUNE_INTERVAL_TICKS) == 0L) {
+            byWorld.clear();
+        }
+    }
+
+    public int emptySlotCount(Object destination, Object holder) {
+        CapacitySnapshot s = snapshot(destination, holder);
+        return s != null ? s.emptySlots() : Math.max(0, platform.emptySlotCount(holder));
+    }
+
+    /**
+     * Same contract as {@link QuarryPlatform#totalRoomFor}: empty slots as full stacks of
+     * {@code itemStack} plus room in partial stacks it merges with.
+     */
+    public int totalRoomFor(Object destination, Object holder, Object itemStack) {
+        CapacitySnapshot s = snapshot(destination, holder);
+        if (s == null) return Math.max(0, platform.totalRoomFor(holder, itemStack));
+
+        int maxPerStack = Math.max(1, platform.maxStackSize(itemStack));
+        long emptyRoom = (long) s.emptySlots() * (long) maxPerStack;
+        int id = ids.itemId(itemStack);
+        int mergeable = s.mergeableRoom(id);
+        if (mergeable < 0) {
+            long total = Math.max(0, platform.totalRoomFor(holder, itemStack));
+            mergeable = (int) Math.max(0L, total - emptyRoom);
+            s.putMergeableRoom(id, mergeable);
+        }
+        long room = emptyRoom + mergeable;
+        return room > Integer.MAX_VALUE ? Integer.MAX_VALUE : (int) room;
+    }
+
+    /**
+     * Insert through the platform and apply the result to the cached snapshot.
+     *
+     * @return number of items inserted
+     */
+    public int insert(Object destination, Object holder, Object itemStack) {
+        Object world = destination != null ? platform.worldOf(destination) : null;
+        if (world == null) return platform.addToInventory(holder, itemStack);
+
+        long key = ReservationLedger.packPos(platform, destination);
+        insertingWorld = world;
+        insertingKey = key;
+        int added;
+        try {
+            added = platform.addToInventory(holder, itemStack);
+        } finally {
+            insertingWorld = null;
+        }
+
+        LongObjectHashMap<Entry> map = byWorld.get(world);
+        Entry e = map != null ? map.get(key) : null;
+        if (e != null && e.tick == tick
+                && !e.snapshot.applyInsert(ids.itemId(itemStack), added, platform.maxStackSize(itemStack))) {
+            map.remove(key);
+        }
+        return added;
+    }
+
+    /**
+     * The inventory at (world, x, y, z) changed outside {@link #insert}; forget its snapshot.
+     */
+    public void invalidate(Object world, int x, int y, int z) {
+        if (world == null || byWorld.isEmpty()) return;
+        LongObjectHashMap<Entry> map = byWorld.get(world);
+        if (map == null) return;
+        long key = BlockPosPacking.pack(x, y, z);
+        if (key == insertingKey && world.equals(insertingWorld)) return;
+        map.remove(key);
+    }
+
+    public void clear() {
+        byWorld.clear();
+    }
+
+    private CapacitySnapshot snapshot(Object destination, Object holder) {
+        if (destination == null || holder == null) return null;
+        if (!platform.isCapacityCacheable(holder)) return null;
+        Object world = platform.worldOf(destination);
+        if (world == null) return null;
+
+        LongObjectHashMap<Entry> map = byWorld.get(world);
+        if (map == null) {
+            map = new LongObjectHashMap<>();
+            byWorld.put(world, map);
+        }
+
+        long key = ReservationLedger.packPos(platform, destination);
+        Entry e = map.get(key);
+        if (e == null) {
+            e = new Entry();
+            map.put(key, e);
+        } else if (e.tick == tick) {
+            return e.snapshot;
+        }
+        e.tick = tick;
+        e.snapshot = new CapacitySnapshot(platform.emptySlotCount(holder));
+        return e.snapshot;
+    }
+}
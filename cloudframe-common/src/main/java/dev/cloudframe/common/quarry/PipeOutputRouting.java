@@ -3,10 +3,13 @@ package dev.cloudframe.common.quarry;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
-import java.util.Map;
 
+import dev.cloudframe.common.pipes.PacketRoute;
+import dev.cloudframe.common.pipes.PacketRouteCache;
 import dev.cloudframe.common.pipes.PipeNetworkManager;
 import dev.cloudframe.common.pipes.PipeNode;
+import dev.cloudframe.common.pipes.PipePathTree;
+import dev.cloudframe.common.pipes.filter.CompiledPipeFilter;
 import dev.cloudframe.common.util.DirIndex;
 
 /**
@@ -23,11 +26,21 @@ public final class PipeOutputRouting {
     public record AdjacentPipe(Object pipeLocation, PipeNode node) {
     }
 
+    // Reachable destination with its pipe distance from the source pipe.
+    private record Candidate(
+            Object inventoryLocation,
+            Object destinationPipeLocation,
+            PipeNode destinationPipe,
+            int pipeDistance,
+            PacketRouteCache.Entry cached
+    ) {
+    }
+
     public record Selection(
             Object inventoryLocation,
             Object destinationPipeLocation,
             PipeNode destinationPipe,
-            List<PipeNode> path,
+            PacketRoute route,
             int nextCursor
     ) {
     }
@@ -56,10 +69,15 @@ public final class PipeOutputRouting {
 
     /**
      * Selects a destination inventory reachable by pipes, respecting:
-     * - distance sorting
+     * - pipe-distance sorting (nearest by path length, then straight-line distance)
      * - optional round-robin cursor
      * - inventory space check
      * - optional pipe-face filter veto
+     *
+     * <p>Distances to all candidates come from one search from {@code startPipe}
+     * ({@link PipeNetworkManager#pathsFrom}), reused until the topology changes. Routes are reused
+     * from {@link PipeNetworkManager#routes()}; filters and capacity are still checked on every
+     * call.</p>
      */
     public static Selection selectDestination(
             QuarryPlatform platform,
@@ -68,48 +86,80 @@ public final class PipeOutputRouting {
             PipeNode startPipe,
             List<Object> inventories,
             Object itemStack,
-            Map<String, Integer> inFlightByDestination,
-            Map<String, Integer> inFlightByDestinationAndItem,
+            ReservationLedger ledger,
             boolean outputRoundRobin,
             int outputInventoryCursor
     ) {
         if (platform == null || pipes == null || controllerLocation == null || startPipe == null) return null;
         if (inventories == null || inventories.isEmpty() || itemStack == null) return null;
 
-        List<Object> sorted = new ArrayList<>(inventories);
+        PipePathTree tree = pipes.pathsFrom(startPipe);
+
+        List<Candidate> sorted = new ArrayList<>(inventories.size());
+        for (Object invLoc : inventories) {
+            PacketRouteCache.Entry cached = pipes.routes().get(controllerLocation, invLoc);
+            Object destPipeLocation;
+            PipeNode destPipe;
+            if (cached != null) {
+                destPipeLocation = cached.destinationPipeLocation();
+                destPipe = cached.destinationPipe();
+            } else {
+                AdjacentPipe adjacentDestPipe = findAdjacentPipe(platform, pipes, invLoc);
+                if (adjacentDestPipe == null) continue;
+                destPipeLocation = adjacentDestPipe.pipeLocation;
+                destPipe = adjacentDestPipe.node;
+            }
+
+            int distance = tree.distanceTo(destPipe);
+            if (distance < 0) continue;
+            sorted.add(new Candidate(invLoc, destPipeLocation, destPipe, distance, cached));
+        }
+        if (sorted.isEmpty()) return null;
+
         sorted.sort(
                 Comparator
-                        .comparingDouble((Object loc) -> platform.distanceSquared(controllerLocation, loc))
-                        .thenComparingInt(platform::blockX)
-                        .thenComparingInt(platform::blockY)
-                        .thenComparingInt(platform::blockZ)
+                        .comparingInt(Candidate::pipeDistance)
+                        .thenComparingDouble(c -> platform.distanceSquared(controllerLocation, c.inventoryLocation))
+                        .thenComparingInt(c -> platform.blockX(c.inventoryLocation))
+                        .thenComparingInt(c -> platform.blockY(c.inventoryLocation))
+                        .thenComparingInt(c -> platform.blockZ(c.inventoryLocation))
         );
 
-        int startIndex = outputRoundRobin && !sorted.isEmpty()
+        // Filters match on the item type; resolve it once, not per candidate.
+        int itemTypeId = platform.itemTypeId(itemStack);
+
+        int startIndex = outputRoundRobin
                 ? Math.floorMod(outputInventoryCursor, sorted.size())
                 : 0;
 
         for (int attempt = 0; attempt < sorted.size(); attempt++) {
             int idx = (startIndex + attempt) % sorted.size();
-            Object invLoc = sorted.get(idx);
+            Candidate c = sorted.get(idx);
+            Object invLoc = c.inventoryLocation;
 
             Object holder = platform.getInventoryHolder(invLoc);
             if (holder == null) continue;
-            if (!InFlightAccounting.canReserveDestination(platform, invLoc, holder, itemStack, inFlightByDestination, inFlightByDestinationAndItem)) continue;
-
-            AdjacentPipe adjacentDestPipe = findAdjacentPipe(platform, pipes, invLoc);
-            if (adjacentDestPipe == null) continue;
+            if (!InFlightAccounting.canReserveDestination(platform, invLoc, holder, itemStack, ledger)) continue;
 
             // Pipe-face filter veto.
-            if (adjacentDestPipe.pipeLocation != null && !platform.allowsPipeFilter(adjacentDestPipe.pipeLocation, invLoc, itemStack)) {
-                continue;
+            if (c.destinationPipeLocation != null) {
+                CompiledPipeFilter filter = platform.pipeFilter(c.destinationPipeLocation, invLoc);
+                if (filter != null && !filter.allows(itemTypeId)) continue;
             }
 
-            List<PipeNode> path = pipes.findPath(startPipe, adjacentDestPipe.node);
-            if (path == null || path.isEmpty()) continue;
+            PacketRoute route;
+            if (c.cached != null) {
+                route = c.cached.route();
+            } else {
+                List<PipeNode> path = tree.pathTo(c.destinationPipe);
+                if (path == null || path.isEmpty()) continue;
+                route = buildRoute(platform, controllerLocation, path, invLoc);
+                pipes.routes().put(controllerLocation, invLoc,
+                        new PacketRouteCache.Entry(route, c.destinationPipeLocation, c.destinationPipe));
+            }
 
             int nextCursor = outputRoundRobin ? idx + 1 : 0;
-            return new Selection(invLoc, adjacentDestPipe.pipeLocation, adjacentDestPipe.node, path, nextCursor);
+            return new Selection(invLoc, c.destinationPipeLocation, c.destinationPipe, route, nextCursor);
         }
 
         return null;
@@ -130,4 +180,16 @@ public final class PipeOutputRouting {
         }
         return waypoints;
     }
+
+    /**
+     * Builds the packet route for controller -> pipes -> inventory, compressed to turn points.
+     */
+    public static PacketRoute buildRoute(QuarryPlatform platform, Object controllerLocation, List<PipeNode> path, Object inventoryLocation) {
+        return PacketRoute.compress(
+                buildWaypoints(controllerLocation, path, inventoryLocation),
+                platform::blockX,
+                platform::blockY,
+                platform::blockZ
+        );
+    }
 }
@@ -2,12 +2,13 @@ package dev.cloudframe.common.quarry;
 
 import java.util.ArrayList;
 import java.util.Comparator;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.UUID;
 
+import dev.cloudframe.common.pipes.PacketRoute;
 import dev.cloudframe.common.pipes.PipeNetworkManager;
+import dev.cloudframe.common.platform.items.ItemIdentityInterner;
+import dev.cloudframe.common.util.BlockPosPacking;
 import dev.cloudframe.common.util.Debug;
 import dev.cloudframe.common.util.DebugFlags;
 import dev.cloudframe.common.util.DebugManager;
@@ -25,6 +26,9 @@ public class Quarry {
     // Power model (CFE): constant energy-per-block, converted to per-tick draw.
     private static final int ENERGY_PER_BLOCK_CFE = 480;
 
+    // Bulk mining: blocks broken per mining cycle, indexed by speed augment tier.
+    private static final int[] BULK_BLOCKS_PER_CYCLE = { 1, 2, 4, 8 };
+
     private final UUID owner;
     private final String ownerName;
     private final Object posA;
@@ -58,12 +62,25 @@ public class Quarry {
     /** If enabled, suppresses noisy effects (sound / crack visuals) from mining. */
     private boolean silentMode = false;
 
+    // Shared effects rate limiter (set by QuarryManager); null means broadcast directly.
+    private QuarryEffectScheduler effects;
+
     // Tracks which chunks we have force-loaded so we can reliably unload them.
     private final java.util.Set<Long> forcedChunkKeys = new java.util.HashSet<>();
 
+    // Progressive chunk loading: only force chunks near the mining head and along the output path.
+    private boolean progressiveChunkLoading = false;
+    private final java.util.Set<Long> outputPathChunkKeys = new java.util.HashSet<>();
+    private PacketRoute lastOutputRoute;
+    private long lastChunkForcingKey = Long.MIN_VALUE;
+
     // Computed each tick for UI.
     private boolean redstoneBlocked = false;
     private boolean redstonePowered = false;
+    // Event-driven redstone: whether redstonePowered reflects the world (polled once, then
+    // kept current by onRedstoneChanged). Re-polled whenever the controller chunk reloads.
+    private boolean redstoneStateKnown = false;
+    private boolean controllerChunkLoaded = false;
     private boolean outputJammed = false;
     private int outputJamTicks = 0;
 
@@ -88,16 +105,28 @@ public class Quarry {
     // True once we've completed at least one full scan pass and reset to the start.
     // When true, the entire region is considered "already processed" for dirty detection.
     private boolean scanWrapped;
+    // True when the scan pointer has moved past the last position of the current pass.
+    private boolean scanExhausted;
+
+    private QuarryScanOrder scanOrder = QuarryScanOrder.LAYER;
 
     private boolean isScanning;
     private float mineProgress;
     private long tickCounter;
 
+    // Blocks to break when the current mining cycle completes (bulk mining). Lowered mid-cycle
+    // if the power network can't pay for the full batch.
+    private int cycleBlockBudget = 1;
+
+    // Section fast path: blocks cleared ahead of schedule. Mining cycles (and their power) are
+    // still spent on them before the next block is broken, so throughput stays unchanged.
+    private int fastPathBlocksOwed = 0;
+
     // Active scanning: if blocks are placed in already-mined sections, mine them promptly.
     private static final int DIRTY_QUEUE_LIMIT = 512;
     // Keep dirty targets ordered in the same scan order as normal quarry mining
-    // (y desc, x asc, z asc) so detours look consistent instead of random.
-    private final java.util.NavigableSet<Long> dirtyBlocks = new java.util.TreeSet<>(Quarry::comparePackedScanOrder);
+    // so detours look consistent instead of random.
+    private final java.util.NavigableSet<Long> dirtyBlocks = new java.util.TreeSet<>(this::comparePackedScanOrder);
 
     // Fallback dirty scanning (works even if platform events/mixins aren't available).
     private static final int DIRTY_SCAN_STEPS_PER_TICK = 4096;
@@ -108,14 +137,44 @@ public class Quarry {
     private int blocksMined;
     private int totalBlocks;
     private boolean totalBlocksComputed;
+    // Chunk columns left out of totalBlocks because they weren't loaded when it was counted;
+    // each is added when the scan first reaches it. The total isn't persisted until this is empty.
+    private final java.util.Set<Long> uncountedColumns = new java.util.HashSet<>();
+
+    // Set whenever the scan cursor or counters change; cleared once persisted.
+    private boolean progressDirty;
+
+    // Hibernation: a finished quarry leaves the manager's tick list until woken by a dirty
+    // block in its region, a state change, or the manager's periodic audit.
+    private boolean hibernating;
+    private Runnable wakeListener;
+    // Full fallback dirty-scan passes completed since the quarry last had work.
+    private int dirtyScanPassesSinceWork;
+
+    // Offline catch-up: while the controller chunk is unloaded, remember the game time the quarry
+    // went dormant. On reload, the blocks it would have mined meanwhile are mined in batches of
+    // catchUpBlocksPerTick, paid from stored power.
+    private static final int CATCH_UP_OUTPUT_LIMIT = 64;
+    private boolean offlineCatchUp = false;
+    private int catchUpBlocksPerTick = 64;
+    private long dormantSinceTime = -1L;
+    private int catchUpBlocksOwed = 0;
+
+    // Idle backoff: a paused, redstone-blocked, power-blocked or unloaded quarry is only ticked
+    // every idleBackoffTicks ticks, doubling up to a cap. Reset by any state change (wake()).
+    private static final int IDLE_BACKOFF_MAX_TICKS = 100;
+    // Nothing signals power network changes, so power waits stay short.
+    private static final int IDLE_BACKOFF_POLL_MAX_TICKS = 20;
+    private int idleBackoffTicks;
+    private int idleSkipTicks;
 
     // When true, the current target is a dirty (re-mine) detour. We do not count
     // these toward region completion metrics.
     private boolean currentTargetIsDirty;
 
     private final List<Object> outputBuffer = new ArrayList<>();
-    private final Map<String, Integer> inFlightByDestination = new HashMap<>();
-    private final Map<String, Integer> inFlightByDestinationAndItem = new HashMap<>();
+    // Items en route to destination inventories; replaced by the manager's server-wide ledger.
+    private ReservationLedger reservations;
     private int outputInventoryCursor = 0;
 
     public Quarry(UUID owner, String ownerName, Object posA, Object posB, Region region, Object controller, int controllerYaw, QuarryPlatform platform) {
@@ -128,6 +187,7 @@ public class Quarry {
         this.controllerYaw = controllerYaw;
         this.platform = platform;
         this.world = platform.worldOf(this.controller);
+        this.reservations = new ReservationLedger(platform);
 
         this.currentX = region.minX();
         this.currentZ = region.minZ();
@@ -148,6 +208,7 @@ public class Quarry {
         // Compute a precise mineable total lazily on first activation.
         this.totalBlocks = 0;
         this.totalBlocksComputed = false;
+        this.uncountedColumns.clear();
         this.currentTargetIsDirty = false;
     }
 
@@ -156,6 +217,7 @@ public class Quarry {
     public Object getPosA() { return posA; }
     public Object getPosB() { return posB; }
     public Object getController() { return controller; }
+    public Object getWorld() { return world; }
     public int getControllerYaw() { return controllerYaw; }
     public Region getRegion() { return region; }
 
@@ -177,7 +239,10 @@ public class Quarry {
     public boolean isActive() { return active; }
     public void setActive(boolean active) {
         this.active = active;
+        wake();
         if (!active) {
+            // A stopped quarry wouldn't have mined the backlog either.
+            this.catchUpBlocksOwed = 0;
             // Ensure UI reflects paused and doesn't get stuck showing "scanning".
             this.isScanning = false;
             this.mineProgress = 0.0f;
@@ -191,19 +256,93 @@ public class Quarry {
         outputJammed = false;
         outputJamTicks = 0;
         if (!totalBlocksComputed) {
-            totalBlocks = computeTotalBlocks();
+            // Restored progress without a full total: what was mined plus what is left.
+            totalBlocks = blocksMined + computeTotalBlocks();
             totalBlocksComputed = true;
         }
-        if (!isMineableForQuarry(location(currentX, currentY, currentZ), currentX, currentY, currentZ)) {
+        // A finished region is only revisited through dirty blocks; don't rescan it here.
+        if (!scanWrapped && !isMineableForQuarry(location(currentX, currentY, currentZ), currentX, currentY, currentZ)) {
             findNextBlockToMine(false);
         }
     }
+
+    public boolean isHibernating() { return hibernating; }
+
+    /** Called when the quarry leaves hibernation (QuarryManager puts it back on the tick list). */
+    public void setWakeListener(Runnable wakeListener) { this.wakeListener = wakeListener; }
+
+    /**
+     * Leave hibernation (no-op if awake). The quarry re-checks its region with one full
+     * fallback dirty-scan pass before it may hibernate again.
+     */
+    public void wake() {
+        resetIdleBackoff();
+        if (!hibernating) return;
+        hibernating = false;
+        dirtyScanPassesSinceWork = 0;
+        if (wakeListener != null) wakeListener.run();
+    }
+
+    /**
+     * Whether the manager should skip this tick (idle backoff). Counts the skipped tick down.
+     */
+    public boolean skipIdleTick() {
+        if (idleSkipTicks <= 0) return false;
+        idleSkipTicks--;
+        return true;
+    }
+
+    /** Tick the quarry on the next server tick again (e.g. power network changed). */
+    public void resetIdleBackoff() {
+        idleBackoffTicks = 0;
+        idleSkipTicks = 0;
+    }
+
+    /**
+     * Called by the manager after each tick: back off further while idle, otherwise run every tick.
+     */
+    public void updateIdleBackoff() {
+        int cap = idleBackoffCap();
+        if (cap <= 0) {
+            resetIdleBackoff();
+            return;
+        }
+        idleBackoffTicks = Math.min(cap, Math.max(1, idleBackoffTicks * 2));
+        idleSkipTicks = idleBackoffTicks - 1;
+    }
+
+    /**
+     * Longest wait between ticks for the current idle reason; 0 when the quarry is working.
+     */
+    private int idleBackoffCap() {
+        if (!controllerChunkLoaded) return IDLE_BACKOFF_MAX_TICKS;
+        if (powerBlocked) return IDLE_BACKOFF_POLL_MAX_TICKS;
+        if (redstoneBlocked) {
+            // Event-driven redstone wakes us through onRedstoneChanged; polling platforms must look again.
+            return platform.supportsRedstoneEvents() ? IDLE_BACKOFF_MAX_TICKS : IDLE_BACKOFF_POLL_MAX_TICKS;
+        }
+        if (!active) {
+            // Mode 0 only starts from the GUI (setActive); redstone modes are handled above.
+            return redstoneMode == 0 ? IDLE_BACKOFF_MAX_TICKS : IDLE_BACKOFF_POLL_MAX_TICKS;
+        }
+        return 0;
+    }
+
+    private void hibernate(boolean shouldLog) {
+        hibernating = true;
+        isScanning = false;
+        mineProgress = 0.0f;
+        if (shouldLog) {
+            debug.log("hibernate", "Region complete, hibernating quarry controller=" + controller);
+        }
+    }
     public int getBlocksMined() { return blocksMined; }
     public int getTotalBlocksInRegion() { return totalBlocks; }
 
     public int getRedstoneMode() { return redstoneMode; }
     public void setRedstoneMode(int mode) {
         this.redstoneMode = Math.max(0, Math.min(2, mode));
+        wake();
     }
 
     public boolean isChunkLoadingEnabled() { return chunkLoadingEnabled; }
@@ -213,11 +352,61 @@ public class Quarry {
         applyChunkForcing(enabled);
     }
 
+    public boolean isProgressiveChunkLoading() { return progressiveChunkLoading; }
+    public void setProgressiveChunkLoading(boolean progressive) {
+        if (this.progressiveChunkLoading == progressive) return;
+        this.progressiveChunkLoading = progressive;
+        if (!progressive) {
+            outputPathChunkKeys.clear();
+            lastOutputRoute = null;
+        }
+        lastChunkForcingKey = Long.MIN_VALUE;
+        if (chunkLoadingEnabled) applyChunkForcing(true);
+    }
+
     public boolean isSilentMode() { return silentMode; }
     public void setSilentMode(boolean silentMode) { this.silentMode = silentMode; }
 
+    public void setEffectScheduler(QuarryEffectScheduler effects) { this.effects = effects; }
+
+    /** Share the manager's reservation ledger (packets already in flight keep their old ledger). */
+    public void setReservationLedger(ReservationLedger ledger) {
+        if (ledger != null) this.reservations = ledger;
+    }
+
+    /**
+     * Offline catch-up: mine up to {@code blocksPerTick} backlog blocks per tick after the
+     * controller chunk reloads.
+     */
+    public void setOfflineCatchUp(boolean enabled, int blocksPerTick) {
+        this.offlineCatchUp = enabled;
+        this.catchUpBlocksPerTick = Math.max(1, blocksPerTick);
+        if (!enabled) catchUpBlocksOwed = 0;
+    }
+
+    public boolean isOfflineCatchUp() { return offlineCatchUp; }
+    public int getCatchUpBlocksOwed() { return catchUpBlocksOwed; }
+
+    /** Game time the quarry went dormant (controller chunk unloaded), or -1. */
+    public long getDormantSinceTime() { return dormantSinceTime; }
+
+    /** Restore a persisted dormancy start (see {@link #getDormantSinceTime()}). */
+    public void restoreDormancy(long dormantSinceTime) {
+        this.dormantSinceTime = dormantSinceTime >= 0L ? dormantSinceTime : -1L;
+    }
+
     public boolean isRedstoneBlocked() { return redstoneBlocked; }
     public boolean isRedstonePowered() { return redstonePowered; }
+
+    /**
+     * Edge-triggered redstone update from the platform (controller neighbor update).
+     * Mode transitions are applied on the next tick.
+     */
+    public void onRedstoneChanged(boolean powered) {
+        redstonePowered = powered;
+        redstoneStateKnown = true;
+        wake();
+    }
     public boolean isOutputJammed() { return outputJammed; }
 
     public boolean isPowerBlocked() { return powerBlocked; }
@@ -233,33 +422,103 @@ public class Quarry {
         long mined = Math.max(0L, (long) blocksMined);
         long regionRemaining = Math.max(0L, total - mined);
         long dirtyPending = Math.max(0L, (long) dirtyBlocks.size());
-        long remaining = regionRemaining + dirtyPending;
+        long remaining = regionRemaining + dirtyPending + Math.max(0L, (long) fastPathBlocksOwed);
         return remaining > Integer.MAX_VALUE ? Integer.MAX_VALUE : (int) remaining;
     }
 
-    private static int comparePackedScanOrder(Long aObj, Long bObj) {
+    private int comparePackedScanOrder(Long aObj, Long bObj) {
         if (aObj == null && bObj == null) return 0;
         if (aObj == null) return -1;
         if (bObj == null) return 1;
         long a = aObj;
         long b = bObj;
 
-        int ay = unpackY(a);
-        int by = unpackY(b);
-        if (ay != by) return Integer.compare(by, ay); // y desc
-
-        int ax = unpackX(a);
-        int bx = unpackX(b);
-        if (ax != bx) return Integer.compare(ax, bx); // x asc
-
-        int az = unpackZ(a);
-        int bz = unpackZ(b);
-        if (az != bz) return Integer.compare(az, bz); // z asc
+        int c = scanOrder.compare(
+                BlockPosPacking.unpackX(a), BlockPosPacking.unpackY(a), BlockPosPacking.unpackZ(a),
+                BlockPosPacking.unpackX(b), BlockPosPacking.unpackY(b), BlockPosPacking.unpackZ(b));
+        if (c != 0) return c;
 
         // Stable tie-breaker.
         return Long.compare(a, b);
     }
 
+    public QuarryScanOrder getScanOrder() { return scanOrder; }
+
+    public int getScanX() { return scanX; }
+    public int getScanY() { return scanY; }
+    public int getScanZ() { return scanZ; }
+    public boolean isScanWrapped() { return scanWrapped; }
+    public int getFastPathBlocksOwed() { return fastPathBlocksOwed; }
+
+    /** Total mineable blocks, or -1 if not counted yet (or not every chunk column was counted). */
+    public int getTotalBlocksIfComputed() {
+        return totalBlocksComputed && uncountedColumns.isEmpty() ? totalBlocks : -1;
+    }
+
+    /**
+     * Restore persisted mining progress. Call after {@link #setScanOrder} with the order the
+     * cursor was saved under. A cursor outside the region is ignored (scan starts from the top).
+     */
+    public void restoreProgress(int scanX, int scanY, int scanZ, boolean scanWrapped,
+                                int blocksMined, int totalBlocks, int blocksOwed) {
+        if (region.contains(world, scanX, scanY, scanZ)) {
+            this.scanX = scanX;
+            this.scanY = scanY;
+            this.scanZ = scanZ;
+            this.currentX = scanX;
+            this.currentY = scanY;
+            this.currentZ = scanZ;
+            this.scanExhausted = false;
+        }
+        this.scanWrapped = scanWrapped;
+        this.blocksMined = Math.max(0, blocksMined);
+        if (totalBlocks >= 0) {
+            this.totalBlocks = totalBlocks;
+            this.totalBlocksComputed = true;
+            this.uncountedColumns.clear();
+        }
+        this.fastPathBlocksOwed = Math.max(0, blocksOwed);
+        this.progressDirty = false;
+    }
+
+    /**
+     * Whether mining progress changed since it was last saved.
+     */
+    public boolean isProgressDirty() {
+        return progressDirty;
+    }
+
+    /**
+     * Call once the progress read for a save has been written.
+     */
+    public void markProgressSaved() {
+        progressDirty = false;
+    }
+
+    /**
+     * Change the mining order. The scan restarts from the top of the region in the new order;
+     * already-mined space is air and is skipped quickly.
+     */
+    public void setScanOrder(QuarryScanOrder order) {
+        if (order == null || order == scanOrder) return;
+
+        // The dirty queue's comparator reads scanOrder; re-insert under the new order.
+        List<Long> dirty = new ArrayList<>(dirtyBlocks);
+        dirtyBlocks.clear();
+        scanOrder = order;
+        dirtyBlocks.addAll(dirty);
+
+        boolean wrapped = scanWrapped;
+        resetScanPosition();
+        scanWrapped = wrapped;
+        dirtyScanX = region.minX();
+        dirtyScanZ = region.minZ();
+        dirtyScanY = region.maxY();
+        lastChunkForcingKey = Long.MIN_VALUE;
+        // Whether progressive forcing applies depends on the order.
+        if (chunkLoadingEnabled) applyChunkForcing(true);
+    }
+
     public int getProgressPercent() {
         // UI progress is meant to reflect completion of the mineable region.
         // This avoids jumping ahead just because the initial scan skips non-mineable
@@ -281,37 +540,16 @@ public class Quarry {
     public int getEtaSecondsEstimate() {
         long remaining = Math.max(0L, (long) getRemainingBlocksEstimate());
         if (remaining <= 0L) return 0;
-        long ticks = remaining * (long) getMineTicksPerBlock();
+        long blocksPerCycle = Math.max(1, getBlocksPerMiningCycle());
+        long cycles = (remaining + blocksPerCycle - 1L) / blocksPerCycle;
+        long ticks = cycles * (long) getMineTicksPerBlock();
         long seconds = ticks / 20L;
         return seconds > Integer.MAX_VALUE ? Integer.MAX_VALUE : (int) seconds;
     }
 
     public int getAffectedChunkCount() {
         if (controller == null) return 0;
-        java.util.Set<Long> desired = new java.util.HashSet<>();
-
-        int minCx = region.minX() >> 4;
-        int maxCx = region.maxX() >> 4;
-        int minCz = region.minZ() >> 4;
-        int maxCz = region.maxZ() >> 4;
-
-        for (int cx = minCx; cx <= maxCx; cx++) {
-            for (int cz = minCz; cz <= maxCz; cz++) {
-                desired.add((((long) cx) << 32) | (cz & 0xffffffffL));
-            }
-        }
-
-        int ccx = platform.blockX(controller) >> 4;
-        int ccz = platform.blockZ(controller) >> 4;
-        for (int dx = -1; dx <= 1; dx++) {
-            for (int dz = -1; dz <= 1; dz++) {
-                int cx = ccx + dx;
-                int cz = ccz + dz;
-                desired.add((((long) cx) << 32) | (cz & 0xffffffffL));
-            }
-        }
-
-        return desired.size();
+        return buildDesiredChunks().size();
     }
 
     private void applyChunkForcing(boolean forced) {
@@ -328,30 +566,7 @@ public class Quarry {
             return;
         }
 
-        // Build chunk set: all chunks touched by the mining region
-        // plus a 1-chunk radius around the controller chunk.
-        java.util.Set<Long> desired = new java.util.HashSet<>();
-
-        int minCx = region.minX() >> 4;
-        int maxCx = region.maxX() >> 4;
-        int minCz = region.minZ() >> 4;
-        int maxCz = region.maxZ() >> 4;
-
-        for (int cx = minCx; cx <= maxCx; cx++) {
-            for (int cz = minCz; cz <= maxCz; cz++) {
-                desired.add((((long) cx) << 32) | (cz & 0xffffffffL));
-            }
-        }
-
-        int ccx = platform.blockX(controller) >> 4;
-        int ccz = platform.blockZ(controller) >> 4;
-        for (int dx = -1; dx <= 1; dx++) {
-            for (int dz = -1; dz <= 1; dz++) {
-                int cx = ccx + dx;
-                int cz = ccz + dz;
-                desired.add((((long) cx) << 32) | (cz & 0xffffffffL));
-            }
-        }
+        java.util.Set<Long> desired = buildDesiredChunks();
 
         // Apply delta.
         for (long key : desired) {
@@ -370,6 +585,105 @@ public class Quarry {
         forcedChunkKeys.addAll(desired);
     }
 
+    /**
+     * Chunks to keep loaded: a 1-chunk radius around the controller chunk, plus either every
+     * chunk the mining region touches or (progressive mode) only the chunks around the mining
+     * head and the chunks along the last output path.
+     */
+    private java.util.Set<Long> buildDesiredChunks() {
+        java.util.Set<Long> desired = new java.util.HashSet<>();
+
+        if (progressiveForcing()) {
+            collectHeadChunks(desired);
+            desired.addAll(outputPathChunkKeys);
+        } else {
+            int minCx = region.minX() >> 4;
+            int maxCx = region.maxX() >> 4;
+            int minCz = region.minZ() >> 4;
+            int maxCz = region.maxZ() >> 4;
+
+            for (int cx = minCx; cx <= maxCx; cx++) {
+                for (int cz = minCz; cz <= maxCz; cz++) {
+                    desired.add(chunkKey(cx, cz));
+                }
+            }
+        }
+
+        int ccx = platform.blockX(controller) >> 4;
+        int ccz = platform.blockZ(controller) >> 4;
+        for (int dx = -1; dx <= 1; dx++) {
+            for (int dz = -1; dz <= 1; dz++) {
+                desired.add(chunkKey(ccx + dx, ccz + dz));
+            }
+        }
+
+        return desired;
+    }
+
+    /**
+     * Progressive forcing only applies in chunk-column order. In layer order every Y level sweeps
+     * the whole region, so each chunk would be forced and released again on every layer.
+     */
+    private boolean progressiveForcing() {
+        return progressiveChunkLoading && scanOrder == QuarryScanOrder.CHUNK_COLUMN;
+    }
+
+    /**
+     * Progressive mode: re-apply forcing when the head changes column or the output path moves.
+     */
+    private void updateProgressiveChunkForcing() {
+        if (!chunkLoadingEnabled || !progressiveForcing()) return;
+        long headKey = chunkKey(currentX >> 4, currentZ >> 4) ^ ((long) outputPathChunkKeys.hashCode());
+        if (headKey == lastChunkForcingKey) return;
+        lastChunkForcingKey = headKey;
+        applyChunkForcing(true);
+    }
+
+    /**
+     * Progressive mode (chunk-column order): the column the head is in and the one it moves to
+     * next.
+     */
+    private void collectHeadChunks(java.util.Set<Long> out) {
+        int minCx = region.minX() >> 4;
+        int maxCx = region.maxX() >> 4;
+        int minCz = region.minZ() >> 4;
+        int maxCz = region.maxZ() >> 4;
+
+        int cx = Math.max(minCx, Math.min(maxCx, currentX >> 4));
+        int cz = Math.max(minCz, Math.min(maxCz, currentZ >> 4));
+        out.add(chunkKey(cx, cz));
+
+        if (cz < maxCz) {
+            out.add(chunkKey(cx, cz + 1));
+        } else if (cx < maxCx) {
+            out.add(chunkKey(cx + 1, minCz));
+        }
+    }
+
+    private void rememberOutputPath(PacketRoute route) {
+        if (!progressiveForcing() || route == null) return;
+        // Routes are shared while the topology is unchanged; the same route means the same chunks.
+        if (route == lastOutputRoute) return;
+        lastOutputRoute = route;
+        long[] keys = route.chunkKeys();
+        if (keys.length == outputPathChunkKeys.size()) {
+            boolean same = true;
+            for (long key : keys) {
+                if (!outputPathChunkKeys.contains(key)) {
+                    same = false;
+                    break;
+                }
+            }
+            if (same) return;
+        }
+        outputPathChunkKeys.clear();
+        for (long key : keys) outputPathChunkKeys.add(key);
+    }
+
+    private static long chunkKey(int cx, int cz) {
+        return (((long) cx) << 32) | (cz & 0xffffffffL);
+    }
+
     /**
      * Best-effort current working Y level for UI display.
      */
@@ -383,11 +697,36 @@ public class Quarry {
     public void tick(boolean shouldLog) {
         tickCounter++;
 
-        if (!platform.isChunkLoaded(controller)) return;
+        boolean redstoneEvents = platform.supportsRedstoneEvents();
+
+        // Idle fast path: a stopped quarry whose cached redstone state keeps it stopped has
+        // nothing to do, so skip every platform call.
+        if (redstoneEvents && redstoneStateKnown && !active && !redstoneAllowsRun()) {
+            redstoneBlocked = redstoneMode != 0;
+            powerBlocked = false;
+            powerRequiredCfePerTick = 0L;
+            powerReceivedCfePerTick = 0L;
+            return;
+        }
+
+        boolean chunkLoaded = platform.isChunkLoaded(controller);
+        if (chunkLoaded && !controllerChunkLoaded) {
+            // Redstone may have changed while the controller was unloaded.
+            redstoneStateKnown = false;
+            endDormancy(shouldLog);
+        }
+        controllerChunkLoaded = chunkLoaded;
+        if (!chunkLoaded) {
+            beginDormancy();
+            return;
+        }
 
         // Redstone gating.
         redstoneBlocked = false;
-        redstonePowered = platform.isRedstonePowered(controller);
+        if (!redstoneEvents || !redstoneStateKnown) {
+            redstonePowered = platform.isRedstonePowered(controller);
+            redstoneStateKnown = true;
+        }
 
         // Power gating (optional; platform-controlled).
         powerBlocked = false;
@@ -395,7 +734,7 @@ public class Quarry {
         powerReceivedCfePerTick = 0L;
 
         if (redstoneMode != 0) {
-            boolean shouldRun = (redstoneMode == 1) ? redstonePowered : !redstonePowered;
+            boolean shouldRun = redstoneAllowsRun();
             if (shouldRun != active) {
                 if (shouldRun) {
                     // Auto-start only if output is valid; otherwise stay paused.
@@ -425,9 +764,22 @@ public class Quarry {
         if (mineProgress == 0.0f) {
             if (trySwitchToDirtyTarget(shouldLog)) {
                 isScanning = false;
+                dirtyScanPassesSinceWork = 0;
             }
         }
 
+        // Region complete and nothing queued: skip output/power work. Once the fallback
+        // scanner has re-checked the whole region without finding anything, hibernate.
+        if (mineProgress == 0.0f && scanWrapped && dirtyBlocks.isEmpty() && outputBuffer.isEmpty()
+                && fastPathBlocksOwed == 0
+                && !isMineableForQuarry(location(currentX, currentY, currentZ), currentX, currentY, currentZ)) {
+            isScanning = false;
+            if (dirtyScanPassesSinceWork > 0) {
+                hibernate(shouldLog);
+            }
+            return;
+        }
+
         if (!hasValidOutput()) {
             debug.log("tick", "No valid output for quarry controller=" + controller + " — pausing");
             setActive(false);
@@ -473,22 +825,53 @@ public class Quarry {
             outputJamTicks = 0;
         }
 
+        if (catchUpBlocksOwed > 0 && mineProgress == 0.0f && fastPathBlocksOwed == 0 && !currentTargetIsDirty) {
+            runCatchUp(shouldLog);
+        }
+
+        if (mineProgress == 0.0f) {
+            cycleBlockBudget = getBlocksPerMiningCycle();
+        }
+
         // Require power to mine when supported by the platform.
         if (platform.supportsPower()) {
-            powerRequiredCfePerTick = requiredPowerCfePerTick();
+            long perBlockPerTick = requiredPowerCfePerTick();
+            powerRequiredCfePerTick = perBlockPerTick * (long) cycleBlockBudget;
             if (powerRequiredCfePerTick > 0L) {
                 powerReceivedCfePerTick = Math.max(0L, platform.extractPowerCfe(controller, powerRequiredCfePerTick));
                 if (powerReceivedCfePerTick < powerRequiredCfePerTick) {
-                    powerBlocked = true;
-                    return;
+                    // Bulk mining: shrink this cycle's batch to what the network could pay for.
+                    int affordable = perBlockPerTick > 0L ? (int) (powerReceivedCfePerTick / perBlockPerTick) : 0;
+                    if (affordable < 1) {
+                        powerBlocked = true;
+                        return;
+                    }
+                    cycleBlockBudget = Math.min(cycleBlockBudget, affordable);
                 }
             }
         }
 
+        if (fastPathBlocksOwed > 0) {
+            mineProgress = Math.min(1.0f, mineProgress + (1.0f / (float) getMineTicksPerBlock()));
+            if (mineProgress >= 1.0f) {
+                fastPathBlocksOwed = Math.max(0, fastPathBlocksOwed - cycleBlockBudget);
+                mineProgress = 0.0f;
+            }
+            if (!outputBuffer.isEmpty()) {
+                trySendOutput(shouldLog);
+            }
+            return;
+        }
+
         Object currentLoc = location(currentX, currentY, currentZ);
         if (currentLoc == null) return;
 
         if (!isMineableForQuarry(currentLoc, currentX, currentY, currentZ)) {
+            if (scanWrapped) {
+                // Target vanished mid-mine in a finished region; wait for the next dirty block.
+                mineProgress = 0.0f;
+                return;
+            }
             if (!findNextBlockToMine(shouldLog)) {
                 isScanning = true;
                 mineProgress = 0.0f;
@@ -502,22 +885,25 @@ public class Quarry {
 
         mineProgress = Math.min(1.0f, mineProgress + (1.0f / (float) getMineTicksPerBlock()));
         if (!silentMode) {
-            platform.sendBlockCrack(currentLoc, mineProgress);
+            crackEffect(currentLoc, mineProgress);
         }
 
-        if (mineProgress >= 1.0f) {
+        if (mineProgress >= 1.0f && !currentTargetIsDirty && tryClearSection(currentLoc, shouldLog)) {
+            // Whole section cleared; the scan pointer skips the now-empty blocks.
+        } else if (mineProgress >= 1.0f && cycleBlockBudget > 1 && !currentTargetIsDirty) {
+            mineBatch(currentLoc, cycleBlockBudget, shouldLog);
+        } else if (mineProgress >= 1.0f) {
             int fortune = silkTouchAugment ? 0 : Math.max(0, Math.min(3, fortuneAugmentLevel));
             List<Object> drops = platform.getDrops(currentLoc, silkTouchAugment, fortune);
             if (drops != null) {
                 for (Object drop : drops) {
                     if (drop == null) continue;
-                    if (platform.stackAmount(drop) <= 0) continue;
-                    outputBuffer.add(drop);
+                    bufferDrop(drop);
                 }
             }
 
             if (!silentMode) {
-                platform.playBreakEffects(currentLoc);
+                breakEffect(currentLoc);
             }
             platform.setBlockAir(currentLoc);
             if (!currentTargetIsDirty) {
@@ -525,7 +911,7 @@ public class Quarry {
             }
 
             if (!silentMode) {
-                platform.sendBlockCrack(currentLoc, 0.0f);
+                crackEffect(currentLoc, 0.0f);
             }
             mineProgress = 0.0f;
         }
@@ -538,6 +924,221 @@ public class Quarry {
         if (!platform.isMineable(currentLoc) || mineProgress == 0.0f) {
             advancePosition(shouldLog);
         }
+
+        updateProgressiveChunkForcing();
+    }
+
+    private void beginDormancy() {
+        if (!offlineCatchUp || !active || dormantSinceTime >= 0L) return;
+        long now = platform.gameTime(controller);
+        if (now < 0L) return;
+        dormantSinceTime = now;
+        progressDirty = true;
+    }
+
+    /**
+     * Controller chunk reloaded: turn the time spent unloaded into a mining backlog.
+     */
+    private void endDormancy(boolean shouldLog) {
+        if (dormantSinceTime < 0L) return;
+        long elapsed = platform.gameTime(controller) - dormantSinceTime;
+        dormantSinceTime = -1L;
+        progressDirty = true;
+        if (!offlineCatchUp || !active || scanWrapped || elapsed <= 0L) return;
+
+        long blocks = (elapsed / Math.max(1, getMineTicksPerBlock())) * (long) getBlocksPerMiningCycle();
+        catchUpBlocksOwed = (int) Math.min(Integer.MAX_VALUE, (long) catchUpBlocksOwed + blocks);
+        if (shouldLog) {
+            debug.log("catchUp", "Controller reloaded after " + elapsed + " ticks, backlog=" + catchUpBlocksOwed
+                + " controller=" + controller);
+        }
+    }
+
+    /**
+     * Mine one batch of the offline backlog. Each block is paid for up front; once stored power
+     * runs out the rest of the backlog is dropped, since it couldn't have been mined either.
+     */
+    private void runCatchUp(boolean shouldLog) {
+        // Let the output drain first; the backlog waits.
+        if (outputBuffer.size() >= CATCH_UP_OUTPUT_LIMIT) return;
+        if (scanWrapped) {
+            catchUpBlocksOwed = 0;
+            return;
+        }
+
+        int batch = Math.min(catchUpBlocksOwed, catchUpBlocksPerTick);
+        boolean outOfPower = false;
+        if (platform.supportsPower()) {
+            long perBlock = requiredPowerCfePerTick() * (long) getMineTicksPerBlock();
+            if (perBlock > 0L) {
+                long got = Math.max(0L, platform.extractPowerCfe(controller, perBlock * (long) batch));
+                int affordable = (int) Math.min(batch, got / perBlock);
+                outOfPower = affordable < batch;
+                batch = affordable;
+            }
+        }
+
+        if (batch > 0) {
+            Object loc = location(currentX, currentY, currentZ);
+            boolean hasTarget = loc != null
+                && (isMineableForQuarry(loc, currentX, currentY, currentZ) || findNextBlockToMine(shouldLog));
+            if (!hasTarget) {
+                catchUpBlocksOwed = 0;
+                return;
+            }
+            int mined = mineBatch(location(currentX, currentY, currentZ), batch, shouldLog);
+            // Fewer than requested means the region ran out.
+            catchUpBlocksOwed = mined < batch ? 0 : catchUpBlocksOwed - mined;
+            advancePosition(shouldLog);
+            if (!outputBuffer.isEmpty()) {
+                trySendOutput(shouldLog);
+            }
+        }
+
+        if (outOfPower) {
+            catchUpBlocksOwed = 0;
+        }
+    }
+
+    /**
+     * Bulk mining: break the current target plus the next {@code maxBlocks - 1} mineable blocks
+     * in scan order, using the platform batch hooks. Leaves the scan pointer after the last one.
+     * Returns the number of blocks broken.
+     */
+    private int mineBatch(Object firstLoc, int maxBlocks, boolean shouldLog) {
+        List<Object> targets = new ArrayList<>(maxBlocks);
+        targets.add(firstLoc);
+        while (targets.size() < maxBlocks && findNextBlockToMine(shouldLog)) {
+            Object loc = location(currentX, currentY, currentZ);
+            if (loc == null) break;
+            targets.add(loc);
+        }
+
+        int fortune = silkTouchAugment ? 0 : Math.max(0, Math.min(3, fortuneAugmentLevel));
+        List<Object> drops = platform.getDropsBatch(targets, silkTouchAugment, fortune);
+        if (drops != null) {
+            for (Object drop : drops) {
+                if (drop == null) continue;
+                bufferDrop(drop);
+            }
+        }
+
+        // One break effect per batch; the crack overlay only ever showed on the first target.
+        if (!silentMode) {
+            breakEffect(firstLoc);
+        }
+        platform.setBlocksAir(targets);
+        blocksMined += targets.size();
+
+        if (!silentMode) {
+            crackEffect(firstLoc, 0.0f);
+        }
+        mineProgress = 0.0f;
+
+        if (shouldLog) {
+            debug.log("mineBatch", "Mined " + targets.size() + " blocks in one cycle");
+        }
+        return targets.size();
+    }
+
+    /**
+     * Add a drop to the output buffer, topping up the last buffered stack when it is the same
+     * item (same interned stack id) and has room. Batches and section clears yield long runs of
+     * identical drops; merging keeps the buffer, and the packets sent from it, short.
+     */
+    private void bufferDrop(Object drop) {
+        int amount = platform.stackAmount(drop);
+        if (amount <= 0) return;
+
+        int last = outputBuffer.size() - 1;
+        if (last >= 0) {
+            Object tail = outputBuffer.get(last);
+            int tailAmount = platform.stackAmount(tail);
+            if (tailAmount + amount <= platform.maxStackSize(tail)
+                    && platform.itemStackId(tail) == platform.itemStackId(drop)
+                    && platform.itemStackId(drop) != ItemIdentityInterner.NONE) {
+                outputBuffer.set(last, platform.copyWithAmount(tail, tailAmount + amount));
+                return;
+            }
+        }
+        outputBuffer.add(drop);
+    }
+
+    /**
+     * Section fast path: when the target is the first block reached in a 16x16x16 section that
+     * lies entirely inside the mining region (and below the frame layer), ask the platform to
+     * clear the whole section at once.
+     */
+    private boolean tryClearSection(Object targetLoc, boolean shouldLog) {
+        int sx = currentX >> 4;
+        int sy = currentY >> 4;
+        int sz = currentZ >> 4;
+
+        // Only on the section's top layer: the scan enters a section from above.
+        if ((currentY & 15) != 15) return false;
+
+        int secMinX = sx << 4;
+        int secMinY = sy << 4;
+        int secMinZ = sz << 4;
+        if (secMinX < region.minX() || secMinX + 15 > region.maxX()) return false;
+        if (secMinZ < region.minZ() || secMinZ + 15 > region.maxZ()) return false;
+        if (secMinY < region.minY() || secMinY + 15 >= region.maxY()) return false;
+
+        int fortune = silkTouchAugment ? 0 : Math.max(0, Math.min(3, fortuneAugmentLevel));
+        List<Object> drops = new ArrayList<>();
+        int cleared = platform.clearSection(world, sx, sy, sz, silkTouchAugment, fortune, drops);
+        if (cleared <= 0) return false;
+
+        for (Object drop : drops) {
+            if (drop == null) continue;
+            bufferDrop(drop);
+        }
+
+        if (!silentMode) {
+            crackEffect(targetLoc, 0.0f);
+        }
+        blocksMined += cleared;
+        fastPathBlocksOwed += Math.max(0, cleared - cycleBlockBudget);
+        mineProgress = 0.0f;
+
+        if (shouldLog) {
+            debug.log("tryClearSection", "Cleared section (" + sx + "," + sy + "," + sz + "): " + cleared + " blocks");
+        }
+        return true;
+    }
+
+    /**
+     * Whether the redstone mode lets the quarry run. Mode 0 (ignore) only runs when started manually.
+     */
+    private boolean redstoneAllowsRun() {
+        if (redstoneMode == 0) return active;
+        return (redstoneMode == 1) ? redstonePowered : !redstonePowered;
+    }
+
+    private void crackEffect(Object loc, float progress01) {
+        if (effects != null) {
+            effects.crack(controller, loc, progress01);
+        } else {
+            platform.sendBlockCrack(loc, progress01);
+        }
+    }
+
+    private void breakEffect(Object loc) {
+        if (effects != null) {
+            effects.breakBlock(controller, loc);
+        } else {
+            platform.playBreakEffects(loc);
+        }
+    }
+
+    /**
+     * Blocks broken per mining cycle: 1 unless the platform supports bulk mining,
+     * otherwise scaled by the speed augment tier.
+     */
+    private int getBlocksPerMiningCycle() {
+        if (!platform.supportsBulkMining()) return 1;
+        int tier = Math.max(0, Math.min(BULK_BLOCKS_PER_CYCLE.length - 1, speedAugmentLevel));
+        return BULK_BLOCKS_PER_CYCLE[tier];
     }
 
     /**
@@ -584,11 +1185,12 @@ public class Quarry {
         if (loc == null) return;
         if (!isMineableForQuarry(loc, x, y, z)) return;
 
-        long packed = packPos(x, y, z);
+        long packed = BlockPosPacking.pack(x, y, z);
         if (!dirtyBlocks.add(packed)) return;
         while (dirtyBlocks.size() > DIRTY_QUEUE_LIMIT) {
             dirtyBlocks.pollLast();
         }
+        wake();
     }
 
     private boolean trySwitchToDirtyTarget(boolean shouldLog) {
@@ -597,9 +1199,9 @@ public class Quarry {
             if (packedObj == null) break;
             long packed = packedObj;
 
-            int x = unpackX(packed);
-            int y = unpackY(packed);
-            int z = unpackZ(packed);
+            int x = BlockPosPacking.unpackX(packed);
+            int y = BlockPosPacking.unpackY(packed);
+            int z = BlockPosPacking.unpackZ(packed);
             Object loc = location(x, y, z);
             if (loc == null) continue;
             if (!isMineableForQuarry(loc, x, y, z)) continue;
@@ -619,14 +1221,14 @@ public class Quarry {
 
     private void scanForDirtyBlocksFallback(int steps) {
         if (steps <= 0) return;
-        if (blocksMined <= 0) return;
+        if (blocksMined <= 0 && !scanWrapped) return;
 
         int minX = region.minX();
-        int maxX = region.maxX();
-        int minY = region.minY();
         int maxY = region.maxY();
         int minZ = region.minZ();
-        int maxZ = region.maxZ();
+        int[] cursor = new int[3];
+        long loadedColumn = Long.MIN_VALUE;
+        boolean columnLoaded = false;
 
         for (int i = 0; i < steps; i++) {
             // Only scan already-processed space; otherwise we'd enqueue future blocks.
@@ -641,8 +1243,16 @@ public class Quarry {
             }
 
             Object loc = location(dirtyScanX, dirtyScanY, dirtyScanZ);
-            if (loc != null && isMineableForQuarry(loc, dirtyScanX, dirtyScanY, dirtyScanZ)) {
-                long packed = packPos(dirtyScanX, dirtyScanY, dirtyScanZ);
+
+            // Don't load chunks (e.g. ones progressive forcing released) just to re-check them.
+            long column = chunkKey(dirtyScanX >> 4, dirtyScanZ >> 4);
+            if (column != loadedColumn) {
+                loadedColumn = column;
+                columnLoaded = loc != null && platform.isChunkLoaded(loc);
+            }
+
+            if (columnLoaded && isMineableForQuarry(loc, dirtyScanX, dirtyScanY, dirtyScanZ)) {
+                long packed = BlockPosPacking.pack(dirtyScanX, dirtyScanY, dirtyScanZ);
                 if (dirtyBlocks.add(packed)) {
                     while (dirtyBlocks.size() > DIRTY_QUEUE_LIMIT) {
                         dirtyBlocks.pollLast();
@@ -650,33 +1260,27 @@ public class Quarry {
                 }
             }
 
-            // Advance dirty scan position (y desc, x asc, z asc).
-            dirtyScanZ++;
-            if (dirtyScanZ > maxZ) {
-                dirtyScanZ = minZ;
-                dirtyScanX++;
-                if (dirtyScanX > maxX) {
-                    dirtyScanX = minX;
-                    dirtyScanY--;
-                    if (dirtyScanY < minY) {
-                        dirtyScanY = maxY;
-                    }
-                }
+            // Advance dirty scan position in mining order, wrapping to the start.
+            cursor[0] = dirtyScanX;
+            cursor[1] = dirtyScanY;
+            cursor[2] = dirtyScanZ;
+            if (!columnLoaded) {
+                // In chunk order an unloaded (finished, released) column is skipped in one step.
+                scanOrder.toColumnEnd(region, cursor);
+            }
+            if (!scanOrder.advance(region, cursor)) {
+                scanOrder.first(region, cursor);
+                dirtyScanPassesSinceWork++;
             }
+            dirtyScanX = cursor[0];
+            dirtyScanY = cursor[1];
+            dirtyScanZ = cursor[2];
         }
     }
 
     private boolean isBehindScanPointer(int x, int y, int z) {
-        if (scanWrapped) return true;
-
-        // Scan order: y desc, x asc, z asc.
-        if (y > scanY) return true;
-        if (y < scanY) return false;
-
-        if (x < scanX) return true;
-        if (x > scanX) return false;
-
-        return z < scanZ;
+        if (scanWrapped || scanExhausted) return true;
+        return scanOrder.compare(x, y, z, scanX, scanY, scanZ) < 0;
     }
 
     private void advancePosition(boolean shouldLog) {
@@ -699,8 +1303,7 @@ public class Quarry {
                 platform,
                 controller,
                 peek,
-            inFlightByDestination,
-            inFlightByDestinationAndItem
+                reservations
         );
 
         if (adj == null) return false;
@@ -708,7 +1311,7 @@ public class Quarry {
         Object holder = platform.getInventoryHolder(adj);
         if (holder == null) return false;
 
-        int added = platform.addToInventory(holder, peek);
+        int added = reservations.capacity().insert(adj, holder, peek);
         int amount = platform.stackAmount(peek);
 
         if (added >= amount) {
@@ -750,63 +1353,61 @@ public class Quarry {
                 startPipe,
                 inventories,
                 peek,
-                inFlightByDestination,
-            inFlightByDestinationAndItem,
+                reservations,
                 outputRoundRobin,
                 outputInventoryCursor
         );
 
         if (sel == null) return false;
 
-        List<Object> waypoints = PipeOutputRouting.buildWaypoints(controller, sel.path(), sel.inventoryLocation());
+        PacketRoute route = sel.route();
+        rememberOutputPath(route);
 
         Object item = outputBuffer.remove(0);
-        InFlightAccounting.reserve(inFlightByDestination, inFlightByDestinationAndItem, platform, sel.inventoryLocation(), item);
+        ReservationLedger ledger = reservations;
+        int reserved = platform.stackAmount(item);
+        ledger.reserve(sel.inventoryLocation(), item);
 
-        platform.packetFactory().send(item, waypoints, sel.inventoryLocation(), this::onItemDelivered);
+        // Release the whole reservation once delivery finishes, even if leftovers were dropped.
+        platform.packetFactory().send(item, route, sel.inventoryLocation(),
+            (destination, itemStack, inserted) -> ledger.release(destination, itemStack, reserved));
 
         outputInventoryCursor = sel.nextCursor();
         return true;
     }
 
     private boolean findNextBlockToMine(boolean shouldLog) {
-        int minX = region.minX();
-        int maxX = region.maxX();
-        int minZ = region.minZ();
-        int maxZ = region.maxZ();
-
-        for (int y = scanY; y >= region.minY(); y--) {
-            for (int x = (y == scanY ? scanX : minX); x <= maxX; x++) {
-                for (int z = (y == scanY && x == scanX ? scanZ : minZ); z <= maxZ; z++) {
-                    Object loc = location(x, y, z);
-                    if (!isMineableForQuarry(loc, x, y, z)) continue;
-
-                    currentX = x;
-                    currentY = y;
-                    currentZ = z;
-                    currentTargetIsDirty = false;
-
-                    scanZ = z + 1;
-                    scanX = x;
-                    if (scanZ > maxZ) {
-                        scanZ = minZ;
-                        scanX = x + 1;
-                    }
-                    if (scanX > maxX) {
-                        scanX = minX;
-                        scanY = y - 1;
-                    } else {
-                        scanY = y;
-                    }
+        if (!scanExhausted) {
+            int[] pos = { scanX, scanY, scanZ };
+            do {
+                int x = pos[0];
+                int y = pos[1];
+                int z = pos[2];
+                Object loc = location(x, y, z);
+                if (!isMineableForQuarry(loc, x, y, z)) continue;
+                // Loaded now; count the column before any of it is mined.
+                if (!uncountedColumns.isEmpty()) countColumnIfUncounted(x, z);
+
+                currentX = x;
+                currentY = y;
+                currentZ = z;
+                currentTargetIsDirty = false;
+
+                // Scan pointer: the position after this one.
+                progressDirty = true;
+                if (scanOrder.advance(region, pos)) {
+                    scanX = pos[0];
+                    scanY = pos[1];
+                    scanZ = pos[2];
+                } else {
+                    scanExhausted = true;
+                }
 
-                    if (shouldLog && DebugFlags.STARTUP_LOAD_LOGGING) {
-                        debug.log("findNextBlockToMine", "Next block at (" + x + "," + y + "," + z + ")");
-                    }
-                    return true;
+                if (shouldLog && DebugFlags.STARTUP_LOAD_LOGGING) {
+                    debug.log("findNextBlockToMine", "Next block at (" + x + "," + y + "," + z + ")");
                 }
-                scanZ = minZ;
-            }
-            scanX = minX;
+                return true;
+            } while (scanOrder.advance(region, pos));
         }
 
         resetScanPosition();
@@ -814,10 +1415,14 @@ public class Quarry {
     }
 
     private void resetScanPosition() {
+        progressDirty = true;
         scanWrapped = true;
-        scanX = region.minX();
-        scanZ = region.minZ();
-        scanY = region.maxY();
+        scanExhausted = false;
+        int[] start = new int[3];
+        scanOrder.first(region, start);
+        scanX = start[0];
+        scanY = start[1];
+        scanZ = start[2];
 
         currentX = scanX;
         currentZ = scanZ;
@@ -825,18 +1430,46 @@ public class Quarry {
         currentTargetIsDirty = false;
     }
 
+    /**
+     * Mineable blocks left in the region. Chunk columns that aren't loaded are not loaded for
+     * this; they go to {@link #uncountedColumns} and are added once the scan reaches them.
+     */
     private int computeTotalBlocks() {
+        uncountedColumns.clear();
         int count = 0;
 
-        for (int y = region.maxY(); y >= region.minY(); y--) {
-            for (int x = region.minX(); x <= region.maxX(); x++) {
-                for (int z = region.minZ(); z <= region.maxZ(); z++) {
+        for (int cx = region.minX() >> 4; cx <= region.maxX() >> 4; cx++) {
+            for (int cz = region.minZ() >> 4; cz <= region.maxZ() >> 4; cz++) {
+                Object top = location(Math.max(region.minX(), cx << 4), region.maxY(), Math.max(region.minZ(), cz << 4));
+                if (top == null || !platform.isChunkLoaded(top)) {
+                    uncountedColumns.add(chunkKey(cx, cz));
+                    continue;
+                }
+                count += countColumn(cx, cz);
+            }
+        }
+
+        return count;
+    }
+
+    private void countColumnIfUncounted(int x, int z) {
+        if (!uncountedColumns.remove(chunkKey(x >> 4, z >> 4))) return;
+        totalBlocks += countColumn(x >> 4, z >> 4);
+        progressDirty = true;
+    }
+
+    private int countColumn(int cx, int cz) {
+        int count = 0;
+        int maxX = Math.min(region.maxX(), (cx << 4) + 15);
+        int maxZ = Math.min(region.maxZ(), (cz << 4) + 15);
+        for (int x = Math.max(region.minX(), cx << 4); x <= maxX; x++) {
+            for (int z = Math.max(region.minZ(), cz << 4); z <= maxZ; z++) {
+                for (int y = region.maxY(); y >= region.minY(); y--) {
                     Object loc = location(x, y, z);
                     if (isMineableForQuarry(loc, x, y, z)) count++;
                 }
             }
         }
-
         return count;
     }
 
@@ -855,26 +1488,6 @@ public class Quarry {
         return (ENERGY_PER_BLOCK_CFE + (long) tpb - 1L) / (long) tpb;
     }
 
-    // Vanilla-style packing (26 bits X, 12 bits Y, 26 bits Z).
-    // Supports typical world bounds (±33M), and keeps this module dependency-free.
-    private static long packPos(int x, int y, int z) {
-        return (((long) x & 0x3FFFFFFL) << 38) | (((long) z & 0x3FFFFFFL) << 12) | ((long) y & 0xFFFL);
-    }
-
-    private static int unpackX(long packed) {
-        return (int) (packed >> 38);
-    }
-
-    private static int unpackY(long packed) {
-        // sign-extend 12-bit Y
-        return (int) (packed << 52 >> 52);
-    }
-
-    private static int unpackZ(long packed) {
-        // sign-extend 26-bit Z
-        return (int) (packed << 26 >> 38);
-    }
-
     private Object location(int x, int y, int z) {
         if (world == null) return null;
         return platform.createLocation(world, x, y, z);
@@ -898,15 +1511,12 @@ public class Quarry {
         if (!platform.isMineable(loc)) return false;
 
         // Protect the quarry's visual frame boundary from mining.
-        if (platform.isGlassFrameBlock(loc) && isFramePerimeterPos(x, y, z)) return false;
+        // Perimeter test first: it's pure arithmetic and rules out almost every scanned block.
+        if (platform.usesGlassFrameBlocks() && isFramePerimeterPos(x, y, z) && platform.isGlassFrameBlock(loc)) return false;
         return true;
     }
 
-    private void onItemDelivered(Object destination, Object itemStack, int deliveredAmount) {
-        InFlightAccounting.release(inFlightByDestination, inFlightByDestinationAndItem, platform, destination, itemStack, deliveredAmount);
-    }
-
-    public Map<String, Integer> getInFlightMap() { return inFlightByDestination; }
+    public ReservationLedger getReservationLedger() { return reservations; }
     public List<Object> getOutputBuffer() { return outputBuffer; }
     
     // Glass frame management
@@ -0,0 +1,222 @@
+package dev.cloudframe.common.quarry;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Shared rate limiter for quarry mining effects (crack overlay, break particles/sounds).
+ *
+ * <p>Crack updates are aggregated per position and flushed once per tick, only when the crack
+ * stage actually changed. Effects go to players within {@link #getRadius()}; beyond
+ * {@link #getFullDetailRadius()} players get no crack and only an occasional break sound.
+ * A global per-tick packet budget caps the total number of packets (effects times viewers);
+ * crack updates over budget carry over to the next tick, break effects over budget are
+ * dropped.</p>
+ *
+ * <p>Platforms that don't implement {@link QuarryPlatform#supportsEffectViewers()} keep the
+ * legacy broadcast calls. This is independent of a quarry's silent mode, which disables
+ * effects entirely.</p>
+ */
+public final class QuarryEffectScheduler {
+
+    private static final int CRACK_CLEAR = -1;
+
+    private final QuarryPlatform platform;
+
+    private double radius = 48.0;
+    private double fullDetailRadius = 16.0;
+    private int packetBudgetPerTick = 256;
+    private int farSoundIntervalTicks = 40;
+
+    // Latest requested crack stage per position, waiting for the end-of-tick flush.
+    private final Map<Object, Integer> pendingCracks = new LinkedHashMap<>();
+    // Last stage sent per position; cleared once the crack is removed.
+    private final Map<Object, Integer> sentCracks = new HashMap<>();
+    // Quarry (controller) that requested the crack at each pending or shown position.
+    private final Map<Object, Object> crackSources = new HashMap<>();
+    // Last tick a far-LOD break sound was played, per quarry controller.
+    private final Map<Object, Long> lastFarSoundTick = new HashMap<>();
+
+    private long tick;
+    private int packetsThisTick;
+
+    public QuarryEffectScheduler(QuarryPlatform platform) {
+        this.platform = platform;
+    }
+
+    /**
+     * Update limits. Radii are in blocks; a budget of 0 or less means unlimited.
+     */
+    public void configure(double radius, double fullDetailRadius, int packetBudgetPerTick, int farSoundIntervalTicks) {
+        this.radius = Math.max(0.0, radius);
+        this.fullDetailRadius = Math.max(0.0, Math.min(this.radius, fullDetailRadius));
+        this.packetBudgetPerTick = packetBudgetPerTick;
+        this.farSoundIntervalTicks = Math.max(1, farSoundIntervalTicks);
+    }
+
+    public double getRadius() { return radius; }
+    public double getFullDetailRadius() { return fullDetailRadius; }
+    public int getPacketBudgetPerTick() { return packetBudgetPerTick; }
+
+    /**
+     * Request a crack overlay at {@code loc} for the quarry identified by {@code source}.
+     * Progress {@code <= 0} clears it.
+     */
+    public void crack(Object source, Object loc, float progress01) {
+        if (loc == null) return;
+        if (!platform.supportsEffectViewers()) {
+            platform.sendBlockCrack(loc, progress01);
+            return;
+        }
+
+        int stage = stageOf(progress01);
+        Integer sent = sentCracks.get(loc);
+        if (sent == null && stage == CRACK_CLEAR) {
+            // Nothing was ever shown here; nothing to clear.
+            pendingCracks.remove(loc);
+            crackSources.remove(loc);
+            return;
+        }
+        if (sent != null && sent == stage) {
+            pendingCracks.remove(loc);
+            return;
+        }
+        pendingCracks.put(loc, stage);
+        if (source != null && stage != CRACK_CLEAR) crackSources.put(loc, source);
+    }
+
+    /**
+     * Forget a removed quarry: overlays it left behind are cleared on the next flush, and
+     * its pending cracks and sound timer are dropped.
+     */
+    public void forgetSource(Object source) {
+        if (source == null) return;
+        lastFarSoundTick.remove(source);
+        Iterator<Map.Entry<Object, Object>> it = crackSources.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Object, Object> e = it.next();
+            if (!source.equals(e.getValue())) continue;
+            Object loc = e.getKey();
+            if (sentCracks.containsKey(loc)) {
+                pendingCracks.put(loc, CRACK_CLEAR);
+            } else {
+                pendingCracks.remove(loc);
+                it.remove();
+            }
+        }
+    }
+
+    /**
+     * Play break effects at {@code loc} for the quarry identified by {@code source}.
+     *
+     * <p>Runs immediately (the block is about to be removed), subject to the tick budget.</p>
+     */
+    public void breakBlock(Object source, Object loc) {
+        if (loc == null) return;
+        if (!platform.supportsEffectViewers()) {
+            platform.playBreakEffects(loc);
+            return;
+        }
+
+        boolean farSoundDue = false;
+        if (source != null) {
+            Long last = lastFarSoundTick.get(source);
+            farSoundDue = last == null || tick - last >= farSoundIntervalTicks;
+        }
+        final boolean allowFarSound = farSoundDue;
+        final boolean[] playedFar = { false };
+        double fullSq = fullDetailRadius * fullDetailRadius;
+
+        platform.forEachEffectViewer(loc, radius, (player, distSq) -> {
+            if (!hasBudget()) return;
+            if (distSq <= fullSq) {
+                platform.playBreakEffectsTo(player, loc, false);
+                packetsThisTick++;
+            } else if (allowFarSound) {
+                platform.playBreakEffectsTo(player, loc, true);
+                packetsThisTick++;
+                playedFar[0] = true;
+            }
+        });
+
+        if (playedFar[0]) {
+            lastFarSoundTick.put(source, tick);
+        }
+    }
+
+    /**
+     * Send aggregated crack updates. Call once per server tick, after all quarries ticked.
+     */
+    public void flush() {
+        if (!pendingCracks.isEmpty()) {
+            double fullSq = fullDetailRadius * fullDetailRadius;
+            List<Object> viewers = new ArrayList<>();
+            Iterator<Map.Entry<Object, Integer>> it = pendingCracks.entrySet().iterator();
+            while (it.hasNext() && hasBudget()) {
+                Map.Entry<Object, Integer> e = it.next();
+                Object loc = e.getKey();
+                int stage = e.getValue();
+
+                // Clears go to everyone in range so no stale overlay is left behind;
+                // new stages only to players close enough to see them.
+                double limitSq = stage == CRACK_CLEAR ? radius * radius : fullSq;
+                viewers.clear();
+                platform.forEachEffectViewer(loc, radius, (player, distSq) -> {
+                    if (distSq <= limitSq) viewers.add(player);
+                });
+                // One packet per viewer. An update that doesn't fit waits for the next tick,
+                // unless it alone exceeds the budget (then it would never go out).
+                if (packetBudgetPerTick > 0 && packetsThisTick > 0
+                        && packetsThisTick + viewers.size() > packetBudgetPerTick) {
+                    break;
+                }
+                it.remove();
+
+                float progress = stage == CRACK_CLEAR ? 0.0f : stage / 9.0f;
+                for (Object player : viewers) {
+                    platform.sendBlockCrackTo(player, loc, progress);
+                }
+                packetsThisTick += viewers.size();
+
+                if (stage == CRACK_CLEAR) {
+                    sentCracks.remove(loc);
+                    crackSources.remove(loc);
+                } else {
+                    sentCracks.put(loc, stage);
+                }
+            }
+        }
+
+        tick++;
+        packetsThisTick = 0;
+
+        // Forget far-sound timers of quarries that stopped breaking blocks.
+        if ((tick % 1200L) == 0L && !lastFarSoundTick.isEmpty()) {
+            lastFarSoundTick.values().removeIf(last -> tick - last > farSoundIntervalTicks);
+        }
+    }
+
+    /**
+     * Drop all pending and tracked state (e.g. on shutdown).
+     */
+    public void clear() {
+        pendingCracks.clear();
+        sentCracks.clear();
+        crackSources.clear();
+        lastFarSoundTick.clear();
+        packetsThisTick = 0;
+    }
+
+    private boolean hasBudget() {
+        return packetBudgetPerTick <= 0 || packetsThisTick < packetBudgetPerTick;
+    }
+
+    private static int stageOf(float progress01) {
+        if (progress01 <= 0.0f) return CRACK_CLEAR;
+        return Math.round(Math.min(1.0f, progress01) * 9.0f);
+    }
+}
@@ -1,7 +1,9 @@
 package dev.cloudframe.common.quarry;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 import dev.cloudframe.common.storage.Database;
@@ -18,14 +20,105 @@ public class QuarryManager {
     private static final Debug debug = DebugManager.get(QuarryManager.class);
 
     private final List<Quarry> quarries = new ArrayList<>();
+    // Quarries ticked every server tick; hibernating ones are parked with the tick they slept at.
+    private final List<Quarry> ticking = new ArrayList<>();
+    private final Map<Quarry, Long> hibernating = new LinkedHashMap<>();
+    private long tickCount;
+    private long hibernationAuditTicks = 20L * 60L * 5L;
     private final QuarryPlatform platform;
+    private final QuarryEffectScheduler effects;
+    private final ReservationLedger reservations;
+    private boolean progressiveChunkLoading = false;
+    // Bumped whenever the set of quarries changes, so callers can cache getByController results.
+    private int registrationVersion;
+    private QuarryScanOrder scanOrder = QuarryScanOrder.LAYER;
+    private boolean offlineCatchUp = false;
+    private int catchUpBlocksPerTick = 64;
 
     public QuarryManager(QuarryPlatform platform) {
         this.platform = platform;
+        this.effects = new QuarryEffectScheduler(platform);
+        this.reservations = new ReservationLedger(platform);
+    }
+
+    public QuarryEffectScheduler effects() { return effects; }
+
+    /** Server-wide ledger of items in flight to destination inventories, shared by all quarries. */
+    public ReservationLedger reservations() { return reservations; }
+
+    /**
+     * Chunk-loading quarries only keep the chunks around their mining head loaded
+     * (applies to registered and future quarries).
+     */
+    public void setProgressiveChunkLoading(boolean progressive) {
+        this.progressiveChunkLoading = progressive;
+        for (Quarry q : quarries) {
+            q.setProgressiveChunkLoading(progressive);
+        }
+    }
+
+    /**
+     * Mining order for registered and future quarries.
+     */
+    public void setScanOrder(QuarryScanOrder order) {
+        if (order == null) return;
+        this.scanOrder = order;
+        for (Quarry q : quarries) {
+            q.setScanOrder(order);
+        }
+    }
+
+    /**
+     * Offline catch-up for registered and future quarries: after the controller chunk reloads,
+     * mine the blocks missed while unloaded, {@code blocksPerTick} at a time.
+     */
+    public void setOfflineCatchUp(boolean enabled, int blocksPerTick) {
+        this.offlineCatchUp = enabled;
+        this.catchUpBlocksPerTick = Math.max(1, blocksPerTick);
+        for (Quarry q : quarries) {
+            q.setOfflineCatchUp(enabled, catchUpBlocksPerTick);
+        }
+    }
+
+    /**
+     * How often hibernating quarries are woken to re-check their region (ticks, min 20).
+     */
+    public void setHibernationAuditTicks(long ticks) {
+        this.hibernationAuditTicks = Math.max(20L, ticks);
+    }
+
+    public int hibernatingCount() { return hibernating.size(); }
+
+    /**
+     * Changes whenever a quarry is registered, removed or reloaded.
+     */
+    public int registrationVersion() { return registrationVersion; }
+
+    /**
+     * Power network topology changed: idle quarries re-check power on the next tick.
+     */
+    public void onPowerNetworkChanged() {
+        for (Quarry q : ticking) {
+            q.resetIdleBackoff();
+        }
     }
 
     public void register(Quarry q) {
+        q.setEffectScheduler(effects);
+        q.setReservationLedger(reservations);
+        q.setScanOrder(scanOrder);
+        q.setProgressiveChunkLoading(progressiveChunkLoading);
+        q.setOfflineCatchUp(offlineCatchUp, catchUpBlocksPerTick);
+        q.setWakeListener(() -> onQuarryWoken(q));
         quarries.add(q);
+        ticking.add(q);
+        registrationVersion++;
+    }
+
+    private void onQuarryWoken(Quarry q) {
+        if (hibernating.remove(q) != null) {
+            ticking.add(q);
+        }
     }
 
     public void remove(Quarry q) {
@@ -34,14 +127,52 @@ public class QuarryManager {
         // Ensure we don't leave forced chunks behind.
         q.setChunkLoadingEnabled(false);
         quarries.remove(q);
+        ticking.remove(q);
+        hibernating.remove(q);
+        q.setWakeListener(null);
+        effects.forgetSource(q.getController());
+        registrationVersion++;
     }
 
     public List<Quarry> all() { return quarries; }
 
     public void tickAll(boolean shouldLog) {
-        for (Quarry q : quarries) {
+        tickCount++;
+        reservations.capacity().beginTick();
+
+        // Slow audit: wake quarries that have slept for a full interval.
+        if (!hibernating.isEmpty() && (tickCount % 20L) == 0L) {
+            List<Quarry> due = new ArrayList<>();
+            for (Map.Entry<Quarry, Long> e : hibernating.entrySet()) {
+                if (tickCount - e.getValue() >= hibernationAuditTicks) due.add(e.getKey());
+            }
+            for (Quarry q : due) {
+                q.wake();
+            }
+        }
+
+        // Index loop: quarries woken during this loop are appended and ticked right away.
+        List<Quarry> fellAsleep = null;
+        for (int i = 0; i < ticking.size(); i++) {
+            Quarry q = ticking.get(i);
+            // Idle backoff: paused/blocked quarries only look around every few ticks.
+            if (q.skipIdleTick()) continue;
             q.tick(shouldLog);
+            q.updateIdleBackoff();
+            if (q.isHibernating()) {
+                if (fellAsleep == null) fellAsleep = new ArrayList<>();
+                fellAsleep.add(q);
+            }
+        }
+        if (fellAsleep != null) {
+            for (Quarry q : fellAsleep) {
+                if (!q.isHibernating()) continue;
+                ticking.remove(q);
+                hibernating.put(q, tickCount);
+            }
         }
+
+        effects.flush();
     }
 
     public void saveAll() {
@@ -50,14 +181,15 @@ public class QuarryManager {
             conn.createStatement().executeUpdate("DELETE FROM quarries");
             var ps = conn.prepareStatement("""
                 INSERT INTO quarries
-                (owner, ownerName, world, ax, ay, az, bx, by, bz, controllerX, controllerY, controllerZ, active, controllerYaw, silkTouch, speedLevel, fortuneLevel, outputRoundRobin, redstoneMode, chunkLoadingEnabled, silentMode, frameMinX, frameMinZ, frameMaxX, frameMaxZ)
-                VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+                (owner, ownerName, world, ax, ay, az, bx, by, bz, controllerX, controllerY, controllerZ, active, controllerYaw, silkTouch, speedLevel, fortuneLevel, outputRoundRobin, redstoneMode, chunkLoadingEnabled, silentMode, frameMinX, frameMinZ, frameMaxX, frameMaxZ, scanX, scanY, scanZ, scanWrapped, scanOrder, blocksMined, totalBlocks, blocksOwed, dormantSince)
+                VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
             """);
             for (Quarry q : quarries) {
                 bindQuarryInsert(ps, q);
                 ps.addBatch();
             }
             ps.executeBatch();
+            for (Quarry q : quarries) q.markProgressSaved();
         });
     }
 
@@ -87,11 +219,12 @@ public class QuarryManager {
 
             var ins = conn.prepareStatement("""
                 INSERT INTO quarries
-                (owner, ownerName, world, ax, ay, az, bx, by, bz, controllerX, controllerY, controllerZ, active, controllerYaw, silkTouch, speedLevel, fortuneLevel, outputRoundRobin, redstoneMode, chunkLoadingEnabled, silentMode, frameMinX, frameMinZ, frameMaxX, frameMaxZ)
-                VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+                (owner, ownerName, world, ax, ay, az, bx, by, bz, controllerX, controllerY, controllerZ, active, controllerYaw, silkTouch, speedLevel, fortuneLevel, outputRoundRobin, redstoneMode, chunkLoadingEnabled, silentMode, frameMinX, frameMinZ, frameMaxX, frameMaxZ, scanX, scanY, scanZ, scanWrapped, scanOrder, blocksMined, totalBlocks, blocksOwed, dormantSince)
+                VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
             """);
             bindQuarryInsert(ins, q);
             ins.executeUpdate();
+            q.markProgressSaved();
         });
     }
 
@@ -150,10 +283,64 @@ public class QuarryManager {
         ps.setInt(23, q.frameMinZ());
         ps.setInt(24, q.frameMaxX());
         ps.setInt(25, q.frameMaxZ());
+        ps.setInt(26, q.getScanX());
+        ps.setInt(27, q.getScanY());
+        ps.setInt(28, q.getScanZ());
+        ps.setInt(29, q.isScanWrapped() ? 1 : 0);
+        ps.setString(30, q.getScanOrder().name());
+        ps.setInt(31, q.getBlocksMined());
+        ps.setInt(32, q.getTotalBlocksIfComputed());
+        ps.setInt(33, q.getFastPathBlocksOwed());
+        ps.setLong(34, q.getDormantSinceTime());
+    }
+
+    /**
+     * Persist mining progress (scan cursor and counters) of quarries that mined since the
+     * last save. Cheap enough to call periodically and on shutdown.
+     */
+    public void saveProgress() {
+        List<Quarry> changed = new ArrayList<>();
+        for (Quarry q : quarries) {
+            if (q.getController() != null && q.isProgressDirty()) changed.add(q);
+        }
+        if (changed.isEmpty()) return;
+
+        Database.run(conn -> {
+            var ps = conn.prepareStatement("""
+                UPDATE quarries
+                SET scanX = ?, scanY = ?, scanZ = ?, scanWrapped = ?, scanOrder = ?, blocksMined = ?, totalBlocks = ?, blocksOwed = ?, dormantSince = ?
+                WHERE world = ? AND controllerX = ? AND controllerY = ? AND controllerZ = ?
+            """);
+            for (Quarry q : changed) {
+                Object ctrl = q.getController();
+                Object world = platform.worldOf(ctrl);
+                ps.setInt(1, q.getScanX());
+                ps.setInt(2, q.getScanY());
+                ps.setInt(3, q.getScanZ());
+                ps.setInt(4, q.isScanWrapped() ? 1 : 0);
+                ps.setString(5, q.getScanOrder().name());
+                ps.setInt(6, q.getBlocksMined());
+                ps.setInt(7, q.getTotalBlocksIfComputed());
+                ps.setInt(8, q.getFastPathBlocksOwed());
+                ps.setLong(9, q.getDormantSinceTime());
+                ps.setString(10, world != null ? platform.worldName(world) : "");
+                ps.setInt(11, platform.blockX(ctrl));
+                ps.setInt(12, platform.blockY(ctrl));
+                ps.setInt(13, platform.blockZ(ctrl));
+                ps.addBatch();
+            }
+            ps.executeBatch();
+            // Only now: if the write fails, the quarries stay dirty and the next save retries.
+            for (Quarry q : changed) q.markProgressSaved();
+        });
+        debug.log("saveProgress", "Saved mining progress for " + changed.size() + " quarries");
     }
 
     public void loadAll() {
         quarries.clear();
+        ticking.clear();
+        hibernating.clear();
+        registrationVersion++;
         debug.log("loadAll", "Loading quarries (stub)");
         final List<Quarry> savedActiveQuarries = new ArrayList<>();
         Database.run(conn -> {
@@ -246,6 +433,40 @@ public class QuarryManager {
                 } catch (java.sql.SQLException ignored) {
                     // Older DBs won't have this column.
                 }
+                // Mining progress: restore the cursor under the order it was saved with, then
+                // switch to the configured order (which restarts the scan if they differ).
+                try {
+                    Object scanXObj = rs.getObject("scanX");
+                    Object scanYObj = rs.getObject("scanY");
+                    Object scanZObj = rs.getObject("scanZ");
+                    if (scanXObj != null && scanYObj != null && scanZObj != null) {
+                        q.setScanOrder(QuarryScanOrder.fromConfig(rs.getString("scanOrder"), QuarryScanOrder.LAYER));
+                        q.restoreProgress(
+                            ((Number) scanXObj).intValue(),
+                            ((Number) scanYObj).intValue(),
+                            ((Number) scanZObj).intValue(),
+                            rs.getInt("scanWrapped") == 1,
+                            rs.getInt("blocksMined"),
+                            rs.getInt("totalBlocks"),
+                            rs.getInt("blocksOwed")
+                        );
+                    }
+                } catch (java.sql.SQLException ignored) {
+                    // Older DBs won't have these columns.
+                }
+                try {
+                    Object dormantObj = rs.getObject("dormantSince");
+                    if (dormantObj != null) {
+                        q.restoreDormancy(((Number) dormantObj).longValue());
+                    }
+                } catch (java.sql.SQLException ignored) {
+                    // Older DBs won't have this column.
+                }
+                q.setOfflineCatchUp(offlineCatchUp, catchUpBlocksPerTick);
+
+                // Pick the forcing mode first so a progressive quarry never pins its whole region.
+                q.setScanOrder(scanOrder);
+                q.setProgressiveChunkLoading(progressiveChunkLoading);
                 q.setChunkLoadingEnabled(chunkLoadingEnabled);
 
                 boolean silentMode = false;
@@ -2,10 +2,15 @@ package dev.cloudframe.common.quarry;
 
 import java.util.List;
 import java.util.UUID;
+import java.util.function.ObjDoubleConsumer;
 
+import dev.cloudframe.common.pipes.PacketRoute;
 import dev.cloudframe.common.pipes.PipeNetworkManager;
 import dev.cloudframe.common.pipes.ItemPacketManager;
 import dev.cloudframe.common.pipes.ItemPacketDeliveryCallback;
+import dev.cloudframe.common.pipes.filter.CompiledPipeFilter;
+import dev.cloudframe.common.platform.items.ItemIdentityAdapter;
+import dev.cloudframe.common.platform.items.ItemIdentityInterner;
 import dev.cloudframe.common.platform.items.ItemStackKeyAdapter;
 import dev.cloudframe.common.platform.world.LocationKeyAdapter;
 import dev.cloudframe.common.platform.world.WorldKeyAdapter;
@@ -20,6 +25,22 @@ public interface QuarryPlatform {
     Object offset(Object loc, int dx, int dy, int dz);
     boolean isChunkLoaded(Object loc);
     boolean isRedstonePowered(Object loc);
+
+    /**
+     * Whether the platform pushes controller redstone changes via {@link Quarry#onRedstoneChanged(boolean)}.
+     * When true, quarries poll {@link #isRedstonePowered(Object)} only once after the controller loads.
+     */
+    default boolean supportsRedstoneEvents() {
+        return false;
+    }
+
+    /**
+     * Persistent game time (ticks) of the world containing {@code loc}, or -1 if unknown.
+     * Used to measure how long a quarry's chunk was unloaded (offline catch-up).
+     */
+    default long gameTime(Object loc) {
+        return -1L;
+    }
     void setChunkForced(Object world, int chunkX, int chunkZ, boolean forced);
     boolean isMineable(Object loc);
     List<Object> getDrops(Object loc, boolean silkTouch);
@@ -33,13 +54,99 @@ public interface QuarryPlatform {
         return getDrops(loc, silkTouch);
     }
     void setBlockAir(Object loc);
+
+    /**
+     * Bulk mining: drops for several blocks at once (same augments for all), in order.
+     *
+     * <p>Default delegates to {@link #getDrops(Object, boolean, int)} per location.</p>
+     */
+    default List<Object> getDropsBatch(List<Object> locs, boolean silkTouch, int fortuneLevel) {
+        List<Object> out = new java.util.ArrayList<>();
+        if (locs == null) return out;
+        for (Object loc : locs) {
+            List<Object> drops = getDrops(loc, silkTouch, fortuneLevel);
+            if (drops != null) out.addAll(drops);
+        }
+        return out;
+    }
+
+    /**
+     * Bulk mining: clear several blocks at once.
+     *
+     * <p>Platforms can override this to skip per-block neighbor updates and batch chunk work.
+     * Default delegates to {@link #setBlockAir(Object)} per location.</p>
+     */
+    default void setBlocksAir(List<Object> locs) {
+        if (locs == null) return;
+        for (Object loc : locs) {
+            setBlockAir(loc);
+        }
+    }
+
+    /**
+     * Whether quarries may break several blocks per mining cycle (see {@link #getDropsBatch} /
+     * {@link #setBlocksAir}). Off by default so existing platforms keep one block per cycle.
+     */
+    default boolean supportsBulkMining() {
+        return false;
+    }
+
+    /**
+     * Section fast path: clear a whole 16x16x16 section in one operation.
+     *
+     * <p>Section coordinates are block coordinates {@code >> 4}. Implementations must only clear
+     * sections made of simple blocks (no block entities, light sources or special blocks) and
+     * append the drops to {@code dropsOut}.</p>
+     *
+     * @return number of blocks removed, or {@code -1} when the section isn't eligible
+     *         (nothing is changed in that case)
+     */
+    default int clearSection(Object world, int sectionX, int sectionY, int sectionZ,
+                             boolean silkTouch, int fortuneLevel, List<Object> dropsOut) {
+        return -1;
+    }
+
     void playBreakEffects(Object loc);
     void sendBlockCrack(Object loc, float progress01);
+
+    /**
+     * Whether the per-player effect hooks below are implemented. When false,
+     * {@link QuarryEffectScheduler} falls back to {@link #playBreakEffects} / {@link #sendBlockCrack}.
+     */
+    default boolean supportsEffectViewers() {
+        return false;
+    }
+
+    /**
+     * Visit players within {@code radius} blocks of {@code loc}, with their squared distance.
+     */
+    default void forEachEffectViewer(Object loc, double radius, ObjDoubleConsumer<Object> viewer) {
+    }
+
+    /**
+     * Send a crack overlay update to one player. Progress {@code <= 0} clears it.
+     */
+    default void sendBlockCrackTo(Object player, Object loc, float progress01) {
+    }
+
+    /**
+     * Play break effects for one player: particles and sound, or the sound only.
+     */
+    default void playBreakEffectsTo(Object player, Object loc, boolean soundOnly) {
+    }
     boolean isInventory(Object loc);
     Object getInventoryHolder(Object loc);
     int addToInventory(Object inventoryHolder, Object itemStack);
     int totalRoomFor(Object inventoryHolder, Object itemStack);
     int emptySlotCount(Object inventoryHolder);
+
+    /**
+     * Whether capacity of {@code inventoryHolder} can be snapshotted per tick and updated by
+     * counting inserts. Return false for sinks whose room doesn't shrink as items go in.
+     */
+    default boolean isCapacityCacheable(Object inventoryHolder) {
+        return true;
+    }
     LocationKeyAdapter<Object> locationKeyAdapter();
     ItemStackKeyAdapter<Object> itemKeyAdapter();
     double distanceSquared(Object a, Object b);
@@ -119,6 +226,43 @@ public interface QuarryPlatform {
         }
     }
 
+    /**
+     * Interned identity adapter, or null to derive ids from {@link #itemKey(Object)}.
+     */
+    default ItemIdentityAdapter<Object> itemIdentityAdapter() {
+        return null;
+    }
+
+    /**
+     * Interned id of the stack's full identity (stacks that merge share an id).
+     */
+    default int itemStackId(Object itemStack) {
+        ItemIdentityAdapter<Object> adapter = itemIdentityAdapter();
+        if (adapter != null) {
+            try {
+                return adapter.stackId(itemStack);
+            } catch (Throwable ignored) {
+                // Fall back to the string key.
+            }
+        }
+        return ItemIdentityInterner.global().intern(itemKey(itemStack));
+    }
+
+    /**
+     * Interned id of the stack's item type (what pipe filters match on).
+     */
+    default int itemTypeId(Object itemStack) {
+        ItemIdentityAdapter<Object> adapter = itemIdentityAdapter();
+        if (adapter != null) {
+            try {
+                return adapter.typeId(itemStack);
+            } catch (Throwable ignored) {
+                // Fall back to the string key.
+            }
+        }
+        return ItemIdentityInterner.global().intern(itemKey(itemStack));
+    }
+
     /**
      * Convenience helper based on {@link #totalRoomFor(Object, Object)}.
      */
@@ -142,8 +286,18 @@ public interface QuarryPlatform {
         return DirIndex.fromDelta(dx, dy, dz);
     }
 
+    /**
+     * Creates item packets. If a packet cannot be created, implementations must still call the
+     * callback with an inserted amount of 0 so the caller can release what it reserved.
+     */
     interface ItemPacketFactory {
         void send(Object itemStack, List<Object> waypoints, Object destinationInventory, DeliveryCallback callback);
+
+        /**
+         * Send along a precomputed (usually shared) route. The route only stores turn points, so
+         * it cannot be handed to the waypoint overload; packets must travel it as is.
+         */
+        void send(Object itemStack, PacketRoute route, Object destinationInventory, DeliveryCallback callback);
     }
 
     interface DeliveryCallback extends ItemPacketDeliveryCallback {
@@ -156,15 +310,34 @@ public interface QuarryPlatform {
     void removeGlassFrame(Object world, int minX, int minY, int minZ, int maxX, int maxY, int maxZ);
     boolean isGlassFrameBlock(Object loc);
 
+    /**
+     * Whether the quarry frame exists as real blocks in the world.
+     *
+     * <p>Platforms that render the frame client-side return false, which lets the quarry skip
+     * the per-block {@link #isGlassFrameBlock(Object)} check while scanning.</p>
+     */
+    default boolean usesGlassFrameBlocks() {
+        return true;
+    }
+
     /**
      * Pipe-side filter hook.
      *
      * Called during quarry output routing when selecting a destination inventory.
      * The {@code pipeLocAdjacentToInventory} is the pipe block that is directly touching the inventory,
      * and the filter (if any) is expected to be attached to the pipe face pointing into that inventory.
+     * Returns the compiled filter on that face, or null if there is none.
+     */
+    default CompiledPipeFilter pipeFilter(Object pipeLocAdjacentToInventory, Object inventoryLoc) {
+        return null;
+    }
+
+    /**
+     * Convenience check based on {@link #pipeFilter(Object, Object)} and {@link #itemTypeId(Object)}.
      */
     default boolean allowsPipeFilter(Object pipeLocAdjacentToInventory, Object inventoryLoc, Object itemStack) {
-        return true;
+        CompiledPipeFilter filter = pipeFilter(pipeLocAdjacentToInventory, inventoryLoc);
+        return filter == null || filter.allows(itemTypeId(itemStack));
     }
 
     /**
@@ -0,0 +1,136 @@
+package dev.cloudframe.common.quarry;
+
+import java.util.Locale;
+
+import dev.cloudframe.common.util.Region;
+
+/**
+ * Order in which a quarry visits the blocks of its region.
+ *
+ * <p>Positions are passed as {@code int[] {x, y, z}} cursors. Every order starts at
+ * (minX, maxY, minZ); {@link #advance} moves a cursor to the next position and returns false
+ * once the region is exhausted. {@link #compare} must agree with {@link #advance} so the
+ * "already processed" checks and the dirty-block queue follow the same order as mining.</p>
+ */
+public enum QuarryScanOrder {
+
+    /**
+     * Whole region layer by layer: y descending, then x ascending, then z ascending.
+     * Every layer touches every chunk of the region.
+     */
+    LAYER {
+        @Override
+        public int compare(int ax, int ay, int az, int bx, int by, int bz) {
+            if (ay != by) return Integer.compare(by, ay); // y desc
+            if (ax != bx) return Integer.compare(ax, bx); // x asc
+            return Integer.compare(az, bz); // z asc
+        }
+
+        @Override
+        public boolean advance(Region region, int[] pos) {
+            pos[2]++;
+            if (pos[2] <= region.maxZ()) return true;
+            pos[2] = region.minZ();
+            pos[0]++;
+            if (pos[0] <= region.maxX()) return true;
+            pos[0] = region.minX();
+            pos[1]--;
+            return pos[1] >= region.minY();
+        }
+    },
+
+    /**
+     * One chunk column at a time, top to bottom (y descending, x ascending, z ascending inside
+     * the column), columns ordered by chunk x then chunk z. Only one column is worked at a time.
+     * With progressive chunk loading, finished columns are released; the quarry's re-check scan
+     * skips columns that aren't loaded, so they are not loaded again for it.
+     */
+    CHUNK_COLUMN {
+        @Override
+        public int compare(int ax, int ay, int az, int bx, int by, int bz) {
+            int acx = ax >> 4;
+            int bcx = bx >> 4;
+            if (acx != bcx) return Integer.compare(acx, bcx);
+            int acz = az >> 4;
+            int bcz = bz >> 4;
+            if (acz != bcz) return Integer.compare(acz, bcz);
+            return LAYER.compare(ax, ay, az, bx, by, bz);
+        }
+
+        @Override
+        public boolean advance(Region region, int[] pos) {
+            int cx = pos[0] >> 4;
+            int cz = pos[2] >> 4;
+            int colMinX = Math.max(region.minX(), cx << 4);
+            int colMaxX = Math.min(region.maxX(), (cx << 4) + 15);
+            int colMinZ = Math.max(region.minZ(), cz << 4);
+            int colMaxZ = Math.min(region.maxZ(), (cz << 4) + 15);
+
+            pos[2]++;
+            if (pos[2] <= colMaxZ) return true;
+            pos[2] = colMinZ;
+            pos[0]++;
+            if (pos[0] <= colMaxX) return true;
+            pos[0] = colMinX;
+            pos[1]--;
+            if (pos[1] >= region.minY()) return true;
+
+            // Column finished: next chunk z, then next chunk x.
+            cz++;
+            if ((cz << 4) > region.maxZ()) {
+                cz = region.minZ() >> 4;
+                cx++;
+                if ((cx << 4) > region.maxX()) return false;
+            }
+            pos[0] = Math.max(region.minX(), cx << 4);
+            pos[1] = region.maxY();
+            pos[2] = Math.max(region.minZ(), cz << 4);
+            return true;
+        }
+
+        @Override
+        public void toColumnEnd(Region region, int[] pos) {
+            pos[0] = Math.min(region.maxX(), ((pos[0] >> 4) << 4) + 15);
+            pos[1] = region.minY();
+            pos[2] = Math.min(region.maxZ(), ((pos[2] >> 4) << 4) + 15);
+        }
+    };
+
+    /**
+     * Negative if (a) is visited before (b), positive if after, 0 if same position.
+     */
+    public abstract int compare(int ax, int ay, int az, int bx, int by, int bz);
+
+    /**
+     * Move {@code pos} to the next position in this order. Returns false when past the end.
+     */
+    public abstract boolean advance(Region region, int[] pos);
+
+    /**
+     * Move {@code pos} to the last position of its chunk column if this order finishes columns
+     * one at a time, so the next {@link #advance} leaves the column. Otherwise leaves it as is.
+     */
+    public void toColumnEnd(Region region, int[] pos) {
+    }
+
+    /**
+     * First position of this order: (minX, maxY, minZ).
+     */
+    public void first(Region region, int[] pos) {
+        pos[0] = region.minX();
+        pos[1] = region.maxY();
+        pos[2] = region.minZ();
+    }
+
+    /**
+     * Parse a config value ("layer", "chunk"/"chunk_column"). Unknown values give {@code def}.
+     */
+    public static QuarryScanOrder fromConfig(String value, QuarryScanOrder def) {
+        if (value == null) return def;
+        return switch (value.trim().toLowerCase(Locale.ROOT)) {
+            case "layer" -> LAYER;
+            case "chunk", "chunk_column", "column" -> CHUNK_COLUMN;
+            default -> def;
+        };
+    }
+}
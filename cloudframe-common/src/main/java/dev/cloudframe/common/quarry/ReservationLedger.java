@@ -0,0 +1,168 @@
+package dev.cloudframe.common.quarry;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import dev.cloudframe.common.util.BlockPosPacking;
+import dev.cloudframe.common.util.LongObjectHashMap;
+
+/**
+ * Server-wide ledger of items en route to destination inventories.
+ *
+ * <p>Shared by every quarry (owned by {@link QuarryManager}), so quarries feeding the same chest
+ * see each other's in-flight packets instead of each assuming the space is free. Destinations are
+ * keyed by world plus a packed block position; items by their interned stack id
+ * ({@link QuarryPlatform#itemStackId}).</p>
+ *
+ * <p>Reservations are released when the packet's delivery finishes, whatever was inserted,
+ * so dropped leftovers never leave stale reservations behind.</p>
+ *
+ * <p>The ledger also owns the per-tick {@link InventoryCapacityCache} the reservations are
+ * checked against.</p>
+ */
+public final class ReservationLedger {
+
+    private final QuarryPlatform platform;
+
+    // World -> packed position -> reservations at that destination.
+    private final Map<Object, LongObjectHashMap<Destination>> byWorld = new HashMap<>();
+    private final InventoryCapacityCache capacity;
+
+    public ReservationLedger(QuarryPlatform platform) {
+        this.platform = platform;
+        this.capacity = new InventoryCapacityCache(platform, this);
+    }
+
+    /** Destination capacity snapshots, refreshed once per tick. */
+    public InventoryCapacityCache capacity() { return capacity; }
+
+    /**
+     * Items reserved at one destination: a running total plus per-item amounts
+     * (parallel arrays; a destination rarely has more than a few item types in flight).
+     */
+    private static final class Destination {
+        int total;
+        int[] items = new int[4];
+        int[] amounts = new int[4];
+        int count;
+
+        int amountOf(int itemId) {
+            for (int i = 0; i < count; i++) {
+                if (items[i] == itemId) return amounts[i];
+            }
+            return 0;
+        }
+
+        void add(int itemId, int amount) {
+            total += amount;
+            for (int i = 0; i < count; i++) {
+                if (items[i] == itemId) {
+                    amounts[i] += amount;
+                    return;
+                }
+            }
+            if (count == items.length) {
+                items = Arrays.copyOf(items, count * 2);
+                amounts = Arrays.copyOf(amounts, count * 2);
+            }
+            items[count] = itemId;
+            amounts[count] = amount;
+            count++;
+        }
+
+        void remove(int itemId, int amount) {
+            for (int i = 0; i < count; i++) {
+                if (items[i] != itemId) continue;
+                int removed = Math.min(amount, amounts[i]);
+                amounts[i] -= removed;
+                total -= removed;
+                if (amounts[i] <= 0) {
+                    count--;
+                    items[i] = items[count];
+                    amounts[i] = amounts[count];
+                }
+                return;
+            }
+        }
+    }
+
+    /** Total items reserved at {@code destination}, across all item types. */
+    public int reservedTotal(Object destination) {
+        Destination d = find(destination, false);
+        return d != null ? d.total : 0;
+    }
+
+    /** Items of {@code itemStack}'s type reserved at {@code destination}. */
+    public int reservedFor(Object destination, Object itemStack) {
+        Destination d = find(destination, false);
+        return d != null ? d.amountOf(itemId(itemStack)) : 0;
+    }
+
+    /** Reserve room for the full amount of {@code itemStack} at {@code destination}. */
+    public void reserve(Object destination, Object itemStack) {
+        if (itemStack == null) return;
+        int amount = platform.stackAmount(itemStack);
+        if (amount <= 0) return;
+        Destination d = find(destination, true);
+        if (d != null) d.add(itemId(itemStack), amount);
+    }
+
+    /** Release {@code amount} items of {@code itemStack}'s type at {@code destination}. */
+    public void release(Object destination, Object itemStack, int amount) {
+        if (itemStack == null || amount <= 0) return;
+        Object world = destination != null ? platform.worldOf(destination) : null;
+        LongObjectHashMap<Destination> map = world != null ? byWorld.get(world) : null;
+        if (map == null) return;
+
+        long key = packPos(platform, destination);
+        Destination d = map.get(key);
+        if (d == null) return;
+        d.remove(itemId(itemStack), amount);
+        if (d.count == 0) {
+            map.remove(key);
+            if (map.isEmpty()) byWorld.remove(world);
+        }
+    }
+
+    /** Number of destinations with items in flight. */
+    public int destinationCount() {
+        int n = 0;
+        for (LongObjectHashMap<Destination> map : byWorld.values()) n += map.size();
+        return n;
+    }
+
+    public void clear() {
+        byWorld.clear();
+        capacity.clear();
+    }
+
+    private Destination find(Object destination, boolean create) {
+        if (destination == null) return null;
+        Object world = platform.worldOf(destination);
+        if (world == null) return null;
+
+        LongObjectHashMap<Destination> map = byWorld.get(world);
+        if (map == null) {
+            if (!create) return null;
+            map = new LongObjectHashMap<>();
+            byWorld.put(world, map);
+        }
+
+        long key = packPos(platform, destination);
+        Destination d = map.get(key);
+        if (d == null && create) {
+            d = new Destination();
+            map.put(key, d);
+        }
+        return d;
+    }
+
+    int itemId(Object itemStack) {
+        return platform.itemStackId(itemStack);
+    }
+
+    static long packPos(QuarryPlatform platform, Object loc) {
+        return BlockPosPacking.pack(platform.blockX(loc), platform.blockY(loc), platform.blockZ(loc));
+    }
+}
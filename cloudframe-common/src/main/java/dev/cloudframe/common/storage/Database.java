@@ -137,6 +137,26 @@ public class Database {
                 // Column already exists.
             }
 
+            // Best-effort migrations for mining progress (scan cursor + counters), so restarts
+            // resume where the quarry left off instead of rescanning from the top.
+            for (String column : new String[] {
+                "scanX INTEGER",
+                "scanY INTEGER",
+                "scanZ INTEGER",
+                "scanWrapped INTEGER DEFAULT 0",
+                "scanOrder TEXT",
+                "blocksMined INTEGER DEFAULT 0",
+                "totalBlocks INTEGER DEFAULT -1",
+                "blocksOwed INTEGER DEFAULT 0",
+                "dormantSince INTEGER DEFAULT -1"
+            }) {
+                try {
+                    stmt.executeUpdate("ALTER TABLE quarries ADD COLUMN " + column);
+                } catch (SQLException ignored) {
+                    // Column already exists.
+                }
+            }
+
             // Pipes table
             stmt.executeUpdate("""
                 CREATE TABLE IF NOT EXISTS pipes (
@@ -228,6 +248,28 @@ public class Database {
                 // Column already exists.
             }
 
+            // Placed marker blocks (spatial index for wrench activation; selections live in markers)
+            stmt.executeUpdate("""
+                CREATE TABLE IF NOT EXISTS marker_blocks (
+                    world TEXT NOT NULL,
+                    x INTEGER NOT NULL,
+                    y INTEGER NOT NULL,
+                    z INTEGER NOT NULL,
+                    PRIMARY KEY (world, x, y, z)
+                );
+            """);
+
+            // 16x16x16 sections already scanned for marker blocks placed before marker_blocks existed
+            stmt.executeUpdate("""
+                CREATE TABLE IF NOT EXISTS marker_scanned_sections (
+                    world TEXT NOT NULL,
+                    sx INTEGER NOT NULL,
+                    sy INTEGER NOT NULL,
+                    sz INTEGER NOT NULL,
+                    PRIMARY KEY (world, sx, sy, sz)
+                );
+            """);
+
             // Unregistered controllers table (entity-only controllers placed but not finalized into a quarry)
             stmt.executeUpdate("""
                 CREATE TABLE IF NOT EXISTS unregistered_controllers (
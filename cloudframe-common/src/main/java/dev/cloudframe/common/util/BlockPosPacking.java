@@ -0,0 +1,31 @@
+package dev.cloudframe.common.util;
+
+/**
+ * Vanilla-style packing of block positions into one {@code long} (26 bits X, 12 bits Y, 26 bits Z).
+ *
+ * <p>Supports typical world bounds (±33M horizontally, 12-bit Y). Used as the key for
+ * {@link LongObjectHashMap}-based position indexes and the quarry's block queues.</p>
+ */
+public final class BlockPosPacking {
+
+    private BlockPosPacking() {
+    }
+
+    public static long pack(int x, int y, int z) {
+        return (((long) x & 0x3FFFFFFL) << 38) | (((long) z & 0x3FFFFFFL) << 12) | ((long) y & 0xFFFL);
+    }
+
+    public static int unpackX(long packed) {
+        return (int) (packed >> 38);
+    }
+
+    public static int unpackY(long packed) {
+        // sign-extend 12-bit Y
+        return (int) (packed << 52 >> 52);
+    }
+
+    public static int unpackZ(long packed) {
+        // sign-extend 26-bit Z
+        return (int) (packed << 26 >> 38);
+    }
+}
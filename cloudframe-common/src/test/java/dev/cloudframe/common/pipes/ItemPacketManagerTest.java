@@ -0,0 +1,258 @@
+package dev.cloudframe.common.pipes;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import dev.cloudframe.common.pipes.TestPipes.Pos;
+
+class ItemPacketManagerTest {
+
+    // Packets move 1/8 block per tick.
+    private static final int TICKS_PER_STEP = 8;
+    // Timing wheel slots in ItemPacketManager.
+    private static final int WHEEL_SIZE = 256;
+
+    /** Destination inventories that take everything; items are plain amounts. */
+    static final class World implements ItemPacketManager.IItemDeliveryProvider {
+        final Set<Pos> inventories = new HashSet<>();
+        final Set<Long> unloadedChunks = new HashSet<>();
+        final Map<Pos, Integer> received = new HashMap<>();
+        boolean nameChunks = true;
+
+        @Override
+        public boolean isChunkLoaded(Object location) {
+            Pos p = (Pos) location;
+            return !unloadedChunks.contains(chunk(p.x() >> 4, p.z() >> 4));
+        }
+
+        @Override
+        public Object getInventoryHolder(Object blockLocation) {
+            return inventories.contains(blockLocation) ? blockLocation : null;
+        }
+
+        @Override
+        public int addItem(Object inventoryHolder, Object item) {
+            received.merge((Pos) inventoryHolder, (Integer) item, Integer::sum);
+            return (Integer) item;
+        }
+
+        @Override
+        public void dropItems(Object location, Object[] items) {
+        }
+
+        @Override
+        public Object getAdjacentBlockLocation(Object baseLocation, int dirIndex) {
+            return null;
+        }
+
+        @Override
+        public ItemPacketManager.ChunkKey chunkKeyOf(Object location) {
+            if (!nameChunks) return null;
+            Pos p = (Pos) location;
+            return new ItemPacketManager.ChunkKey("world", p.x() >> 4, p.z() >> 4);
+        }
+
+        static long chunk(int cx, int cz) {
+            return (((long) cx) << 32) | (cz & 0xffffffffL);
+        }
+    }
+
+    static final ItemPacket.IPacketVisuals NO_VISUALS = new ItemPacket.IPacketVisuals() {
+        @Override
+        public Object spawnEntity(Object startLocation, Object item) {
+            return null;
+        }
+
+        @Override
+        public void teleportEntity(Object entity, Object location) {
+        }
+
+        @Override
+        public boolean isEntityDead(Object entity) {
+            return false;
+        }
+
+        @Override
+        public void removeEntity(Object entity) {
+        }
+
+        @Override
+        public boolean isChunkLoaded(Object location) {
+            return true;
+        }
+
+        @Override
+        public Object interpolate(Object a, Object b, double progress01) {
+            return a;
+        }
+    };
+
+    static final ItemPacket.IItemStackAdapter AMOUNTS = new ItemPacket.IItemStackAdapter() {
+        @Override
+        public int getAmount(Object item) {
+            return (Integer) item;
+        }
+
+        @Override
+        public Object withAmount(Object item, int amount) {
+            return amount;
+        }
+    };
+
+    /** Delivery callbacks in the order they fired: destination and inserted amount. */
+    private final List<String> deliveries = new ArrayList<>();
+    // Ticks run so far on the manager under test.
+    private long tick;
+
+    @Test
+    void packetsArriveAfterTheirTravelTime() {
+        World world = new World();
+        ItemPacketManager m = newManager(world);
+        Pos dest = inventory(world, 5, 0, 0);
+        send(m, 4, dest, 5);
+        send(m, 2, dest, 2);
+
+        // A 5-step route takes 40 ticks, a 2-step route 16.
+        tickUntil(m, 2 * TICKS_PER_STEP - 1);
+        assertEquals(List.of(), deliveries);
+        tickOnce(m);
+        assertEquals(List.of(dest + "=2"), deliveries);
+
+        tickUntil(m, 5 * TICKS_PER_STEP - 1);
+        assertEquals(1, deliveries.size());
+        tickOnce(m);
+        assertEquals(List.of(dest + "=2", dest + "=4"), deliveries);
+        assertEquals(0, m.inFlight());
+        assertEquals(6, world.received.get(dest));
+    }
+
+    @Test
+    void tripsLongerThanTheWheelWaitForTheirRound() {
+        World world = new World();
+        ItemPacketManager m = newManager(world);
+        Pos dest = inventory(world, 40, 0, 0);
+        int ticks = 40 * TICKS_PER_STEP;
+        send(m, 1, dest, 40);
+
+        // The packet's slot comes up once per round before it is due.
+        tickUntil(m, ticks - 1);
+        assertTrue(ticks - 1 > WHEEL_SIZE);
+        assertEquals(List.of(), deliveries);
+        assertEquals(1, m.inFlight());
+        tickOnce(m);
+        assertEquals(List.of(dest + "=1"), deliveries);
+        assertEquals(0, m.inFlight());
+    }
+
+    @Test
+    void packetsForTheSameInventoryArriveTogether() {
+        World world = new World();
+        ItemPacketManager m = newManager(world);
+        Pos dest = inventory(world, 3, 0, 0);
+        for (int amount = 1; amount <= 4; amount++) send(m, amount, dest, 3);
+
+        tickUntil(m, 3 * TICKS_PER_STEP);
+        assertEquals(List.of(dest + "=1", dest + "=2", dest + "=3", dest + "=4"), deliveries);
+        assertEquals(10, world.received.get(dest));
+        assertEquals(0, m.inFlight());
+    }
+
+    @Test
+    void packetsForUnloadedChunksWaitForTheChunk() {
+        World world = new World();
+        ItemPacketManager m = newManager(world);
+        Pos dest = inventory(world, 20, 0, 0);
+        world.unloadedChunks.add(World.chunk(1, 0));
+        send(m, 7, dest, 20);
+
+        // Parked on arrival, and stays parked however long the chunk is away.
+        tickUntil(m, 20 * TICKS_PER_STEP + 500);
+        assertEquals(List.of(), deliveries);
+        assertEquals(1, m.inFlight());
+
+        // Other chunks loading don't wake it.
+        m.onChunkLoaded("world", 0, 0);
+        tickOnce(m);
+        assertEquals(List.of(), deliveries);
+
+        world.unloadedChunks.clear();
+        m.onChunkLoaded("world", 1, 0);
+        tickOnce(m);
+        assertEquals(List.of(dest + "=7"), deliveries);
+        assertEquals(0, m.inFlight());
+    }
+
+    @Test
+    void withoutChunkKeysParkedPacketsArePolled() {
+        World world = new World();
+        world.nameChunks = false;
+        ItemPacketManager m = newManager(world);
+        Pos dest = inventory(world, 20, 0, 0);
+        world.unloadedChunks.add(World.chunk(1, 0));
+        send(m, 3, dest, 20);
+
+        int arrival = 20 * TICKS_PER_STEP;
+        tickUntil(m, arrival + 30);
+        world.unloadedChunks.clear();
+        assertEquals(List.of(), deliveries);
+
+        // Re-checked every 20 ticks after the first arrival: next at +40.
+        tickUntil(m, arrival + 39);
+        assertEquals(List.of(), deliveries);
+        tickOnce(m);
+        assertEquals(List.of(dest + "=3"), deliveries);
+        assertEquals(0, m.inFlight());
+    }
+
+    @Test
+    void missingInventoriesReportNothingInserted() {
+        World world = new World();
+        ItemPacketManager m = newManager(world);
+        Pos dest = new Pos(2, 0, 0);
+        send(m, 6, dest, 2);
+
+        tickUntil(m, 2 * TICKS_PER_STEP);
+        assertEquals(List.of(dest + "=0"), deliveries);
+        assertEquals(0, m.inFlight());
+    }
+
+    private ItemPacketManager newManager(World world) {
+        ItemPacketManager m = new ItemPacketManager(world);
+        m.setAnimatePackets(false);
+        return m;
+    }
+
+    /** Ticks {@code m} until it has run {@code target} ticks in total. */
+    private void tickUntil(ItemPacketManager m, long target) {
+        while (tick < target) tickOnce(m);
+    }
+
+    private void tickOnce(ItemPacketManager m) {
+        m.tick(false);
+        tick++;
+    }
+
+    private static Pos inventory(World world, int x, int y, int z) {
+        Pos p = new Pos(x, y, z);
+        world.inventories.add(p);
+        return p;
+    }
+
+    /** Sends {@code amount} items along x from the origin to {@code steps}, into {@code dest}. */
+    private void send(ItemPacketManager m, int amount, Pos dest, int steps) {
+        List<Object> waypoints = new ArrayList<>();
+        for (int x = 0; x <= steps; x++) waypoints.add(new Pos(x, 0, 0));
+        m.add(new ItemPacket(amount, waypoints, dest,
+                (destination, item, inserted) -> deliveries.add(destination + "=" + inserted),
+                NO_VISUALS, AMOUNTS));
+    }
+}
@@ -0,0 +1,138 @@
+package dev.cloudframe.common.pipes;
+
+import static dev.cloudframe.common.pipes.TestPipes.add;
+import static dev.cloudframe.common.pipes.TestPipes.assertShortest;
+import static dev.cloudframe.common.pipes.TestPipes.remove;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class PipeJunctionGraphTest {
+
+    @Test
+    void chainPathMatchesBfs() {
+        PipeNetworkManager m = TestPipes.newManager();
+        List<PipeNode> chain = new ArrayList<>();
+        for (int x = 0; x < 12; x++) chain.add(add(m, x, 0, 0));
+
+        assertEquals(2, m.junctionCount());
+        assertEquals(1, m.segmentCount());
+        for (PipeNode a : chain) {
+            for (PipeNode b : chain) assertShortest(a, b, m.findPath(a, b));
+        }
+    }
+
+    @Test
+    void branchPathMatchesBfs() {
+        PipeNetworkManager m = TestPipes.newManager();
+        List<PipeNode> all = new ArrayList<>();
+        for (int x = -5; x <= 5; x++) all.add(add(m, x, 0, 0));
+        for (int z = 1; z <= 5; z++) all.add(add(m, 0, 0, z));
+
+        assertEquals(4, m.junctionCount());
+        assertEquals(3, m.segmentCount());
+        for (PipeNode a : all) {
+            for (PipeNode b : all) assertShortest(a, b, m.findPath(a, b));
+        }
+    }
+
+    @Test
+    void loopPathMatchesBfs() {
+        PipeNetworkManager m = TestPipes.newManager();
+        List<PipeNode> ring = ring(m, 6);
+
+        // A closed loop without branches is anchored on one of its pipes.
+        assertEquals(1, m.junctionCount());
+        for (PipeNode a : ring) {
+            for (PipeNode b : ring) assertShortest(a, b, m.findPath(a, b));
+        }
+
+        // Branch off the loop; the anchor is no longer needed for the loop to have ends.
+        List<PipeNode> all = new ArrayList<>(ring);
+        for (int z = 1; z <= 3; z++) all.add(add(m, 2, 0, -z));
+        for (PipeNode a : all) {
+            for (PipeNode b : all) assertShortest(a, b, m.findPath(a, b));
+        }
+    }
+
+    @Test
+    void pathsFollowRemovalAndRelink() {
+        PipeNetworkManager m = TestPipes.newManager();
+        for (int x = 0; x < 10; x++) add(m, x, 0, 0);
+        PipeNode start = m.getPipe(new TestPipes.Pos(0, 0, 0));
+        PipeNode end = m.getPipe(new TestPipes.Pos(9, 0, 0));
+        assertShortest(start, end, m.findPath(start, end));
+
+        remove(m, 5, 0, 0);
+        assertNull(m.findPath(start, end));
+
+        // Detour around the gap.
+        add(m, 4, 0, 1);
+        add(m, 5, 0, 1);
+        add(m, 6, 0, 1);
+        assertShortest(start, end, m.findPath(start, end));
+
+        // Closing the gap again gives the straight path back.
+        add(m, 5, 0, 0);
+        assertShortest(start, end, m.findPath(start, end));
+        assertEquals(10, m.findPath(start, end).size());
+
+        // Cutting a side off the straight path leaves only the detour.
+        PipeNode gap = m.getPipe(new TestPipes.Pos(5, 0, 0));
+        gap.setInventorySideDisabled(1, true); // -x
+        m.refreshConnections(gap.getLocation());
+        assertShortest(start, end, m.findPath(start, end));
+        assertEquals(12, m.findPath(start, end).size());
+
+        gap.setInventorySideDisabled(1, false);
+        m.refreshConnections(gap.getLocation());
+        assertEquals(10, m.findPath(start, end).size());
+    }
+
+    @Test
+    void randomEditsMatchBfs() {
+        Random random = new Random(1);
+        for (int trial = 0; trial < 100; trial++) {
+            PipeNetworkManager m = TestPipes.newManager();
+            List<TestPipes.Pos> present = new ArrayList<>();
+            for (int op = 0; op < 120; op++) {
+                TestPipes.Pos p = new TestPipes.Pos(random.nextInt(6), random.nextInt(3), random.nextInt(6));
+                if (m.getPipe(p) == null) {
+                    m.addPipe(p);
+                    present.add(p);
+                } else if (random.nextInt(3) == 0) {
+                    m.removePipe(p);
+                    present.remove(p);
+                }
+                if (!present.isEmpty() && random.nextInt(15) == 0) {
+                    PipeNode n = m.getPipe(present.get(random.nextInt(present.size())));
+                    n.setDisabledInventorySides(random.nextInt(64));
+                    m.refreshConnections(n.getLocation());
+                }
+                if (random.nextInt(40) == 0) m.rebuildAll();
+                if (present.size() < 2) continue;
+
+                for (int q = 0; q < 3; q++) {
+                    PipeNode a = m.getPipe(present.get(random.nextInt(present.size())));
+                    PipeNode b = m.getPipe(present.get(random.nextInt(present.size())));
+                    assertShortest(a, b, m.findPath(a, b));
+                }
+            }
+        }
+    }
+
+    /** Square ring of pipes with the given side length, in walking order. */
+    static List<PipeNode> ring(PipeNetworkManager m, int side) {
+        List<PipeNode> ring = new ArrayList<>();
+        for (int x = 0; x < side; x++) ring.add(add(m, x, 0, 0));
+        for (int z = 1; z < side; z++) ring.add(add(m, side - 1, 0, z));
+        for (int x = side - 2; x >= 0; x--) ring.add(add(m, x, 0, side - 1));
+        for (int z = side - 2; z > 0; z--) ring.add(add(m, 0, 0, z));
+        return ring;
+    }
+}
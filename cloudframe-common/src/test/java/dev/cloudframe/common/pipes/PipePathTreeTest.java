@@ -0,0 +1,126 @@
+package dev.cloudframe.common.pipes;
+
+import static dev.cloudframe.common.pipes.TestPipes.add;
+import static dev.cloudframe.common.pipes.TestPipes.assertShortest;
+import static dev.cloudframe.common.pipes.TestPipes.bfs;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class PipePathTreeTest {
+
+    @Test
+    void chainDistancesMatchBfs() {
+        PipeNetworkManager m = TestPipes.newManager();
+        List<PipeNode> chain = new ArrayList<>();
+        for (int x = 0; x < 12; x++) chain.add(add(m, x, 0, 0));
+        assertTreeMatchesBfs(m, chain);
+    }
+
+    @Test
+    void branchDistancesMatchBfs() {
+        PipeNetworkManager m = TestPipes.newManager();
+        List<PipeNode> all = new ArrayList<>();
+        for (int x = -5; x <= 5; x++) all.add(add(m, x, 0, 0));
+        for (int z = 1; z <= 5; z++) all.add(add(m, 0, 0, z));
+        for (int y = 1; y <= 3; y++) all.add(add(m, 3, y, 0));
+        assertTreeMatchesBfs(m, all);
+    }
+
+    @Test
+    void loopDistancesMatchBfs() {
+        PipeNetworkManager m = TestPipes.newManager();
+        List<PipeNode> all = PipeJunctionGraphTest.ring(m, 7);
+        assertTreeMatchesBfs(m, all);
+
+        for (int z = 1; z <= 3; z++) all.add(add(m, 3, 0, -z));
+        assertTreeMatchesBfs(m, all);
+    }
+
+    @Test
+    void unreachablePipesHaveNoDistance() {
+        PipeNetworkManager m = TestPipes.newManager();
+        PipeNode a = add(m, 0, 0, 0);
+        add(m, 1, 0, 0);
+        PipeNode far = add(m, 5, 0, 0);
+
+        PipePathTree tree = m.pathsFrom(a);
+        assertEquals(-1, tree.distanceTo(far));
+        assertNull(tree.pathTo(far));
+    }
+
+    @Test
+    void treesAreRecomputedAfterTopologyChanges() {
+        PipeNetworkManager m = TestPipes.newManager();
+        List<PipeNode> all = new ArrayList<>();
+        for (int x = 0; x < 8; x++) all.add(add(m, x, 0, 0));
+        PipeNode source = all.get(0);
+        PipeNode end = all.get(7);
+
+        PipePathTree before = m.pathsFrom(source);
+        assertSame(before, m.pathsFrom(source));
+        assertEquals(7, before.distanceTo(end));
+
+        TestPipes.remove(m, 4, 0, 0);
+        PipePathTree after = m.pathsFrom(source);
+        assertNotSame(before, after);
+        assertEquals(-1, after.distanceTo(end));
+
+        add(m, 3, 0, 1);
+        add(m, 4, 0, 1);
+        add(m, 5, 0, 1);
+        assertEquals(9, m.pathsFrom(source).distanceTo(end));
+        assertShortest(source, end, m.pathsFrom(source).pathTo(end));
+    }
+
+    @Test
+    void randomEditsMatchBfs() {
+        Random random = new Random(2);
+        for (int trial = 0; trial < 100; trial++) {
+            PipeNetworkManager m = TestPipes.newManager();
+            List<TestPipes.Pos> present = new ArrayList<>();
+            for (int op = 0; op < 120; op++) {
+                TestPipes.Pos p = new TestPipes.Pos(random.nextInt(6), random.nextInt(3), random.nextInt(6));
+                if (m.getPipe(p) == null) {
+                    m.addPipe(p);
+                    present.add(p);
+                } else if (random.nextInt(3) == 0) {
+                    m.removePipe(p);
+                    present.remove(p);
+                }
+                if (!present.isEmpty() && random.nextInt(15) == 0) {
+                    PipeNode n = m.getPipe(present.get(random.nextInt(present.size())));
+                    n.setDisabledInventorySides(random.nextInt(64));
+                    m.refreshConnections(n.getLocation());
+                }
+                if (random.nextInt(40) == 0) m.rebuildAll();
+                if (present.size() < 2) continue;
+
+                PipePathTree tree = m.pathsFrom(m.getPipe(present.get(random.nextInt(present.size()))));
+                for (int q = 0; q < 3; q++) {
+                    assertMatchesBfs(tree, m.getPipe(present.get(random.nextInt(present.size()))));
+                }
+            }
+        }
+    }
+
+    private static void assertTreeMatchesBfs(PipeNetworkManager m, List<PipeNode> pipes) {
+        for (PipeNode source : pipes) {
+            PipePathTree tree = m.pathsFrom(source);
+            for (PipeNode target : pipes) assertMatchesBfs(tree, target);
+        }
+    }
+
+    private static void assertMatchesBfs(PipePathTree tree, PipeNode target) {
+        List<PipeNode> expected = bfs(tree.source(), target);
+        assertEquals(expected == null ? -1 : expected.size() - 1, tree.distanceTo(target), "distance");
+        assertShortest(tree.source(), target, tree.pathTo(target));
+    }
+}
@@ -0,0 +1,149 @@
+package dev.cloudframe.common.pipes;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+
+import dev.cloudframe.common.platform.world.WorldKeyAdapter;
+
+/**
+ * Pipe networks on plain integer positions, and the plain BFS the graph searches are checked
+ * against.
+ */
+final class TestPipes {
+
+    record Pos(int x, int y, int z) {
+    }
+
+    private TestPipes() {
+    }
+
+    static PipeNetworkManager newManager() {
+        return new PipeNetworkManager(new Locations());
+    }
+
+    static PipeNode add(PipeNetworkManager m, int x, int y, int z) {
+        Pos p = new Pos(x, y, z);
+        m.addPipe(p);
+        return m.getPipe(p);
+    }
+
+    static void remove(PipeNetworkManager m, int x, int y, int z) {
+        m.removePipe(new Pos(x, y, z));
+    }
+
+    /** Shortest path by breadth-first search over pipe neighbors, or null if not connected. */
+    static List<PipeNode> bfs(PipeNode start, PipeNode end) {
+        Map<PipeNode, PipeNode> parent = new HashMap<>();
+        Queue<PipeNode> queue = new ArrayDeque<>();
+        parent.put(start, null);
+        queue.add(start);
+        while (!queue.isEmpty()) {
+            PipeNode cur = queue.poll();
+            if (cur == end) {
+                List<PipeNode> path = new ArrayList<>();
+                for (PipeNode n = end; n != null; n = parent.get(n)) path.add(0, n);
+                return path;
+            }
+            for (PipeNode n : cur.getNeighbors()) {
+                if (!parent.containsKey(n)) {
+                    parent.put(n, cur);
+                    queue.add(n);
+                }
+            }
+        }
+        return null;
+    }
+
+    /** Asserts {@code path} is a valid shortest path from start to end, as found by BFS. */
+    static void assertShortest(PipeNode start, PipeNode end, List<PipeNode> path) {
+        List<PipeNode> expected = bfs(start, end);
+        if (expected == null) {
+            assertNull(path, "no path expected");
+            return;
+        }
+        assertNotNull(path, "path expected");
+        assertEquals(expected.size(), path.size(), "path length");
+        assertSame(start, path.get(0));
+        assertSame(end, path.get(path.size() - 1));
+        assertEquals(path.size(), new HashSet<>(path).size(), "path repeats a pipe");
+        for (int i = 1; i < path.size(); i++) {
+            assertTrue(path.get(i - 1).getNeighbors().contains(path.get(i)), "path steps between unconnected pipes");
+        }
+    }
+
+    private static final class Locations implements PipeNetworkManager.ILocationAdapter {
+        @Override
+        public Object normalize(Object loc) {
+            return loc;
+        }
+
+        @Override
+        public Object offset(Object loc, int dx, int dy, int dz) {
+            Pos p = (Pos) loc;
+            return new Pos(p.x() + dx, p.y() + dy, p.z() + dz);
+        }
+
+        @Override
+        public PipeNetworkManager.ChunkKey chunkKey(Object loc) {
+            Pos p = (Pos) loc;
+            return new PipeNetworkManager.ChunkKey(null, p.x() >> 4, p.z() >> 4);
+        }
+
+        @Override
+        public boolean isChunkLoaded(Object loc) {
+            return true;
+        }
+
+        @Override
+        public boolean isInventoryAt(Object loc) {
+            return false;
+        }
+
+        @Override
+        public Object worldOf(Object loc) {
+            return null;
+        }
+
+        @Override
+        public WorldKeyAdapter<Object> worldKeyAdapter() {
+            return null;
+        }
+
+        @Override
+        public UUID worldId(Object loc) {
+            return null;
+        }
+
+        @Override
+        public int blockX(Object loc) {
+            return ((Pos) loc).x();
+        }
+
+        @Override
+        public int blockY(Object loc) {
+            return ((Pos) loc).y();
+        }
+
+        @Override
+        public int blockZ(Object loc) {
+            return ((Pos) loc).z();
+        }
+
+        @Override
+        public Object createLocation(Object world, int x, int y, int z) {
+            return new Pos(x, y, z);
+        }
+    }
+}
@@ -0,0 +1,232 @@
+package dev.cloudframe.common.platform.items;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class InventoryInsertTest {
+
+    /** Stack of {@code count} items of type {@code item}, stacking up to {@code max}. */
+    static final class Stack {
+        final int item;
+        final int max;
+        int count;
+
+        Stack(int item, int max, int count) {
+            this.item = item;
+            this.max = max;
+            this.count = count;
+        }
+    }
+
+    static final class Inventory {
+        final Stack[] slots;
+        int dirtyMarks;
+
+        Inventory(int size) {
+            slots = new Stack[size];
+        }
+
+        Inventory copy() {
+            Inventory c = new Inventory(slots.length);
+            for (int i = 0; i < slots.length; i++) {
+                if (slots[i] != null) c.slots[i] = STACKS.copy(slots[i]);
+            }
+            return c;
+        }
+    }
+
+    static final ItemStackAdapter<Stack> STACKS = new ItemStackAdapter<>() {
+        @Override
+        public boolean isEmpty(Stack stack) {
+            return stack.count <= 0;
+        }
+
+        @Override
+        public int getCount(Stack stack) {
+            return stack.count;
+        }
+
+        @Override
+        public void setCount(Stack stack, int count) {
+            stack.count = count;
+        }
+
+        @Override
+        public int getMaxCount(Stack stack) {
+            return stack.max;
+        }
+
+        @Override
+        public Stack copy(Stack stack) {
+            return new Stack(stack.item, stack.max, stack.count);
+        }
+
+        @Override
+        public boolean canMerge(Stack existing, Stack incoming) {
+            return existing.item == incoming.item;
+        }
+    };
+
+    static final SlottedInventoryAdapter<Inventory, Stack> SLOTS = new SlottedInventoryAdapter<>() {
+        @Override
+        public int size(Inventory inventory) {
+            return inventory.slots.length;
+        }
+
+        @Override
+        public Stack getStack(Inventory inventory, int slot) {
+            return inventory.slots[slot];
+        }
+
+        @Override
+        public void setStack(Inventory inventory, int slot, Stack stack) {
+            inventory.slots[slot] = stack;
+        }
+
+        @Override
+        public void markDirty(Inventory inventory) {
+            inventory.dirtyMarks++;
+        }
+    };
+
+    // Item types 0..3 stack to 64, 16, 1 and 64.
+    private static final int[] MAX = {64, 16, 1, 64};
+
+    @Test
+    void laterItemsOfAPoolAreCreditedAfterEarlierOtherItems() {
+        // Two empty slots: the first stone and the dirt take one each, so the second stone only
+        // finds room in the first stone's partial stack.
+        int[] inserted = assertSequentialMatch(new Inventory(2), List.of(stack(0, 40), stack(3, 10), stack(0, 40)));
+        assertArrayEquals(new int[] {40, 10, 24}, inserted);
+    }
+
+    @Test
+    void itemsMergeIntoStacksPlacedEarlierInTheBatch() {
+        Inventory inventory = new Inventory(2);
+        inventory.slots[0] = new Stack(3, 64, 60);
+        assertSequentialMatch(inventory, List.of(stack(0, 20), stack(0, 20), stack(3, 10), stack(0, 30)));
+    }
+
+    @Test
+    void emptyAndFullInventories() {
+        assertSequentialMatch(new Inventory(0), List.of(stack(0, 5)));
+
+        Inventory full = new Inventory(2);
+        full.slots[0] = new Stack(0, 64, 64);
+        full.slots[1] = new Stack(1, 16, 16);
+        assertArrayEquals(new int[] {0, 0}, assertSequentialMatch(full, List.of(stack(0, 5), stack(1, 1))));
+    }
+
+    @Test
+    void randomBatchesMatchSequentialInserts() {
+        Random random = new Random(4);
+        for (int trial = 0; trial < 2000; trial++) {
+            Inventory inventory = new Inventory(random.nextInt(6));
+            for (int i = 0; i < inventory.slots.length; i++) {
+                if (random.nextInt(3) == 0) continue;
+                int item = random.nextInt(MAX.length);
+                inventory.slots[i] = new Stack(item, MAX[item], 1 + random.nextInt(MAX[item]));
+            }
+            List<Stack> items = new ArrayList<>();
+            int count = random.nextInt(8);
+            for (int k = 0; k < count; k++) {
+                int item = random.nextInt(MAX.length);
+                items.add(random.nextInt(10) == 0 ? null : stack(item, 1 + random.nextInt(MAX[item])));
+            }
+            assertSequentialMatch(inventory, items);
+        }
+    }
+
+    @Test
+    void snapshotTracksBatchedInserts() {
+        Random random = new Random(5);
+        for (int trial = 0; trial < 500; trial++) {
+            Inventory inventory = new Inventory(1 + random.nextInt(6));
+            for (int i = 0; i < inventory.slots.length; i++) {
+                if (random.nextInt(3) == 0) continue;
+                int item = random.nextInt(MAX.length);
+                inventory.slots[i] = new Stack(item, MAX[item], 1 + random.nextInt(MAX[item]));
+            }
+            CapacitySnapshot snapshot = snapshot(inventory);
+
+            List<Stack> items = new ArrayList<>();
+            int count = 1 + random.nextInt(6);
+            for (int k = 0; k < count; k++) {
+                int item = random.nextInt(MAX.length);
+                items.add(stack(item, 1 + random.nextInt(MAX[item])));
+            }
+            int[] inserted = InventoryInsert.addItems(inventory, items, SLOTS, STACKS);
+            for (int k = 0; k < items.size(); k++) {
+                Stack item = items.get(k);
+                assertTrue(snapshot.applyInsert(item.item, inserted[k], item.max));
+            }
+
+            CapacitySnapshot rescanned = snapshot(inventory);
+            assertEquals(rescanned.emptySlots(), snapshot.emptySlots(), "empty slots");
+            for (int item = 0; item < MAX.length; item++) {
+                assertEquals(rescanned.mergeableRoom(item), snapshot.mergeableRoom(item), "room for item " + item);
+            }
+        }
+    }
+
+    /**
+     * Runs {@code items} through {@link InventoryInsert#addItems} and through {@link
+     * InventoryInsert#addItem} one by one on copies of {@code inventory}, and checks both insert
+     * the same per-item amounts and leave the same totals per item type.
+     */
+    private static int[] assertSequentialMatch(Inventory inventory, List<Stack> items) {
+        Inventory sequential = inventory.copy();
+        int[] expected = new int[items.size()];
+        for (int k = 0; k < items.size(); k++) {
+            expected[k] = InventoryInsert.addItem(sequential, items.get(k), SLOTS, STACKS);
+        }
+
+        Inventory batched = inventory.copy();
+        List<Stack> before = new ArrayList<>();
+        for (Stack item : items) before.add(item == null ? null : STACKS.copy(item));
+        int[] actual = InventoryInsert.addItems(batched, items, SLOTS, STACKS);
+
+        assertArrayEquals(expected, actual, "per-item inserted counts");
+        assertArrayEquals(totals(sequential), totals(batched), "item totals");
+        assertEquals(Arrays.stream(actual).sum() > 0 ? 1 : 0, batched.dirtyMarks, "markDirty calls");
+        for (int k = 0; k < items.size(); k++) {
+            if (items.get(k) != null) assertEquals(before.get(k).count, items.get(k).count, "item was mutated");
+        }
+        return actual;
+    }
+
+    private static Stack stack(int item, int count) {
+        return new Stack(item, MAX[item], count);
+    }
+
+    private static int[] totals(Inventory inventory) {
+        int[] totals = new int[MAX.length];
+        for (Stack s : inventory.slots) {
+            if (s != null) totals[s.item] += s.count;
+        }
+        return totals;
+    }
+
+    private static CapacitySnapshot snapshot(Inventory inventory) {
+        int empty = 0;
+        int[] room = new int[MAX.length];
+        for (Stack s : inventory.slots) {
+            if (s == null || s.count <= 0) {
+                empty++;
+            } else {
+                room[s.item] += s.max - s.count;
+            }
+        }
+        CapacitySnapshot snapshot = new CapacitySnapshot(empty);
+        for (int item = 0; item < MAX.length; item++) snapshot.putMergeableRoom(item, room[item]);
+        return snapshot;
+    }
+}
@@ -0,0 +1,135 @@
+package dev.cloudframe.common.quarry;
+
+import static dev.cloudframe.common.quarry.TestQuarries.WORLD;
+import static dev.cloudframe.common.quarry.TestQuarries.loc;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import dev.cloudframe.common.quarry.TestQuarries.Inventory;
+import dev.cloudframe.common.quarry.TestQuarries.Item;
+import dev.cloudframe.common.quarry.TestQuarries.Loc;
+
+class InventoryCapacityCacheTest {
+
+    private final TestQuarries.Platform platform = new TestQuarries.Platform();
+    private final InventoryCapacityCache cache = new ReservationLedger(platform).capacity();
+
+    @Test
+    void scansEachInventoryOncePerTick() {
+        Loc chest = loc(0, 64, 0);
+        Inventory inv = platform.addInventory(chest, 27);
+        inv.slots[0] = new Item("stone", 10);
+        cache.beginTick();
+
+        assertEquals(26, cache.emptySlotCount(chest, inv));
+        assertEquals(26, cache.emptySlotCount(chest, inv));
+        assertEquals(26 * 64 + 54, cache.totalRoomFor(chest, inv, new Item("stone", 1)));
+        assertEquals(26 * 64 + 54, cache.totalRoomFor(chest, inv, new Item("stone", 5)));
+        assertEquals(1, platform.emptySlotScans);
+        assertEquals(1, platform.roomScans);
+
+        // Each further item type costs one room scan.
+        assertEquals(26 * 64, cache.totalRoomFor(chest, inv, new Item("dirt", 1)));
+        assertEquals(1, platform.emptySlotScans);
+        assertEquals(2, platform.roomScans);
+
+        // A new tick rescans.
+        cache.beginTick();
+        cache.totalRoomFor(chest, inv, new Item("stone", 1));
+        assertEquals(2, platform.emptySlotScans);
+        assertEquals(3, platform.roomScans);
+    }
+
+    @Test
+    void insertsKeepTheSnapshotInStepWithTheInventory() {
+        Random random = new Random(9);
+        String[] types = {"stone", "dirt", "sand"};
+        Loc chest = loc(4, 64, -4);
+        Inventory inv = platform.addInventory(chest, 9);
+
+        for (int tick = 0; tick < 200; tick++) {
+            cache.beginTick();
+            if (tick % 20 == 0) Arrays.fill(inv.slots, null);
+            for (String type : types) cache.totalRoomFor(chest, inv, new Item(type, 1));
+            int scans = platform.emptySlotScans;
+
+            for (int i = 0; i < 4; i++) {
+                Item item = new Item(types[random.nextInt(types.length)], 1 + random.nextInt(100));
+                cache.insert(chest, inv, item);
+                assertEquals(direct(inv, null), cache.emptySlotCount(chest, inv), "empty slots");
+                for (String type : types) {
+                    assertEquals(direct(inv, type), cache.totalRoomFor(chest, inv, new Item(type, 1)), type + " room");
+                }
+            }
+            assertEquals(scans, platform.emptySlotScans, "rescanned after an insert");
+        }
+    }
+
+    @Test
+    void insertingAnUnqueriedItemDropsTheSnapshot() {
+        Loc chest = loc(0, 0, 0);
+        Inventory inv = platform.addInventory(chest, 9);
+        cache.beginTick();
+        cache.totalRoomFor(chest, inv, new Item("stone", 1));
+
+        cache.insert(chest, inv, new Item("sand", 70));
+        assertEquals(7, cache.emptySlotCount(chest, inv));
+        assertEquals(2, platform.emptySlotScans);
+    }
+
+    @Test
+    void invalidateForcesARescan() {
+        Loc chest = loc(10, 64, 10);
+        Loc other = loc(11, 64, 10);
+        Inventory inv = platform.addInventory(chest, 5);
+        Inventory otherInv = platform.addInventory(other, 5);
+        cache.beginTick();
+        assertEquals(5, cache.emptySlotCount(chest, inv));
+        assertEquals(5, cache.emptySlotCount(other, otherInv));
+
+        // A hopper takes a slot behind the cache's back.
+        inv.slots[2] = new Item("dirt", 1);
+        otherInv.slots[0] = new Item("dirt", 1);
+        cache.invalidate(WORLD, 10, 64, 10);
+        cache.invalidate("nether", 11, 64, 10);
+        assertEquals(4, cache.emptySlotCount(chest, inv));
+        assertEquals(5, cache.emptySlotCount(other, otherInv));
+        assertEquals(3, platform.emptySlotScans);
+    }
+
+    @Test
+    void theInventoryBeingInsertedIntoKeepsItsSnapshot() {
+        Loc chest = loc(-1, 5, 2);
+        Inventory inv = platform.addInventory(chest, 9);
+        platform.onInsert = () -> cache.invalidate(WORLD, -1, 5, 2);
+        cache.beginTick();
+        cache.totalRoomFor(chest, inv, new Item("stone", 1));
+
+        cache.insert(chest, inv, new Item("stone", 100));
+        assertEquals(7, cache.emptySlotCount(chest, inv));
+        assertEquals(7 * 64 + 28, cache.totalRoomFor(chest, inv, new Item("stone", 1)));
+        assertEquals(1, platform.emptySlotScans);
+
+        // Outside of insert the same call drops it.
+        platform.onInsert.run();
+        cache.emptySlotCount(chest, inv);
+        assertEquals(2, platform.emptySlotScans);
+    }
+
+    /** Empty slots, or room for {@code type}, counted straight from the inventory. */
+    private static int direct(Inventory inv, String type) {
+        int n = 0;
+        for (Item s : inv.slots) {
+            if (s == null) {
+                n += type == null ? 1 : 64;
+            } else if (type != null && s.type().equals(type)) {
+                n += 64 - s.amount();
+            }
+        }
+        return n;
+    }
+}
@@ -0,0 +1,112 @@
+package dev.cloudframe.common.quarry;
+
+import static dev.cloudframe.common.quarry.TestQuarries.WORLD;
+import static dev.cloudframe.common.quarry.TestQuarries.loc;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.UUID;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.Test;
+
+import dev.cloudframe.common.quarry.TestQuarries.Inventory;
+import dev.cloudframe.common.quarry.TestQuarries.Loc;
+import dev.cloudframe.common.util.Region;
+
+class QuarryHibernationTest {
+
+    // Generous bound for anything that should happen within a few scan passes.
+    private static final int MAX_TICKS = 2000;
+
+    private final TestQuarries.Platform platform = new TestQuarries.Platform();
+    private final QuarryManager manager = new QuarryManager(platform);
+    private Inventory output;
+
+    @Test
+    void finishedQuarriesHibernate() {
+        Quarry q = emptyQuarry();
+        assertEquals(0, manager.hibernatingCount());
+
+        tickUntil(q::isHibernating);
+        manager.tickAll(false);
+        assertEquals(1, manager.hibernatingCount());
+        assertTrue(q.isActive());
+    }
+
+    @Test
+    void markDirtyBlockWakesTheQuarry() {
+        Quarry q = emptyQuarry();
+        tickUntil(q::isHibernating);
+        manager.tickAll(false);
+
+        Loc placed = loc(2, 1, 3);
+        platform.solid.add(placed);
+        manager.markDirtyBlock(WORLD, 2, 1, 3);
+        assertFalse(q.isHibernating());
+        assertEquals(0, manager.hibernatingCount());
+
+        tickUntil(() -> !platform.solid.contains(placed));
+        assertEquals(1, output.count("stone"));
+
+        // Nothing left: back to sleep.
+        tickUntil(q::isHibernating);
+        manager.tickAll(false);
+        assertEquals(1, manager.hibernatingCount());
+    }
+
+    @Test
+    void changesWithoutAHookWaitForTheAudit() {
+        manager.setHibernationAuditTicks(200);
+        Quarry q = emptyQuarry();
+        tickUntil(q::isHibernating);
+        manager.tickAll(false);
+
+        // A block appears without a markDirty call: the quarry sleeps through it...
+        Loc placed = loc(0, 0, 0);
+        platform.solid.add(placed);
+        for (int i = 0; i < 150; i++) manager.tickAll(false);
+        assertTrue(q.isHibernating());
+        assertTrue(platform.solid.contains(placed));
+
+        // ...until the audit wakes it and the fallback scan finds the block.
+        tickUntil(() -> !platform.solid.contains(placed));
+        assertEquals(1, output.count("stone"));
+    }
+
+    @Test
+    void airAndOutsideChangesDontWakeTheQuarry() {
+        Quarry q = emptyQuarry();
+        tickUntil(q::isHibernating);
+        manager.tickAll(false);
+
+        manager.markDirtyBlock(WORLD, 1, 1, 1);
+        platform.solid.add(loc(9, 1, 1));
+        manager.markDirtyBlock(WORLD, 9, 1, 1);
+        manager.markDirtyBlock("nether", 1, 1, 1);
+        assertTrue(q.isHibernating());
+        assertEquals(1, manager.hibernatingCount());
+    }
+
+    /**
+     * An active quarry over an all-air 5x3x5 region at the origin, with its controller just
+     * outside and an output chest next to the controller.
+     */
+    private Quarry emptyQuarry() {
+        Loc controller = loc(-2, 0, 0);
+        output = platform.addInventory(loc(-3, 0, 0), 27);
+        Region region = new Region(WORLD, 0, 0, 0, WORLD, 4, 2, 4);
+        Quarry q = new Quarry(new UUID(0, 1), "owner", loc(0, 0, 0), loc(4, 2, 4), region, controller, 0, platform);
+        manager.register(q);
+        q.setActive(true);
+        return q;
+    }
+
+    private void tickUntil(BooleanSupplier done) {
+        for (int i = 0; i < MAX_TICKS && !done.getAsBoolean(); i++) {
+            manager.tickAll(false);
+        }
+        assertTrue(done.getAsBoolean(), "not reached in " + MAX_TICKS + " ticks");
+    }
+}
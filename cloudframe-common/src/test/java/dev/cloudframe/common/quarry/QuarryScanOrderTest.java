@@ -0,0 +1,141 @@
+package dev.cloudframe.common.quarry;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import dev.cloudframe.common.util.Region;
+
+class QuarryScanOrderTest {
+
+    private static final Object WORLD = new Object();
+
+    @Test
+    void chunkColumnVisitsUnalignedRegionsOnceInCompareOrder() {
+        // Corners inside chunks, across chunk borders and on negative coordinates.
+        assertVisitsAllInOrder(QuarryScanOrder.CHUNK_COLUMN, region(3, 60, 5, 37, 62, 20));
+        assertVisitsAllInOrder(QuarryScanOrder.CHUNK_COLUMN, region(-21, -2, -7, 4, 1, 17));
+        assertVisitsAllInOrder(QuarryScanOrder.CHUNK_COLUMN, region(15, 0, 15, 16, 0, 16));
+        assertVisitsAllInOrder(QuarryScanOrder.CHUNK_COLUMN, region(7, 5, 7, 7, 5, 7));
+    }
+
+    @Test
+    void layerVisitsRegionsOnceInCompareOrder() {
+        assertVisitsAllInOrder(QuarryScanOrder.LAYER, region(3, 60, 5, 37, 62, 20));
+        assertVisitsAllInOrder(QuarryScanOrder.LAYER, region(-21, -2, -7, 4, 1, 17));
+    }
+
+    @Test
+    void randomRegionsVisitOnceInCompareOrder() {
+        Random random = new Random(6);
+        for (int trial = 0; trial < 200; trial++) {
+            int x = random.nextInt(80) - 40;
+            int y = random.nextInt(20) - 10;
+            int z = random.nextInt(80) - 40;
+            Region r = region(x, y, z, x + random.nextInt(40), y + random.nextInt(3), z + random.nextInt(40));
+            for (QuarryScanOrder order : QuarryScanOrder.values()) {
+                assertVisitsAllInOrder(order, r);
+            }
+        }
+    }
+
+    @Test
+    void chunkColumnFinishesOneColumnBeforeTheNext() {
+        Region r = region(3, 60, 5, 37, 62, 20);
+        List<int[]> visited = visit(QuarryScanOrder.CHUNK_COLUMN, r);
+        Set<Long> finished = new HashSet<>();
+        long current = columnOf(visited.get(0));
+        for (int[] p : visited) {
+            long column = columnOf(p);
+            if (column == current) continue;
+            assertTrue(finished.add(current), "column revisited");
+            assertFalse(finished.contains(column), "column revisited");
+            current = column;
+        }
+    }
+
+    @Test
+    void toColumnEndSkipsToTheNextColumn() {
+        Random random = new Random(7);
+        for (int trial = 0; trial < 100; trial++) {
+            int x = random.nextInt(80) - 40;
+            int z = random.nextInt(80) - 40;
+            Region r = region(x, 0, z, x + random.nextInt(40), 2, z + random.nextInt(40));
+            List<int[]> visited = visit(QuarryScanOrder.CHUNK_COLUMN, r);
+
+            int[] start = visited.get(random.nextInt(visited.size()));
+            int[] pos = start.clone();
+            QuarryScanOrder.CHUNK_COLUMN.toColumnEnd(r, pos);
+
+            // The column's last visited position, and then the first one of the next column.
+            int last = -1;
+            for (int i = 0; i < visited.size(); i++) {
+                if (columnOf(visited.get(i)) == columnOf(start)) last = i;
+            }
+            assertArrayEquals(visited.get(last), pos, "column end");
+            boolean more = QuarryScanOrder.CHUNK_COLUMN.advance(r, pos);
+            assertEquals(last + 1 < visited.size(), more);
+            if (more) assertArrayEquals(visited.get(last + 1), pos, "next column start");
+        }
+    }
+
+    @Test
+    void layerToColumnEndLeavesThePositionAlone() {
+        Region r = region(3, 60, 5, 37, 62, 20);
+        int[] pos = { 10, 61, 12 };
+        QuarryScanOrder.LAYER.toColumnEnd(r, pos);
+        assertArrayEquals(new int[] { 10, 61, 12 }, pos);
+    }
+
+    /**
+     * Walks {@code order} over {@code r} and checks every position of the region is visited
+     * exactly once, each strictly after the previous one by {@link QuarryScanOrder#compare}.
+     */
+    private static void assertVisitsAllInOrder(QuarryScanOrder order, Region r) {
+        List<int[]> visited = visit(order, r);
+        long volume = (long) (r.maxX() - r.minX() + 1) * (r.maxY() - r.minY() + 1) * (r.maxZ() - r.minZ() + 1);
+        assertEquals(volume, visited.size(), order + " position count");
+
+        Set<List<Integer>> seen = new HashSet<>();
+        int[] prev = null;
+        for (int[] p : visited) {
+            assertTrue(p[0] >= r.minX() && p[0] <= r.maxX()
+                    && p[1] >= r.minY() && p[1] <= r.maxY()
+                    && p[2] >= r.minZ() && p[2] <= r.maxZ(), order + " left the region");
+            assertTrue(seen.add(List.of(p[0], p[1], p[2])), order + " visited a position twice");
+            if (prev != null) {
+                assertTrue(order.compare(prev[0], prev[1], prev[2], p[0], p[1], p[2]) < 0, order + " out of compare order");
+                assertTrue(order.compare(p[0], p[1], p[2], prev[0], prev[1], prev[2]) > 0, order + " compare not antisymmetric");
+            }
+            assertEquals(0, order.compare(p[0], p[1], p[2], p[0], p[1], p[2]));
+            prev = p;
+        }
+    }
+
+    private static List<int[]> visit(QuarryScanOrder order, Region r) {
+        List<int[]> visited = new ArrayList<>();
+        int[] pos = new int[3];
+        order.first(r, pos);
+        do {
+            visited.add(pos.clone());
+        } while (order.advance(r, pos));
+        return visited;
+    }
+
+    private static long columnOf(int[] p) {
+        return (((long) (p[0] >> 4)) << 32) | ((p[2] >> 4) & 0xffffffffL);
+    }
+
+    private static Region region(int ax, int ay, int az, int bx, int by, int bz) {
+        return new Region(WORLD, ax, ay, az, WORLD, bx, by, bz);
+    }
+}
@@ -0,0 +1,151 @@
+package dev.cloudframe.common.quarry;
+
+import static dev.cloudframe.common.quarry.TestQuarries.loc;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import dev.cloudframe.common.quarry.TestQuarries.Item;
+import dev.cloudframe.common.quarry.TestQuarries.Loc;
+
+class ReservationLedgerTest {
+
+    @Test
+    void reservationsAddUpPerDestinationAndItem() {
+        ReservationLedger ledger = new ReservationLedger(new TestQuarries.Platform());
+        Loc chest = loc(0, 64, 0);
+        Loc other = loc(0, 64, 1);
+
+        ledger.reserve(chest, new Item("stone", 20));
+        ledger.reserve(chest, new Item("stone", 5));
+        ledger.reserve(chest, new Item("dirt", 7));
+        ledger.reserve(other, new Item("stone", 3));
+
+        assertEquals(32, ledger.reservedTotal(chest));
+        assertEquals(25, ledger.reservedFor(chest, new Item("stone", 1)));
+        assertEquals(7, ledger.reservedFor(chest, new Item("dirt", 1)));
+        assertEquals(0, ledger.reservedFor(chest, new Item("sand", 1)));
+        assertEquals(3, ledger.reservedTotal(other));
+        assertEquals(2, ledger.destinationCount());
+    }
+
+    @Test
+    void worldsAreSeparate() {
+        ReservationLedger ledger = new ReservationLedger(new TestQuarries.Platform());
+        Loc here = loc(5, 10, 5);
+        Loc nether = new Loc("nether", 5, 10, 5);
+
+        ledger.reserve(here, new Item("stone", 4));
+        assertEquals(0, ledger.reservedTotal(nether));
+        ledger.release(nether, new Item("stone", 4), 4);
+        assertEquals(4, ledger.reservedTotal(here));
+    }
+
+    @Test
+    void releasesNeverGoBelowZeroAndForgetEmptyDestinations() {
+        ReservationLedger ledger = new ReservationLedger(new TestQuarries.Platform());
+        Loc chest = loc(-3, 70, 9);
+
+        ledger.reserve(chest, new Item("stone", 10));
+        ledger.reserve(chest, new Item("dirt", 2));
+        ledger.release(chest, new Item("stone", 1), 25);
+        assertEquals(2, ledger.reservedTotal(chest));
+        assertEquals(0, ledger.reservedFor(chest, new Item("stone", 1)));
+
+        // Unknown items and destinations are ignored.
+        ledger.release(chest, new Item("sand", 1), 5);
+        ledger.release(loc(100, 0, 100), new Item("dirt", 1), 5);
+        assertEquals(2, ledger.reservedTotal(chest));
+
+        ledger.release(chest, new Item("dirt", 1), 2);
+        assertEquals(0, ledger.reservedTotal(chest));
+        assertEquals(0, ledger.destinationCount());
+
+        // Empty or missing stacks reserve nothing.
+        ledger.reserve(chest, new Item("stone", 0));
+        ledger.reserve(chest, null);
+        ledger.reserve(null, new Item("stone", 3));
+        assertEquals(0, ledger.destinationCount());
+    }
+
+    @Test
+    void unsentPacketsReleaseTheirReservation() {
+        // The quarry reserves before sending and releases in the delivery callback; a factory
+        // that can't create the packet must still report back.
+        ReservationLedger ledger = new ReservationLedger(new TestQuarries.Platform());
+        Loc chest = loc(1, 1, 1);
+        Item item = new Item("stone", 16);
+        ledger.reserve(chest, item);
+
+        DefaultItemPacketFactory factory = new DefaultItemPacketFactory(
+                new dev.cloudframe.common.pipes.ItemPacketManager(null), () -> null, new NoStacks());
+        factory.send(item, List.of(loc(0, 1, 1), chest), chest,
+                (destination, stack, inserted) -> ledger.release(destination, stack, 16));
+        assertEquals(0, ledger.reservedTotal(chest));
+    }
+
+    @Test
+    void randomOperationsMatchAMap() {
+        Random random = new Random(8);
+        String[] types = {"stone", "dirt", "sand", "gravel", "coal", "iron"};
+        ReservationLedger ledger = new ReservationLedger(new TestQuarries.Platform());
+        Map<Loc, Map<String, Integer>> expected = new HashMap<>();
+
+        for (int op = 0; op < 20000; op++) {
+            Loc dest = loc(random.nextInt(4), 0, random.nextInt(4));
+            String type = types[random.nextInt(types.length)];
+            int amount = 1 + random.nextInt(64);
+            Map<String, Integer> items = expected.computeIfAbsent(dest, k -> new HashMap<>());
+            if (random.nextBoolean()) {
+                ledger.reserve(dest, new Item(type, amount));
+                items.merge(type, amount, Integer::sum);
+            } else {
+                ledger.release(dest, new Item(type, 1), amount);
+                items.computeIfPresent(type, (k, v) -> v > amount ? v - amount : null);
+            }
+            if (items.isEmpty()) expected.remove(dest);
+
+            assertEquals(expected.size(), ledger.destinationCount(), "destinations");
+            int total = items.values().stream().mapToInt(Integer::intValue).sum();
+            assertEquals(total, ledger.reservedTotal(dest), "total at " + dest);
+            assertEquals(items.getOrDefault(type, 0), ledger.reservedFor(dest, new Item(type, 1)), type + " at " + dest);
+        }
+    }
+
+    /** Stack adapter the factory never gets to use. */
+    private static final class NoStacks implements dev.cloudframe.common.platform.items.ItemStackAdapter<Object> {
+        @Override
+        public boolean isEmpty(Object stack) {
+            return false;
+        }
+
+        @Override
+        public int getCount(Object stack) {
+            return 0;
+        }
+
+        @Override
+        public void setCount(Object stack, int count) {
+        }
+
+        @Override
+        public int getMaxCount(Object stack) {
+            return 64;
+        }
+
+        @Override
+        public Object copy(Object stack) {
+            return stack;
+        }
+
+        @Override
+        public boolean canMerge(Object existing, Object incoming) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,304 @@
+package dev.cloudframe.common.quarry;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import dev.cloudframe.common.pipes.ItemPacketManager;
+import dev.cloudframe.common.pipes.PipeNetworkManager;
+import dev.cloudframe.common.platform.items.ItemStackKeyAdapter;
+import dev.cloudframe.common.platform.world.LocationKeyAdapter;
+import dev.cloudframe.common.platform.world.WorldKeyAdapter;
+
+/**
+ * A block world on plain integer positions for quarry tests: solid blocks, slotted
+ * inventories and items that are just a type and an amount.
+ */
+final class TestQuarries {
+
+    static final String WORLD = "world";
+
+    record Loc(Object world, int x, int y, int z) {
+    }
+
+    record Item(String type, int amount) {
+    }
+
+    /** Fixed number of slots; every item type stacks to {@link Platform#maxStackSize}. */
+    static final class Inventory {
+        final Item[] slots;
+
+        Inventory(int size) {
+            slots = new Item[size];
+        }
+
+        int count(String type) {
+            int n = 0;
+            for (Item s : slots) {
+                if (s != null && s.type().equals(type)) n += s.amount();
+            }
+            return n;
+        }
+    }
+
+    private TestQuarries() {
+    }
+
+    static Loc loc(int x, int y, int z) {
+        return new Loc(WORLD, x, y, z);
+    }
+
+    static final class Platform implements QuarryPlatform {
+        final Set<Loc> solid = new HashSet<>();
+        final Set<Long> unloadedChunks = new HashSet<>();
+        final Map<Loc, Inventory> inventories = new HashMap<>();
+        // Full inventory scans, to check what the capacity cache saves.
+        int emptySlotScans;
+        int roomScans;
+        // Runs inside addToInventory, where a real inventory would mark itself dirty.
+        Runnable onInsert = () -> { };
+
+        Inventory addInventory(Loc loc, int size) {
+            Inventory inv = new Inventory(size);
+            inventories.put(loc, inv);
+            return inv;
+        }
+
+        @Override
+        public Object normalize(Object loc) {
+            return loc;
+        }
+
+        @Override
+        public Object offset(Object loc, int dx, int dy, int dz) {
+            Loc l = (Loc) loc;
+            return new Loc(l.world(), l.x() + dx, l.y() + dy, l.z() + dz);
+        }
+
+        @Override
+        public boolean isChunkLoaded(Object loc) {
+            Loc l = (Loc) loc;
+            return !unloadedChunks.contains((((long) (l.x() >> 4)) << 32) | ((l.z() >> 4) & 0xffffffffL));
+        }
+
+        @Override
+        public boolean isRedstonePowered(Object loc) {
+            return false;
+        }
+
+        @Override
+        public void setChunkForced(Object world, int chunkX, int chunkZ, boolean forced) {
+        }
+
+        @Override
+        public boolean isMineable(Object loc) {
+            return solid.contains(loc);
+        }
+
+        @Override
+        public List<Object> getDrops(Object loc, boolean silkTouch) {
+            return List.of(new Item("stone", 1));
+        }
+
+        @Override
+        public void setBlockAir(Object loc) {
+            solid.remove(loc);
+        }
+
+        @Override
+        public void playBreakEffects(Object loc) {
+        }
+
+        @Override
+        public void sendBlockCrack(Object loc, float progress01) {
+        }
+
+        @Override
+        public boolean isInventory(Object loc) {
+            return inventories.containsKey(loc);
+        }
+
+        @Override
+        public Object getInventoryHolder(Object loc) {
+            return inventories.get(loc);
+        }
+
+        @Override
+        public int addToInventory(Object inventoryHolder, Object itemStack) {
+            Inventory inv = (Inventory) inventoryHolder;
+            Item item = (Item) itemStack;
+            onInsert.run();
+            int left = item.amount();
+            int max = maxStackSize(item);
+            for (int pass = 0; pass < 2 && left > 0; pass++) {
+                for (int i = 0; i < inv.slots.length && left > 0; i++) {
+                    Item s = inv.slots[i];
+                    // Merge into partial stacks first, then fill empty slots.
+                    if (pass == 0 && (s == null || !s.type().equals(item.type()))) continue;
+                    if (pass == 1 && s != null) continue;
+                    int have = s == null ? 0 : s.amount();
+                    int moved = Math.min(left, max - have);
+                    if (moved <= 0) continue;
+                    inv.slots[i] = new Item(item.type(), have + moved);
+                    left -= moved;
+                }
+            }
+            return item.amount() - left;
+        }
+
+        @Override
+        public int totalRoomFor(Object inventoryHolder, Object itemStack) {
+            roomScans++;
+            Inventory inv = (Inventory) inventoryHolder;
+            Item item = (Item) itemStack;
+            int max = maxStackSize(item);
+            int room = 0;
+            for (Item s : inv.slots) {
+                if (s == null) {
+                    room += max;
+                } else if (s.type().equals(item.type())) {
+                    room += max - s.amount();
+                }
+            }
+            return room;
+        }
+
+        @Override
+        public int emptySlotCount(Object inventoryHolder) {
+            emptySlotScans++;
+            int empty = 0;
+            for (Item s : ((Inventory) inventoryHolder).slots) {
+                if (s == null) empty++;
+            }
+            return empty;
+        }
+
+        @Override
+        public LocationKeyAdapter<Object> locationKeyAdapter() {
+            return loc -> loc.toString();
+        }
+
+        @Override
+        public ItemStackKeyAdapter<Object> itemKeyAdapter() {
+            return stack -> ((Item) stack).type();
+        }
+
+        @Override
+        public double distanceSquared(Object a, Object b) {
+            Loc p = (Loc) a;
+            Loc q = (Loc) b;
+            double dx = p.x() - q.x();
+            double dy = p.y() - q.y();
+            double dz = p.z() - q.z();
+            return dx * dx + dy * dy + dz * dz;
+        }
+
+        @Override
+        public Object createLocation(Object world, int x, int y, int z) {
+            return new Loc(world, x, y, z);
+        }
+
+        @Override
+        public Object worldOf(Object loc) {
+            return ((Loc) loc).world();
+        }
+
+        @Override
+        public WorldKeyAdapter<Object> worldKeyAdapter() {
+            return new WorldKeyAdapter<>() {
+                @Override
+                public String key(Object world) {
+                    return world.toString();
+                }
+
+                @Override
+                public Object worldByKey(String key) {
+                    return key;
+                }
+            };
+        }
+
+        @Override
+        public int blockX(Object loc) {
+            return ((Loc) loc).x();
+        }
+
+        @Override
+        public int blockY(Object loc) {
+            return ((Loc) loc).y();
+        }
+
+        @Override
+        public int blockZ(Object loc) {
+            return ((Loc) loc).z();
+        }
+
+        @Override
+        public int stackAmount(Object itemStack) {
+            return ((Item) itemStack).amount();
+        }
+
+        @Override
+        public Object copyWithAmount(Object itemStack, int amount) {
+            return new Item(((Item) itemStack).type(), amount);
+        }
+
+        @Override
+        public int maxStackSize(Object itemStack) {
+            return 64;
+        }
+
+        @Override
+        public PipeNetworkManager pipes() {
+            return null;
+        }
+
+        @Override
+        public ItemPacketManager packets() {
+            return null;
+        }
+
+        @Override
+        public ItemPacketFactory packetFactory() {
+            return null;
+        }
+
+        @Override
+        public UUID ownerFromPlayer(Object player) {
+            return new UUID(0, 0);
+        }
+
+        @Override
+        public void placeGlassFrame(Object world, int minX, int minY, int minZ, int maxX, int maxY, int maxZ) {
+        }
+
+        @Override
+        public void removeGlassFrame(Object world, int minX, int minY, int minZ, int maxX, int maxY, int maxZ) {
+        }
+
+        @Override
+        public boolean isGlassFrameBlock(Object loc) {
+            return false;
+        }
+
+        @Override
+        public boolean usesGlassFrameBlocks() {
+            return false;
+        }
+    }
+
+    /** All solid positions of the box, for filling regions. */
+    static List<Loc> box(int minX, int minY, int minZ, int maxX, int maxY, int maxZ) {
+        List<Loc> out = new ArrayList<>();
+        for (int x = minX; x <= maxX; x++) {
+            for (int y = minY; y <= maxY; y++) {
+                for (int z = minZ; z <= maxZ; z++) out.add(loc(x, y, z));
+            }
+        }
+        return out;
+    }
+}
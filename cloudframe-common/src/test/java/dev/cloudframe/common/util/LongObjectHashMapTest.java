@@ -0,0 +1,101 @@
+package dev.cloudframe.common.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class LongObjectHashMapTest {
+
+    // Default map: 32 slots, resized at 19 entries.
+    private static final int SLOTS = 32;
+
+    @Test
+    void putGetRemove() {
+        LongObjectHashMap<String> map = new LongObjectHashMap<>();
+        assertNull(map.put(1L, "a"));
+        assertNull(map.put(-1L, "b"));
+        assertEquals("a", map.put(1L, "c"));
+        assertEquals(2, map.size());
+        assertEquals("c", map.get(1L));
+        assertEquals("b", map.remove(-1L));
+        assertNull(map.remove(-1L));
+        assertNull(map.get(-1L));
+        assertEquals(1, map.size());
+        assertThrows(IllegalArgumentException.class, () -> map.put(2L, null));
+    }
+
+    @Test
+    void removalsWrappingAroundTheTableKeepKeysReachable() {
+        // Keys homed in the last slot spill over into slots 0, 1, ...; keys homed in slot 0
+        // then land behind them. Removing any one must keep every other key reachable.
+        List<Long> last = keysWithHome(SLOTS - 1, 4);
+        List<Long> first = keysWithHome(0, 3);
+        List<Long> all = new ArrayList<>(last);
+        all.addAll(first);
+
+        for (long removed : all) {
+            LongObjectHashMap<Long> map = new LongObjectHashMap<>();
+            for (long k : last) map.put(k, k);
+            for (long k : first) map.put(k, k);
+
+            assertEquals(removed, map.remove(removed));
+            assertEquals(all.size() - 1, map.size());
+            for (long k : all) {
+                if (k == removed) {
+                    assertNull(map.get(k));
+                } else {
+                    assertEquals(k, map.get(k), "key " + k + " lost after removing " + removed);
+                }
+            }
+        }
+    }
+
+    @Test
+    void randomOperationsMatchHashMap() {
+        Random random = new Random(3);
+        for (int trial = 0; trial < 50; trial++) {
+            LongObjectHashMap<Integer> map = new LongObjectHashMap<>(random.nextInt(8));
+            Map<Long, Integer> expected = new HashMap<>();
+            for (int op = 0; op < 2000; op++) {
+                long key = random.nextInt(64) - 32;
+                if (random.nextInt(3) == 0) {
+                    assertEquals(expected.remove(key), map.remove(key));
+                } else {
+                    assertEquals(expected.put(key, op), map.put(key, op));
+                }
+                assertEquals(expected.size(), map.size());
+            }
+            for (long key = -40; key < 40; key++) assertEquals(expected.get(key), map.get(key));
+
+            List<Integer> values = new ArrayList<>();
+            map.forEachValue(values::add);
+            assertEquals(expected.size(), values.size());
+
+            map.clear();
+            assertEquals(0, map.size());
+            for (long key : expected.keySet()) assertNull(map.get(key));
+        }
+    }
+
+    // Same hash as LongObjectHashMap#slot.
+    private static int home(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & (SLOTS - 1);
+    }
+
+    private static List<Long> keysWithHome(int slot, int count) {
+        List<Long> keys = new ArrayList<>();
+        for (long k = 0; keys.size() < count; k++) {
+            if (home(k) == slot) keys.add(k);
+        }
+        return keys;
+    }
+}
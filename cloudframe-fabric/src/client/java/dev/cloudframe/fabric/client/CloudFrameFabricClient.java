@@ -16,6 +16,8 @@ public class CloudFrameFabricClient implements ClientModInitializer {
         HandledScreens.register(CloudFrameContent.getPipeFilterScreenHandler(), PipeFilterScreen::new);
         HandledScreens.register(CloudFrameContent.getTrashCanScreenHandler(), TrashCanScreen::new);
         PowerProbeClient.register();
+        QuarryFrameOutlineClient.register();
+        OverlayClient.register();
 
         // Force creative tab registration (some Fabric versions require client-side call)
         if (CloudFrameContent.CLOUD_FRAME_ITEM_GROUP != null) {
@@ -0,0 +1,51 @@
+package dev.cloudframe.fabric.client;
+
+import net.minecraft.client.render.VertexConsumer;
+import net.minecraft.client.util.math.MatrixStack;
+
+/**
+ * Line-box helpers shared by the client-side outline/overlay renderers.
+ * Coordinates are camera-relative world space (caller translates the matrix stack).
+ */
+final class OutlineRendering {
+
+    private OutlineRendering() {
+    }
+
+    /**
+     * Draw the edges of an axis-aligned box. A box with y1 == y2 is drawn as a single flat rectangle.
+     */
+    static void drawBox(VertexConsumer lines, MatrixStack.Entry entry, int colorArgb, float x1, float y1, float z1, float x2, float y2, float z2) {
+        // Bottom ring
+        line(lines, entry, colorArgb, x1, y1, z1, x2, y1, z1);
+        line(lines, entry, colorArgb, x2, y1, z1, x2, y1, z2);
+        line(lines, entry, colorArgb, x2, y1, z2, x1, y1, z2);
+        line(lines, entry, colorArgb, x1, y1, z2, x1, y1, z1);
+        if (y1 == y2) return;
+
+        // Top ring
+        line(lines, entry, colorArgb, x1, y2, z1, x2, y2, z1);
+        line(lines, entry, colorArgb, x2, y2, z1, x2, y2, z2);
+        line(lines, entry, colorArgb, x2, y2, z2, x1, y2, z2);
+        line(lines, entry, colorArgb, x1, y2, z2, x1, y2, z1);
+        // Corner posts
+        line(lines, entry, colorArgb, x1, y1, z1, x1, y2, z1);
+        line(lines, entry, colorArgb, x2, y1, z1, x2, y2, z1);
+        line(lines, entry, colorArgb, x2, y1, z2, x2, y2, z2);
+        line(lines, entry, colorArgb, x1, y1, z2, x1, y2, z2);
+    }
+
+    static void line(VertexConsumer lines, MatrixStack.Entry entry, int colorArgb, float x1, float y1, float z1, float x2, float y2, float z2) {
+        float nx = x2 - x1;
+        float ny = y2 - y1;
+        float nz = z2 - z1;
+        float len = (float) Math.sqrt(nx * nx + ny * ny + nz * nz);
+        if (len <= 0.0f) return;
+        nx /= len;
+        ny /= len;
+        nz /= len;
+
+        lines.vertex(entry, x1, y1, z1).color(colorArgb).normal(entry, nx, ny, nz);
+        lines.vertex(entry, x2, y2, z2).color(colorArgb).normal(entry, nx, ny, nz);
+    }
+}
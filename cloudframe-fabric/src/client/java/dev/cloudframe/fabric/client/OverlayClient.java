@@ -0,0 +1,106 @@
+package dev.cloudframe.fabric.client;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import dev.cloudframe.fabric.overlay.OverlayPayload;
+import dev.cloudframe.fabric.overlay.OverlayPayloads;
+import net.fabricmc.fabric.api.client.networking.v1.ClientPlayConnectionEvents;
+import net.fabricmc.fabric.api.client.networking.v1.ClientPlayNetworking;
+import net.fabricmc.fabric.api.client.rendering.v1.world.WorldRenderContext;
+import net.fabricmc.fabric.api.client.rendering.v1.world.WorldRenderEvents;
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.client.render.RenderLayer;
+import net.minecraft.client.render.VertexConsumer;
+import net.minecraft.client.render.VertexConsumerProvider;
+import net.minecraft.client.util.math.MatrixStack;
+import net.minecraft.util.math.Vec3d;
+
+/**
+ * Renders server-sent overlays (chunk preview, marker frames) as line boxes.
+ * Overlays stay until the server replaces or removes them.
+ */
+public final class OverlayClient {
+
+    private OverlayClient() {
+    }
+
+    private static final class Overlay {
+        final int colorArgb;
+        final float[] boxes;
+
+        Overlay(int colorArgb, float[] boxes) {
+            this.colorArgb = colorArgb;
+            this.boxes = boxes;
+        }
+    }
+
+    private static final Map<String, Overlay> overlays = new HashMap<>();
+
+    public static void register() {
+        OverlayPayloads.register();
+
+        ClientPlayNetworking.registerGlobalReceiver(OverlayPayload.ID, (payload, context) -> {
+            MinecraftClient client = context.client();
+            client.execute(() -> apply(payload));
+        });
+
+        ClientPlayConnectionEvents.DISCONNECT.register((handler, client) -> client.execute(overlays::clear));
+
+        WorldRenderEvents.BEFORE_DEBUG_RENDER.register(OverlayClient::render);
+    }
+
+    private static void apply(OverlayPayload payload) {
+        String key = payload.key();
+        List<Float> boxes = payload.boxes();
+
+        if (boxes == null || boxes.isEmpty()) {
+            if (OverlayPayload.KEY_ALL.equals(key)) {
+                overlays.clear();
+            } else {
+                overlays.remove(key);
+            }
+            return;
+        }
+
+        float[] flat = new float[boxes.size() - (boxes.size() % 6)];
+        for (int i = 0; i < flat.length; i++) {
+            flat[i] = boxes.get(i);
+        }
+
+        overlays.put(key, new Overlay(payload.colorArgb(), flat));
+    }
+
+    private static void render(WorldRenderContext context) {
+        if (overlays.isEmpty()) return;
+
+        MinecraftClient client = MinecraftClient.getInstance();
+        if (client == null || client.world == null || client.gameRenderer == null) return;
+
+        MatrixStack matrices = context.matrices();
+        VertexConsumerProvider consumers = context.consumers();
+        if (matrices == null || consumers == null) return;
+
+        Vec3d cam = client.gameRenderer.getCamera().getPos();
+        double maxDist = (client.options.getClampedViewDistance() + 1) * 16.0;
+
+        VertexConsumer lines = consumers.getBuffer(RenderLayer.getLines());
+        matrices.push();
+        matrices.translate(-cam.x, -cam.y, -cam.z);
+        MatrixStack.Entry entry = matrices.peek();
+
+        for (Overlay overlay : overlays.values()) {
+            float[] b = overlay.boxes;
+            for (int i = 0; i + 5 < b.length; i += 6) {
+                double dx = Math.max(0.0, Math.max(b[i] - cam.x, cam.x - b[i + 3]));
+                double dz = Math.max(0.0, Math.max(b[i + 2] - cam.z, cam.z - b[i + 5]));
+                if (dx > maxDist || dz > maxDist) continue;
+
+                OutlineRendering.drawBox(lines, entry, overlay.colorArgb, b[i], b[i + 1], b[i + 2], b[i + 3], b[i + 4], b[i + 5]);
+            }
+        }
+
+        matrices.pop();
+    }
+}
@@ -0,0 +1,98 @@
+package dev.cloudframe.fabric.client;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import dev.cloudframe.fabric.quarry.frame.QuarryFrameOutlinePayload;
+import dev.cloudframe.fabric.quarry.frame.QuarryFrameOutlinePayloads;
+import net.fabricmc.fabric.api.client.networking.v1.ClientPlayConnectionEvents;
+import net.fabricmc.fabric.api.client.networking.v1.ClientPlayNetworking;
+import net.fabricmc.fabric.api.client.rendering.v1.world.WorldRenderContext;
+import net.fabricmc.fabric.api.client.rendering.v1.world.WorldRenderEvents;
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.client.render.RenderLayer;
+import net.minecraft.client.render.VertexConsumer;
+import net.minecraft.client.render.VertexConsumerProvider;
+import net.minecraft.client.util.math.MatrixStack;
+import net.minecraft.util.math.Vec3d;
+
+/**
+ * Draws quarry frame outlines sent by the server when {@code quarry.clientFrameOutline} is enabled.
+ * Nothing is written into the world; the outline is just line geometry around the frame ring.
+ */
+public final class QuarryFrameOutlineClient {
+
+    private QuarryFrameOutlineClient() {
+    }
+
+    private record Frame(int minX, int minZ, int maxX, int maxZ, int y) {
+    }
+
+    // Light blue, roughly the tint of the glass frame it replaces.
+    private static final int COLOR_ARGB = 0xFF8FD3FF;
+
+    private static final Set<Frame> frames = new LinkedHashSet<>();
+
+    public static void register() {
+        QuarryFrameOutlinePayloads.register();
+
+        ClientPlayNetworking.registerGlobalReceiver(QuarryFrameOutlinePayload.ID, (payload, context) -> {
+            MinecraftClient client = context.client();
+            client.execute(() -> apply(payload));
+        });
+
+        ClientPlayConnectionEvents.DISCONNECT.register((handler, client) -> client.execute(frames::clear));
+
+        WorldRenderEvents.BEFORE_DEBUG_RENDER.register(QuarryFrameOutlineClient::render);
+    }
+
+    private static void apply(QuarryFrameOutlinePayload payload) {
+        switch (payload.action()) {
+            case QuarryFrameOutlinePayload.ACTION_CLEAR -> frames.clear();
+            case QuarryFrameOutlinePayload.ACTION_ADD -> frames.add(frameOf(payload));
+            case QuarryFrameOutlinePayload.ACTION_REMOVE -> frames.remove(frameOf(payload));
+            default -> {
+            }
+        }
+    }
+
+    private static Frame frameOf(QuarryFrameOutlinePayload payload) {
+        return new Frame(
+            Math.min(payload.minX(), payload.maxX()),
+            Math.min(payload.minZ(), payload.maxZ()),
+            Math.max(payload.minX(), payload.maxX()),
+            Math.max(payload.minZ(), payload.maxZ()),
+            payload.y()
+        );
+    }
+
+    private static void render(WorldRenderContext context) {
+        if (frames.isEmpty()) return;
+
+        MinecraftClient client = MinecraftClient.getInstance();
+        if (client == null || client.world == null || client.gameRenderer == null) return;
+
+        MatrixStack matrices = context.matrices();
+        VertexConsumerProvider consumers = context.consumers();
+        if (matrices == null || consumers == null) return;
+
+        Vec3d cam = client.gameRenderer.getCamera().getPos();
+        double maxDist = (client.options.getClampedViewDistance() + 1) * 16.0;
+
+        VertexConsumer lines = consumers.getBuffer(RenderLayer.getLines());
+        matrices.push();
+        matrices.translate(-cam.x, -cam.y, -cam.z);
+        MatrixStack.Entry entry = matrices.peek();
+
+        for (Frame f : frames) {
+            // Skip frames entirely outside the client's view distance.
+            double dx = Math.max(0.0, Math.max(f.minX() - cam.x, cam.x - (f.maxX() + 1)));
+            double dz = Math.max(0.0, Math.max(f.minZ() - cam.z, cam.z - (f.maxZ() + 1)));
+            if (dx > maxDist || dz > maxDist) continue;
+
+            OutlineRendering.drawBox(lines, entry, COLOR_ARGB, f.minX(), f.y(), f.minZ(), f.maxX() + 1, f.y() + 1, f.maxZ() + 1);
+        }
+
+        matrices.pop();
+    }
+}
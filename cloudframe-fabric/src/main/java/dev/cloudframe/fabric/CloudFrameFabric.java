@@ -26,6 +26,7 @@ import dev.cloudframe.fabric.util.ClickSideUtil;
 import net.fabricmc.api.ModInitializer;
 import net.fabricmc.api.EnvType;
 import net.fabricmc.fabric.api.command.v2.CommandRegistrationCallback;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerChunkEvents;
 import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
 import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
 import net.fabricmc.fabric.api.networking.v1.ServerPlayConnectionEvents;
@@ -77,12 +78,25 @@ public class CloudFrameFabric implements ModInitializer {
     private final AtomicBoolean commandsRegistered = new AtomicBoolean(false);
     private int tickCounter = 0;
 
+    // How often mining progress (scan cursor/counters) is flushed to the database.
+    private static final int PROGRESS_SAVE_INTERVAL_TICKS = 20 * 60 * 5;
+
     private dev.cloudframe.fabric.config.WrenchConfig wrenchConfig;
 
+    private dev.cloudframe.fabric.config.QuarryConfig quarryConfig;
+
     public dev.cloudframe.fabric.config.WrenchConfig getWrenchConfig() {
         return wrenchConfig;
     }
 
+    public dev.cloudframe.fabric.config.QuarryConfig getQuarryConfig() {
+        return quarryConfig;
+    }
+
+    public boolean isClientFrameOutlineEnabled() {
+        return quarryConfig != null && quarryConfig.clientFrameOutline;
+    }
+
     /**
      * Called when the mod initializes.
      * Set up by Fabric's entry point system (see fabric.mod.json).
@@ -107,9 +121,11 @@ public class CloudFrameFabric implements ModInitializer {
         try {
             var loaded = dev.cloudframe.fabric.config.CloudFrameConfigFile.loadOrCreate(configDir.resolve("config.txt"), debug);
             wrenchConfig = loaded.wrenchConfig();
+            quarryConfig = loaded.quarryConfig();
             debug.log("onInitialize", "Config loaded from config.txt");
         } catch (Throwable t) {
             wrenchConfig = new dev.cloudframe.fabric.config.WrenchConfig();
+            quarryConfig = new dev.cloudframe.fabric.config.QuarryConfig();
             debug.log("onInitialize", "Config load failed: " + t);
         }
 
@@ -183,6 +199,13 @@ public class CloudFrameFabric implements ModInitializer {
         ServerLifecycleEvents.SERVER_STARTED.register(this::onServerStarted);
         ServerLifecycleEvents.SERVER_STOPPING.register(this::onServerStopping);
 
+        // Loot tables/enchantments may change on /reload; drop memoized mining tools and drop templates.
+        ServerLifecycleEvents.END_DATA_PACK_RELOAD.register((srv, resourceManager, success) -> {
+            if (quarryPlatform instanceof FabricQuarryPlatform fp) {
+                fp.clearLootCaches();
+            }
+        });
+
         // Ensure recipes are visible in the recipe book by unlocking them for players on join.
         // (Advancement-based unlocks are brittle and can silently fail if any JSON is invalid.)
         ServerPlayConnectionEvents.JOIN.register((handler, sender, srv) -> {
@@ -196,12 +219,24 @@ public class CloudFrameFabric implements ModInitializer {
         // Register tick event for packet/quarry updates
         ServerTickEvents.END_SERVER_TICK.register(this::onServerTick);
 
+        // Wake item packets parked on a chunk that was unloaded when they arrived.
+        ServerChunkEvents.CHUNK_LOAD.register((world, chunk) -> {
+            if (packetManager == null) return;
+            packetManager.onChunkLoaded(world.getRegistryKey(), chunk.getPos().x, chunk.getPos().z);
+        });
+
         // Active scanning hook: track player block placements without mixins.
         dev.cloudframe.fabric.quarry.PlayerPlacementDirtyHook.register();
 
         // Power probe (wrench look tooltip): register server networking.
         dev.cloudframe.fabric.power.PowerProbeServer.register();
 
+        // Client-rendered quarry frame outlines (config: quarry.clientFrameOutline).
+        dev.cloudframe.fabric.quarry.frame.QuarryFrameOutlineServer.register();
+
+        // Client-rendered overlays (chunk preview, marker frames) with particle fallback.
+        dev.cloudframe.fabric.overlay.OverlayServer.register();
+
         // Left-click removal for pipe filters (prevents breaking the pipe).
         AttackBlockCallback.EVENT.register((player, world, hand, pos, direction) -> {
             if (world.isClient()) return ActionResult.PASS;
@@ -330,10 +365,26 @@ public class CloudFrameFabric implements ModInitializer {
         debug.log("onServerStarted", "PipeFilterManager initialized");
 
         packetManager = new ItemPacketManager(new FabricItemDeliveryProvider(server));
+        if (quarryConfig != null) {
+            packetManager.setAnimatePackets(quarryConfig.animatePackets);
+        }
         debug.log("onServerStarted", "ItemPacketManager initialized");
 
         quarryPlatform = new FabricQuarryPlatform(server, pipeManager, packetManager);
         quarryManager = new QuarryManager(quarryPlatform);
+        if (quarryConfig != null) {
+            quarryManager.effects().configure(
+                quarryConfig.effectsRadius,
+                quarryConfig.effectsFullDetailRadius,
+                quarryConfig.effectsPacketBudget,
+                40
+            );
+            quarryManager.setProgressiveChunkLoading(quarryConfig.progressiveChunkLoading);
+            quarryManager.setScanOrder(dev.cloudframe.common.quarry.QuarryScanOrder.fromConfig(
+                quarryConfig.scanOrder, dev.cloudframe.common.quarry.QuarryScanOrder.LAYER));
+            quarryManager.setHibernationAuditTicks(20L * Math.max(1, quarryConfig.hibernationAuditSeconds));
+            quarryManager.setOfflineCatchUp(quarryConfig.offlineCatchUp, quarryConfig.offlineCatchUpBlocksPerTick);
+        }
         debug.log("onServerStarted", "QuarryManager initialized");
 
         pipeManager.loadAll();
@@ -492,7 +543,14 @@ public class CloudFrameFabric implements ModInitializer {
         // - Quarries: persisted via saveQuarry() on every GUI toggle
         // - Markers: persisted via upsert/delete on every corner add/clear
         // - Pipes: loaded once on startup and not mutated during gameplay
-        // No saveAll() calls needed.
+        // No saveAll() calls needed. Only quarry mining progress is flushed here.
+        if (quarryManager != null) {
+            try {
+                quarryManager.saveProgress();
+            } catch (Exception ex) {
+                debug.log("onServerStopping", "Exception saving quarry progress: " + ex.getMessage());
+            }
+        }
 
         Database.close();
         debug.log("onServerStopping", "Database closed");
@@ -516,12 +574,12 @@ public class CloudFrameFabric implements ModInitializer {
             debug.log("onServerTick", "Exception ticking chunk previews: " + ex.getMessage());
         }
 
-        // Process queued glass-frame removals incrementally to avoid lag spikes.
+        // Process queued glass-frame placements/removals incrementally to avoid lag spikes.
         if (quarryPlatform instanceof FabricQuarryPlatform fp) {
             try {
-                fp.tickFrameRemovalJobs();
+                fp.tickGlassFrameJobs();
             } catch (Exception ex) {
-                debug.log("onServerTick", "Exception ticking frame removal jobs: " + ex.getMessage());
+                debug.log("onServerTick", "Exception ticking glass frame jobs: " + ex.getMessage());
                 ex.printStackTrace();
             }
         }
@@ -559,6 +617,17 @@ public class CloudFrameFabric implements ModInitializer {
                 debug.log("onServerTick", "Exception ticking quarries: " + ex.getMessage());
                 ex.printStackTrace();
             }
+
+            // Mining progress changes every few ticks; write it on this tick every
+            // PROGRESS_SAVE_INTERVAL_TICKS instead of on every change, so a crash loses at most
+            // one interval of scanning.
+            if (tickCounter % PROGRESS_SAVE_INTERVAL_TICKS == 0) {
+                try {
+                    quarryManager.saveProgress();
+                } catch (Exception ex) {
+                    debug.log("onServerTick", "Exception saving quarry progress: " + ex.getMessage());
+                }
+            }
         }
 
         // End power tick: store unused generation into batteries.
@@ -27,7 +27,7 @@ import java.util.Map;
  */
 public final class CloudFrameConfigFile {
 
-    public record Loaded(WrenchConfig wrenchConfig) {}
+    public record Loaded(WrenchConfig wrenchConfig, QuarryConfig quarryConfig) {}
 
     private CloudFrameConfigFile() {}
 
@@ -56,6 +56,7 @@ public final class CloudFrameConfigFile {
         }
 
         WrenchConfig wrench = new WrenchConfig();
+        QuarryConfig quarry = new QuarryConfig();
 
         try {
             List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
@@ -66,6 +67,22 @@ public final class CloudFrameConfigFile {
             List<String> deny = parseList(lines, kv, "rotation.denylist");
             wrench.rotationDenylist = deny.isEmpty() ? WrenchConfig.defaultRotationDenylist() : deny;
 
+            // Quarry
+            quarry.clientFrameOutline = parseBool(kv.get("quarry.clientFrameOutline"), quarry.clientFrameOutline);
+            quarry.dropTemplateCache = parseBool(kv.get("quarry.dropTemplateCache"), quarry.dropTemplateCache);
+            quarry.bulkMining = parseBool(kv.get("quarry.bulkMining"), quarry.bulkMining);
+            quarry.sectionFastPath = parseBool(kv.get("quarry.sectionFastPath"), quarry.sectionFastPath);
+            quarry.effectsRadius = parseInt(kv.get("quarry.effectsRadius"), quarry.effectsRadius);
+            quarry.effectsFullDetailRadius = parseInt(kv.get("quarry.effectsFullDetailRadius"), quarry.effectsFullDetailRadius);
+            quarry.effectsPacketBudget = parseInt(kv.get("quarry.effectsPacketBudget"), quarry.effectsPacketBudget);
+            quarry.progressiveChunkLoading = parseBool(kv.get("quarry.progressiveChunkLoading"), quarry.progressiveChunkLoading);
+            String scanOrder = kv.get("quarry.scanOrder");
+            if (scanOrder != null && !scanOrder.isBlank()) quarry.scanOrder = scanOrder.trim();
+            quarry.hibernationAuditSeconds = parseInt(kv.get("quarry.hibernationAuditSeconds"), quarry.hibernationAuditSeconds);
+            quarry.offlineCatchUp = parseBool(kv.get("quarry.offlineCatchUp"), quarry.offlineCatchUp);
+            quarry.offlineCatchUpBlocksPerTick = parseInt(kv.get("quarry.offlineCatchUpBlocksPerTick"), quarry.offlineCatchUpBlocksPerTick);
+            quarry.animatePackets = parseBool(kv.get("quarry.animatePackets"), quarry.animatePackets);
+
             // Debug flags
             DebugFlags.TICK_LOGGING = parseBool(kv.get("debug.tickLogging"), DebugFlags.TICK_LOGGING);
             DebugFlags.PIPE_PARTICLES = parseBool(kv.get("debug.pipeParticles"), DebugFlags.PIPE_PARTICLES);
@@ -79,6 +96,7 @@ public final class CloudFrameConfigFile {
             if (debug != null) {
                 debug.log("config", "Loaded rotation.allowlist size=" + wrench.rotationAllowlist.size());
                 debug.log("config", "Loaded rotation.denylist size=" + wrench.rotationDenylist.size());
+                debug.log("config", "Loaded quarry.clientFrameOutline=" + quarry.clientFrameOutline);
                 debug.log("config", "DebugFlags.WRENCH_USE_LOGGING=" + DebugFlags.WRENCH_USE_LOGGING);
             }
 
@@ -86,7 +104,7 @@ public final class CloudFrameConfigFile {
             if (debug != null) debug.log("config", "Failed reading config.txt: " + t);
         }
 
-        return new Loaded(wrench);
+        return new Loaded(wrench, quarry);
     }
 
     private static void writeDefaultFile(Path file, WrenchConfig wrench) {
@@ -114,6 +132,35 @@ public final class CloudFrameConfigFile {
                 out.add("  - " + s.trim());
             }
             out.add("#");
+            out.add("# Quarry settings");
+            out.add("# quarry.clientFrameOutline: draw quarry frames client-side instead of placing glass blocks");
+            out.add("#   (players without the CloudFrame client mod won't see the frame)");
+            out.add("quarry.clientFrameOutline=" + new QuarryConfig().clientFrameOutline);
+            out.add("# quarry.dropTemplateCache: reuse drops for blocks with non-random loot (stone, deepslate, ...)");
+            out.add("quarry.dropTemplateCache=" + new QuarryConfig().dropTemplateCache);
+            out.add("# quarry.bulkMining: speed augments break 2/4/8 blocks per mining cycle instead of mining faster only");
+            out.add("quarry.bulkMining=" + new QuarryConfig().bulkMining);
+            out.add("# quarry.sectionFastPath: clear whole 16x16x16 sections of plain blocks at once (cheaper for the server)");
+            out.add("quarry.sectionFastPath=" + new QuarryConfig().sectionFastPath);
+            out.add("# quarry.effectsRadius: send mining effects only to players within this many blocks");
+            out.add("quarry.effectsRadius=" + new QuarryConfig().effectsRadius);
+            out.add("# quarry.effectsFullDetailRadius: beyond this, players get no crack overlay and only occasional sounds");
+            out.add("quarry.effectsFullDetailRadius=" + new QuarryConfig().effectsFullDetailRadius);
+            out.add("# quarry.effectsPacketBudget: max mining effect packets per server tick for all quarries (0 = unlimited)");
+            out.add("quarry.effectsPacketBudget=" + new QuarryConfig().effectsPacketBudget);
+            out.add("# quarry.progressiveChunkLoading: chunk-loading quarries only keep chunks near the mining head loaded (requires quarry.scanOrder=chunk)");
+            out.add("quarry.progressiveChunkLoading=" + new QuarryConfig().progressiveChunkLoading);
+            out.add("# quarry.scanOrder: layer (one Y level across the whole region) or chunk (one chunk column at a time)");
+            out.add("quarry.scanOrder=" + new QuarryConfig().scanOrder);
+            out.add("# quarry.hibernationAuditSeconds: how often finished (hibernating) quarries re-check their region");
+            out.add("quarry.hibernationAuditSeconds=" + new QuarryConfig().hibernationAuditSeconds);
+            out.add("# quarry.offlineCatchUp: when an unloaded quarry's chunk loads again, mine the blocks it missed (uses stored power)");
+            out.add("quarry.offlineCatchUp=" + new QuarryConfig().offlineCatchUp);
+            out.add("# quarry.offlineCatchUpBlocksPerTick: max missed blocks a quarry mines per tick while catching up");
+            out.add("quarry.offlineCatchUpBlocksPerTick=" + new QuarryConfig().offlineCatchUpBlocksPerTick);
+            out.add("# quarry.animatePackets: move item packets visibly along pipes (false = items still arrive on time, cheaper)");
+            out.add("quarry.animatePackets=" + new QuarryConfig().animatePackets);
+            out.add("#");
             out.add("# Debug flags (affects CloudFrame debug.log, not server console)");
             out.add("debug.tickLogging=" + DebugFlags.TICK_LOGGING);
             out.add("debug.pipeParticles=" + DebugFlags.PIPE_PARTICLES);
@@ -211,6 +258,15 @@ public final class CloudFrameConfigFile {
         };
     }
 
+    private static int parseInt(String value, int def) {
+        if (value == null) return def;
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            return def;
+        }
+    }
+
     private static List<String> safeList(List<String> in) {
         return in == null ? List.of() : in;
     }
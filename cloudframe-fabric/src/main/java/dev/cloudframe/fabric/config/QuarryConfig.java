@@ -0,0 +1,78 @@
+package dev.cloudframe.fabric.config;
+
+/**
+ * Server-owner editable config for quarry behavior.
+ */
+public final class QuarryConfig {
+
+    /**
+     * If true, quarry frames are not written into the world as glass blocks.
+     * Instead the frame bounds are sent to CloudFrame clients, which draw the outline locally.
+     * Clients without the mod won't see a frame in this mode.
+     */
+    public boolean clientFrameOutline = false;
+
+    /**
+     * If true, drops for blocks whose loot doesn't roll any randomness (stone, deepslate, dirt...)
+     * are computed once per block state and tool, then copied for every later block.
+     */
+    public boolean dropTemplateCache = true;
+
+    /**
+     * If true, speed-augmented quarries break several blocks per mining cycle
+     * (2/4/8 for speed I/II/III), paying power for each block.
+     */
+    public boolean bulkMining = false;
+
+    /**
+     * If true, quarries clear whole 16x16x16 chunk sections of plain blocks (stone, dirt, ores...)
+     * in one operation instead of block by block. Mining speed and power cost are unchanged;
+     * the section just disappears at once.
+     */
+    public boolean sectionFastPath = false;
+
+    /** Mining effects (crack overlay, break particles/sounds) are only sent to players within this many blocks. */
+    public int effectsRadius = 48;
+
+    /** Within this many blocks players get full effects; further away only an occasional break sound. */
+    public int effectsFullDetailRadius = 16;
+
+    /** Max mining effect packets sent per server tick across all quarries (0 = unlimited). */
+    public int effectsPacketBudget = 256;
+
+    /**
+     * If true, chunk-loading quarries only keep loaded the chunks where mining is happening
+     * (current and next chunk column), the controller area and the output pipe path,
+     * instead of every chunk in the region. Only applies with {@code scanOrder = "chunk"}.
+     */
+    public boolean progressiveChunkLoading = false;
+
+    /**
+     * Mining order: "layer" mines the whole region one Y level at a time;
+     * "chunk" finishes one 16x16 chunk column top to bottom before moving on.
+     */
+    public String scanOrder = "layer";
+
+    /**
+     * Finished quarries hibernate (stop ticking) until a block is placed in their region.
+     * Every this many seconds they also wake up once to re-check the region.
+     */
+    public int hibernationAuditSeconds = 300;
+
+    /**
+     * Quarries whose controller chunk unloads remember when they stopped; when it loads again
+     * they mine the blocks they missed (limited by stored power) instead of needing chunk loading.
+     */
+    public boolean offlineCatchUp = true;
+
+    /**
+     * Max backlog blocks a quarry mines per tick while catching up.
+     */
+    public int offlineCatchUpBlocksPerTick = 64;
+
+    /**
+     * Move item packet entities along their pipes each tick. When off, items still arrive on the
+     * same schedule but their entities stay at the start of the path.
+     */
+    public boolean animatePackets = true;
+}
@@ -10,11 +10,13 @@ import net.minecraft.util.math.Direction;
 import net.minecraft.util.shape.VoxelShape;
 import net.minecraft.util.shape.VoxelShapes;
 import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.world.ServerWorld;
 import net.minecraft.world.WorldAccess;
 import net.minecraft.world.WorldView;
 import net.minecraft.block.ShapeContext;
 import net.minecraft.world.World;
 import dev.cloudframe.fabric.CloudFrameFabric;
+import dev.cloudframe.fabric.power.FabricPowerNetworkManager;
 import net.minecraft.util.math.GlobalPos;
 
 import java.util.HashMap;
@@ -120,6 +122,22 @@ public class CloudCableBlock extends Block {
         };
     }
 
+    @Override
+    protected void onBlockAdded(BlockState state, World world, BlockPos pos, BlockState oldState, boolean notify) {
+        super.onBlockAdded(state, world, pos, oldState, notify);
+        if (world.isClient()) return;
+        // Connection-state changes keep the same block; only placement/removal changes the network.
+        if (oldState != null && oldState.isOf(this)) return;
+        FabricPowerNetworkManager.markTopologyChanged();
+    }
+
+    @Override
+    protected void onStateReplaced(BlockState state, ServerWorld world, BlockPos pos, boolean moved) {
+        super.onStateReplaced(state, world, pos, moved);
+        if (world.getBlockState(pos).isOf(this)) return;
+        FabricPowerNetworkManager.markTopologyChanged();
+    }
+
     private BlockState updateConnections(BlockState state, WorldAccess world, BlockPos pos) {
         return state
             .with(NORTH, shouldConnect(world, pos, Direction.NORTH, pos.north(), world.getBlockState(pos.north())))
@@ -1,11 +1,14 @@
 package dev.cloudframe.fabric.content;
 
 import com.mojang.serialization.MapCodec;
+import dev.cloudframe.fabric.power.FabricPowerNetworkManager;
 import net.minecraft.block.BlockRenderType;
 import net.minecraft.block.BlockState;
 import net.minecraft.block.BlockWithEntity;
 import net.minecraft.block.entity.BlockEntity;
+import net.minecraft.server.world.ServerWorld;
 import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
 
 /**
  * Placeholder battery block (no GUI).
@@ -33,4 +36,19 @@ public class CloudCellBlock extends BlockWithEntity {
     protected BlockRenderType getRenderType(BlockState state) {
         return BlockRenderType.MODEL;
     }
+
+    @Override
+    protected void onBlockAdded(BlockState state, World world, BlockPos pos, BlockState oldState, boolean notify) {
+        super.onBlockAdded(state, world, pos, oldState, notify);
+        if (world.isClient()) return;
+        if (oldState != null && oldState.isOf(this)) return;
+        FabricPowerNetworkManager.markTopologyChanged();
+    }
+
+    @Override
+    protected void onStateReplaced(BlockState state, ServerWorld world, BlockPos pos, boolean moved) {
+        super.onStateReplaced(state, world, pos, moved);
+        if (world.getBlockState(pos).isOf(this)) return;
+        FabricPowerNetworkManager.markTopologyChanged();
+    }
 }
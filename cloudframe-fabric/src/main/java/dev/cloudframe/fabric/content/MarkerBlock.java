@@ -1,5 +1,6 @@
 package dev.cloudframe.fabric.content;
 
+import dev.cloudframe.fabric.CloudFrameFabric;
 import net.minecraft.block.Block;
 import net.minecraft.block.BlockState;
 import net.minecraft.block.ShapeContext;
@@ -20,8 +21,8 @@ import net.minecraft.world.World;
  */
 public class MarkerBlock extends Block {
 
-    // Keep this in sync with the wrench activation listener.
-    private static final int SEARCH_RADIUS = 16;
+    // Shared with the wrench activation listener.
+    public static final int SEARCH_RADIUS = 16;
 
     // Shape matching Blockbench model: base [4,0,4]-[12,1,12], middle [6,0,6]-[10,2,10], pillar [7,2,7]-[9,8,9]
     // Overall bounding box: [4,0,4] to [12,8,12]
@@ -41,6 +42,27 @@ public class MarkerBlock extends Block {
         return SHAPE; // Use same shape for collision so players can walk through and see the box
     }
 
+    @Override
+    protected void onBlockAdded(BlockState state, World world, BlockPos pos, BlockState oldState, boolean notify) {
+        super.onBlockAdded(state, world, pos, oldState, notify);
+        if (!(world instanceof ServerWorld sw)) return;
+        if (oldState != null && oldState.isOf(this)) return;
+
+        CloudFrameFabric instance = CloudFrameFabric.instance();
+        if (instance == null || instance.getMarkerManager() == null) return;
+        instance.getMarkerManager().onMarkerPlaced(sw, pos);
+    }
+
+    @Override
+    protected void onStateReplaced(BlockState state, ServerWorld world, BlockPos pos, boolean moved) {
+        super.onStateReplaced(state, world, pos, moved);
+        if (world.getBlockState(pos).isOf(this)) return;
+
+        CloudFrameFabric instance = CloudFrameFabric.instance();
+        if (instance == null || instance.getMarkerManager() == null) return;
+        instance.getMarkerManager().onMarkerRemoved(world, pos);
+    }
+
     @Override
     public void onPlaced(World world, BlockPos pos, BlockState state, LivingEntity placer, ItemStack itemStack) {
         super.onPlaced(world, pos, state, placer, itemStack);
@@ -69,18 +91,8 @@ public class MarkerBlock extends Block {
     private static int countNearbyMarkers(ServerWorld world, BlockPos center) {
         if (world == null || center == null) return 0;
 
-        int count = 0;
-        for (int x = -SEARCH_RADIUS; x <= SEARCH_RADIUS; x++) {
-            for (int y = -SEARCH_RADIUS; y <= SEARCH_RADIUS; y++) {
-                for (int z = -SEARCH_RADIUS; z <= SEARCH_RADIUS; z++) {
-                    BlockPos p = center.add(x, y, z);
-                    BlockState s = world.getBlockState(p);
-                    if (s != null && s.getBlock() == CloudFrameContent.MARKER_BLOCK) {
-                        count++;
-                    }
-                }
-            }
-        }
-        return count;
+        CloudFrameFabric instance = CloudFrameFabric.instance();
+        if (instance == null || instance.getMarkerManager() == null) return 0;
+        return instance.getMarkerManager().findMarkersNear(world, center, SEARCH_RADIUS).size();
     }
 }
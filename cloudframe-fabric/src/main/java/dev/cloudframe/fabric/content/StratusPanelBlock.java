@@ -1,6 +1,11 @@
 package dev.cloudframe.fabric.content;
 
+import dev.cloudframe.fabric.power.FabricPowerNetworkManager;
 import net.minecraft.block.Block;
+import net.minecraft.block.BlockState;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
 
 /**
  * Placeholder power source block.
@@ -13,4 +18,19 @@ public class StratusPanelBlock extends Block {
     public StratusPanelBlock(Settings settings) {
         super(settings);
     }
+
+    @Override
+    protected void onBlockAdded(BlockState state, World world, BlockPos pos, BlockState oldState, boolean notify) {
+        super.onBlockAdded(state, world, pos, oldState, notify);
+        if (world.isClient()) return;
+        if (oldState != null && oldState.isOf(this)) return;
+        FabricPowerNetworkManager.markTopologyChanged();
+    }
+
+    @Override
+    protected void onStateReplaced(BlockState state, ServerWorld world, BlockPos pos, boolean moved) {
+        super.onStateReplaced(state, world, pos, moved);
+        if (world.getBlockState(pos).isOf(this)) return;
+        FabricPowerNetworkManager.markTopologyChanged();
+    }
 }
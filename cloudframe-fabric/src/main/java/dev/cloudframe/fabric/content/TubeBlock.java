@@ -456,9 +456,10 @@ public class TubeBlock extends Block {
         if (instance.getPipeFilterManager() != null) {
             GlobalPos globalPos = GlobalPos.create(world.getRegistryKey(), pos.toImmutable());
             
-            // Check all 6 directions for filters and drop them
-            for (int dirIndex = 0; dirIndex < 6; dirIndex++) {
-                if (instance.getPipeFilterManager().hasFilter(globalPos, dirIndex)) {
+            // Drop every attached filter (one lookup for all six sides)
+            int filteredSides = instance.getPipeFilterManager().filteredSides(globalPos);
+            for (int dirIndex = 0; dirIndex < 6 && filteredSides != 0; dirIndex++) {
+                if ((filteredSides & (1 << dirIndex)) != 0) {
                     var filterState = instance.getPipeFilterManager().get(globalPos, dirIndex);
                     
                     // Create filter item with saved configuration
@@ -539,10 +540,12 @@ public class TubeBlock extends Block {
             instance.getPipeConnectionService().toggleSide(key, dirIndex);
             
             // Update the pipe node's disabled sides mask
-            var pipeNode = instance.getPipeManager().getPipe(GlobalPos.create(world.getRegistryKey(), pipePos.toImmutable()));
+            GlobalPos pipeLoc = GlobalPos.create(world.getRegistryKey(), pipePos.toImmutable());
+            var pipeNode = instance.getPipeManager().getPipe(pipeLoc);
             if (pipeNode != null) {
                 int mask = instance.getPipeConnectionService().getDisabledSidesMask(key);
                 pipeNode.setDisabledInventorySides(mask);
+                instance.getPipeManager().refreshConnections(pipeLoc);
             }
         }
     }
@@ -5,6 +5,7 @@ import dev.cloudframe.common.util.Region;
 import dev.cloudframe.fabric.CloudFrameFabric;
 import dev.cloudframe.fabric.quarry.controller.QuarryControllerBlockEntity;
 import dev.cloudframe.fabric.power.EnergyInterop;
+import dev.cloudframe.fabric.power.FabricPowerNetworkManager;
 import net.minecraft.entity.player.PlayerEntity;
 import net.minecraft.item.Item;
 import net.minecraft.item.ItemUsageContext;
@@ -234,6 +235,7 @@ public class WrenchItem extends Item {
             if (CloudFrameContent.getCloudCableBlock() != null && neighborState != null && neighborState.isOf(CloudFrameContent.getCloudCableBlock())) {
                 CloudCableBlock.refreshConnections(world, neighborPos);
             }
+            FabricPowerNetworkManager.markTopologyChanged();
 
             boolean disabled = cableMgr.isSideDisabled(cablePos, dirIndex);
             String dirName = switch (dirIndex) {
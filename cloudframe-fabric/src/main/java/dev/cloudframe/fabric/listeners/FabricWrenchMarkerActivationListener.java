@@ -2,6 +2,7 @@ package dev.cloudframe.fabric.listeners;
 
 import dev.cloudframe.fabric.CloudFrameFabric;
 import dev.cloudframe.fabric.content.CloudFrameContent;
+import dev.cloudframe.fabric.content.MarkerBlock;
 import net.fabricmc.fabric.api.event.player.UseBlockCallback;
 import net.minecraft.block.BlockState;
 import net.minecraft.particle.DustParticleEffect;
@@ -20,14 +21,14 @@ import dev.cloudframe.common.markers.MarkerPos;
 
 /**
  * Handles wrench right-click to activate marker frames.
- * Scans nearby blocks for placed markers (4 required on same Y level).
+ * Looks up nearby placed markers in the marker block index (4 required on same Y level).
  * Draws red particle lines connecting the corners in a rectangle.
  */
 public class FabricWrenchMarkerActivationListener {
 
     // Red color for particle lines (as integer: 0xFF0000)
     private static final int RED_COLOR_INT = 0xFF0000;
-    private static final int SEARCH_RADIUS = 16; // Search 16 blocks in each direction
+    private static final int SEARCH_RADIUS = MarkerBlock.SEARCH_RADIUS; // blocks in each direction
 
     public static void register() {
         UseBlockCallback.EVENT.register((player, world, hand, hitResult) -> {
@@ -137,24 +138,10 @@ public class FabricWrenchMarkerActivationListener {
     }
 
     /**
-     * Scans nearby blocks for marker blocks.
+     * Finds nearby marker blocks via the marker index (which backfills legacy markers per area).
      */
     private static List<BlockPos> scanForMarkers(ServerWorld world, BlockPos center) {
-        List<BlockPos> markers = new ArrayList<>();
-        
-        for (int x = -SEARCH_RADIUS; x <= SEARCH_RADIUS; x++) {
-            for (int y = -SEARCH_RADIUS; y <= SEARCH_RADIUS; y++) {
-                for (int z = -SEARCH_RADIUS; z <= SEARCH_RADIUS; z++) {
-                    BlockPos pos = center.add(x, y, z);
-                    BlockState state = world.getBlockState(pos);
-                    if (state.getBlock() == CloudFrameContent.MARKER_BLOCK) {
-                        markers.add(pos);
-                    }
-                }
-            }
-        }
-        
-        return markers;
+        return CloudFrameFabric.instance().getMarkerManager().findMarkersNear(world, center, SEARCH_RADIUS);
     }
 
     /**
@@ -1,13 +1,19 @@
 package dev.cloudframe.fabric.markers;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
+import dev.cloudframe.common.markers.MarkerBlockIndex;
+import dev.cloudframe.common.markers.MarkerBlockRepository;
 import dev.cloudframe.common.markers.MarkerPos;
 import dev.cloudframe.common.markers.MarkerSelectionService;
 import dev.cloudframe.common.util.Debug;
 import dev.cloudframe.common.util.DebugManager;
+import dev.cloudframe.fabric.overlay.OverlayServer;
+import dev.cloudframe.fabric.overlay.ParticleOutlineFallback;
 import net.minecraft.server.network.ServerPlayerEntity;
 import net.minecraft.server.world.ServerWorld;
 import net.minecraft.world.World;
@@ -26,11 +32,114 @@ public class FabricMarkerManager {
     private static final Debug debug = DebugManager.get(FabricMarkerManager.class);
 
     private final MarkerSelectionService service;
+    private final MarkerBlockIndex blockIndex = new MarkerBlockIndex();
 
     public FabricMarkerManager(MarkerSelectionService service) {
         this.service = service;
     }
 
+    private static String worldIdOf(ServerWorld world) {
+        try {
+            if (world != null) return world.getRegistryKey().getValue().toString();
+        } catch (Throwable ignored) {
+            // fall through
+        }
+        return "minecraft:overworld";
+    }
+
+    /**
+     * Register a placed marker block in the spatial index (and persist it).
+     */
+    public void onMarkerPlaced(ServerWorld world, BlockPos pos) {
+        if (world == null || pos == null) return;
+        String worldId = worldIdOf(world);
+        MarkerPos p = new MarkerPos(pos.getX(), pos.getY(), pos.getZ());
+        if (blockIndex.add(worldId, p)) {
+            MarkerBlockRepository.insert(worldId, p);
+        }
+    }
+
+    /**
+     * Drop a removed marker block from the spatial index (and from the DB).
+     */
+    public void onMarkerRemoved(ServerWorld world, BlockPos pos) {
+        if (world == null || pos == null) return;
+        String worldId = worldIdOf(world);
+        MarkerPos p = new MarkerPos(pos.getX(), pos.getY(), pos.getZ());
+        if (blockIndex.remove(worldId, p)) {
+            MarkerBlockRepository.delete(worldId, p);
+        }
+    }
+
+    /**
+     * Marker blocks within {@code radius} of {@code center} (cube), from the spatial index.
+     *
+     * <p>Sections of the cube not yet scanned for markers placed before the index existed are
+     * scanned (and backfilled) first, once per section. Entries in loaded chunks are verified
+     * against the world and dropped if the marker is gone; unloaded chunks are trusted rather
+     * than loaded.</p>
+     */
+    public List<BlockPos> findMarkersNear(ServerWorld world, BlockPos center, int radius) {
+        List<BlockPos> result = new ArrayList<>();
+        if (world == null || center == null) return result;
+
+        backfillLegacyMarkers(world, center, radius);
+
+        for (MarkerPos p : blockIndex.queryCube(worldIdOf(world), center.getX(), center.getY(), center.getZ(), radius)) {
+            BlockPos pos = new BlockPos(p.x(), p.y(), p.z());
+            if (world.isChunkLoaded(pos.getX() >> 4, pos.getZ() >> 4)
+                && world.getBlockState(pos).getBlock() != dev.cloudframe.fabric.content.CloudFrameContent.MARKER_BLOCK) {
+                onMarkerRemoved(world, pos);
+                continue;
+            }
+            result.add(pos);
+        }
+        return result;
+    }
+
+    /**
+     * Block scan of every not-yet-scanned 16x16x16 section overlapping the cube, indexing the
+     * markers found.
+     *
+     * <p>Only needed for markers placed before the index existed. Each section is scanned once,
+     * ever: scanned sections are persisted with the index. Sections in unloaded chunks are
+     * skipped (not loaded) and scanned later.</p>
+     */
+    private void backfillLegacyMarkers(ServerWorld world, BlockPos center, int radius) {
+        String worldId = worldIdOf(world);
+        int found = 0;
+        int scanned = 0;
+
+        for (int sx = (center.getX() - radius) >> 4; sx <= (center.getX() + radius) >> 4; sx++) {
+            for (int sz = (center.getZ() - radius) >> 4; sz <= (center.getZ() + radius) >> 4; sz++) {
+                if (!world.isChunkLoaded(sx, sz)) continue;
+                for (int sy = (center.getY() - radius) >> 4; sy <= (center.getY() + radius) >> 4; sy++) {
+                    if (blockIndex.isSectionScanned(worldId, sx, sy, sz)) continue;
+
+                    BlockPos.Mutable pos = new BlockPos.Mutable();
+                    for (int x = sx << 4; x < (sx << 4) + 16; x++) {
+                        for (int y = sy << 4; y < (sy << 4) + 16; y++) {
+                            for (int z = sz << 4; z < (sz << 4) + 16; z++) {
+                                pos.set(x, y, z);
+                                if (world.getBlockState(pos).getBlock() == dev.cloudframe.fabric.content.CloudFrameContent.MARKER_BLOCK) {
+                                    onMarkerPlaced(world, pos.toImmutable());
+                                    found++;
+                                }
+                            }
+                        }
+                    }
+                    blockIndex.markSectionScanned(worldId, sx, sy, sz);
+                    MarkerBlockRepository.insertScannedSection(worldId, sx, sy, sz);
+                    scanned++;
+                }
+            }
+        }
+
+        if (scanned > 0) {
+            debug.log("backfillLegacyMarkers", "Scanned " + scanned + " sections around " + center + ", found " + found + " markers");
+        }
+    }
+
     /**
      * Add a corner marker. Returns the corner number (1-4) or -1 if validation failed.
      */
@@ -131,9 +240,17 @@ public class FabricMarkerManager {
         debug.log("setFrameFromBlocks", "Stored activated frame for player " + playerId + " from " + corners.size() + " markers");
     }
 
+    private static final String OVERLAY_PREFIX = "marker:";
+
+    private record ActiveFrame(String overlayKey, List<BlockPos> corners, List<Float> boxes) {
+    }
+
     /**
-     * Called every server tick (or throttled by caller). Spawns persistent red frame particles
-     * for activated frames and auto-deactivates frames if any marker block is missing.
+     * Called every server tick (or throttled by caller). Shows activated frames to players and
+     * auto-deactivates frames if any marker block is missing.
+     *
+     * <p>Players with the client mod get an overlay that is only re-sent when a frame changes;
+     * everyone else gets red particle lines culled to the view distance.</p>
      */
     public void tick(net.minecraft.server.MinecraftServer server, int tickCounter) {
         // Throttle particle spam.
@@ -142,6 +259,7 @@ public class FabricMarkerManager {
 
         // Iterate a snapshot to avoid CME if something clears during iteration.
         var snapshot = new java.util.ArrayList<>(service.snapshot().entrySet());
+        Map<RegistryKey<World>, List<ActiveFrame>> framesByWorld = new HashMap<>();
 
         for (var entry : snapshot) {
             UUID playerId = entry.getKey();
@@ -183,7 +301,27 @@ public class FabricMarkerManager {
                 continue;
             }
 
-            spawnFrameLines(world, corners);
+            framesByWorld.computeIfAbsent(key, k -> new ArrayList<>())
+                .add(new ActiveFrame(OVERLAY_PREFIX + playerId, corners, frameBoxes(corners)));
+        }
+
+        for (ServerPlayerEntity player : server.getPlayerManager().getPlayerList()) {
+            ServerWorld world = player.getEntityWorld();
+            List<ActiveFrame> frames = framesByWorld.getOrDefault(world.getRegistryKey(), List.of());
+
+            if (OverlayServer.canReceive(player)) {
+                java.util.Set<String> keys = new java.util.HashSet<>();
+                for (ActiveFrame frame : frames) {
+                    OverlayServer.sync(player, frame.overlayKey(), 0xFF000000 | RED, frame.boxes());
+                    keys.add(frame.overlayKey());
+                }
+                OverlayServer.retain(player, OVERLAY_PREFIX, keys);
+                continue;
+            }
+
+            for (ActiveFrame frame : frames) {
+                spawnFrameLines(world, player, frame.corners());
+            }
         }
     }
 
@@ -218,15 +356,12 @@ public class FabricMarkerManager {
 
     private static final int RED = 0xFF0000;
 
-    private static void spawnFrameLines(ServerWorld world, List<BlockPos> corners) {
-        if (corners == null || corners.size() < 4) return;
-
+    private static int[] frameBounds(List<BlockPos> corners) {
         BlockPos first = corners.get(0);
         int minX = first.getX();
         int maxX = first.getX();
         int minZ = first.getZ();
         int maxZ = first.getZ();
-        int y = first.getY();
 
         for (BlockPos corner : corners) {
             if (corner == null) continue;
@@ -235,34 +370,45 @@ public class FabricMarkerManager {
             minZ = Math.min(minZ, corner.getZ());
             maxZ = Math.max(maxZ, corner.getZ());
         }
+        return new int[] { minX, first.getY(), minZ, maxX, maxZ };
+    }
+
+    private static List<Float> frameBoxes(List<BlockPos> corners) {
+        if (corners == null || corners.size() < 4) return List.of();
+        int[] b = frameBounds(corners);
+
+        // Same placement as the particle line: through the marker centers, on top of the markers.
+        List<Float> boxes = new ArrayList<>(6);
+        OverlayServer.addBox(boxes, b[0] + 0.5, b[1] + 1.0, b[2] + 0.5, b[3] + 0.5, b[1] + 1.0, b[4] + 0.5);
+        return boxes;
+    }
+
+    private static void spawnFrameLines(ServerWorld world, ServerPlayerEntity player, List<BlockPos> corners) {
+        if (corners == null || corners.size() < 4) return;
+        int[] b = frameBounds(corners);
+        int y = b[1];
 
         // Render on the marker perimeter so particles line up with the placed markers.
 
-        BlockPos c1 = new BlockPos(minX, y, minZ);
-        BlockPos c2 = new BlockPos(maxX, y, minZ);
-        BlockPos c3 = new BlockPos(maxX, y, maxZ);
-        BlockPos c4 = new BlockPos(minX, y, maxZ);
+        BlockPos c1 = new BlockPos(b[0], y, b[2]);
+        BlockPos c2 = new BlockPos(b[3], y, b[2]);
+        BlockPos c3 = new BlockPos(b[3], y, b[4]);
+        BlockPos c4 = new BlockPos(b[0], y, b[4]);
 
-        spawnLine(world, c1, c2);
-        spawnLine(world, c2, c3);
-        spawnLine(world, c3, c4);
-        spawnLine(world, c4, c1);
+        double maxDistance = ParticleOutlineFallback.maxDistanceBlocks(world);
+        spawnLine(world, player, c1, c2, maxDistance);
+        spawnLine(world, player, c2, c3, maxDistance);
+        spawnLine(world, player, c3, c4, maxDistance);
+        spawnLine(world, player, c4, c1, maxDistance);
     }
 
-    private static void spawnLine(ServerWorld world, BlockPos from, BlockPos to) {
+    private static void spawnLine(ServerWorld world, ServerPlayerEntity player, BlockPos from, BlockPos to, double maxDistance) {
         Vec3d start = Vec3d.ofCenter(from).add(0, 0.5, 0);
         Vec3d end = Vec3d.ofCenter(to).add(0, 0.5, 0);
-        double distance = start.distanceTo(end);
-        // Higher density so the perimeter reads like a continuous line.
-        int particleCount = Math.max(8, (int) (distance * 4.0)); // ~4 per block
         // Slightly smaller dust so it looks like a thin laser line.
         DustParticleEffect dust = new DustParticleEffect(RED, 0.65f);
-
-        for (int i = 0; i <= particleCount; i++) {
-            double t = i / (double) particleCount;
-            Vec3d pos = start.lerp(end, t);
-            world.spawnParticles(dust, pos.x, pos.y, pos.z, 1, 0, 0, 0, 0);
-        }
+        // ~4 per block up close so the perimeter reads like a continuous line; sparser further away.
+        ParticleOutlineFallback.line(world, player, dust, start, end, 0.25, maxDistance);
     }
 
     /**
@@ -289,6 +435,7 @@ public class FabricMarkerManager {
 
     public void loadAll() {
         service.loadAll();
+        MarkerBlockRepository.loadAll(blockIndex);
     }
 
     public void saveAll() {
@@ -0,0 +1,35 @@
+package dev.cloudframe.fabric.mixin;
+
+import dev.cloudframe.fabric.CloudFrameFabric;
+import net.minecraft.block.entity.BlockEntity;
+import net.minecraft.inventory.Inventory;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+/**
+ * Drops the quarry output capacity snapshot of an inventory whenever its contents change
+ * (hoppers, players, other mods), so routing never trusts a stale snapshot within a tick.
+ */
+@Mixin(BlockEntity.class)
+public class BlockEntityMarkDirtyMixin {
+
+    @Inject(method = "markDirty()V", at = @At("HEAD"), require = 1)
+    private void cloudframe$onMarkDirty(CallbackInfo ci) {
+        BlockEntity self = (BlockEntity) (Object) this;
+        if (!(self instanceof Inventory)) return;
+
+        World world = self.getWorld();
+        if (world == null || world.isClient()) return;
+
+        CloudFrameFabric inst = CloudFrameFabric.instance();
+        if (inst == null || inst.getQuarryManager() == null) return;
+
+        BlockPos pos = self.getPos();
+        inst.getQuarryManager().reservations().capacity()
+            .invalidate(world.getRegistryKey(), pos.getX(), pos.getY(), pos.getZ());
+    }
+}
@@ -0,0 +1,19 @@
+package dev.cloudframe.fabric.mixin;
+
+import net.minecraft.entity.decoration.DisplayEntity;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.gen.Invoker;
+
+/**
+ * Exposes the display entity's private interpolation setters, so packet visuals can let the
+ * client smooth multi-tick moves.
+ */
+@Mixin(DisplayEntity.class)
+public interface DisplayEntityAccessor {
+
+    @Invoker("setTeleportDuration")
+    void cloudframe$setTeleportDuration(int teleportDuration);
+
+    @Invoker("setInterpolationDuration")
+    void cloudframe$setInterpolationDuration(int interpolationDuration);
+}
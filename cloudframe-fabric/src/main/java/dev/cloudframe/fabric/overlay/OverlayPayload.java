@@ -0,0 +1,54 @@
+package dev.cloudframe.fabric.overlay;
+
+import java.util.List;
+
+import dev.cloudframe.fabric.CloudFrameFabric;
+import dev.cloudframe.common.ids.CloudFrameIds;
+import net.minecraft.network.RegistryByteBuf;
+import net.minecraft.network.codec.PacketCodec;
+import net.minecraft.network.codec.PacketCodecs;
+import net.minecraft.network.packet.CustomPayload;
+import net.minecraft.util.Identifier;
+
+/**
+ * Server -> client: replace the overlay stored under {@code key}.
+ *
+ * <p>{@code boxes} is a flat list of world-space boxes, 6 floats each
+ * (minX, minY, minZ, maxX, maxY, maxZ). A box with minY == maxY is drawn as a flat rectangle,
+ * which is how lines/outlines on a single layer are expressed.</p>
+ *
+ * <p>An empty box list removes the overlay. {@link #KEY_ALL} with an empty box list clears every
+ * overlay on the client. Overlays stay until replaced or removed; the server tracks what each
+ * player has, so there is no client-side expiry.</p>
+ */
+public record OverlayPayload(
+    String key,
+    int colorArgb,
+    List<Float> boxes
+) implements CustomPayload {
+
+    public static final String KEY_ALL = "*";
+
+    public static final CustomPayload.Id<OverlayPayload> ID = new CustomPayload.Id<>(
+        Identifier.of(CloudFrameFabric.MOD_ID, CloudFrameIds.OVERLAY)
+    );
+
+    public static final PacketCodec<RegistryByteBuf, OverlayPayload> CODEC = PacketCodec.tuple(
+        PacketCodecs.STRING,
+        OverlayPayload::key,
+        PacketCodecs.INTEGER,
+        OverlayPayload::colorArgb,
+        PacketCodecs.FLOAT.collect(PacketCodecs.toList()),
+        OverlayPayload::boxes,
+        OverlayPayload::new
+    );
+
+    public static OverlayPayload remove(String key) {
+        return new OverlayPayload(key, 0, List.of());
+    }
+
+    @Override
+    public Id<? extends CustomPayload> getId() {
+        return ID;
+    }
+}
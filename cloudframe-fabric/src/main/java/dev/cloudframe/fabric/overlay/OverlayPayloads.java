@@ -0,0 +1,18 @@
+package dev.cloudframe.fabric.overlay;
+
+import net.fabricmc.fabric.api.networking.v1.PayloadTypeRegistry;
+
+public final class OverlayPayloads {
+
+    private OverlayPayloads() {
+    }
+
+    private static boolean registered = false;
+
+    public static void register() {
+        if (registered) return;
+        registered = true;
+
+        PayloadTypeRegistry.playS2C().register(OverlayPayload.ID, OverlayPayload.CODEC);
+    }
+}
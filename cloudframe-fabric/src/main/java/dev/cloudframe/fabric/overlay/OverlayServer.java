@@ -0,0 +1,114 @@
+package dev.cloudframe.fabric.overlay;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import net.fabricmc.fabric.api.entity.event.v1.ServerEntityWorldChangeEvents;
+import net.fabricmc.fabric.api.networking.v1.ServerPlayConnectionEvents;
+import net.fabricmc.fabric.api.networking.v1.ServerPlayNetworking;
+import net.minecraft.server.network.ServerPlayerEntity;
+
+/**
+ * Sends client-rendered overlays (boxes/lines) to players with the CloudFrame client mod.
+ *
+ * <p>Remembers what each player was last sent per overlay key, so callers can "sync" every
+ * refresh and a packet only goes out when the geometry actually changed.</p>
+ */
+public final class OverlayServer {
+
+    private OverlayServer() {
+    }
+
+    private record Sent(int colorArgb, List<Float> boxes) {
+    }
+
+    // playerUuid -> (overlay key -> last sent geometry)
+    private static final Map<UUID, Map<String, Sent>> sentByPlayer = new HashMap<>();
+
+    public static void register() {
+        OverlayPayloads.register();
+
+        ServerPlayConnectionEvents.DISCONNECT.register((handler, server) -> sentByPlayer.remove(handler.player.getUuid()));
+
+        // Overlays are per-world; drop everything when the player changes dimension.
+        ServerEntityWorldChangeEvents.AFTER_PLAYER_CHANGE_WORLD.register((player, origin, destination) -> clearAll(player));
+    }
+
+    /**
+     * True if the player's client can render overlays (has the CloudFrame client mod).
+     * Callers should fall back to particles otherwise.
+     */
+    public static boolean canReceive(ServerPlayerEntity player) {
+        return player != null && ServerPlayNetworking.canSend(player, OverlayPayload.ID);
+    }
+
+    /**
+     * Ensure the player has the given overlay. Sends only if it differs from what was last sent.
+     */
+    public static void sync(ServerPlayerEntity player, String key, int colorArgb, List<Float> boxes) {
+        if (!canReceive(player) || key == null) return;
+        if (boxes == null || boxes.isEmpty()) {
+            remove(player, key);
+            return;
+        }
+
+        Map<String, Sent> sent = sentByPlayer.computeIfAbsent(player.getUuid(), id -> new HashMap<>());
+        Sent prev = sent.get(key);
+        if (prev != null && prev.colorArgb() == colorArgb && prev.boxes().equals(boxes)) return;
+
+        List<Float> copy = List.copyOf(boxes);
+        sent.put(key, new Sent(colorArgb, copy));
+        ServerPlayNetworking.send(player, new OverlayPayload(key, colorArgb, copy));
+    }
+
+    public static void remove(ServerPlayerEntity player, String key) {
+        if (player == null || key == null) return;
+        Map<String, Sent> sent = sentByPlayer.get(player.getUuid());
+        if (sent == null || sent.remove(key) == null) return;
+        if (canReceive(player)) {
+            ServerPlayNetworking.send(player, OverlayPayload.remove(key));
+        }
+    }
+
+    /**
+     * Remove every overlay under {@code prefix} that isn't in {@code keep}.
+     */
+    public static void retain(ServerPlayerEntity player, String prefix, Set<String> keep) {
+        if (player == null) return;
+        Map<String, Sent> sent = sentByPlayer.get(player.getUuid());
+        if (sent == null || sent.isEmpty()) return;
+
+        boolean canSend = canReceive(player);
+        Iterator<String> it = sent.keySet().iterator();
+        while (it.hasNext()) {
+            String key = it.next();
+            if (!key.startsWith(prefix) || (keep != null && keep.contains(key))) continue;
+            it.remove();
+            if (canSend) ServerPlayNetworking.send(player, OverlayPayload.remove(key));
+        }
+    }
+
+    public static void clearAll(ServerPlayerEntity player) {
+        if (player == null) return;
+        sentByPlayer.remove(player.getUuid());
+        if (canReceive(player)) {
+            ServerPlayNetworking.send(player, OverlayPayload.remove(OverlayPayload.KEY_ALL));
+        }
+    }
+
+    /**
+     * Append one box to a flat box list.
+     */
+    public static void addBox(List<Float> out, double minX, double minY, double minZ, double maxX, double maxY, double maxZ) {
+        out.add((float) minX);
+        out.add((float) minY);
+        out.add((float) minZ);
+        out.add((float) maxX);
+        out.add((float) maxY);
+        out.add((float) maxZ);
+    }
+}
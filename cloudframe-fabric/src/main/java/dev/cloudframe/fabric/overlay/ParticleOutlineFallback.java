@@ -0,0 +1,73 @@
+package dev.cloudframe.fabric.overlay;
+
+import net.minecraft.particle.ParticleEffect;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.Vec3d;
+
+/**
+ * Particle outlines for players without the CloudFrame client mod.
+ *
+ * <p>Particles are sent unforced, so they follow the normal particle range
+ * ({@link #PARTICLE_RANGE_BLOCKS}) and the player's particle settings. Only the part of a line
+ * within that range is drawn, and spacing between particles grows with distance so far-away
+ * lines cost fewer packets.</p>
+ */
+public final class ParticleOutlineFallback {
+
+    private ParticleOutlineFallback() {
+    }
+
+    // Distance (blocks) within which lines are drawn at full density.
+    private static final double FULL_DENSITY_DISTANCE = 24.0;
+
+    // Vanilla only delivers unforced particles to players this close.
+    public static final double PARTICLE_RANGE_BLOCKS = 32.0;
+
+    /**
+     * Distance (blocks) up to which outline particles are worth sending: the normal particle
+     * range, capped by the server view distance.
+     */
+    public static double maxDistanceBlocks(ServerWorld world) {
+        try {
+            return Math.min(PARTICLE_RANGE_BLOCKS, world.getServer().getPlayerManager().getViewDistance() * 16.0);
+        } catch (Throwable ignored) {
+            return PARTICLE_RANGE_BLOCKS;
+        }
+    }
+
+    /**
+     * Draw a straight particle line for one player.
+     *
+     * @param baseSpacing spacing between particles (blocks) when the player is close
+     */
+    public static void line(ServerWorld world, ServerPlayerEntity player, ParticleEffect effect, Vec3d from, Vec3d to, double baseSpacing, double maxDistance) {
+        if (world == null || player == null || effect == null || from == null || to == null) return;
+
+        double length = from.distanceTo(to);
+        Vec3d eye = new Vec3d(player.getX(), player.getY(), player.getZ());
+
+        if (length <= 1.0e-6) {
+            if (eye.squaredDistanceTo(from) <= maxDistance * maxDistance) {
+                world.spawnParticles(player, effect, false, false, from.x, from.y, from.z, 1, 0, 0, 0, 0);
+            }
+            return;
+        }
+
+        // Closest point on the segment decides culling and density.
+        Vec3d dir = to.subtract(from);
+        double t = Math.max(0.0, Math.min(1.0, eye.subtract(from).dotProduct(dir) / (length * length)));
+        double closest = eye.distanceTo(from.add(dir.multiply(t)));
+        if (closest > maxDistance) return;
+
+        double spacing = baseSpacing * Math.max(1.0, closest / FULL_DENSITY_DISTANCE);
+        int steps = Math.max(1, (int) Math.ceil(length / spacing));
+        double maxDistSq = maxDistance * maxDistance;
+
+        for (int i = 0; i <= steps; i++) {
+            Vec3d pos = from.lerp(to, i / (double) steps);
+            if (eye.squaredDistanceTo(pos) > maxDistSq) continue;
+            world.spawnParticles(player, effect, false, false, pos.x, pos.y, pos.z, 1, 0, 0, 0, 0);
+        }
+    }
+}
@@ -15,6 +15,9 @@ import net.minecraft.util.math.GlobalPos;
 import net.minecraft.util.math.Vec3d;
 import dev.cloudframe.common.trash.TrashSink;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Fabric implementation for item delivery operations.
  */
@@ -90,6 +93,14 @@ public class FabricItemDeliveryProvider implements ItemPacketManager.IItemDelive
         return w.isChunkLoaded(pos.getX() >> 4, pos.getZ() >> 4);
     }
 
+    @Override
+    public ItemPacketManager.ChunkKey chunkKeyOf(Object location) {
+        BlockPos pos = posOf(location);
+        if (pos == null) return null;
+        // Same world key the chunk-load event reports (ServerWorld#getRegistryKey).
+        return new ItemPacketManager.ChunkKey(worldOf(location).getRegistryKey(), pos.getX() >> 4, pos.getZ() >> 4);
+    }
+
     @Override
     public Object getInventoryHolder(Object blockLocation) {
         BlockPos pos = posOf(blockLocation);
@@ -113,6 +124,19 @@ public class FabricItemDeliveryProvider implements ItemPacketManager.IItemDelive
         return InventoryInsert.addItem(inv, stack, INVENTORY, STACKS);
     }
 
+    @Override
+    public int[] addItems(Object inventoryHolder, List<Object> items) {
+        if (!(inventoryHolder instanceof Inventory inv) || inventoryHolder instanceof TrashSink) {
+            return ItemPacketManager.IItemDeliveryProvider.super.addItems(inventoryHolder, items);
+        }
+
+        List<ItemStack> stacks = new ArrayList<>(items.size());
+        for (Object item : items) {
+            stacks.add(item instanceof ItemStack stack ? stack : ItemStack.EMPTY);
+        }
+        return InventoryInsert.addItems(inv, stacks, INVENTORY, STACKS);
+    }
+
     @Override
     public void dropItems(Object location, Object[] items) {
         BlockPos pos = posOf(location);
@@ -1,14 +1,19 @@
 package dev.cloudframe.fabric.pipes;
 
+import dev.cloudframe.common.platform.items.ItemIdentityAdapter;
+import dev.cloudframe.common.platform.items.ItemIdentityInterner;
 import dev.cloudframe.common.platform.items.ItemStackAdapter;
 import dev.cloudframe.common.platform.items.ItemStackKeyAdapter;
+import dev.cloudframe.fabric.platform.items.FabricItemIdRegistry;
+import net.minecraft.component.ComponentChanges;
 import net.minecraft.item.ItemStack;
 import net.minecraft.registry.Registries;
 
 /**
  * Fabric implementation for ItemStack operations.
  */
-public class FabricItemStackAdapter implements ItemStackAdapter<ItemStack>, ItemStackKeyAdapter<ItemStack> {
+public class FabricItemStackAdapter
+        implements ItemStackAdapter<ItemStack>, ItemStackKeyAdapter<ItemStack>, ItemIdentityAdapter<ItemStack> {
 
     public static final FabricItemStackAdapter INSTANCE = new FabricItemStackAdapter();
 
@@ -51,9 +56,11 @@ public class FabricItemStackAdapter implements ItemStackAdapter<ItemStack>, Item
             String id = Registries.ITEM.getId(stack.getItem()).toString();
             // Components include enchantments, custom names, etc (best-effort stable signature).
             // Count is not included.
+            // Only changes from the item's defaults are included, so plain stacks key as the bare id.
             String comps;
             try {
-                comps = String.valueOf(stack.getComponents());
+                ComponentChanges changes = stack.getComponentChanges();
+                comps = changes.isEmpty() ? "" : String.valueOf(changes);
             } catch (Throwable ignored) {
                 comps = "";
             }
@@ -62,4 +69,19 @@ public class FabricItemStackAdapter implements ItemStackAdapter<ItemStack>, Item
             return "unknown";
         }
     }
+
+    @Override
+    public int typeId(ItemStack stack) {
+        if (stack == null || stack.isEmpty()) return ItemIdentityInterner.NONE;
+        return FabricItemIdRegistry.INSTANCE.internedIdOf(stack.getItem());
+    }
+
+    @Override
+    public int stackId(ItemStack stack) {
+        int type = typeId(stack);
+        if (type == ItemIdentityInterner.NONE) return type;
+        // Plain stacks (the common case for mined drops) skip the string key entirely.
+        if (stack.getComponentChanges().isEmpty()) return type;
+        return ItemIdentityInterner.global().intern(key(stack));
+    }
 }
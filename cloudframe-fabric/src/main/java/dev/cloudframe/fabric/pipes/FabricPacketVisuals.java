@@ -1,6 +1,7 @@
 package dev.cloudframe.fabric.pipes;
 
 import dev.cloudframe.common.pipes.ItemPacket;
+import dev.cloudframe.fabric.mixin.DisplayEntityAccessor;
 import net.minecraft.server.MinecraftServer;
 import net.minecraft.entity.Entity;
 import net.minecraft.entity.EntityType;
@@ -16,6 +17,9 @@ import net.minecraft.util.math.Vec3d;
  */
 public class FabricPacketVisuals implements ItemPacket.IPacketVisuals {
 
+    // Longest straight move handed to the client to interpolate in one go.
+    private static final int MAX_MOVE_TICKS = 16;
+
     private final MinecraftServer server;
 
     public FabricPacketVisuals(MinecraftServer server) {
@@ -48,15 +52,9 @@ public class FabricPacketVisuals implements ItemPacket.IPacketVisuals {
         display.setItemStack(stack.copyWithCount(1));
 
         // Make movement appear smooth on the client.
-        // Display entities support client interpolation via teleport/interpolation durations (method names vary by mappings/version).
-        try {
-            var m = display.getClass().getMethod("setTeleportDuration", int.class);
-            m.invoke(display, 2);
-        } catch (Throwable ignored) {}
-        try {
-            var m = display.getClass().getMethod("setInterpolationDuration", int.class);
-            m.invoke(display, 2);
-        } catch (Throwable ignored) {}
+        DisplayEntityAccessor accessor = (DisplayEntityAccessor) display;
+        accessor.cloudframe$setTeleportDuration(2);
+        accessor.cloudframe$setInterpolationDuration(2);
 
         // Scale down the item display to fit inside pipes (0.2 = 20% of normal size)
         org.joml.Matrix4f matrix = new org.joml.Matrix4f();
@@ -83,6 +81,19 @@ public class FabricPacketVisuals implements ItemPacket.IPacketVisuals {
         }
     }
 
+    @Override
+    public int maxMoveTicks() {
+        return MAX_MOVE_TICKS;
+    }
+
+    @Override
+    public void moveEntity(Object entity, Object location, int durationTicks) {
+        if (entity instanceof DisplayEntity display) {
+            ((DisplayEntityAccessor) display).cloudframe$setTeleportDuration(Math.max(1, durationTicks));
+        }
+        teleportEntity(entity, location);
+    }
+
     @Override
     public boolean isEntityDead(Object entity) {
         if (!(entity instanceof Entity e)) return true;
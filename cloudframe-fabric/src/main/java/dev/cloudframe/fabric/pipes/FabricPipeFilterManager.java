@@ -1,5 +1,6 @@
 package dev.cloudframe.fabric.pipes;
 
+import dev.cloudframe.common.pipes.filter.CompiledPipeFilter;
 import dev.cloudframe.common.pipes.filter.PipeFilterKey;
 import dev.cloudframe.common.pipes.filter.PipeFilterConfig;
 import dev.cloudframe.common.pipes.filter.PipeFilterState;
@@ -21,6 +22,7 @@ import net.minecraft.world.World;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Stores per-pipe-side item filters.
@@ -126,6 +128,9 @@ public final class FabricPipeFilterManager {
         }
     }
 
+    // Dimension key -> world id string, so hot lookups don't rebuild it per call.
+    private static final Map<RegistryKey<World>, String> WORLD_IDS = new ConcurrentHashMap<>();
+
     private final MinecraftServer server;
     private final PipeFilterService service;
     private final ItemIdRegistry<Item> itemIds;
@@ -189,8 +194,25 @@ public final class FabricPipeFilterManager {
 
     public boolean allows(GlobalPos pipePos, int sideIndex, ItemStack stack) {
         if (stack == null || stack.isEmpty()) return true;
-        String itemId = itemIds.idOf(stack.getItem());
-        return service.allows(toPortableKey(pipePos, sideIndex), itemId);
+        return service.allows(toPortableKey(pipePos, sideIndex), itemIds.internedIdOf(stack.getItem()));
+    }
+
+    /**
+     * Compiled filter on the given pipe side for routing checks, or null if there is none.
+     */
+    public CompiledPipeFilter compiled(GlobalPos pipePos, int sideIndex) {
+        if (pipePos == null) return null;
+        BlockPos pos = pipePos.pos();
+        return service.compiled(worldId(pipePos), pos.getX(), pos.getY(), pos.getZ(), sideIndex);
+    }
+
+    /**
+     * Bitmask of the pipe's sides (bit = side index) that have a filter attached.
+     */
+    public int filteredSides(GlobalPos pipePos) {
+        if (pipePos == null) return 0;
+        BlockPos pos = pipePos.pos();
+        return service.filteredSides(worldId(pipePos), pos.getX(), pos.getY(), pos.getZ());
     }
 
     public void setMode(GlobalPos pipePos, int sideIndex, int mode) {
@@ -227,15 +249,17 @@ public final class FabricPipeFilterManager {
         if (pipePos == null) return;
 
         BlockPos pos = pipePos.pos();
-        String world = pipePos.dimension().getValue().toString();
-        service.removeAllAt(world, pos.getX(), pos.getY(), pos.getZ());
+        service.removeAllAt(worldId(pipePos), pos.getX(), pos.getY(), pos.getZ());
     }
 
     private static PipeFilterKey toPortableKey(GlobalPos pipePos, int sideIndex) {
         if (pipePos == null) return null;
         BlockPos pos = pipePos.pos();
-        String worldId = pipePos.dimension().getValue().toString();
-        return new PipeFilterKey(worldId, pos.getX(), pos.getY(), pos.getZ(), sideIndex);
+        return new PipeFilterKey(worldId(pipePos), pos.getX(), pos.getY(), pos.getZ(), sideIndex);
+    }
+
+    private static String worldId(GlobalPos pipePos) {
+        return WORLD_IDS.computeIfAbsent(pipePos.dimension(), k -> k.getValue().toString());
     }
 
     private static ItemStack[] toItemStacks(PipeFilterState st) {
@@ -1,6 +1,10 @@
 package dev.cloudframe.fabric.platform.items;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 import dev.cloudframe.common.platform.items.ItemIdRegistry;
+import dev.cloudframe.common.platform.items.ItemIdentityInterner;
 import net.minecraft.item.Item;
 import net.minecraft.registry.Registries;
 import net.minecraft.util.Identifier;
@@ -12,6 +16,9 @@ public final class FabricItemIdRegistry implements ItemIdRegistry<Item> {
 
     public static final FabricItemIdRegistry INSTANCE = new FabricItemIdRegistry();
 
+    // Item -> interned id; Items are registry singletons, so their identity hash is stable.
+    private final Map<Item, Integer> internedIds = new ConcurrentHashMap<>();
+
     private FabricItemIdRegistry() {
     }
 
@@ -39,4 +46,14 @@ public final class FabricItemIdRegistry implements ItemIdRegistry<Item> {
             return null;
         }
     }
+
+    @Override
+    public int internedIdOf(Item item) {
+        if (item == null) return ItemIdentityInterner.NONE;
+        Integer cached = internedIds.get(item);
+        if (cached != null) return cached;
+        int id = ItemIdentityInterner.global().intern(idOf(item));
+        if (id != ItemIdentityInterner.NONE) internedIds.put(item, id);
+        return id;
+    }
 }
@@ -231,6 +231,24 @@ public final class FabricPowerNetworkManager {
         }
     );
 
+    // Bumped when a cable, producer or cell is placed or removed; lets idle consumers back off.
+    private static int topologyVersion;
+
+    public static int topologyVersion() {
+        return topologyVersion;
+    }
+
+    /**
+     * Called by power blocks when placed or removed. Wakes idle quarries so they re-check power.
+     */
+    public static void markTopologyChanged() {
+        topologyVersion++;
+        CloudFrameFabric inst = CloudFrameFabric.instance();
+        if (inst != null && inst.getQuarryManager() != null) {
+            inst.getQuarryManager().onPowerNetworkChanged();
+        }
+    }
+
     public static void beginTick(MinecraftServer server, long tick) {
         MANAGER.beginTick(server, tick);
     }
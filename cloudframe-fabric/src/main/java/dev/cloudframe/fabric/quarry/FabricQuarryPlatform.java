@@ -2,17 +2,31 @@ package dev.cloudframe.fabric.quarry;
 
 import java.util.ArrayList;
 import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.ObjDoubleConsumer;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.mojang.serialization.JsonOps;
 
 import dev.cloudframe.common.quarry.QuarryPlatform;
 import dev.cloudframe.common.pipes.ItemPacketManager;
 import dev.cloudframe.common.pipes.PipeNetworkManager;
 import dev.cloudframe.common.pipes.PipeConnectivityAccess;
 import dev.cloudframe.common.pipes.PipeOutputScanner;
+import dev.cloudframe.common.pipes.filter.CompiledPipeFilter;
 import dev.cloudframe.common.platform.items.InventoryCapacity;
 import dev.cloudframe.common.platform.items.InventoryInsert;
+import dev.cloudframe.common.platform.items.ItemIdentityAdapter;
+import dev.cloudframe.common.platform.items.ItemIdentityInterner;
 import dev.cloudframe.common.platform.items.ItemStackKeyAdapter;
 import dev.cloudframe.common.platform.items.SlottedInventoryAdapter;
 import dev.cloudframe.common.platform.world.LocationKeyAdapter;
@@ -28,7 +42,9 @@ import dev.cloudframe.fabric.pipes.FabricItemStackAdapter;
 import dev.cloudframe.fabric.power.FabricPowerNetworkManager;
 import dev.cloudframe.fabric.content.CloudFrameContent;
 import dev.cloudframe.common.trash.TrashSink;
+import dev.cloudframe.fabric.quarry.controller.QuarryControllerBlock;
 import dev.cloudframe.fabric.quarry.controller.QuarryControllerBlockEntity;
+import dev.cloudframe.fabric.quarry.frame.QuarryFrameOutlineServer;
 import net.minecraft.block.Block;
 import net.minecraft.block.BlockState;
 import net.minecraft.block.Blocks;
@@ -39,21 +55,38 @@ import net.minecraft.entity.ItemEntity;
 import net.minecraft.inventory.Inventory;
 import net.minecraft.item.ItemStack;
 import net.minecraft.item.Items;
+import net.minecraft.loot.LootTable;
 import net.minecraft.loot.context.LootContextParameters;
+import net.minecraft.loot.context.LootContextTypes;
 import net.minecraft.registry.RegistryKeys;
 import net.minecraft.registry.RegistryEntryLookup;
 import net.minecraft.registry.RegistryKey;
 import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.world.ChunkTicketType;
 import net.minecraft.server.world.ServerWorld;
+import net.minecraft.network.packet.s2c.play.BlockBreakingProgressS2CPacket;
+import net.minecraft.network.packet.s2c.play.PlaySoundS2CPacket;
+import net.minecraft.network.packet.s2c.play.WorldEventS2CPacket;
+import net.minecraft.registry.entry.RegistryEntry;
+import net.minecraft.server.network.ServerPlayerEntity;
 import net.minecraft.sound.SoundCategory;
 import net.minecraft.sound.SoundEvents;
 import net.minecraft.util.Identifier;
 import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkSectionPos;
+import net.minecraft.util.math.ChunkPos;
 import net.minecraft.util.math.Direction;
 import net.minecraft.util.math.GlobalPos;
 import net.minecraft.util.math.Vec3d;
+import net.minecraft.util.math.random.LocalRandom;
+import net.minecraft.util.math.random.Random;
 import net.minecraft.loot.context.LootWorldContext;
 import net.minecraft.world.World;
+import net.minecraft.world.Heightmap;
+import net.minecraft.world.chunk.ChunkSection;
+import net.minecraft.world.chunk.WorldChunk;
+import net.minecraft.world.chunk.light.LightingProvider;
+import net.minecraft.world.poi.PointOfInterestTypes;
 
 public class FabricQuarryPlatform implements QuarryPlatform {
 
@@ -63,10 +96,73 @@ public class FabricQuarryPlatform implements QuarryPlatform {
     private final MinecraftServer server;
     private final PipeNetworkManager pipeManager;
     private final ItemPacketManager packetManager;
+    private ItemPacketFactory packetFactory;
 
     private static final int MAX_GLASS_FRAME_UPDATES_PER_TICK = 256;
+    // Non-blocking chunk load requests issued per tick across all frame jobs.
+    private static final int MAX_GLASS_FRAME_CHUNK_REQUESTS_PER_TICK = 4;
+    // Portal tickets expire on their own; re-request if the chunk still isn't loaded after this long.
+    private static final int GLASS_FRAME_CHUNK_REREQUEST_TICKS = 200;
+
+    private final ArrayDeque<GlassFrameJob> pendingFrameJobs = new ArrayDeque<>();
+
+    // Mining tool variants: 0 = plain, 1..3 = fortune level, 4 = silk touch.
+    private static final int TOOL_VARIANTS = 5;
+    private static final int TOOL_SILK_TOUCH = 4;
+
+    // Enchanted pickaxes are built once per world; loot evaluation only reads the tool.
+    private final Map<RegistryKey<World>, ItemStack[]> miningToolsByWorld = new HashMap<>();
+
+    /**
+     * Drop templates for (state, tool) pairs whose loot never touched the RNG, e.g. stone -> cobblestone.
+     * Handed out as copies. Pairs that did roll randomness (ores with fortune, gravel) are remembered
+     * in {@link #randomDropKeys} and always go through the loot table. Only blocks with
+     * position-independent loot are considered at all (see {@link #hasContextFreeLoot}).
+     */
+    private record DropKey(BlockState state, int toolIndex) {}
+
+    private final Map<DropKey, List<ItemStack>> dropTemplates = new HashMap<>();
+    private final Set<DropKey> randomDropKeys = new HashSet<>();
+    private final Map<Block, Boolean> contextFreeLoot = new HashMap<>();
+    private static final Map<Class<?>, Boolean> OVERRIDES_DROPPED_STACKS = new HashMap<>();
+
+    // Loot table parts whose result depends only on the block state, the tool and the RNG.
+    // Anything else (location, weather, time, entities, scores, nested tables) may depend on
+    // where and when the block is mined.
+    private static final Set<String> CONTEXT_FREE_LOOT_TYPES = Set.of(
+        // table type, entries
+        "block", "item", "tag", "empty", "alternatives", "group", "sequence",
+        // number providers
+        "constant", "uniform", "binomial",
+        // conditions
+        "survives_explosion", "match_tool", "block_state_property", "inverted", "any_of", "all_of",
+        "random_chance", "random_chance_with_enchanted_bonus", "table_bonus",
+        // functions
+        "set_count", "limit_count", "explosion_decay", "copy_state", "apply_bonus"
+    );
+
+    /**
+     * Random source that remembers whether loot generation drew from it.
+     */
+    private static final class TrackingRandom extends LocalRandom {
+        boolean used = false;
+
+        TrackingRandom(long seed) {
+            super(seed);
+        }
 
-    private final ArrayDeque<GlassFrameRemovalJob> pendingFrameRemovals = new ArrayDeque<>();
+        @Override
+        public int next(int bits) {
+            used = true;
+            return super.next(bits);
+        }
+
+        @Override
+        public Random split() {
+            used = true;
+            return super.split();
+        }
+    }
 
     private static final SlottedInventoryAdapter<Inventory, ItemStack> INVENTORY = new SlottedInventoryAdapter<>() {
         @Override
@@ -92,7 +188,8 @@ public class FabricQuarryPlatform implements QuarryPlatform {
         }
     };
 
-    private static final class GlassFrameRemovalJob {
+    private static final class GlassFrameJob {
+        final boolean place;
         final RegistryKey<World> worldKey;
         final int minX;
         final int minZ;
@@ -102,8 +199,14 @@ public class FabricQuarryPlatform implements QuarryPlatform {
 
         final int total;
         int index = 0;
+        int placedCount = 0;
+
+        // Chunk we asked the server to load for this job (packed chunk key), and how long we've waited.
+        long requestedChunkKey = Long.MIN_VALUE;
+        int waitTicks = 0;
 
-        GlassFrameRemovalJob(RegistryKey<World> worldKey, int minX, int minZ, int maxX, int maxZ, int y) {
+        GlassFrameJob(boolean place, RegistryKey<World> worldKey, int minX, int minZ, int maxX, int maxZ, int y) {
+            this.place = place;
             this.worldKey = worldKey;
             this.minX = Math.min(minX, maxX);
             this.maxX = Math.max(minX, maxX);
@@ -113,6 +216,15 @@ public class FabricQuarryPlatform implements QuarryPlatform {
 
             this.total = RectPerimeter.count(this.minX, this.minZ, this.maxX, this.maxZ);
         }
+
+        boolean sameFrame(RegistryKey<World> key, int minX, int minZ, int maxX, int maxZ, int y) {
+            return worldKey.equals(key)
+                && this.minX == Math.min(minX, maxX)
+                && this.maxX == Math.max(minX, maxX)
+                && this.minZ == Math.min(minZ, maxZ)
+                && this.maxZ == Math.max(minZ, maxZ)
+                && this.y == y;
+        }
     }
 
     public FabricQuarryPlatform(MinecraftServer server, PipeNetworkManager pipeManager, ItemPacketManager packetManager) {
@@ -281,24 +393,22 @@ public class FabricQuarryPlatform implements QuarryPlatform {
     }
 
     @Override
-    public boolean allowsPipeFilter(Object pipeLocAdjacentToInventory, Object inventoryLoc, Object itemStack) {
-        if (!(itemStack instanceof ItemStack stack)) return true;
-
+    public CompiledPipeFilter pipeFilter(Object pipeLocAdjacentToInventory, Object inventoryLoc) {
         CloudFrameFabric instance = CloudFrameFabric.instance();
-        if (instance == null || instance.getPipeFilterManager() == null) return true;
+        if (instance == null || instance.getPipeFilterManager() == null) return null;
 
         ServerWorld world = worldOf(null, pipeLocAdjacentToInventory);
         BlockPos pipePos = posOf(pipeLocAdjacentToInventory);
-        if (world == null || pipePos == null) return true;
+        if (world == null || pipePos == null) return null;
 
         BlockPos invPos = posOf(inventoryLoc);
-        if (invPos == null) return true;
+        if (invPos == null) return null;
 
         int sideIndex = dirIndexBetween(pipePos, invPos);
-        if (sideIndex < 0) return true;
+        if (sideIndex < 0) return null;
 
         GlobalPos gp = GlobalPos.create(world.getRegistryKey(), pipePos.toImmutable());
-        return instance.getPipeFilterManager().allows(gp, sideIndex, stack);
+        return instance.getPipeFilterManager().compiled(gp, sideIndex);
     }
 
     @Override
@@ -380,48 +490,91 @@ public class FabricQuarryPlatform implements QuarryPlatform {
     }
 
     /**
-     * Process pending glass-frame removals incrementally to avoid lag spikes.
+     * Process pending glass-frame placements/removals incrementally to avoid lag spikes.
      * Called once per server tick from the mod tick handler.
+     *
+     * <p>Chunks are never loaded synchronously here. When a job reaches an unloaded chunk it
+     * requests a short-lived chunk ticket and yields to the next job; it resumes once the
+     * chunk is actually loaded.</p>
      */
-    public void tickFrameRemovalJobs() {
-        if (pendingFrameRemovals.isEmpty()) return;
+    public void tickGlassFrameJobs() {
+        if (pendingFrameJobs.isEmpty()) return;
 
         int budget = MAX_GLASS_FRAME_UPDATES_PER_TICK;
-        while (budget > 0 && !pendingFrameRemovals.isEmpty()) {
-            GlassFrameRemovalJob job = pendingFrameRemovals.peekFirst();
+        int chunkRequests = MAX_GLASS_FRAME_CHUNK_REQUESTS_PER_TICK;
+
+        // Visit each job at most once per tick; waiting jobs rotate to the back.
+        int jobsToVisit = pendingFrameJobs.size();
+        while (budget > 0 && jobsToVisit-- > 0 && !pendingFrameJobs.isEmpty()) {
+            GlassFrameJob job = pendingFrameJobs.pollFirst();
             if (job == null) break;
 
             ServerWorld world = server.getWorld(job.worldKey);
-            if (world == null) {
-                pendingFrameRemovals.pollFirst();
-                continue;
-            }
+            if (world == null) continue;
+
+            boolean waiting = false;
+            while (budget > 0 && job.index < job.total) {
+                RectPerimeter.Pos nextXZ = RectPerimeter.at(job.minX, job.minZ, job.maxX, job.maxZ, job.index);
+                if (nextXZ == null) {
+                    job.index = job.total;
+                    break;
+                }
 
-            if (job.total <= 0 || job.index >= job.total) {
-                pendingFrameRemovals.pollFirst();
-                continue;
+                int cx = nextXZ.x() >> 4;
+                int cz = nextXZ.z() >> 4;
+                if (!world.isChunkLoaded(cx, cz)) {
+                    long chunkKey = (((long) cx) << 32) | (cz & 0xffffffffL);
+                    boolean stale = job.requestedChunkKey == chunkKey && job.waitTicks >= GLASS_FRAME_CHUNK_REREQUEST_TICKS;
+                    if ((job.requestedChunkKey != chunkKey || stale) && chunkRequests > 0) {
+                        requestChunkLoad(world, cx, cz);
+                        chunkRequests--;
+                        job.requestedChunkKey = chunkKey;
+                        job.waitTicks = 0;
+                    } else {
+                        job.waitTicks++;
+                    }
+                    waiting = true;
+                    break;
+                }
+
+                BlockPos next = new BlockPos(nextXZ.x(), job.y, nextXZ.z());
+                BlockState current = world.getBlockState(next);
+                if (job.place) {
+                    // Only replace air blocks
+                    if (current.isAir()) {
+                        world.setBlockState(next, Blocks.GLASS.getDefaultState(), 3);
+                        job.placedCount++;
+                    }
+                } else if (current.isOf(Blocks.GLASS)) {
+                    world.setBlockState(next, Blocks.AIR.getDefaultState(), 3);
+                }
+                job.index++;
+                budget--;
             }
 
-            RectPerimeter.Pos nextXZ = RectPerimeter.at(job.minX, job.minZ, job.maxX, job.maxZ, job.index);
-            job.index++;
-            if (nextXZ == null) {
-                pendingFrameRemovals.pollFirst();
+            if (job.index >= job.total) {
+                if (job.place) {
+                    debug.log("placeGlassFrame", "Placed " + job.placedCount + " glass blocks for frame bounds: ("
+                        + job.minX + "," + job.y + "," + job.minZ + ") to (" + job.maxX + "," + job.y + "," + job.maxZ + ")");
+                }
                 continue;
             }
 
-            BlockPos next = new BlockPos(nextXZ.x(), job.y, nextXZ.z());
-
-            // Force-load chunk so removal is reliable after restarts / large frames.
-            int cx = next.getX() >> 4;
-            int cz = next.getZ() >> 4;
-            if (!world.isChunkLoaded(cx, cz)) {
-                world.getChunk(cx, cz);
+            if (waiting) {
+                pendingFrameJobs.addLast(job);
+            } else {
+                // Out of block budget mid-job: keep its place at the front.
+                pendingFrameJobs.addFirst(job);
             }
+        }
+    }
 
-            if (world.getBlockState(next).isOf(net.minecraft.block.Blocks.GLASS)) {
-                world.setBlockState(next, Blocks.AIR.getDefaultState(), 3);
-            }
-            budget--;
+    private void requestChunkLoad(ServerWorld world, int cx, int cz) {
+        try {
+            // Portal tickets expire on their own, so no cleanup is required once the frame is done.
+            world.getChunkManager().addTicket(ChunkTicketType.PORTAL, new ChunkPos(cx, cz), 1);
+        } catch (Throwable t) {
+            debug.log("requestChunkLoad", "Failed to request chunk " + cx + "," + cz + ": " + t);
         }
     }
 
@@ -462,33 +615,29 @@ public class FabricQuarryPlatform implements QuarryPlatform {
         BlockPos pos = posOf(loc);
         if (pos == null) return false;
         ServerWorld world = worldOf(null, loc);
-        try {
-            if (world.isReceivingRedstonePower(pos)) return true;
-        } catch (Throwable ignored) {
-            // fall through
-        }
 
-        int direct = 0;
-        try {
-            direct = world.getReceivedRedstonePower(pos);
-        } catch (Throwable ignored) {
-            direct = 0;
+        // Controllers cache their input; it is kept current by neighbor updates.
+        BlockEntity be = world.getBlockEntity(pos);
+        if (be instanceof QuarryControllerBlockEntity controller && controller.isRedstoneKnown()) {
+            return controller.isRedstonePowered();
         }
-        if (direct > 0) return true;
 
-        // Some blocks (and some mappings/versions) can be finicky with isReceivingRedstonePower;
-        // check neighbors emitting into us.
-        try {
-            for (net.minecraft.util.math.Direction dir : net.minecraft.util.math.Direction.values()) {
-                BlockPos from = pos.offset(dir);
-                int emitted = world.getEmittedRedstonePower(from, dir.getOpposite());
-                if (emitted > 0) return true;
-            }
-        } catch (Throwable ignored) {
-            // best-effort
+        boolean powered = QuarryControllerBlock.readRedstonePower(world, pos);
+        if (be instanceof QuarryControllerBlockEntity controller) {
+            controller.setRedstonePowered(powered);
         }
+        return powered;
+    }
+
+    @Override
+    public boolean supportsRedstoneEvents() {
+        return true;
+    }
 
-        return false;
+    @Override
+    public long gameTime(Object loc) {
+        if (posOf(loc) == null) return -1L;
+        return worldOf(null, loc).getTime();
     }
 
     @Override
@@ -544,31 +693,9 @@ public class FabricQuarryPlatform implements QuarryPlatform {
         Block block = state.getBlock();
         
         List<Object> result = new ArrayList<>();
-        ItemStack tool = new ItemStack(Items.DIAMOND_PICKAXE);
-        
-        if (silkTouch) {
-            try {
-                RegistryEntryLookup<net.minecraft.enchantment.Enchantment> enchantments =
-                    world.getRegistryManager().getOrThrow(RegistryKeys.ENCHANTMENT);
-                tool.addEnchantment(enchantments.getOrThrow(Enchantments.SILK_TOUCH), 1);
-            } catch (Throwable ignored) {}
-        } else {
-            int f = Math.max(0, Math.min(3, fortuneLevel));
-            if (f > 0) {
-                try {
-                    RegistryEntryLookup<net.minecraft.enchantment.Enchantment> enchantments =
-                        world.getRegistryManager().getOrThrow(RegistryKeys.ENCHANTMENT);
-                    tool.addEnchantment(enchantments.getOrThrow(Enchantments.FORTUNE), f);
-                } catch (Throwable ignored) {}
-            }
-        }
 
         try {
-            LootWorldContext.Builder builder = new LootWorldContext.Builder(world);
-            builder.add(LootContextParameters.ORIGIN, Vec3d.ofCenter(pos));
-            builder.add(LootContextParameters.TOOL, tool);
-            
-            List<ItemStack> drops = state.getDroppedStacks(builder);
+            List<ItemStack> drops = lootFor(world, state, pos, toolIndex(silkTouch, fortuneLevel));
             
             // If loot table didn't return anything for CloudFrame blocks, manually create drops
             if ((drops == null || drops.isEmpty()) && isCloudFrameBlock(block)) {
@@ -621,6 +748,175 @@ public class FabricQuarryPlatform implements QuarryPlatform {
         return result;
     }
     
+    private static int toolIndex(boolean silkTouch, int fortuneLevel) {
+        if (silkTouch) return TOOL_SILK_TOUCH;
+        return Math.max(0, Math.min(3, fortuneLevel));
+    }
+
+    private ItemStack miningTool(ServerWorld world, int toolIndex) {
+        ItemStack[] tools = miningToolsByWorld.computeIfAbsent(world.getRegistryKey(), k -> new ItemStack[TOOL_VARIANTS]);
+        ItemStack tool = tools[toolIndex];
+        if (tool != null) return tool;
+
+        tool = new ItemStack(Items.DIAMOND_PICKAXE);
+        try {
+            RegistryEntryLookup<net.minecraft.enchantment.Enchantment> enchantments =
+                world.getRegistryManager().getOrThrow(RegistryKeys.ENCHANTMENT);
+            if (toolIndex == TOOL_SILK_TOUCH) {
+                tool.addEnchantment(enchantments.getOrThrow(Enchantments.SILK_TOUCH), 1);
+            } else if (toolIndex > 0) {
+                tool.addEnchantment(enchantments.getOrThrow(Enchantments.FORTUNE), toolIndex);
+            }
+        } catch (Throwable ignored) {}
+
+        tools[toolIndex] = tool;
+        return tool;
+    }
+
+    private List<ItemStack> lootFor(ServerWorld world, BlockState state, BlockPos pos, int toolIndex) {
+        if (!isDropTemplateCacheEnabled() || !hasContextFreeLoot(world, state)) {
+            // Full vanilla path: block entity, the block's own getDroppedStacks, real position.
+            return Block.getDroppedStacks(state, world, pos, world.getBlockEntity(pos), null, miningTool(world, toolIndex));
+        }
+
+        DropKey key = new DropKey(state, toolIndex);
+        List<ItemStack> template = dropTemplates.get(key);
+        if (template != null) return copyStacks(template);
+
+        LootWorldContext.Builder builder = lootBuilder(world, pos, toolIndex);
+        if (randomDropKeys.contains(key)) {
+            return state.getDroppedStacks(builder);
+        }
+
+        // Same pipeline as AbstractBlockState#getDroppedStacks, but with an RNG we can observe.
+        Optional<RegistryKey<LootTable>> tableKey = state.getBlock().getLootTableKey();
+        if (tableKey.isEmpty()) {
+            dropTemplates.put(key, List.of());
+            return new ArrayList<>();
+        }
+
+        LootWorldContext context = builder.add(LootContextParameters.BLOCK_STATE, state).build(LootContextTypes.BLOCK);
+        LootTable table = world.getServer().getReloadableRegistries().getLootTable(tableKey.get());
+        TrackingRandom random = new TrackingRandom(world.getRandom().nextLong());
+        List<ItemStack> drops = table.generateLoot(context, random);
+
+        if (random.used) {
+            randomDropKeys.add(key);
+        } else {
+            dropTemplates.put(key, copyStacks(drops));
+        }
+        return drops;
+    }
+
+    /**
+     * Whether the state's drops depend only on the state, the tool and the RNG, so they can be
+     * computed anywhere and reused: no block entity, no custom {@code getDroppedStacks}, and a
+     * loot table built only from {@link #CONTEXT_FREE_LOOT_TYPES}.
+     */
+    private boolean hasContextFreeLoot(ServerWorld world, BlockState state) {
+        if (state.hasBlockEntity()) return false;
+        Block block = state.getBlock();
+        Boolean known = contextFreeLoot.get(block);
+        if (known != null) return known;
+
+        boolean free = false;
+        try {
+            if (!overridesDroppedStacks(block.getClass())) {
+                Optional<RegistryKey<LootTable>> tableKey = block.getLootTableKey();
+                if (tableKey.isEmpty()) {
+                    free = true;
+                } else {
+                    LootTable table = world.getServer().getReloadableRegistries().getLootTable(tableKey.get());
+                    free = LootTable.CODEC.encodeStart(world.getRegistryManager().getOps(JsonOps.INSTANCE), table)
+                        .result()
+                        .map(FabricQuarryPlatform::onlyContextFreeTypes)
+                        .orElse(false);
+                }
+            }
+        } catch (Throwable ignored) {
+            free = false;
+        }
+        contextFreeLoot.put(block, free);
+        return free;
+    }
+
+    private static boolean onlyContextFreeTypes(JsonElement json) {
+        if (json.isJsonArray()) {
+            for (JsonElement e : json.getAsJsonArray()) {
+                if (!onlyContextFreeTypes(e)) return false;
+            }
+            return true;
+        }
+        if (!json.isJsonObject()) return true;
+        JsonObject obj = json.getAsJsonObject();
+        for (String field : new String[] { "type", "condition", "function" }) {
+            JsonElement value = obj.get(field);
+            if (value == null || !value.isJsonPrimitive()) continue;
+            String type = value.getAsString();
+            if (type.startsWith("minecraft:")) type = type.substring("minecraft:".length());
+            if (!CONTEXT_FREE_LOOT_TYPES.contains(type)) return false;
+        }
+        for (Map.Entry<String, JsonElement> e : obj.entrySet()) {
+            if (!onlyContextFreeTypes(e.getValue())) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Whether a block class (below AbstractBlock) declares its own getDroppedStacks. Matched by
+     * signature rather than name so it works under any mappings.
+     */
+    private static boolean overridesDroppedStacks(Class<?> type) {
+        synchronized (OVERRIDES_DROPPED_STACKS) {
+            Boolean known = OVERRIDES_DROPPED_STACKS.get(type);
+            if (known != null) return known;
+            boolean overrides = false;
+            for (Class<?> c = type; c != null && c != net.minecraft.block.AbstractBlock.class && !overrides; c = c.getSuperclass()) {
+                for (java.lang.reflect.Method m : c.getDeclaredMethods()) {
+                    Class<?>[] params = m.getParameterTypes();
+                    if (params.length == 2 && params[0] == BlockState.class
+                            && params[1] == LootWorldContext.Builder.class
+                            && List.class.isAssignableFrom(m.getReturnType())) {
+                        overrides = true;
+                        break;
+                    }
+                }
+            }
+            OVERRIDES_DROPPED_STACKS.put(type, overrides);
+            return overrides;
+        }
+    }
+
+    private LootWorldContext.Builder lootBuilder(ServerWorld world, BlockPos pos, int toolIndex) {
+        LootWorldContext.Builder builder = new LootWorldContext.Builder(world);
+        builder.add(LootContextParameters.ORIGIN, Vec3d.ofCenter(pos));
+        builder.add(LootContextParameters.TOOL, miningTool(world, toolIndex));
+        return builder;
+    }
+
+    private static List<ItemStack> copyStacks(List<ItemStack> stacks) {
+        List<ItemStack> out = new ArrayList<>(stacks.size());
+        for (ItemStack s : stacks) {
+            if (s != null && !s.isEmpty()) out.add(s.copy());
+        }
+        return out;
+    }
+
+    private static boolean isDropTemplateCacheEnabled() {
+        CloudFrameFabric instance = CloudFrameFabric.instance();
+        return instance == null || instance.getQuarryConfig() == null || instance.getQuarryConfig().dropTemplateCache;
+    }
+
+    /**
+     * Forget cached tools and drop templates. Loot tables and enchantments can change on /reload.
+     */
+    public void clearLootCaches() {
+        miningToolsByWorld.clear();
+        dropTemplates.clear();
+        randomDropKeys.clear();
+        contextFreeLoot.clear();
+    }
+
     private boolean isCloudFrameBlock(Block block) {
         return block == CloudFrameContent.getCloudPipeBlock() || 
                block == CloudFrameContent.getCloudCableBlock() || 
@@ -639,6 +935,221 @@ public class FabricQuarryPlatform implements QuarryPlatform {
         world.setBlockState(pos, Blocks.AIR.getDefaultState(), 3);
     }
 
+    @Override
+    public List<Object> getDropsBatch(List<Object> locs, boolean silkTouch, int fortuneLevel) {
+        List<Object> out = new ArrayList<>();
+        if (locs == null || locs.isEmpty()) return out;
+
+        // Templated states are counted and expanded once at the end, like the section path;
+        // everything else (CloudFrame blocks, position-dependent loot) goes through getDrops.
+        int toolIndex = toolIndex(silkTouch, fortuneLevel);
+        Map<BlockState, Integer> templated = new LinkedHashMap<>();
+        for (Object loc : locs) {
+            BlockPos pos = posOf(loc);
+            if (pos == null) continue;
+            ServerWorld world = worldOf(null, loc);
+            BlockState state = world.getBlockState(pos);
+            if (state.isAir()) continue;
+            if (!isCloudFrameBlock(state.getBlock()) && isDropTemplateCacheEnabled() && hasContextFreeLoot(world, state)) {
+                DropKey key = new DropKey(state, toolIndex);
+                if (!dropTemplates.containsKey(key) && !randomDropKeys.contains(key)) {
+                    // First sighting: run the loot table once to learn whether it is deterministic.
+                    for (ItemStack drop : lootFor(world, state, pos, toolIndex)) {
+                        if (drop != null && !drop.isEmpty()) out.add(drop);
+                    }
+                    continue;
+                }
+                if (dropTemplates.containsKey(key)) {
+                    templated.merge(state, 1, Integer::sum);
+                    continue;
+                }
+            }
+            List<Object> drops = getDrops(loc, silkTouch, fortuneLevel);
+            if (drops != null) out.addAll(drops);
+        }
+        for (Map.Entry<BlockState, Integer> e : templated.entrySet()) {
+            for (ItemStack stack : dropTemplates.get(new DropKey(e.getKey(), toolIndex))) {
+                addScaledStacks(out, stack, e.getValue());
+            }
+        }
+        return out;
+    }
+
+    /**
+     * Clears bulk-mining targets with one {@code setBlockState} per block. Unlike
+     * {@link #clearSection}, targets are arbitrary positions that may hold block entities,
+     * light sources, fluids or points of interest, so the world's own per-block bookkeeping
+     * (state replacement, heightmaps, light and POI updates) has to run for each of them.
+     * Whole sections of plain blocks take the section path instead.
+     */
+    @Override
+    public void setBlocksAir(List<Object> locs) {
+        if (locs == null || locs.isEmpty()) return;
+
+        // Group by chunk so each chunk is resolved once and its blocks are cleared together.
+        Map<Long, List<BlockPos>> byChunk = new LinkedHashMap<>();
+        ServerWorld world = null;
+        for (Object loc : locs) {
+            BlockPos pos = posOf(loc);
+            if (pos == null) continue;
+            if (world == null) world = worldOf(null, loc);
+            long key = (((long) (pos.getX() >> 4)) << 32) | ((pos.getZ() >> 4) & 0xffffffffL);
+            byChunk.computeIfAbsent(key, k -> new ArrayList<>()).add(pos);
+        }
+        if (world == null) return;
+
+        BlockState air = Blocks.AIR.getDefaultState();
+        for (List<BlockPos> positions : byChunk.values()) {
+            BlockPos first = positions.get(0);
+            if (!world.isChunkLoaded(first.getX() >> 4, first.getZ() >> 4)) continue;
+            WorldChunk chunk = world.getChunk(first.getX() >> 4, first.getZ() >> 4);
+            for (BlockPos pos : positions) {
+                if (chunk.getBlockState(pos).isAir()) continue;
+                // Listeners only (client sync); no neighbor updates for interior quarry blocks.
+                world.setBlockState(pos, air, Block.NOTIFY_LISTENERS);
+            }
+        }
+    }
+
+    @Override
+    public boolean supportsBulkMining() {
+        CloudFrameFabric instance = CloudFrameFabric.instance();
+        return instance != null && instance.getQuarryConfig() != null && instance.getQuarryConfig().bulkMining;
+    }
+
+    @Override
+    public int clearSection(Object worldObj, int sectionX, int sectionY, int sectionZ,
+                            boolean silkTouch, int fortuneLevel, List<Object> dropsOut) {
+        CloudFrameFabric instance = CloudFrameFabric.instance();
+        if (instance == null || instance.getQuarryConfig() == null || !instance.getQuarryConfig().sectionFastPath) return -1;
+
+        ServerWorld world = worldOf(worldObj, null);
+        if (world == null || !world.isChunkLoaded(sectionX, sectionZ)) return -1;
+
+        WorldChunk chunk = world.getChunk(sectionX, sectionZ);
+        int index = chunk.getSectionIndex(sectionY << 4);
+        ChunkSection[] sections = chunk.getSectionArray();
+        if (index < 0 || index >= sections.length) return -1;
+        ChunkSection section = sections[index];
+        if (section == null || section.isEmpty()) return -1;
+
+        // Palette counts: one entry per distinct state, no per-block lookups.
+        Map<BlockState, Integer> counts = new HashMap<>();
+        section.getBlockStateContainer().count((state, count) -> counts.merge(state, count, Integer::sum));
+        for (BlockState state : counts.keySet()) {
+            if (!isSectionFastPathState(state)) return -1;
+            // Drops are computed once per state at the section origin, so they must not depend
+            // on the position.
+            if (!state.isAir() && (!isDropTemplateCacheEnabled() || !hasContextFreeLoot(world, state))) return -1;
+        }
+
+        int originX = sectionX << 4;
+        int originY = sectionY << 4;
+        int originZ = sectionZ << 4;
+        BlockPos origin = new BlockPos(originX, originY, originZ);
+        int toolIndex = toolIndex(silkTouch, fortuneLevel);
+
+        // Drops: deterministic loot is computed once per state and scaled by its count.
+        for (Map.Entry<BlockState, Integer> e : counts.entrySet()) {
+            BlockState state = e.getKey();
+            int count = e.getValue();
+            if (state.isAir() || count <= 0) continue;
+
+            List<ItemStack> first = lootFor(world, state, origin, toolIndex);
+            if (dropTemplates.containsKey(new DropKey(state, toolIndex))) {
+                for (ItemStack stack : first) {
+                    addScaledStacks(dropsOut, stack, count);
+                }
+                continue;
+            }
+            dropsOut.addAll(first);
+            for (int i = 1; i < count; i++) {
+                dropsOut.addAll(lootFor(world, state, origin, toolIndex));
+            }
+        }
+
+        // Clear the section directly. markForUpdate collects positions per section in the chunk
+        // holder, which sends them as a single chunk delta packet at the end of the tick.
+        BlockState air = Blocks.AIR.getDefaultState();
+        BlockPos.Mutable pos = new BlockPos.Mutable();
+        // Highest cleared world y per column (x * 16 + z), or MIN_VALUE if none.
+        int[] topCleared = new int[256];
+        java.util.Arrays.fill(topCleared, Integer.MIN_VALUE);
+        int cleared = 0;
+        for (int y = 15; y >= 0; y--) {
+            for (int x = 0; x < 16; x++) {
+                for (int z = 0; z < 16; z++) {
+                    if (section.getBlockState(x, y, z).isAir()) continue;
+                    section.setBlockState(x, y, z, air);
+                    pos.set(originX + x, originY + y, originZ + z);
+                    world.getChunkManager().markForUpdate(pos);
+                    int column = (x << 4) | z;
+                    if (topCleared[column] == Integer.MIN_VALUE) topCleared[column] = originY + y;
+                    cleared++;
+                }
+            }
+        }
+        if (cleared == 0) return -1;
+
+        // Everything below the highest cleared block of a column is air now, so one update from
+        // there lets the heightmaps and sky light scan down to the new top, as vanilla does for
+        // the last of a run of per-block removals.
+        for (int x = 0; x < 16; x++) {
+            for (int z = 0; z < 16; z++) {
+                int y = topCleared[(x << 4) | z];
+                if (y == Integer.MIN_VALUE) continue;
+                for (Map.Entry<Heightmap.Type, Heightmap> hm : chunk.getHeightmaps()) {
+                    hm.getValue().trackUpdate(x, y, z, air);
+                }
+                chunk.getChunkSkyLight().isSkyLightAccessible(chunk, x, y, z);
+            }
+        }
+
+        // One light update for the section: it's now empty and contained no light sources,
+        // so light can only enter through its faces.
+        LightingProvider lighting = world.getChunkManager().getLightingProvider();
+        lighting.setSectionStatus(ChunkSectionPos.from(sectionX, sectionY, sectionZ), section.isEmpty());
+        for (int y = 0; y < 16; y++) {
+            for (int x = 0; x < 16; x++) {
+                for (int z = 0; z < 16; z++) {
+                    boolean face = y == 0 || y == 15 || x == 0 || x == 15 || z == 0 || z == 15;
+                    if (!face) continue;
+                    lighting.checkBlock(pos.set(originX + x, originY + y, originZ + z));
+                }
+            }
+        }
+
+        chunk.markNeedsSaving();
+        return cleared;
+    }
+
+    /**
+     * Section fast path only handles plain blocks: anything with a block entity, light, fluid,
+     * point of interest or custom CloudFrame behavior goes through the per-block path.
+     */
+    private boolean isSectionFastPathState(BlockState state) {
+        if (state.isAir()) return true;
+        Block block = state.getBlock();
+        if (block == Blocks.BEDROCK) return false;
+        if (isCloudFrameBlock(block)) return false;
+        if (state.hasBlockEntity()) return false;
+        if (state.getLuminance() > 0) return false;
+        if (!state.getFluidState().isEmpty()) return false;
+        if (!state.isSolid()) return false;
+        return PointOfInterestTypes.getTypeForState(state).isEmpty();
+    }
+
+    private static void addScaledStacks(List<Object> out, ItemStack template, int multiplier) {
+        if (template == null || template.isEmpty() || multiplier <= 0) return;
+        long remaining = (long) template.getCount() * (long) multiplier;
+        int max = Math.max(1, template.getMaxCount());
+        while (remaining > 0L) {
+            int amount = (int) Math.min(max, remaining);
+            out.add(template.copyWithCount(amount));
+            remaining -= amount;
+        }
+    }
+
     @Override
     public void playBreakEffects(Object loc) {
         BlockPos pos = posOf(loc);
@@ -665,10 +1176,73 @@ public class FabricQuarryPlatform implements QuarryPlatform {
         int stage = Math.round(Math.max(0.0f, Math.min(1.0f, progress01)) * 9.0f);
         if (progress01 <= 0.0f) stage = -1;
 
+        try {
+            world.setBlockBreakingInfo(crackId(pos), pos, stage);
+        } catch (Throwable ignored) {
+            // best-effort; not critical
+        }
+    }
+
+    private static int crackId(BlockPos pos) {
         long key = pos.asLong();
-        int id = 0x4C46514B ^ (int) (key ^ (key >>> 32));
+        return 0x4C46514B ^ (int) (key ^ (key >>> 32));
+    }
+
+    @Override
+    public boolean supportsEffectViewers() {
+        return true;
+    }
+
+    @Override
+    public void forEachEffectViewer(Object loc, double radius, ObjDoubleConsumer<Object> viewer) {
+        BlockPos pos = posOf(loc);
+        if (pos == null || viewer == null) return;
+        ServerWorld world = worldOf(null, loc);
+        double radiusSq = radius * radius;
+        double cx = pos.getX() + 0.5;
+        double cy = pos.getY() + 0.5;
+        double cz = pos.getZ() + 0.5;
+        for (ServerPlayerEntity player : world.getPlayers()) {
+            double distSq = player.squaredDistanceTo(cx, cy, cz);
+            if (distSq > radiusSq) continue;
+            viewer.accept(player, distSq);
+        }
+    }
+
+    @Override
+    public void sendBlockCrackTo(Object player, Object loc, float progress01) {
+        if (!(player instanceof ServerPlayerEntity sp)) return;
+        BlockPos pos = posOf(loc);
+        if (pos == null) return;
+        int stage = Math.round(Math.max(0.0f, Math.min(1.0f, progress01)) * 9.0f);
+        if (progress01 <= 0.0f) stage = -1;
         try {
-            world.setBlockBreakingInfo(id, pos, stage);
+            sp.networkHandler.sendPacket(new BlockBreakingProgressS2CPacket(crackId(pos), pos, stage));
+        } catch (Throwable ignored) {
+            // best-effort; not critical
+        }
+    }
+
+    @Override
+    public void playBreakEffectsTo(Object player, Object loc, boolean soundOnly) {
+        if (!(player instanceof ServerPlayerEntity sp)) return;
+        BlockPos pos = posOf(loc);
+        if (pos == null) return;
+        ServerWorld world = worldOf(null, loc);
+        BlockState state = world.getBlockState(pos);
+        try {
+            if (soundOnly) {
+                sp.networkHandler.sendPacket(new PlaySoundS2CPacket(
+                    RegistryEntry.of(state.getSoundGroup().getBreakSound()),
+                    SoundCategory.BLOCKS,
+                    pos.getX() + 0.5, pos.getY() + 0.5, pos.getZ() + 0.5,
+                    1.0f, 1.0f,
+                    world.getRandom().nextLong()
+                ));
+            } else {
+                // Vanilla break event: particles and sound in one packet.
+                sp.networkHandler.sendPacket(new WorldEventS2CPacket(2001, pos, Block.getRawIdFromState(state), false));
+            }
         } catch (Throwable ignored) {
             // best-effort; not critical
         }
@@ -727,6 +1301,12 @@ public class FabricQuarryPlatform implements QuarryPlatform {
         return InventoryCapacity.emptySlotCount(inv, INVENTORY, FabricItemStackAdapter.INSTANCE);
     }
 
+    @Override
+    public boolean isCapacityCacheable(Object inventoryHolder) {
+        // Trash cans accept everything; their reported room doesn't shrink as items go in.
+        return !(inventoryHolder instanceof TrashSink);
+    }
+
     @Override
     public LocationKeyAdapter<Object> locationKeyAdapter() {
         return (obj) -> {
@@ -748,6 +1328,25 @@ public class FabricQuarryPlatform implements QuarryPlatform {
         };
     }
 
+    private static final ItemIdentityAdapter<Object> ITEM_IDENTITY = new ItemIdentityAdapter<>() {
+        @Override
+        public int typeId(Object obj) {
+            if (!(obj instanceof ItemStack stack)) return ItemIdentityInterner.NONE;
+            return FabricItemStackAdapter.INSTANCE.typeId(stack);
+        }
+
+        @Override
+        public int stackId(Object obj) {
+            if (!(obj instanceof ItemStack stack)) return ItemIdentityInterner.NONE;
+            return FabricItemStackAdapter.INSTANCE.stackId(stack);
+        }
+    };
+
+    @Override
+    public ItemIdentityAdapter<Object> itemIdentityAdapter() {
+        return ITEM_IDENTITY;
+    }
+
     @Override
     public double distanceSquared(Object a, Object b) {
         if (a instanceof GlobalPos ga && b instanceof GlobalPos gb) {
@@ -877,11 +1476,14 @@ public class FabricQuarryPlatform implements QuarryPlatform {
 
     @Override
     public ItemPacketFactory packetFactory() {
-        return new DefaultItemPacketFactory(
-                packetManager,
-                () -> new dev.cloudframe.fabric.pipes.FabricPacketVisuals(server),
-                FabricItemStackAdapter.INSTANCE
-        );
+        // One factory and one (stateless) visuals instance for every packet sent.
+        ItemPacketFactory factory = packetFactory;
+        if (factory == null) {
+            var visuals = new dev.cloudframe.fabric.pipes.FabricPacketVisuals(server);
+            factory = new DefaultItemPacketFactory(packetManager, () -> visuals, FabricItemStackAdapter.INSTANCE);
+            packetFactory = factory;
+        }
+        return factory;
     }
 
     @Override
@@ -892,53 +1494,48 @@ public class FabricQuarryPlatform implements QuarryPlatform {
     
     @Override
     public void placeGlassFrame(Object worldObj, int minX, int minY, int minZ, int maxX, int maxY, int maxZ) {
-        ServerWorld world = worldOf(worldObj, null);
-        // Create a visible glass frame (2D ring) on the top layer around the quarry region.
-        // This matches the marker-selection perimeter shown to the player.
-        int placedCount = 0;
-        int y = maxY;
-        int lastCx = Integer.MIN_VALUE;
-        int lastCz = Integer.MIN_VALUE;
-        int total = RectPerimeter.count(minX, minZ, maxX, maxZ);
-        for (int i = 0; i < total; i++) {
-            RectPerimeter.Pos xz = RectPerimeter.at(minX, minZ, maxX, maxZ, i);
-            if (xz == null) continue;
-
-            BlockPos pos = new BlockPos(xz.x(), y, xz.z());
-
-                // Ensure the chunk is loaded so the frame is consistently placed.
-                int cx = pos.getX() >> 4;
-                int cz = pos.getZ() >> 4;
-                if (cx != lastCx || cz != lastCz) {
-                    lastCx = cx;
-                    lastCz = cz;
-                    if (!world.isChunkLoaded(cx, cz)) world.getChunk(cx, cz);
-                }
-
-                BlockState current = world.getBlockState(pos);
-
-                // Only replace air blocks
-                if (current.isAir()) {
-                    world.setBlockState(pos, net.minecraft.block.Blocks.GLASS.getDefaultState(), 3);
-                    placedCount++;
-                }
+        if (isClientFrameOutline()) {
+            RegistryKey<World> key = keyOf(worldObj);
+            if (key == null) key = overworld().getRegistryKey();
+            QuarryFrameOutlineServer.broadcastAdd(server, key, minX, minZ, maxX, maxZ, maxY);
+            return;
         }
-        dev.cloudframe.common.util.DebugManager.get(FabricQuarryPlatform.class).log(
-            "placeGlassFrame", 
-            "Placed " + placedCount + " glass blocks for frame bounds: (" + 
-            minX + "," + minY + "," + minZ + ") to (" + maxX + "," + maxY + "," + maxZ + ")"
-        );
+
+        // Queue a visible glass frame (2D ring) on the top layer around the quarry region.
+        // This matches the marker-selection perimeter shown to the player.
+        RegistryKey<World> key = keyOf(worldObj);
+        if (key == null) key = overworld().getRegistryKey();
+        pendingFrameJobs.addLast(new GlassFrameJob(true, key, minX, minZ, maxX, maxZ, maxY));
     }
     
     @Override
     public void removeGlassFrame(Object worldObj, int minX, int minY, int minZ, int maxX, int maxY, int maxZ) {
         // Queue incremental removal of the 2D ring on the top layer.
-        // This avoids lag spikes for large frames and still force-loads chunks as needed.
+        // This avoids lag spikes for large frames; chunks are requested without blocking the tick.
         RegistryKey<World> key = keyOf(worldObj);
         if (key == null) key = overworld().getRegistryKey();
-        pendingFrameRemovals.addLast(new GlassFrameRemovalJob(key, minX, minZ, maxX, maxZ, maxY));
+
+        if (isClientFrameOutline()) {
+            QuarryFrameOutlineServer.broadcastRemove(server, key, minX, minZ, maxX, maxZ, maxY);
+        }
+
+        // Still queued in outline mode: frames placed before the mode was switched are real glass.
+        // Any unfinished placement of the same ring is dropped so it can't re-add glass behind us.
+        final RegistryKey<World> k = key;
+        pendingFrameJobs.removeIf(job -> job.place && job.sameFrame(k, minX, minZ, maxX, maxZ, maxY));
+        pendingFrameJobs.addLast(new GlassFrameJob(false, key, minX, minZ, maxX, maxZ, maxY));
     }
     
+    @Override
+    public boolean usesGlassFrameBlocks() {
+        return !isClientFrameOutline();
+    }
+
+    private static boolean isClientFrameOutline() {
+        CloudFrameFabric instance = CloudFrameFabric.instance();
+        return instance != null && instance.isClientFrameOutlineEnabled();
+    }
+
     @Override
     public boolean isGlassFrameBlock(Object loc) {
         BlockPos pos = posOf(loc);
@@ -1,12 +1,16 @@
 package dev.cloudframe.fabric.quarry.controller;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.HashSet;
 
 import dev.cloudframe.common.quarry.Quarry;
+import dev.cloudframe.fabric.overlay.OverlayServer;
+import dev.cloudframe.fabric.overlay.ParticleOutlineFallback;
 import net.minecraft.particle.ParticleTypes;
 import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.network.ServerPlayerEntity;
@@ -15,9 +19,12 @@ import net.minecraft.world.World;
 import net.minecraft.registry.RegistryKey;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.GlobalPos;
+import net.minecraft.util.math.Vec3d;
 
 /**
- * Per-player toggle to continuously outline the chunkloading chunks with particles.
+ * Per-player toggle to continuously outline the chunkloading chunks.
+ * Players with the CloudFrame client mod get a client-rendered overlay (sent only when the chunk
+ * set changes); vanilla clients fall back to view-distance culled particles.
  * Off by default; not persisted.
  */
 public final class ChunkPreviewService {
@@ -28,6 +35,11 @@ public final class ChunkPreviewService {
         final GlobalPos controllerLoc;
         long nextTick;
 
+        // Cached outline geometry; rebuilt only when the region bounds change.
+        List<Integer> geometryKey = List.of();
+        Set<Long> chunks = Set.of();
+        List<Float> boxes = List.of();
+
         Session(GlobalPos controllerLoc, long nextTick) {
             this.controllerLoc = controllerLoc;
             this.nextTick = nextTick;
@@ -40,6 +52,9 @@ public final class ChunkPreviewService {
     // How often to refresh the outline (ticks)
     private static final long PERIOD_TICKS = 10L;
 
+    private static final String OVERLAY_KEY = "chunk_preview";
+    private static final int OVERLAY_COLOR = 0xFFFFFFFF;
+
     public static boolean isEnabled(ServerPlayerEntity player) {
         if (player == null) return false;
         return sessions.containsKey(player.getUuid());
@@ -54,6 +69,7 @@ public final class ChunkPreviewService {
         java.util.UUID id = player.getUuid();
         if (sessions.containsKey(id)) {
             sessions.remove(id);
+            OverlayServer.remove(player, OVERLAY_KEY);
             return false;
         }
 
@@ -89,6 +105,7 @@ public final class ChunkPreviewService {
             Quarry q = inst.getQuarryManager().getByController(session.controllerLoc);
             if (q == null) {
                 // Controller no longer registered; stop preview.
+                OverlayServer.remove(player, OVERLAY_KEY);
                 it.remove();
                 continue;
             }
@@ -120,53 +137,75 @@ public final class ChunkPreviewService {
                 }
             }
 
-            Set<Long> chunks = new HashSet<>();
+            BlockPos ctrlPos = session.controllerLoc.pos();
+            int y = ctrlPos.getY() + 1;
+            List<Integer> geometryKey = List.of(region.minX(), region.maxX(), region.minZ(), region.maxZ(), ctrlPos.getX(), ctrlPos.getY(), ctrlPos.getZ());
+            if (!geometryKey.equals(session.geometryKey)) {
+                session.geometryKey = geometryKey;
+                session.chunks = computeChunks(region.minX(), region.minZ(), region.maxX(), region.maxZ(), ctrlPos);
+                session.boxes = buildBoxes(session.chunks, y);
+            }
 
-            int minCx = region.minX() >> 4;
-            int maxCx = region.maxX() >> 4;
-            int minCz = region.minZ() >> 4;
-            int maxCz = region.maxZ() >> 4;
-            for (int cx = minCx; cx <= maxCx; cx++) {
-                for (int cz = minCz; cz <= maxCz; cz++) {
-                    chunks.add((((long) cx) << 32) | (cz & 0xffffffffL));
-                }
+            if (OverlayServer.canReceive(player)) {
+                OverlayServer.sync(player, OVERLAY_KEY, OVERLAY_COLOR, session.boxes);
+                continue;
             }
 
-            BlockPos ctrlPos = session.controllerLoc.pos();
-            int ccx = ctrlPos.getX() >> 4;
-            int ccz = ctrlPos.getZ() >> 4;
-            for (int dx = -1; dx <= 1; dx++) {
-                for (int dz = -1; dz <= 1; dz++) {
-                    int cx = ccx + dx;
-                    int cz = ccz + dz;
-                    chunks.add((((long) cx) << 32) | (cz & 0xffffffffL));
-                }
+            spawnFallbackParticles(sw, player, session.chunks, y);
+        }
+    }
+
+    private static Set<Long> computeChunks(int minX, int minZ, int maxX, int maxZ, BlockPos ctrlPos) {
+        Set<Long> chunks = new HashSet<>();
+
+        int minCx = minX >> 4;
+        int maxCx = maxX >> 4;
+        int minCz = minZ >> 4;
+        int maxCz = maxZ >> 4;
+        for (int cx = minCx; cx <= maxCx; cx++) {
+            for (int cz = minCz; cz <= maxCz; cz++) {
+                chunks.add((((long) cx) << 32) | (cz & 0xffffffffL));
             }
+        }
 
-            int y = ctrlPos.getY() + 1;
-            int step = 4;
-
-            for (long chunkKey : chunks) {
-                int cx = (int) (chunkKey >> 32);
-                int cz = (int) chunkKey;
-                int x0 = cx << 4;
-                int z0 = cz << 4;
-                int x1 = x0 + 16;
-                int z1 = z0 + 16;
-
-                for (int x = x0; x <= x1; x += step) {
-                    sw.spawnParticles(player, ParticleTypes.END_ROD, true, false,
-                        x + 0.5, y + 0.1, z0 + 0.5, 1, 0, 0, 0, 0);
-                    sw.spawnParticles(player, ParticleTypes.END_ROD, true, false,
-                        x + 0.5, y + 0.1, z1 + 0.5, 1, 0, 0, 0, 0);
-                }
-                for (int z = z0; z <= z1; z += step) {
-                    sw.spawnParticles(player, ParticleTypes.END_ROD, true, false,
-                        x0 + 0.5, y + 0.1, z + 0.5, 1, 0, 0, 0, 0);
-                    sw.spawnParticles(player, ParticleTypes.END_ROD, true, false,
-                        x1 + 0.5, y + 0.1, z + 0.5, 1, 0, 0, 0, 0);
-                }
+        int ccx = ctrlPos.getX() >> 4;
+        int ccz = ctrlPos.getZ() >> 4;
+        for (int dx = -1; dx <= 1; dx++) {
+            for (int dz = -1; dz <= 1; dz++) {
+                int cx = ccx + dx;
+                int cz = ccz + dz;
+                chunks.add((((long) cx) << 32) | (cz & 0xffffffffL));
             }
         }
+        return chunks;
+    }
+
+    private static List<Float> buildBoxes(Set<Long> chunks, int y) {
+        List<Float> boxes = new ArrayList<>(chunks.size() * 6);
+        for (long chunkKey : chunks) {
+            int x0 = ((int) (chunkKey >> 32)) << 4;
+            int z0 = ((int) chunkKey) << 4;
+            OverlayServer.addBox(boxes, x0, y + 0.1, z0, x0 + 16, y + 0.1, z0 + 16);
+        }
+        return boxes;
+    }
+
+    private static void spawnFallbackParticles(ServerWorld sw, ServerPlayerEntity player, Set<Long> chunks, int y) {
+        double maxDistance = ParticleOutlineFallback.maxDistanceBlocks(sw);
+        double py = y + 0.1;
+
+        for (long chunkKey : chunks) {
+            int x0 = ((int) (chunkKey >> 32)) << 4;
+            int z0 = ((int) chunkKey) << 4;
+            double ax = x0 + 0.5;
+            double az = z0 + 0.5;
+            double bx = x0 + 16.5;
+            double bz = z0 + 16.5;
+
+            ParticleOutlineFallback.line(sw, player, ParticleTypes.END_ROD, new Vec3d(ax, py, az), new Vec3d(bx, py, az), 4.0, maxDistance);
+            ParticleOutlineFallback.line(sw, player, ParticleTypes.END_ROD, new Vec3d(ax, py, bz), new Vec3d(bx, py, bz), 4.0, maxDistance);
+            ParticleOutlineFallback.line(sw, player, ParticleTypes.END_ROD, new Vec3d(ax, py, az), new Vec3d(ax, py, bz), 4.0, maxDistance);
+            ParticleOutlineFallback.line(sw, player, ParticleTypes.END_ROD, new Vec3d(bx, py, az), new Vec3d(bx, py, bz), 4.0, maxDistance);
+        }
     }
 }
@@ -8,6 +8,7 @@ import dev.cloudframe.fabric.content.CloudFrameContent;
 import dev.cloudframe.common.quarry.Quarry;
 import dev.cloudframe.common.quarry.QuarryFramePlanner;
 import dev.cloudframe.common.util.Region;
+import net.minecraft.block.Block;
 import net.minecraft.block.BlockRenderType;
 import net.minecraft.block.BlockState;
 import net.minecraft.block.BlockWithEntity;
@@ -24,6 +25,7 @@ import net.minecraft.server.world.ServerWorld;
 import net.minecraft.util.ItemScatterer;
 import net.minecraft.util.math.GlobalPos;
 import net.minecraft.world.World;
+import net.minecraft.world.block.WireOrientation;
 
 public class QuarryControllerBlock extends BlockWithEntity {
 
@@ -208,6 +210,59 @@ public class QuarryControllerBlock extends BlockWithEntity {
         return ActionResult.PASS;
     }
 
+    @Override
+    protected void neighborUpdate(BlockState state, World world, BlockPos pos, Block sourceBlock, WireOrientation wireOrientation, boolean notify) {
+        super.neighborUpdate(state, world, pos, sourceBlock, wireOrientation, notify);
+        if (!(world instanceof ServerWorld sw)) return;
+        if (!(sw.getBlockEntity(pos) instanceof QuarryControllerBlockEntity be)) return;
+        // A neighbor (e.g. a cable or cell) changed: re-check charging on the next tick.
+        be.wakeIdle();
+
+        boolean powered = readRedstonePower(sw, pos);
+        if (!be.setRedstonePowered(powered)) return;
+
+        // Edge: tell the quarry so it doesn't have to poll redstone every tick.
+        CloudFrameFabric instance = CloudFrameFabric.instance();
+        if (instance == null || instance.getQuarryManager() == null) return;
+        Quarry q = instance.getQuarryManager().getByController(GlobalPos.create(sw.getRegistryKey(), pos.toImmutable()));
+        if (q != null) {
+            q.onRedstoneChanged(powered);
+        }
+    }
+
+    /**
+     * Redstone input of the controller at {@code pos}.
+     */
+    public static boolean readRedstonePower(World world, BlockPos pos) {
+        try {
+            if (world.isReceivingRedstonePower(pos)) return true;
+        } catch (Throwable ignored) {
+            // fall through
+        }
+
+        int direct = 0;
+        try {
+            direct = world.getReceivedRedstonePower(pos);
+        } catch (Throwable ignored) {
+            direct = 0;
+        }
+        if (direct > 0) return true;
+
+        // Some blocks (and some mappings/versions) can be finicky with isReceivingRedstonePower;
+        // check neighbors emitting into us.
+        try {
+            for (net.minecraft.util.math.Direction dir : net.minecraft.util.math.Direction.values()) {
+                BlockPos from = pos.offset(dir);
+                int emitted = world.getEmittedRedstonePower(from, dir.getOpposite());
+                if (emitted > 0) return true;
+            }
+        } catch (Throwable ignored) {
+            // best-effort
+        }
+
+        return false;
+    }
+
     @Override
     protected void onStateReplaced(BlockState state, ServerWorld world, BlockPos pos, boolean moved) {
         super.onStateReplaced(state, world, pos, moved);
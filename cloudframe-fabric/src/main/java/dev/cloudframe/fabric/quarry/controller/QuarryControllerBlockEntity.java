@@ -59,6 +59,17 @@ public class QuarryControllerBlockEntity extends BlockEntity implements NamedScr
     private static final int TICKS_PER_SECOND = 20;
     private static final int BUFFER_TICKS = BUFFER_SECONDS * TICKS_PER_SECOND;
 
+    // Paused charging backoff (not persisted): skip network measurement until idleWakeTime while
+    // the buffer is full or no source is reachable. Reset by wakeIdle() or a power topology change.
+    private static final int IDLE_MAX_WAIT_TICKS = 100;
+    private int idleWaitTicks = 0;
+    private long idleWakeTime = 0L;
+    private int idlePowerTopology = Integer.MIN_VALUE;
+
+    // Cached manager lookup, valid while the manager's registration version is unchanged.
+    private Quarry cachedQuarry;
+    private int cachedQuarryVersion = -1;
+
     private boolean silkTouch = false;
     private int speedLevel = 0;
     private int fortuneLevel = 0;
@@ -78,6 +89,11 @@ public class QuarryControllerBlockEntity extends BlockEntity implements NamedScr
 
     private boolean outputRoundRobin = true;
 
+    // Cached redstone input, refreshed from QuarryControllerBlock#neighborUpdate.
+    // Not persisted: re-read once after load.
+    private boolean redstonePowered = false;
+    private boolean redstoneKnown = false;
+
     // Controller-local power buffer (CFE). This acts as a short hold-up capacitor.
     // It is charged from the connected power network while the quarry is paused.
     private long powerBufferCfe = 0L;
@@ -302,10 +318,7 @@ public class QuarryControllerBlockEntity extends BlockEntity implements NamedScr
 
         Object controllerLoc = GlobalPos.create(sw.getRegistryKey(), pos.toImmutable());
 
-        CloudFrameFabric inst = CloudFrameFabric.instance();
-        Quarry q = (inst != null && inst.getQuarryManager() != null)
-            ? inst.getQuarryManager().getByController(controllerLoc)
-            : null;
+        Quarry q = be.lookupQuarry(controllerLoc);
         boolean active = q != null && q.isActive();
 
         if (be.powerDebugTicks > 0) {
@@ -328,9 +341,17 @@ public class QuarryControllerBlockEntity extends BlockEntity implements NamedScr
                         + ", netStored=" + (info != null ? info.storedCfe() : -1)
                 );
             }
+            be.wakeIdle();
             return;
         }
 
+        int topology = FabricPowerNetworkManager.topologyVersion();
+        if (topology != be.idlePowerTopology) {
+            be.idlePowerTopology = topology;
+            be.wakeIdle();
+        }
+        if (!be.isPowerDebugActive() && sw.getTime() < be.idleWakeTime) return;
+
         long cap = be.getPowerBufferCapacityCfe();
         if (cap <= 0L) {
             if (be.powerBufferCfe != 0L) {
@@ -362,7 +383,10 @@ public class QuarryControllerBlockEntity extends BlockEntity implements NamedScr
 
         if (hasSource) {
             long missing = cap - be.powerBufferCfe;
-            if (missing <= 0L) return;
+            if (missing <= 0L) {
+                be.backOffIdle(sw.getTime());
+                return;
+            }
 
             // Fill the missing buffer from the network (allowed to use stored energy).
             long got = FabricPowerNetworkManager.extractPowerCfe(server, controllerLoc, missing);
@@ -380,10 +404,39 @@ public class QuarryControllerBlockEntity extends BlockEntity implements NamedScr
                             + ", cap=" + cap + ", speed=" + be.speedLevel
                     );
                 }
+                be.wakeIdle();
+            } else {
+                be.backOffIdle(sw.getTime());
             }
+        } else {
+            be.backOffIdle(sw.getTime());
         }
     }
 
+    /**
+     * Resume per-tick charging checks (GUI change, neighbor update, power network change).
+     */
+    public void wakeIdle() {
+        idleWaitTicks = 0;
+        idleWakeTime = 0L;
+    }
+
+    private void backOffIdle(long now) {
+        idleWaitTicks = Math.min(IDLE_MAX_WAIT_TICKS, Math.max(1, idleWaitTicks * 2));
+        idleWakeTime = now + idleWaitTicks;
+    }
+
+    private Quarry lookupQuarry(Object controllerLoc) {
+        CloudFrameFabric inst = CloudFrameFabric.instance();
+        if (inst == null || inst.getQuarryManager() == null) return null;
+        int version = inst.getQuarryManager().registrationVersion();
+        if (version != cachedQuarryVersion) {
+            cachedQuarry = inst.getQuarryManager().getByController(controllerLoc);
+            cachedQuarryVersion = version;
+        }
+        return cachedQuarry;
+    }
+
     public Inventory getAugmentInventory() {
         return augmentInventory;
     }
@@ -433,6 +486,7 @@ public class QuarryControllerBlockEntity extends BlockEntity implements NamedScr
         } else if (powerBufferCfe < 0L) {
             powerBufferCfe = 0L;
         }
+        wakeIdle();
 
         // Debug: track speed changes and any unexpected buffer resets.
         // (Writes to CloudFrame debug.log via DebugFile; no console logging.)
@@ -518,6 +572,24 @@ public class QuarryControllerBlockEntity extends BlockEntity implements NamedScr
         }
     }
 
+    public boolean isRedstoneKnown() {
+        return redstoneKnown;
+    }
+
+    public boolean isRedstonePowered() {
+        return redstonePowered;
+    }
+
+    /**
+     * Store the controller's redstone input. Returns true if it changed.
+     */
+    public boolean setRedstonePowered(boolean powered) {
+        boolean changed = !redstoneKnown || redstonePowered != powered;
+        this.redstonePowered = powered;
+        this.redstoneKnown = true;
+        return changed;
+    }
+
     public boolean isOutputRoundRobin() {
         return outputRoundRobin;
     }
@@ -764,6 +764,8 @@ public class QuarryControllerScreenHandler extends ScreenHandler {
         q.setSilkTouchAugment(be.isSilkTouch());
         q.setSpeedAugmentLevel(be.getSpeedLevel());
         q.setFortuneAugmentLevel(be.getFortuneLevel());
+        // Power demand may have changed; let an idle quarry re-check right away.
+        q.resetIdleBackoff();
         inst.getQuarryManager().saveQuarry(q);
     }
 
@@ -0,0 +1,56 @@
+package dev.cloudframe.fabric.quarry.frame;
+
+import dev.cloudframe.fabric.CloudFrameFabric;
+import dev.cloudframe.common.ids.CloudFrameIds;
+import net.minecraft.network.RegistryByteBuf;
+import net.minecraft.network.codec.PacketCodec;
+import net.minecraft.network.codec.PacketCodecs;
+import net.minecraft.network.packet.CustomPayload;
+import net.minecraft.util.Identifier;
+
+/**
+ * Server -> client: add/remove one quarry frame outline (a 2D ring on layer {@code y}),
+ * or clear all outlines for the player's current world.
+ */
+public record QuarryFrameOutlinePayload(
+    int action,
+    int minX,
+    int minZ,
+    int maxX,
+    int maxZ,
+    int y
+) implements CustomPayload {
+
+    public static final int ACTION_CLEAR = 0;
+    public static final int ACTION_ADD = 1;
+    public static final int ACTION_REMOVE = 2;
+
+    public static final CustomPayload.Id<QuarryFrameOutlinePayload> ID = new CustomPayload.Id<>(
+        Identifier.of(CloudFrameFabric.MOD_ID, CloudFrameIds.QUARRY_FRAME_OUTLINE)
+    );
+
+    public static final PacketCodec<RegistryByteBuf, QuarryFrameOutlinePayload> CODEC = PacketCodec.tuple(
+        PacketCodecs.VAR_INT,
+        QuarryFrameOutlinePayload::action,
+        PacketCodecs.VAR_INT,
+        QuarryFrameOutlinePayload::minX,
+        PacketCodecs.VAR_INT,
+        QuarryFrameOutlinePayload::minZ,
+        PacketCodecs.VAR_INT,
+        QuarryFrameOutlinePayload::maxX,
+        PacketCodecs.VAR_INT,
+        QuarryFrameOutlinePayload::maxZ,
+        PacketCodecs.VAR_INT,
+        QuarryFrameOutlinePayload::y,
+        QuarryFrameOutlinePayload::new
+    );
+
+    public static QuarryFrameOutlinePayload clear() {
+        return new QuarryFrameOutlinePayload(ACTION_CLEAR, 0, 0, 0, 0, 0);
+    }
+
+    @Override
+    public Id<? extends CustomPayload> getId() {
+        return ID;
+    }
+}
@@ -0,0 +1,18 @@
+package dev.cloudframe.fabric.quarry.frame;
+
+import net.fabricmc.fabric.api.networking.v1.PayloadTypeRegistry;
+
+public final class QuarryFrameOutlinePayloads {
+
+    private QuarryFrameOutlinePayloads() {
+    }
+
+    private static boolean registered = false;
+
+    public static void register() {
+        if (registered) return;
+        registered = true;
+
+        PayloadTypeRegistry.playS2C().register(QuarryFrameOutlinePayload.ID, QuarryFrameOutlinePayload.CODEC);
+    }
+}
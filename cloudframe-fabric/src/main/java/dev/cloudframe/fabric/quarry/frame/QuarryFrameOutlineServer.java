@@ -0,0 +1,89 @@
+package dev.cloudframe.fabric.quarry.frame;
+
+import dev.cloudframe.common.quarry.Quarry;
+import dev.cloudframe.common.quarry.QuarryManager;
+import dev.cloudframe.common.util.Debug;
+import dev.cloudframe.common.util.DebugManager;
+import dev.cloudframe.fabric.CloudFrameFabric;
+import net.fabricmc.fabric.api.entity.event.v1.ServerEntityWorldChangeEvents;
+import net.fabricmc.fabric.api.networking.v1.ServerPlayConnectionEvents;
+import net.fabricmc.fabric.api.networking.v1.ServerPlayNetworking;
+import net.minecraft.registry.RegistryKey;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.world.World;
+
+/**
+ * Server side of the client-rendered quarry frame outline.
+ *
+ * <p>Outlines are sent once per change (frame created/removed) and re-synced when a player
+ * joins or changes dimension. The frame list itself comes from the quarry manager, so there is
+ * no extra state to persist.</p>
+ */
+public final class QuarryFrameOutlineServer {
+
+    private static final Debug debug = DebugManager.get(QuarryFrameOutlineServer.class);
+
+    private QuarryFrameOutlineServer() {
+    }
+
+    public static void register() {
+        QuarryFrameOutlinePayloads.register();
+
+        ServerPlayConnectionEvents.JOIN.register((handler, sender, server) -> syncPlayer(handler.player));
+        ServerEntityWorldChangeEvents.AFTER_PLAYER_CHANGE_WORLD.register((player, origin, destination) -> syncPlayer(player));
+    }
+
+    public static void broadcastAdd(MinecraftServer server, RegistryKey<World> worldKey, int minX, int minZ, int maxX, int maxZ, int y) {
+        broadcast(server, worldKey, new QuarryFrameOutlinePayload(QuarryFrameOutlinePayload.ACTION_ADD, minX, minZ, maxX, maxZ, y));
+    }
+
+    public static void broadcastRemove(MinecraftServer server, RegistryKey<World> worldKey, int minX, int minZ, int maxX, int maxZ, int y) {
+        broadcast(server, worldKey, new QuarryFrameOutlinePayload(QuarryFrameOutlinePayload.ACTION_REMOVE, minX, minZ, maxX, maxZ, y));
+    }
+
+    private static void broadcast(MinecraftServer server, RegistryKey<World> worldKey, QuarryFrameOutlinePayload payload) {
+        if (server == null || worldKey == null) return;
+        ServerWorld world = server.getWorld(worldKey);
+        if (world == null) return;
+
+        for (ServerPlayerEntity player : world.getPlayers()) {
+            if (!ServerPlayNetworking.canSend(player, QuarryFrameOutlinePayload.ID)) continue;
+            ServerPlayNetworking.send(player, payload);
+        }
+    }
+
+    private static void syncPlayer(ServerPlayerEntity player) {
+        if (player == null) return;
+
+        CloudFrameFabric instance = CloudFrameFabric.instance();
+        if (instance == null || !instance.isClientFrameOutlineEnabled()) return;
+        if (!ServerPlayNetworking.canSend(player, QuarryFrameOutlinePayload.ID)) return;
+
+        QuarryManager quarries = instance.getQuarryManager();
+        if (quarries == null) return;
+
+        try {
+            RegistryKey<World> worldKey = player.getEntityWorld().getRegistryKey();
+
+            ServerPlayNetworking.send(player, QuarryFrameOutlinePayload.clear());
+            int sent = 0;
+            for (Quarry q : quarries.all()) {
+                if (q == null || !worldKey.equals(q.getWorld())) continue;
+                ServerPlayNetworking.send(player, new QuarryFrameOutlinePayload(
+                    QuarryFrameOutlinePayload.ACTION_ADD,
+                    q.frameMinX(),
+                    q.frameMinZ(),
+                    q.frameMaxX(),
+                    q.frameMaxZ(),
+                    q.getRegion().maxY()
+                ));
+                sent++;
+            }
+            debug.log("syncPlayer", "Sent " + sent + " frame outlines to " + player.getName().getString());
+        } catch (Throwable t) {
+            debug.log("syncPlayer", "Failed to sync frame outlines: " + t);
+        }
+    }
+}